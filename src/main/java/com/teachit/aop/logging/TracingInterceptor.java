@@ -0,0 +1,134 @@
+package com.teachit.aop.logging;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.teachit.config.metrics.LatencyReservoir;
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of the service, repository and REST methods, and logs the arguments and result of a sample of
+ * their calls.
+ *
+ * <p>
+ * The latencies are recorded in a timer per method, named "trace.&lt;class&gt;.&lt;method&gt;", backed by a
+ * {@link LatencyReservoir}. The timer of a method is looked up by its class and Method, without allocating, and
+ * created on its first call. The calls are logged, at the debug level, with the given probability only, so that the
+ * arguments are only formatted for the calls sampled.
+ * </p>
+ * <p>
+ * The calls made within a sampled trace, see {@link Tracer}, are also recorded as its service spans, named
+ * "&lt;simple class&gt;.&lt;method&gt;". No span is created within the traces not sampled.
+ * </p>
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    public static final String POINTCUT =
+        "within(com.teachit.repository..*) || within(com.teachit.service..*) || within(com.teachit.web.rest..*)";
+
+    private final Logger log = LoggerFactory.getLogger(TracingInterceptor.class);
+
+    private final MetricRegistry metricRegistry;
+
+    private final double sampleRate;
+
+    private final ClassValue<ConcurrentMap<Method, MethodTrace>> traces = new ClassValue<ConcurrentMap<Method, MethodTrace>>() {
+        @Override
+        protected ConcurrentMap<Method, MethodTrace> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * @param metricRegistry the registry of the timers
+     * @param sampleRate the probability for a call to be logged, between 0 and 1
+     */
+    public TracingInterceptor(MetricRegistry metricRegistry, double sampleRate) {
+        this.metricRegistry = metricRegistry;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodTrace trace = trace(invocation);
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (sampled && log.isDebugEnabled()) {
+            log.debug("Enter: {}.{}() with argument[s] = {}", trace.typeName, trace.methodName,
+                Arrays.toString(invocation.getArguments()));
+        }
+        Span span = Tracer.start(Span.Kind.SERVICE, trace.spanName);
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            if (sampled && log.isDebugEnabled()) {
+                log.debug("Exit: {}.{}() with result = {}", trace.typeName, trace.methodName, result);
+            }
+            return result;
+        } catch (Throwable t) {
+            if (sampled && t instanceof IllegalArgumentException) {
+                log.error("Illegal argument: {} in {}.{}()", Arrays.toString(invocation.getArguments()),
+                    trace.typeName, trace.methodName);
+            }
+            if (span != null) {
+                span.markError();
+            }
+            throw t;
+        } finally {
+            trace.timer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Tracer.finish(span);
+        }
+    }
+
+    private MethodTrace trace(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> type = target != null ? target.getClass() : invocation.getMethod().getDeclaringClass();
+        ConcurrentMap<Method, MethodTrace> methods = traces.get(type);
+        MethodTrace trace = methods.get(invocation.getMethod());
+        if (trace == null) {
+            trace = methods.computeIfAbsent(invocation.getMethod(), method -> newTrace(type, method));
+        }
+        return trace;
+    }
+
+    private synchronized MethodTrace newTrace(Class<?> type, Method method) {
+        Class<?> userType = ClassUtils.getUserClass(type);
+        String typeName = userType.getName();
+        String name = MetricRegistry.name("trace", typeName, method.getName());
+        // the overloads of a method share its timer
+        Timer timer = metricRegistry.getTimers().get(name);
+        if (timer == null) {
+            timer = metricRegistry.register(name, new Timer(new LatencyReservoir()));
+        }
+        return new MethodTrace(typeName, method.getName(), userType.getSimpleName() + "." + method.getName(), timer);
+    }
+
+    private static final class MethodTrace {
+
+        private final String typeName;
+
+        private final String methodName;
+
+        private final String spanName;
+
+        private final Timer timer;
+
+        MethodTrace(String typeName, String methodName, String spanName, Timer timer) {
+            this.typeName = typeName;
+            this.methodName = methodName;
+            this.spanName = spanName;
+            this.timer = timer;
+        }
+    }
+}
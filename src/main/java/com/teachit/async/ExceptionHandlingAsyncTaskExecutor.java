@@ -3,6 +3,9 @@ package com.teachit.async;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
+import com.teachit.config.tracing.RecentTraces;
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -16,8 +19,19 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
 
     private final AsyncTaskExecutor executor;
 
+    private final RecentTraces recentTraces;
+
     public ExceptionHandlingAsyncTaskExecutor(AsyncTaskExecutor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * @param recentTraces the buffer of the traces, so that the tasks are traced as children of the span current
+     * when they are submitted, or null to not trace them
+     */
+    public ExceptionHandlingAsyncTaskExecutor(AsyncTaskExecutor executor, RecentTraces recentTraces) {
         this.executor = executor;
+        this.recentTraces = recentTraces;
     }
 
     @Override
@@ -31,27 +45,31 @@ public class ExceptionHandlingAsyncTaskExecutor implements AsyncTaskExecutor,
     }
 
     private <T> Callable<T> createCallable(final Callable<T> task) {
-        return () -> {
+        return Tracer.inCurrentTrace(() -> {
             try {
                 return task.call();
             } catch (Exception e) {
                 handle(e);
                 throw e;
             }
-        };
+        }, Tracer.nameOf(task), recentTraces);
     }
 
     private Runnable createWrappedRunnable(final Runnable task) {
-        return () -> {
+        return Tracer.inCurrentTrace(() -> {
             try {
                 task.run();
             } catch (Exception e) {
                 handle(e);
             }
-        };
+        }, Tracer.nameOf(task), recentTraces);
     }
 
     protected void handle(Exception e) {
+        Span span = Tracer.current();
+        if (span != null) {
+            span.markError();
+        }
         log.error("Caught async exception", e);
     }
 
@@ -1,15 +1,23 @@
 package com.teachit.config;
 
 import com.teachit.async.ExceptionHandlingAsyncTaskExecutor;
+import com.teachit.config.tracing.RecentTraces;
+import com.teachit.config.tracing.TracingTaskScheduler;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.*;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 import java.util.concurrent.Executor;
 
@@ -25,6 +33,9 @@ public class AsyncConfiguration implements AsyncConfigurer {
     @Inject
     private JHipsterProperties jHipsterProperties;
 
+    @Autowired(required = false)
+    private RecentTraces recentTraces;
+
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
@@ -34,7 +45,33 @@ public class AsyncConfiguration implements AsyncConfigurer {
         executor.setMaxPoolSize(jHipsterProperties.getAsync().getMaxPoolSize());
         executor.setQueueCapacity(jHipsterProperties.getAsync().getQueueCapacity());
         executor.setThreadNamePrefix("teachit-Executor-");
-        return new ExceptionHandlingAsyncTaskExecutor(executor);
+        return new ExceptionHandlingAsyncTaskExecutor(executor, recentTraces);
+    }
+
+    /**
+     * Runs the @Scheduled jobs, each run in a new trace when the tracing is enabled.
+     */
+    @Bean
+    public TaskScheduler taskScheduler() {
+        log.debug("Creating Task Scheduler");
+        ThreadPoolTaskScheduler scheduler = recentTraces != null ? new TracingTaskScheduler(recentTraces) :
+            new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("teachit-Scheduler-");
+        return scheduler;
+    }
+
+    /**
+     * Processes the asynchronous requests, e.g. the streamed exports, on the task executor instead of a new thread
+     * per request. The request thread is released while they are processed.
+     */
+    @Bean
+    public WebMvcConfigurerAdapter asyncSupportConfigurer() {
+        return new WebMvcConfigurerAdapter() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor((AsyncTaskExecutor) getAsyncExecutor());
+            }
+        };
     }
 
     @Override
@@ -1,15 +1,33 @@
 package com.teachit.config;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ehcache.InstrumentedEhcache;
+import com.teachit.config.cache.RefreshAheadEhCacheCacheManager;
+import com.teachit.config.cache.RefreshAheadInterceptor;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.store.FifoPolicy;
+import net.sf.ehcache.store.LfuPolicy;
+import net.sf.ehcache.store.LruPolicy;
+import net.sf.ehcache.store.Policy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
-import org.springframework.cache.support.NoOpCacheManager; 
+import org.springframework.core.Ordered;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("unused")
 @Configuration
@@ -17,19 +35,99 @@ import javax.inject.Inject;
 @AutoConfigureAfter(value = { MetricsConfiguration.class, DatabaseConfiguration.class })
 public class CacheConfiguration {
 
+    /**
+     * The region of the last update time of each table, which must neither expire nor be evicted before the query
+     * results it invalidates, so it keeps the settings of ehcache.xml instead of the jhipster.cache ones.
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "org.hibernate.cache.spi.UpdateTimestampsCache";
+
     private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
 
-    private CacheManager cacheManager;
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    /**
+     * Injected so that Hibernate has created its second-level cache regions before they are configured and
+     * instrumented below.
+     */
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    @Named("taskExecutor")
+    private Executor taskExecutor;
+
+    private net.sf.ehcache.CacheManager cacheManager;
 
     @PreDestroy
     public void destroy() {
+        log.info("Remove Cache Manager metrics");
+        metricRegistry.removeMatching((name, metric) -> name.startsWith(net.sf.ehcache.Cache.class.getName()));
         log.info("Closing Cache Manager");
+        cacheManager.shutdown();
     }
 
     @Bean
-    public CacheManager cacheManager() {
-        log.debug("No cache");
-        cacheManager = new NoOpCacheManager();
-        return cacheManager;
+    public CacheManager cacheManager(JHipsterProperties jHipsterProperties) {
+        log.debug("Starting Ehcache");
+        cacheManager = net.sf.ehcache.CacheManager.create();
+        JHipsterProperties.Cache cacheProperties = jHipsterProperties.getCache();
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : cacheManager.getCacheNames()) {
+            names.add(name);
+        }
+        for (JHipsterProperties.Cache.Spec spec : cacheProperties.getCaches()) {
+            names.add(spec.getName());
+        }
+        log.debug("Registering Ehcache Metrics gauges");
+        for (String name : names) {
+            reconfigureCache(cacheProperties.getSpec(name));
+        }
+        return new RefreshAheadEhCacheCacheManager(cacheManager, cacheProperties, taskExecutor, metricRegistry);
+    }
+
+    /**
+     * Runs the {@link RefreshAheadInterceptor} around the cache interceptor, which has the lowest precedence. Static,
+     * so that this configuration and its dependencies are not created along with the advisors.
+     */
+    @Bean
+    public static Advisor refreshAheadAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class), new RefreshAheadInterceptor());
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+
+    private void reconfigureCache(JHipsterProperties.Cache.Spec spec) {
+        if (!cacheManager.cacheExists(spec.getName())) {
+            cacheManager.addCache(spec.getName());
+        }
+        Ehcache cache = cacheManager.getEhcache(spec.getName());
+        boolean configured = !UPDATE_TIMESTAMPS_REGION.equals(spec.getName());
+        if (configured) {
+            cache.getCacheConfiguration().setTimeToLiveSeconds(spec.getTimeToLiveSeconds());
+            cache.getCacheConfiguration().setMaxEntriesLocalHeap(spec.getMaxEntries());
+        }
+        if (cache instanceof net.sf.ehcache.Cache) {
+            if (configured) {
+                // the caches created by Hibernate already exist, so their store is given the policy directly
+                ((net.sf.ehcache.Cache) cache).setMemoryStoreEvictionPolicy(evictionPolicy(spec.getEvictionPolicy()));
+            }
+            Ehcache decoratedCache = InstrumentedEhcache.instrument(metricRegistry, cache);
+            cacheManager.replaceCacheWithDecoratedCache(cache, decoratedCache);
+        }
+    }
+
+    private Policy evictionPolicy(String name) {
+        switch (name.toUpperCase()) {
+            case "LRU":
+                return new LruPolicy();
+            case "FIFO":
+                return new FifoPolicy();
+            case "LFU":
+                return new LfuPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown cache eviction policy: " + name);
+        }
     }
 }
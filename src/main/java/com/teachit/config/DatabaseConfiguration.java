@@ -1,5 +1,6 @@
 package com.teachit.config;
 
+import com.teachit.config.jdbc.SqlStatisticsDataSource;
 import com.teachit.config.liquibase.AsyncSpringLiquibase;
 
 import com.codahale.metrics.MetricRegistry;
@@ -9,7 +10,9 @@ import liquibase.integration.spring.SpringLiquibase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
@@ -88,8 +91,37 @@ public class DatabaseConfiguration {
         return liquibase;
     }
 
+    /**
+     * Wraps the DataSource beans, once their pool is configured, to account the SQL statements of each request.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jhipster.metrics.sql", name = "enabled", matchIfMissing = true)
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Serializes the lazy associations which are not loaded as their id only, e.g. {"id": 1}, instead of loading
+     * them during the serialization: what a REST read returns is what its entity graph fetched.
+     */
     @Bean
     public Hibernate4Module hibernate4Module() {
-        return new Hibernate4Module();
+        return new Hibernate4Module()
+            .disable(Hibernate4Module.Feature.FORCE_LAZY_LOADING)
+            .enable(Hibernate4Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
     }
 }
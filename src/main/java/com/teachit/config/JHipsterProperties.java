@@ -3,6 +3,9 @@ package com.teachit.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Properties specific to JHipster.
  *
@@ -33,6 +36,14 @@ public class JHipsterProperties {
 
     private final Ribbon ribbon = new Ribbon();
 
+    private final Export export = new Export();
+
+    private final ContentViews contentViews = new ContentViews();
+
+    private final Search search = new Search();
+
+    private final Storage storage = new Storage();
+
     public Async getAsync() {
         return async;
     }
@@ -73,6 +84,22 @@ public class JHipsterProperties {
         return ribbon;
     }
 
+    public Export getExport() {
+        return export;
+    }
+
+    public ContentViews getContentViews() {
+        return contentViews;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
     public static class Async {
 
         private int corePoolSize = 2;
@@ -132,6 +159,14 @@ public class JHipsterProperties {
 
         private int timeToLiveSeconds = 3600;
 
+        private long maxEntries = 10000;
+
+        private String evictionPolicy = "LFU";
+
+        private int refreshAheadSeconds = 0;
+
+        private List<Spec> caches = new ArrayList<>();
+
         public int getTimeToLiveSeconds() {
             return timeToLiveSeconds;
         }
@@ -139,6 +174,121 @@ public class JHipsterProperties {
         public void setTimeToLiveSeconds(int timeToLiveSeconds) {
             this.timeToLiveSeconds = timeToLiveSeconds;
         }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public String getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(String evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public int getRefreshAheadSeconds() {
+            return refreshAheadSeconds;
+        }
+
+        public void setRefreshAheadSeconds(int refreshAheadSeconds) {
+            this.refreshAheadSeconds = refreshAheadSeconds;
+        }
+
+        public List<Spec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(List<Spec> caches) {
+            this.caches = caches;
+        }
+
+        /**
+         * Returns the settings of the named cache, falling back to the defaults above for every value the
+         * cache does not override.
+         */
+        public Spec getSpec(String name) {
+            Spec resolved = new Spec();
+            resolved.setName(name);
+            resolved.setTimeToLiveSeconds(timeToLiveSeconds);
+            resolved.setMaxEntries(maxEntries);
+            resolved.setEvictionPolicy(evictionPolicy);
+            resolved.setRefreshAheadSeconds(refreshAheadSeconds);
+            for (Spec spec : caches) {
+                if (name.equals(spec.getName())) {
+                    if (spec.getTimeToLiveSeconds() != null) {
+                        resolved.setTimeToLiveSeconds(spec.getTimeToLiveSeconds());
+                    }
+                    if (spec.getMaxEntries() != null) {
+                        resolved.setMaxEntries(spec.getMaxEntries());
+                    }
+                    if (spec.getEvictionPolicy() != null) {
+                        resolved.setEvictionPolicy(spec.getEvictionPolicy());
+                    }
+                    if (spec.getRefreshAheadSeconds() != null) {
+                        resolved.setRefreshAheadSeconds(spec.getRefreshAheadSeconds());
+                    }
+                }
+            }
+            return resolved;
+        }
+
+        public static class Spec {
+
+            private String name;
+
+            private Integer timeToLiveSeconds;
+
+            private Long maxEntries;
+
+            private String evictionPolicy;
+
+            private Integer refreshAheadSeconds;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public String getEvictionPolicy() {
+                return evictionPolicy;
+            }
+
+            public void setEvictionPolicy(String evictionPolicy) {
+                this.evictionPolicy = evictionPolicy;
+            }
+
+            public Integer getRefreshAheadSeconds() {
+                return refreshAheadSeconds;
+            }
+
+            public void setRefreshAheadSeconds(Integer refreshAheadSeconds) {
+                this.refreshAheadSeconds = refreshAheadSeconds;
+            }
+        }
     }
 
     public static class Mail {
@@ -307,6 +457,12 @@ public class JHipsterProperties {
 
         private final Logs logs = new Logs();
 
+        private final Sql sql = new Sql();
+
+        private final Tracing tracing = new Tracing();
+
+        private final Prometheus prometheus = new Prometheus();
+
         public Jmx getJmx() {
             return jmx;
         }
@@ -323,6 +479,18 @@ public class JHipsterProperties {
             return logs;
         }
 
+        public Sql getSql() {
+            return sql;
+        }
+
+        public Tracing getTracing() {
+            return tracing;
+        }
+
+        public Prometheus getPrometheus() {
+            return prometheus;
+        }
+
         public static class Jmx {
 
             private boolean enabled = true;
@@ -412,6 +580,126 @@ public class JHipsterProperties {
             }
         }
 
+        public static class Sql {
+
+            private boolean enabled = true;
+
+            private boolean debugHeaders = false;
+
+            private long slowRequestThresholdMillis = 1000;
+
+            private int repeatedStatementThreshold = 10;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isDebugHeaders() {
+                return debugHeaders;
+            }
+
+            public void setDebugHeaders(boolean debugHeaders) {
+                this.debugHeaders = debugHeaders;
+            }
+
+            public long getSlowRequestThresholdMillis() {
+                return slowRequestThresholdMillis;
+            }
+
+            public void setSlowRequestThresholdMillis(long slowRequestThresholdMillis) {
+                this.slowRequestThresholdMillis = slowRequestThresholdMillis;
+            }
+
+            public int getRepeatedStatementThreshold() {
+                return repeatedStatementThreshold;
+            }
+
+            public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+                this.repeatedStatementThreshold = repeatedStatementThreshold;
+            }
+        }
+
+        public static class Prometheus {
+
+            private boolean enabled = false;
+
+            private String endpoint = "/management/prometheus";
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getEndpoint() {
+                return endpoint;
+            }
+
+            public void setEndpoint(String endpoint) {
+                this.endpoint = endpoint;
+            }
+        }
+
+        public static class Tracing {
+
+            private boolean enabled = true;
+
+            /**
+             * Probability for a call of a service, repository or REST method to be logged with its arguments and
+             * result, at the debug level.
+             */
+            private double sampleRate = 0.0;
+
+            /**
+             * Probability for a request, job or task to be traced with the spans of its service calls and JDBC
+             * statements, and kept for /management/jhipster/traces.
+             */
+            private double traceSampleRate = 1.0;
+
+            /**
+             * Number of the last traces kept per kind of root span, for /management/jhipster/traces.
+             */
+            private int bufferSize = 100;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(double sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+
+            public double getTraceSampleRate() {
+                return traceSampleRate;
+            }
+
+            public void setTraceSampleRate(double traceSampleRate) {
+                this.traceSampleRate = traceSampleRate;
+            }
+
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+        }
+
         public static  class Logs {
 
             private boolean enabled = false;
@@ -501,4 +789,278 @@ public class JHipsterProperties {
             this.displayOnActiveProfiles = displayOnActiveProfiles;
         }
     }
+
+    public static class Export {
+
+        /**
+         * Number of rows fetched from the database at once by the cursor of an export.
+         */
+        private int fetchSize = 1000;
+
+        /**
+         * Number of rows written between two flushes of the response of an export.
+         */
+        private int flushInterval = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(int flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    public static class ContentViews {
+
+        /**
+         * Number of independently locked parts of the buffer of the views, i.e. of concurrent writers.
+         */
+        private int stripes = 16;
+
+        /**
+         * Number of buffered views written at once, the buffer is flushed as soon as it holds as many.
+         */
+        private int flushSize = 500;
+
+        /**
+         * Longest time a view stays in the buffer.
+         */
+        private long flushIntervalMillis = 1000;
+
+        /**
+         * Most views held by the buffer, e.g. while the database is down: beyond, the views tracked are dropped.
+         */
+        private int maxPending = 10000;
+
+        /**
+         * Number of times the views of a batch which could not be written are buffered again before being dropped.
+         */
+        private int maxRetries = 3;
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Directory of the files of the full-text index.
+         */
+        private String directory = "target/search";
+
+        /**
+         * Number of documents indexed in memory beyond which the index is written to disk.
+         */
+        private int maxBufferedDocuments = 1000;
+
+        /**
+         * Longest time a document stays indexed in memory only.
+         */
+        private long flushIntervalMillis = 60000;
+
+        /**
+         * Whether the index is rebuilt from the database once the application is started, catching up with the
+         * changes not written to disk before it stopped.
+         */
+        private boolean rebuildOnStartup = true;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getMaxBufferedDocuments() {
+            return maxBufferedDocuments;
+        }
+
+        public void setMaxBufferedDocuments(int maxBufferedDocuments) {
+            this.maxBufferedDocuments = maxBufferedDocuments;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+    }
+
+    public static class Storage {
+
+        /**
+         * Directory of the files uploaded for the contents.
+         */
+        private String directory = "target/storage";
+
+        /**
+         * Largest file uploaded, in bytes.
+         */
+        private long maxFileSize = 1024L * 1024 * 1024;
+
+        /**
+         * Time a file no content points at is kept, so that a file being uploaded is not collected before its
+         * content points at it.
+         */
+        private long orphanGracePeriodSeconds = 3600;
+
+        /**
+         * Interval between the garbage collections of the files no content points at.
+         */
+        private long garbageCollectionIntervalMillis = 3600000;
+
+        /**
+         * Largest size of the files kept in memory by the hot file cache, in bytes: 0 disables the cache.
+         */
+        private long hotCacheSize = 64L * 1024 * 1024;
+
+        /**
+         * Largest file kept in memory by the hot file cache, in bytes: the larger files are sent from the disk.
+         */
+        private long hotFileMaxSize = 1024L * 1024;
+
+        /**
+         * Number of recent downloads of a file before it is kept in memory by the hot file cache.
+         */
+        private int hotFileMinDownloads = 2;
+
+        /**
+         * Size of the chunks of the files uploaded in chunks, in bytes.
+         */
+        private int uploadChunkSize = 8 * 1024 * 1024;
+
+        /**
+         * Time an upload in chunks may take before it is abandoned and its chunks are deleted.
+         */
+        private long uploadExpirySeconds = 7 * 24 * 3600;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public long getOrphanGracePeriodSeconds() {
+            return orphanGracePeriodSeconds;
+        }
+
+        public void setOrphanGracePeriodSeconds(long orphanGracePeriodSeconds) {
+            this.orphanGracePeriodSeconds = orphanGracePeriodSeconds;
+        }
+
+        public long getGarbageCollectionIntervalMillis() {
+            return garbageCollectionIntervalMillis;
+        }
+
+        public void setGarbageCollectionIntervalMillis(long garbageCollectionIntervalMillis) {
+            this.garbageCollectionIntervalMillis = garbageCollectionIntervalMillis;
+        }
+
+        public long getHotCacheSize() {
+            return hotCacheSize;
+        }
+
+        public void setHotCacheSize(long hotCacheSize) {
+            this.hotCacheSize = hotCacheSize;
+        }
+
+        public long getHotFileMaxSize() {
+            return hotFileMaxSize;
+        }
+
+        public void setHotFileMaxSize(long hotFileMaxSize) {
+            this.hotFileMaxSize = hotFileMaxSize;
+        }
+
+        public int getHotFileMinDownloads() {
+            return hotFileMinDownloads;
+        }
+
+        public void setHotFileMinDownloads(int hotFileMinDownloads) {
+            this.hotFileMinDownloads = hotFileMinDownloads;
+        }
+
+        public int getUploadChunkSize() {
+            return uploadChunkSize;
+        }
+
+        public void setUploadChunkSize(int uploadChunkSize) {
+            this.uploadChunkSize = uploadChunkSize;
+        }
+
+        public long getUploadExpirySeconds() {
+            return uploadExpirySeconds;
+        }
+
+        public void setUploadExpirySeconds(long uploadExpirySeconds) {
+            this.uploadExpirySeconds = uploadExpirySeconds;
+        }
+    }
 }
@@ -8,16 +8,28 @@ import com.codahale.metrics.graphite.Graphite;
 import com.codahale.metrics.graphite.GraphiteReporter;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.jvm.*;
+import com.teachit.aop.logging.TracingInterceptor;
+import com.teachit.config.metrics.PrometheusServlet;
+import com.teachit.config.metrics.RequestTimers;
+import com.teachit.config.tracing.RecentTraces;
 import com.ryantenney.metrics.spring.config.annotation.EnableMetrics;
 import com.ryantenney.metrics.spring.config.annotation.MetricsConfigurerAdapter;
 import fr.ippon.spark.metrics.SparkReporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.core.Ordered;
 import org.springframework.context.annotation.*;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRegistration;
 import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.util.concurrent.TimeUnit;
@@ -53,6 +65,36 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
         return healthCheckRegistry;
     }
 
+    @Bean
+    public RequestTimers requestTimers() {
+        return new RequestTimers(metricRegistry);
+    }
+
+    /**
+     * Keeps the last traces of the requests, asynchronous tasks and scheduled jobs, for /management/jhipster/traces.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jhipster.metrics.tracing", name = "enabled", matchIfMissing = true)
+    public RecentTraces recentTraces() {
+        JHipsterProperties.Metrics.Tracing tracing = jHipsterProperties.getMetrics().getTracing();
+        return new RecentTraces(tracing.getBufferSize(), tracing.getTraceSampleRate());
+    }
+
+    /**
+     * Records the latency of the service, repository and REST methods in the registry, around their transactions, and
+     * traces them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jhipster.metrics.tracing", name = "enabled", matchIfMissing = true)
+    public Advisor tracingAdvisor() {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(TracingInterceptor.POINTCUT);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+            new TracingInterceptor(metricRegistry, jHipsterProperties.getMetrics().getTracing().getSampleRate()));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
     @PostConstruct
     public void init() {
         log.debug("Registering JVM gauges");
@@ -108,6 +150,33 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
         }
     }
 
+    @Configuration
+    public static class PrometheusRegistry implements ServletContextInitializer {
+
+        private final Logger log = LoggerFactory.getLogger(PrometheusRegistry.class);
+
+        @Inject
+        private MetricRegistry metricRegistry;
+
+        @Inject
+        private RequestTimers requestTimers;
+
+        @Inject
+        private JHipsterProperties jHipsterProperties;
+
+        @Override
+        public void onStartup(ServletContext servletContext) {
+            if (jHipsterProperties.getMetrics().getPrometheus().isEnabled()) {
+                String endpoint = jHipsterProperties.getMetrics().getPrometheus().getEndpoint();
+                log.info("Initializing Metrics Prometheus endpoint at {}", endpoint);
+                ServletRegistration.Dynamic prometheusServlet = servletContext.addServlet("prometheusMetrics",
+                    new PrometheusServlet(metricRegistry, requestTimers));
+                prometheusServlet.addMapping(endpoint);
+                prometheusServlet.setAsyncSupported(true);
+            }
+        }
+    }
+
     @Configuration
     @ConditionalOnClass(SparkReporter.class)
     public static class SparkRegistry {
@@ -0,0 +1,96 @@
+package com.teachit.config;
+
+import com.teachit.config.jdbc.ReplicaRoutingDataSource;
+import com.teachit.config.jdbc.ReplicaRoutingInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.bind.RelaxedPropertyResolver;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Routes the read-only work to a replica database, when "spring.datasource.replica.url" is set.
+ *
+ * <p>
+ * The replica pool has the settings of the primary pool ("spring.datasource.hikari"), with the url, username and
+ * password of "spring.datasource.replica". Each pool is named, so that each gets its own metrics.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaRoutingConfiguration extends WebMvcConfigurerAdapter implements EnvironmentAware {
+
+    public static final String PRIMARY_POOL_NAME = "teachit-primary";
+
+    public static final String REPLICA_POOL_NAME = "teachit-replica";
+
+    private static final long DEFAULT_READ_YOUR_WRITES_SECONDS = 5;
+
+    private RelaxedPropertyResolver propertyResolver;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.propertyResolver = new RelaxedPropertyResolver(environment, "spring.datasource.replica.");
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaRoutingInterceptor(propertyResolver.getProperty("read-your-writes-seconds",
+            Long.class, DEFAULT_READ_YOUR_WRITES_SECONDS))).addPathPatterns("/api/**");
+    }
+
+    /**
+     * Replaces the primary DataSource bean, once its pool is configured, by a DataSource routing to the primary or
+     * the replica database. It runs before the other post processors, which wrap the routing DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        return new ReplicaRoutingDataSourcePostProcessor(new RelaxedPropertyResolver(environment, "spring.datasource.replica."));
+    }
+
+    private static class ReplicaRoutingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSourcePostProcessor.class);
+
+        private final RelaxedPropertyResolver propertyResolver;
+
+        ReplicaRoutingDataSourcePostProcessor(RelaxedPropertyResolver propertyResolver) {
+            this.propertyResolver = propertyResolver;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource) || !"dataSource".equals(beanName)) {
+                return bean;
+            }
+            log.debug("Configuring the replica Datasource");
+            HikariDataSource primary = (HikariDataSource) bean;
+            primary.setPoolName(PRIMARY_POOL_NAME);
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyState(replica);
+            replica.setPoolName(REPLICA_POOL_NAME);
+            replica.setJdbcUrl(propertyResolver.getProperty("url"));
+            replica.setUsername(propertyResolver.getProperty("username", primary.getUsername()));
+            replica.setPassword(propertyResolver.getProperty("password", primary.getPassword()));
+            return new ReplicaRoutingDataSource(primary, replica);
+        }
+    }
+}
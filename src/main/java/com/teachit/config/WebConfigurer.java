@@ -3,7 +3,12 @@ package com.teachit.config;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.servlet.InstrumentedFilter;
 import com.codahale.metrics.servlets.MetricsServlet;
+import com.teachit.config.metrics.RequestTimers;
+import com.teachit.config.tracing.RecentTraces;
 import com.teachit.web.filter.CachingHttpHeadersFilter;
+import com.teachit.web.filter.RequestMetricsFilter;
+import com.teachit.web.filter.SqlStatisticsFilter;
+import com.teachit.web.filter.TracingFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,13 +47,25 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
     @Autowired(required = false)
     private MetricRegistry metricRegistry;
 
+    @Autowired(required = false)
+    private RequestTimers requestTimers;
+
+    @Autowired(required = false)
+    private RecentTraces recentTraces;
+
     @Override
     public void onStartup(ServletContext servletContext) throws ServletException {
         if (env.getActiveProfiles().length != 0) {
             log.info("Web application configuration, using profiles: {}", Arrays.toString(env.getActiveProfiles()));
         }
         EnumSet<DispatcherType> disps = EnumSet.of(DispatcherType.REQUEST, DispatcherType.FORWARD, DispatcherType.ASYNC);
+        if (recentTraces != null) {
+            initTracingFilter(servletContext);
+        }
         initMetrics(servletContext, disps);
+        if (jHipsterProperties.getMetrics().getSql().isEnabled() && metricRegistry != null) {
+            initSqlStatisticsFilter(servletContext);
+        }
         if (env.acceptsProfiles(Constants.SPRING_PROFILE_PRODUCTION)) {
             initCachingHttpHeadersFilter(servletContext, disps);
         }
@@ -113,6 +130,32 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
         cachingHttpHeadersFilter.setAsyncSupported(true);
     }
 
+    /**
+     * Initializes the Tracing filter, first, so that the other filters run in the trace of the request.
+     */
+    private void initTracingFilter(ServletContext servletContext) {
+        log.debug("Registering Tracing Filter");
+        FilterRegistration.Dynamic tracingFilter =
+            servletContext.addFilter("tracingFilter",
+                new TracingFilter(recentTraces));
+
+        tracingFilter.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+        tracingFilter.setAsyncSupported(true);
+    }
+
+    /**
+     * Initializes the SQL statistics filter, accounting the statements of each REST request.
+     */
+    private void initSqlStatisticsFilter(ServletContext servletContext) {
+        log.debug("Registering SQL Statistics Filter");
+        FilterRegistration.Dynamic sqlStatisticsFilter =
+            servletContext.addFilter("sqlStatisticsFilter",
+                new SqlStatisticsFilter(jHipsterProperties, metricRegistry));
+
+        sqlStatisticsFilter.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/api/*");
+        sqlStatisticsFilter.setAsyncSupported(true);
+    }
+
     /**
      * Initializes Metrics.
      */
@@ -130,6 +173,16 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
         metricsFilter.addMappingForUrlPatterns(disps, true, "/*");
         metricsFilter.setAsyncSupported(true);
 
+        if (requestTimers != null) {
+            log.debug("Registering Request Metrics Filter");
+            FilterRegistration.Dynamic requestMetricsFilter = servletContext.addFilter("requestMetricsFilter",
+                new RequestMetricsFilter(requestTimers));
+
+            // the asynchronous requests are timed until they complete, from their first dispatch
+            requestMetricsFilter.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+            requestMetricsFilter.setAsyncSupported(true);
+        }
+
         log.debug("Registering Metrics Servlet");
         ServletRegistration.Dynamic metricsAdminServlet =
             servletContext.addServlet("metricsServlet", new MetricsServlet());
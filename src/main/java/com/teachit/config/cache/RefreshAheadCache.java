@@ -0,0 +1,190 @@
+package com.teachit.config.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring {@link Cache} decorator adding load-time metrics and refresh-ahead to an Ehcache backed cache.
+ *
+ * <p>
+ * A load is the time between a miss and the {@link #put(Object, Object)} that fills it, which is what the
+ * {@code @Cacheable} interceptor does. When refresh-ahead is enabled, the first reader of an entry older than
+ * the refresh delay starts its reload on the executor, replaying the {@code @Cacheable} invocation kept by the
+ * {@link RefreshAheadInterceptor}, and every reader keeps getting the cached value until the new one is stored: a
+ * hot entry is reloaded once, before it expires, instead of by every concurrent caller after it has expired.
+ * A reader without a {@code @Cacheable} invocation to replay, i.e. a programmatic lookup, gets a miss instead and
+ * is expected to put the reloaded value itself. The misses of such a reader are not timed, since nothing ensures
+ * that it fills them: a lookup of a key which is never cached must not hold a pending load.
+ * </p>
+ */
+public class RefreshAheadCache implements Cache {
+
+    private final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    /**
+     * Upper bound of loads tracked at the same time, so that loads which never complete cannot leak memory.
+     */
+    private static final int MAX_PENDING_LOADS = 10000;
+
+    private final Cache delegate;
+
+    private final Ehcache ehcache;
+
+    private final long refreshAheadMillis;
+
+    private final long loadTimeoutNanos;
+
+    private final Executor executor;
+
+    private final ConcurrentMap<Object, Long> pendingLoads = new ConcurrentHashMap<>();
+
+    /**
+     * The key reloaded by the current thread, which must miss so that the cache interceptor reloads it.
+     */
+    private final ThreadLocal<Object> refreshingKey = new ThreadLocal<>();
+
+    private final Timer loads;
+
+    private final Meter refreshes;
+
+    public RefreshAheadCache(Cache delegate, Ehcache ehcache, int refreshAheadSeconds, Executor executor,
+                             MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.ehcache = ehcache;
+        this.executor = executor;
+        this.refreshAheadMillis = TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+        this.loadTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(refreshAheadSeconds, 60));
+        this.loads = metricRegistry.timer(MetricRegistry.name(net.sf.ehcache.Cache.class, delegate.getName(), "loads"));
+        this.refreshes = metricRegistry.meter(MetricRegistry.name(net.sf.ehcache.Cache.class, delegate.getName(), "refreshes"));
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (key.equals(refreshingKey.get())) {
+            return null;
+        }
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            // only a @Cacheable miss is sure to be followed by a put, a programmatic one may never fill its key
+            if (RefreshAheadInterceptor.currentReload(getName()) != null) {
+                startLoad(key);
+            }
+            return null;
+        }
+        if (refreshAheadMillis > 0 && isDueForRefresh(key) && startLoad(key)) {
+            refreshes.mark();
+            RefreshAheadInterceptor.Reload reload = RefreshAheadInterceptor.currentReload(getName());
+            if (reload == null) {
+                return null;
+            }
+            refresh(key, reload);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        endLoad(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        endLoad(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        pendingLoads.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        pendingLoads.clear();
+    }
+
+    /**
+     * Reloads a key claimed by this thread on the executor, releasing the claim if the reload cannot run or fails.
+     */
+    private void refresh(Object key, RefreshAheadInterceptor.Reload reload) {
+        try {
+            executor.execute(() -> {
+                refreshingKey.set(key);
+                try {
+                    reload.run();
+                } catch (Throwable e) {
+                    log.warn("Could not refresh the entry {} of the cache {}: {}", key, getName(), e.toString());
+                    pendingLoads.remove(key);
+                } finally {
+                    refreshingKey.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Could not refresh the entry {} of the cache {}, the executor is full", key, getName());
+            pendingLoads.remove(key);
+        }
+    }
+
+    private boolean isDueForRefresh(Object key) {
+        Element element = ehcache.getQuiet(key);
+        return element != null &&
+            System.currentTimeMillis() - element.getLatestOfCreationAndUpdateTime() >= refreshAheadMillis;
+    }
+
+    /**
+     * Claims the load of a key, returns false if another caller is already loading it.
+     */
+    private boolean startLoad(Object key) {
+        long now = System.nanoTime();
+        Long started = pendingLoads.get(key);
+        if (started == null) {
+            return pendingLoads.size() < MAX_PENDING_LOADS && pendingLoads.putIfAbsent(key, now) == null;
+        }
+        // the previous load failed or was abandoned, let this caller take it over
+        return now - started > loadTimeoutNanos && pendingLoads.replace(key, started, now);
+    }
+
+    private void endLoad(Object key) {
+        Long started = pendingLoads.remove(key);
+        if (started != null) {
+            loads.update(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
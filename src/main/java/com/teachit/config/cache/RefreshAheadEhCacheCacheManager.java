@@ -0,0 +1,39 @@
+package com.teachit.config.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import net.sf.ehcache.Ehcache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link EhCacheCacheManager} wrapping every Spring cache in a {@link RefreshAheadCache}, configured from the
+ * matching {@code jhipster.cache.caches} entry, its entries being refreshed on the given executor.
+ */
+public class RefreshAheadEhCacheCacheManager extends EhCacheCacheManager {
+
+    private final JHipsterProperties.Cache cacheProperties;
+
+    private final Executor executor;
+
+    private final MetricRegistry metricRegistry;
+
+    public RefreshAheadEhCacheCacheManager(net.sf.ehcache.CacheManager cacheManager,
+                                           JHipsterProperties.Cache cacheProperties, Executor executor,
+                                           MetricRegistry metricRegistry) {
+        super(cacheManager);
+        this.cacheProperties = cacheProperties;
+        this.executor = executor;
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        Ehcache ehcache = getCacheManager().getEhcache(cache.getName());
+        int refreshAheadSeconds = cacheProperties.getSpec(cache.getName()).getRefreshAheadSeconds();
+        return new RefreshAheadCache(super.decorateCache(cache), ehcache, refreshAheadSeconds, executor,
+            metricRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.teachit.config.cache;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Interceptor of the {@code @Cacheable} methods, letting their {@link RefreshAheadCache}s reload an entry due for
+ * refresh in the background.
+ *
+ * <p>
+ * It must run around the cache interceptor: while the cache interceptor looks the entry up, the current invocation
+ * is kept as a {@link Reload}, which replays it from the cache interceptor on, so that the reloaded value is stored
+ * as on any miss.
+ * </p>
+ */
+public class RefreshAheadInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Reload> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(invocation instanceof ProxyMethodInvocation)) {
+            return invocation.proceed();
+        }
+        Reload previous = CURRENT.get();
+        CURRENT.set(new Reload(cacheNames(invocation), ((ProxyMethodInvocation) invocation).invocableClone()));
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the reload of the {@code @Cacheable} invocation current on this thread, or null if there is none or
+     * it does not use the given cache
+     */
+    static Reload currentReload(String cacheName) {
+        Reload reload = CURRENT.get();
+        return reload != null && reload.isFor(cacheName) ? reload : null;
+    }
+
+    private static String[] cacheNames(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Method method = target != null ? AopUtils.getMostSpecificMethod(invocation.getMethod(), target.getClass()) :
+            invocation.getMethod();
+        Cacheable cacheable = AnnotationUtils.findAnnotation(method, Cacheable.class);
+        if (cacheable == null) {
+            return new String[0];
+        }
+        return cacheable.cacheNames().length > 0 ? cacheable.cacheNames() : cacheable.value();
+    }
+
+    /**
+     * A replay of a {@code @Cacheable} invocation, from the interceptor after this one.
+     */
+    static final class Reload {
+
+        private final String[] cacheNames;
+
+        private final MethodInvocation invocation;
+
+        private Reload(String[] cacheNames, MethodInvocation invocation) {
+            this.cacheNames = cacheNames;
+            this.invocation = invocation;
+        }
+
+        /**
+         * @return whether the invocation uses the given cache, or any cache if its names are not on the annotation
+         */
+        boolean isFor(String cacheName) {
+            return cacheNames.length == 0 || Arrays.asList(cacheNames).contains(cacheName);
+        }
+
+        void run() throws Throwable {
+            invocation.proceed();
+        }
+    }
+}
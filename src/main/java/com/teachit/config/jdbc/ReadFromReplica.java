@@ -0,0 +1,14 @@
+package com.teachit.config.jdbc;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a GET endpoint which reads from the replica database, when one is configured: its queries outside of a
+ * transaction use the replica, as its read-only transactions do. Users who wrote recently read from the primary
+ * database instead, see {@link ReplicaRoutingInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
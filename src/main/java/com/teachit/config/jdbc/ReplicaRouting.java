@@ -0,0 +1,57 @@
+package com.teachit.config.jdbc;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides whether the connections of the current thread are taken from the replica or the primary database, see
+ * {@link ReplicaRoutingDataSource}.
+ *
+ * <p>
+ * A read-only transaction uses the replica, any other transaction uses the primary database. Outside of a
+ * transaction the primary database is used, unless the replica is preferred, e.g. by a {@link ReadFromReplica}
+ * endpoint. Requiring the primary database overrides both, so that a user reads what they just wrote.
+ * </p>
+ */
+public final class ReplicaRouting {
+
+    private enum Mode {
+        PREFER_REPLICA, REQUIRE_PRIMARY
+    }
+
+    private static final ThreadLocal<Mode> mode = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Uses the replica outside of a transaction too, until {@link #reset()}.
+     */
+    public static void preferReplica() {
+        mode.set(Mode.PREFER_REPLICA);
+    }
+
+    /**
+     * Uses the primary database, even in read-only transactions, until {@link #reset()}.
+     */
+    public static void requirePrimary() {
+        mode.set(Mode.REQUIRE_PRIMARY);
+    }
+
+    public static void reset() {
+        mode.remove();
+    }
+
+    /**
+     * Returns true if a connection taken now by the current thread must come from the replica.
+     */
+    public static boolean useReplica() {
+        Mode current = mode.get();
+        if (current == Mode.REQUIRE_PRIMARY) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return current == Mode.PREFER_REPLICA;
+    }
+}
@@ -0,0 +1,72 @@
+package com.teachit.config.jdbc;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource taking the connections from a primary or a replica database, as decided by {@link ReplicaRouting}.
+ *
+ * <p>
+ * The connections are lazy: the transaction manager begins a transaction, e.g. sets it read-only, before its
+ * attributes are known to {@link ReplicaRouting}, so the actual connection is only taken by the first statement.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ReplicaRouting.useReplica() ? REPLICA : PRIMARY;
+            }
+        };
+        router.setTargetDataSources(targetDataSources);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * Closes the connection pools of both databases.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        } finally {
+            if (primary instanceof Closeable) {
+                ((Closeable) primary).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.teachit.config.jdbc;
+
+import com.teachit.security.SecurityUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the {@link ReplicaRouting} of each request, protecting the users from the replication lag.
+ *
+ * <p>
+ * The GET endpoints annotated with {@link ReadFromReplica} prefer the replica. Requests which may write, i.e. with
+ * any other method, require the primary database, and so do the requests of their user for a while after they
+ * complete, so that users read their own writes even if the replica is behind.
+ * </p>
+ */
+public class ReplicaRoutingInterceptor extends HandlerInterceptorAdapter {
+
+    private final long readYourWritesMillis;
+
+    private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile long lastPurge = System.currentTimeMillis();
+
+    /**
+     * @param readYourWritesSeconds the time during which a user reads from the primary database after writing
+     */
+    public ReplicaRoutingInterceptor(long readYourWritesSeconds) {
+        this.readYourWritesMillis = TimeUnit.SECONDS.toMillis(readYourWritesSeconds);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isRead(request) || wroteRecently(currentUser())) {
+            ReplicaRouting.requirePrimary();
+        } else if (handler instanceof HandlerMethod && ((HandlerMethod) handler).getMethodAnnotation(ReadFromReplica.class) != null) {
+            ReplicaRouting.preferReplica();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the request thread is released, the asynchronous processing uses the defaults of its own thread
+        ReplicaRouting.reset();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouting.reset();
+        String user = currentUser();
+        if (!isRead(request) && user != null) {
+            long now = System.currentTimeMillis();
+            lastWrites.put(user, now);
+            if (now - lastPurge > readYourWritesMillis) {
+                lastPurge = now;
+                lastWrites.values().removeIf(time -> now - time > readYourWritesMillis);
+            }
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private boolean wroteRecently(String user) {
+        Long lastWrite = user != null ? lastWrites.get(user) : null;
+        return lastWrite != null && System.currentTimeMillis() - lastWrite <= readYourWritesMillis;
+    }
+
+    private String currentUser() {
+        return SecurityUtils.isAuthenticated() ? SecurityUtils.getCurrentUserLogin() : null;
+    }
+}
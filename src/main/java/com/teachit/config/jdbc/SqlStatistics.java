@@ -0,0 +1,97 @@
+package com.teachit.config.jdbc;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL statements executed by the current thread, e.g. while serving a request.
+ *
+ * <p>
+ * Statements are only accounted between {@link #start()} and {@link #stop()}, see {@link SqlStatisticsDataSource}.
+ * Besides the totals, the number of executions of each distinct statement is kept, so that the same select
+ * repeated for every row of a list (an N+1 select) can be spotted.
+ * </p>
+ */
+public final class SqlStatistics {
+
+    /**
+     * Upper bound of distinct statements kept, so that a request running generated SQL cannot exhaust the memory.
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private static final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+    private int statements;
+
+    private long rows;
+
+    private long nanos;
+
+    private SqlStatistics() {
+    }
+
+    /**
+     * Starts accounting the statements executed by the current thread.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        current.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops accounting the statements executed by the current thread.
+     *
+     * @return the statistics since {@link #start()}, or null if they were not started
+     */
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = current.get();
+        current.remove();
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of the current thread, or null if they are not started.
+     */
+    public static SqlStatistics current() {
+        return current.get();
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statements++;
+        this.nanos += nanos;
+        Integer count = executions.get(sql);
+        if (count != null) {
+            executions.put(sql, count + 1);
+        } else if (executions.size() < MAX_DISTINCT_STATEMENTS) {
+            executions.put(sql, 1);
+        }
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTime(TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of executions of each distinct statement, in order of first execution.
+     */
+    public Map<String, Integer> getExecutions() {
+        return Collections.unmodifiableMap(executions);
+    }
+}
@@ -0,0 +1,153 @@
+package com.teachit.config.jdbc;
+
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Tracer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource accounting the statements executed and rows read into the {@link SqlStatistics} of the current thread,
+ * and recording the statements as JDBC spans of its current trace, see {@link Tracer}.
+ *
+ * <p>
+ * Connections, statements and result sets are wrapped in proxies. When no statistics are started and no trace is
+ * current on the thread, a statement only costs two thread-local lookups more.
+ * </p>
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource implements Closeable {
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    /**
+     * Closes the connection pool, as the destroy method of the wrapped DataSource bean.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement and prepareCall get the SQL, createStatement gets it on execution
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy((Class<Statement>) method.getReturnType(), new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics == null && Tracer.current() == null) {
+                return SqlStatisticsDataSource.invoke(target, method, args);
+            }
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                if (executed == null) {
+                    executed = "<batch>";
+                }
+                boolean failed = true;
+                long start = System.nanoTime();
+                try {
+                    result = SqlStatisticsDataSource.invoke(target, method, args);
+                    failed = false;
+                } finally {
+                    long duration = System.nanoTime() - start;
+                    if (statistics != null) {
+                        statistics.statementExecuted(executed, duration);
+                    }
+                    Tracer.record(Span.Kind.JDBC, executed, start, duration, failed);
+                }
+            } else {
+                result = SqlStatisticsDataSource.invoke(target, method, args);
+            }
+            if (result instanceof ResultSet && statistics != null) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, statistics));
+            }
+            return result;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private final SqlStatistics statistics;
+
+        ResultSetHandler(ResultSet target, SqlStatistics statistics) {
+            this.target = target;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                statistics.rowRead();
+            }
+            return result;
+        }
+    }
+}
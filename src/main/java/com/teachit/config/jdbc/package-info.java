@@ -0,0 +1,4 @@
+/**
+ * JDBC statement accounting and routing of the connections to a replica database.
+ */
+package com.teachit.config.jdbc;
@@ -0,0 +1,100 @@
+package com.teachit.config.liquibase;
+
+import com.teachit.domain.util.CompressedTextConverter;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves the texts of a column to a side table, compressed by the {@link CompressedTextConverter}, and points the rows
+ * at them. The rows of the side table take the ids of the rows of the table, its id generator starts after them.
+ */
+public class CompressedTextMigration implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private String tableName;
+
+    private String columnName;
+
+    private String textTableName;
+
+    private String foreignKeyColumnName;
+
+    private int moved;
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public void setColumnName(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public void setTextTableName(String textTableName) {
+        this.textTableName = textTableName;
+    }
+
+    public void setForeignKeyColumnName(String foreignKeyColumnName) {
+        this.foreignKeyColumnName = foreignKeyColumnName;
+    }
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        CompressedTextConverter converter = new CompressedTextConverter();
+        try (Statement select = connection.createStatement();
+             PreparedStatement insert = connection.prepareStatement(
+                 "insert into " + textTableName + " (id, text) values (?, ?)");
+             PreparedStatement update = connection.prepareStatement(
+                 "update " + tableName + " set " + foreignKeyColumnName + " = ? where id = ?")) {
+            try (ResultSet rows = select.executeQuery(
+                "select id, " + columnName + " from " + tableName + " where " + columnName + " is not null")) {
+                while (rows.next()) {
+                    long id = rows.getLong(1);
+                    insert.setLong(1, id);
+                    insert.setBytes(2, converter.convertToDatabaseColumn(rows.getString(2)));
+                    insert.addBatch();
+                    update.setLong(1, id);
+                    update.setLong(2, id);
+                    update.addBatch();
+                    if (++moved % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        update.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+            update.executeBatch();
+        } catch (DatabaseException | SQLException e) {
+            throw new CustomChangeException("Could not move " + tableName + "." + columnName + " to " + textTableName, e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Moved " + moved + " texts of " + tableName + "." + columnName + " to " + textTableName;
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,248 @@
+package com.teachit.config.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservoir counting the latencies, in nanoseconds, in log-linear buckets, like HdrHistogram: each power of two is
+ * split in 16 buckets, so a value is known within 1/16th, whatever its magnitude.
+ *
+ * <p>
+ * Recording a value only increments counters, it neither allocates nor locks, so it can be done on every call. The
+ * counts are kept since the start, like the counters of Prometheus, rather than decayed: the snapshots give the
+ * percentiles of all the values recorded. Values above an hour are counted as an hour.
+ * </p>
+ */
+public class LatencyReservoir implements Reservoir {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private static final int BUCKETS = bucket(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    @Override
+    public void update(long value) {
+        long clamped = Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(bucket(clamped));
+        sum.add(clamped);
+        long current;
+        while (clamped < (current = min.get()) && !min.compareAndSet(current, clamped)) {
+            // retry with the minimum set meanwhile
+        }
+        while (clamped > (current = max.get()) && !max.compareAndSet(current, clamped)) {
+            // retry with the maximum set meanwhile
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            size += counts.get(i);
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public LatencySnapshot getSnapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new LatencySnapshot(snapshot, sum.sum(), min.get(), max.get());
+    }
+
+    /**
+     * @return the index of the bucket of a value: the value itself below 2 &times; 16, else the 16 buckets of its power
+     * of two, indexed by the 4 bits following its highest bit
+     */
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * @return the lowest value of a bucket
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * @return the highest value of a bucket
+     */
+    static long highestValue(int bucket) {
+        return lowestValue(bucket + 1) - 1;
+    }
+
+    /**
+     * Counts of the buckets at one time, giving the percentiles within the precision of the buckets, and the exact
+     * minimum, maximum and mean.
+     */
+    public static class LatencySnapshot extends Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long min;
+
+        private final long max;
+
+        LatencySnapshot(long[] counts, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = Arrays.stream(counts).sum();
+            this.sum = sum;
+            this.min = count > 0 ? min : 0;
+            this.max = count > 0 ? max : 0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * @param previous a previous snapshot of the same reservoir, or null
+         * @return the snapshot of the values recorded since the previous snapshot, e.g. for percentiles over an
+         * interval rather than since the start
+         */
+        public LatencySnapshot since(LatencySnapshot previous) {
+            if (previous == null) {
+                return this;
+            }
+            long[] interval = new long[counts.length];
+            int first = -1;
+            int last = -1;
+            for (int i = 0; i < counts.length; i++) {
+                interval[i] = counts[i] - previous.counts[i];
+                if (interval[i] > 0) {
+                    first = first < 0 ? i : first;
+                    last = i;
+                }
+            }
+            return new LatencySnapshot(interval, sum - previous.sum,
+                first < 0 ? 0 : Math.max(lowestValue(first), min), last < 0 ? 0 : Math.min(highestValue(last), max));
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (count == 0) {
+                return 0.0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return value(i);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * @return the value of each bucket holding values, in ascending order, rather than every value recorded
+         */
+        @Override
+        public long[] getValues() {
+            long[] values = new long[(int) Arrays.stream(counts).filter(c -> c > 0).count()];
+            int v = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    values[v++] = value(i);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(count, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0.0;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public double getStdDev() {
+            if (count <= 1) {
+                return 0.0;
+            }
+            double mean = getMean();
+            double variance = 0.0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    double diff = value(i) - mean;
+                    variance += counts[i] * diff * diff;
+                }
+            }
+            return Math.sqrt(variance / (count - 1));
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+
+        /**
+         * @return the middle of a bucket, within the minimum and maximum recorded
+         */
+        private long value(int bucket) {
+            long middle = lowestValue(bucket) + (highestValue(bucket) - lowestValue(bucket)) / 2;
+            return Math.min(Math.max(middle, min), max);
+        }
+    }
+}
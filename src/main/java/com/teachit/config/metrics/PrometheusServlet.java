@@ -0,0 +1,179 @@
+package com.teachit.config.metrics;
+
+import com.codahale.metrics.*;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the metrics in the text exposition format of Prometheus.
+ *
+ * <p>
+ * The request timers are published as the "http_server_requests_seconds" summary, labelled by method, uri, status
+ * and outcome. The other metrics of the registry are published under their name, its dots replaced by underscores:
+ * the gauges and counters as gauges, the meters as counters, and the histograms and timers as summaries, the timers
+ * in seconds.
+ * </p>
+ * <p>
+ * The quantiles of the timers backed by a {@link LatencyReservoir} are the ones of the values recorded since the
+ * previous scrape, so that they follow the latency, while their count and sum are the ones since the start, as
+ * Prometheus expects.
+ * </p>
+ */
+public class PrometheusServlet extends HttpServlet {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999};
+
+    private static final double SECONDS_PER_NANOSECOND = 1.0 / TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricRegistry metricRegistry;
+
+    private final RequestTimers requestTimers;
+
+    private final ConcurrentMap<Timer, LatencyReservoir.LatencySnapshot> previousSnapshots = new ConcurrentHashMap<>();
+
+    public PrometheusServlet(MetricRegistry metricRegistry, RequestTimers requestTimers) {
+        this.metricRegistry = metricRegistry;
+        this.requestTimers = requestTimers;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "must-revalidate,no-cache,no-store");
+        try (PrintWriter writer = response.getWriter()) {
+            write(writer);
+        }
+    }
+
+    void write(PrintWriter writer) {
+        Set<String> names = new HashSet<>();
+        writeRequestTimers(writer, names);
+        for (Map.Entry<String, Gauge> gauge : metricRegistry.getGauges().entrySet()) {
+            Object value = gauge.getValue().getValue();
+            if (value instanceof Number) {
+                writeSample(writer, names, gauge.getKey(), "gauge", ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                writeSample(writer, names, gauge.getKey(), "gauge", (Boolean) value ? 1 : 0);
+            }
+        }
+        for (Map.Entry<String, Counter> counter : metricRegistry.getCounters().entrySet()) {
+            writeSample(writer, names, counter.getKey(), "gauge", counter.getValue().getCount());
+        }
+        for (Map.Entry<String, Meter> meter : metricRegistry.getMeters().entrySet()) {
+            writeSample(writer, names, meter.getKey() + "_total", "counter", meter.getValue().getCount());
+        }
+        for (Map.Entry<String, Histogram> histogram : metricRegistry.getHistograms().entrySet()) {
+            String name = sanitize(histogram.getKey());
+            if (names.add(name)) {
+                writeType(writer, name, "summary");
+                writeSummary(writer, name, "", histogram.getValue().getSnapshot(), histogram.getValue().getCount(), 1.0);
+            }
+        }
+        for (Map.Entry<String, Timer> timer : metricRegistry.getTimers(
+            (name, metric) -> !name.startsWith(RequestTimers.NAME + ".")).entrySet()) {
+            String name = sanitize(timer.getKey()) + "_seconds";
+            if (names.add(name)) {
+                writeType(writer, name, "summary");
+                writeTimer(writer, name, "", timer.getValue());
+            }
+        }
+    }
+
+    private void writeRequestTimers(PrintWriter writer, Set<String> names) {
+        String name = sanitize(RequestTimers.NAME) + "_seconds";
+        names.add(name);
+        writeType(writer, name, "summary");
+        SortedMap<String, Timer> timers = new TreeMap<>();
+        for (Map.Entry<RequestTimers.Route, Timer> timer : requestTimers.getTimers().entrySet()) {
+            RequestTimers.Route route = timer.getKey();
+            timers.put("method=\"" + escape(route.getMethod()) + "\",uri=\"" + escape(route.getUri()) +
+                "\",status=\"" + route.getStatus() + "\",outcome=\"" + route.getOutcome() + "\"", timer.getValue());
+        }
+        for (Map.Entry<String, Timer> timer : timers.entrySet()) {
+            writeTimer(writer, name, timer.getKey(), timer.getValue());
+        }
+    }
+
+    private void writeTimer(PrintWriter writer, String name, String labels, Timer timer) {
+        Snapshot snapshot = timer.getSnapshot();
+        if (snapshot instanceof LatencyReservoir.LatencySnapshot) {
+            LatencyReservoir.LatencySnapshot latencySnapshot = (LatencyReservoir.LatencySnapshot) snapshot;
+            LatencyReservoir.LatencySnapshot previous = previousSnapshots.put(timer, latencySnapshot);
+            writeSummary(writer, name, labels, latencySnapshot.since(previous), latencySnapshot.getCount(),
+                SECONDS_PER_NANOSECOND);
+            writeSample(writer, name + "_sum", labels, latencySnapshot.getSum() * SECONDS_PER_NANOSECOND);
+        } else {
+            writeSummary(writer, name, labels, snapshot, timer.getCount(), SECONDS_PER_NANOSECOND);
+        }
+    }
+
+    private void writeSummary(PrintWriter writer, String name, String labels, Snapshot snapshot, long count,
+                              double factor) {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : QUANTILES) {
+            double value = snapshot.size() > 0 ? snapshot.getValue(quantile) * factor : Double.NaN;
+            writeSample(writer, name, labels + separator + "quantile=\"" + quantile + "\"", value);
+        }
+        writeSample(writer, name + "_count", labels, count);
+    }
+
+    private void writeSample(PrintWriter writer, Set<String> names, String metric, String type, double value) {
+        String name = sanitize(metric);
+        if (names.add(name)) {
+            writeType(writer, name, type);
+            writeSample(writer, name, "", value);
+        }
+    }
+
+    private void writeType(PrintWriter writer, String name, String type) {
+        writer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void writeSample(PrintWriter writer, String name, String labels, double value) {
+        writer.append(name);
+        if (!labels.isEmpty()) {
+            writer.append('{').append(labels).append('}');
+        }
+        writer.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * @return the name of a metric, its characters invalid in Prometheus replaced by underscores
+     */
+    static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
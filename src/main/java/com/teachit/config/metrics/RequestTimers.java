@@ -0,0 +1,138 @@
+package com.teachit.config.metrics;
+
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Timers of the HTTP requests, one per route, i.e. per HTTP method, request mapping and status, backed by a
+ * {@link LatencyReservoir}.
+ *
+ * <p>
+ * The timers are also in the metric registry, named "http.server.requests.&lt;method&gt;.&lt;uri&gt;.&lt;status&gt;",
+ * so that the JMX, Graphite and Spark reporters publish them. The Prometheus endpoint publishes them with a label per
+ * part of their route instead, see PrometheusServlet.
+ * </p>
+ */
+public class RequestTimers {
+
+    public static final String NAME = "http.server.requests";
+
+    private final MetricRegistry metricRegistry;
+
+    private final ConcurrentMap<Route, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestTimers(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * @param method the HTTP method of the requests
+     * @param uri the request mapping matched, e.g. "/api/courses/{id}", rather than the URI requested, so that the
+     * number of timers is bounded
+     * @param status the status of the responses
+     * @return the timer of the route, created on its first request
+     */
+    public Timer timer(String method, String uri, int status) {
+        Route route = new Route(method, uri, status);
+        Timer timer = timers.get(route);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(route, this::register);
+        }
+        return timer;
+    }
+
+    public Map<Route, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    private Timer register(Route route) {
+        String name = MetricRegistry.name(NAME, route.getMethod(), route.getUri(), String.valueOf(route.getStatus()));
+        synchronized (this) {
+            Metric metric = metricRegistry.getMetrics().get(name);
+            if (metric instanceof Timer) {
+                return (Timer) metric;
+            }
+            return metricRegistry.register(name, new Timer(new LatencyReservoir()));
+        }
+    }
+
+    /**
+     * The HTTP method, request mapping and status of requests.
+     */
+    public static final class Route {
+
+        private final String method;
+
+        private final String uri;
+
+        private final int status;
+
+        Route(String method, String uri, int status) {
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the class of the status: "INFORMATIONAL", "SUCCESS", "REDIRECTION", "CLIENT_ERROR",
+         * "SERVER_ERROR" or "UNKNOWN"
+         */
+        public String getOutcome() {
+            switch (status / 100) {
+                case 1:
+                    return "INFORMATIONAL";
+                case 2:
+                    return "SUCCESS";
+                case 3:
+                    return "REDIRECTION";
+                case 4:
+                    return "CLIENT_ERROR";
+                case 5:
+                    return "SERVER_ERROR";
+                default:
+                    return "UNKNOWN";
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Route route = (Route) o;
+            return status == route.status && method.equals(route.method) && uri.equals(route.uri);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, uri, status);
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + uri + " " + status;
+        }
+    }
+}
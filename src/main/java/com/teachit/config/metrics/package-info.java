@@ -0,0 +1,4 @@
+/**
+ * Metrics specific code.
+ */
+package com.teachit.config.metrics;
@@ -0,0 +1,89 @@
+package com.teachit.config.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ring buffers of the last traces recorded, one per kind of root span, so that the frequent scheduled jobs don't
+ * push the traces of the requests out.
+ *
+ * <p>
+ * Only a sample of the traces is recorded: the other ones keep their root span, whose ids are logged, without
+ * creating the spans of their service calls and statements.
+ * </p>
+ */
+public class RecentTraces {
+
+    private final int size;
+
+    private final double sampleRate;
+
+    private final Map<Span.Kind, Deque<Trace>> traces = new EnumMap<>(Span.Kind.class);
+
+    /**
+     * @param size the number of traces kept per kind of root span
+     */
+    public RecentTraces(int size) {
+        this(size, 1.0);
+    }
+
+    /**
+     * @param size the number of traces kept per kind of root span
+     * @param sampleRate the probability for a trace to be recorded, between 0 and 1
+     */
+    public RecentTraces(int size, double sampleRate) {
+        this.size = size;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return whether a new trace is recorded
+     */
+    boolean sample() {
+        return sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    synchronized void add(Trace trace) {
+        Deque<Trace> ring = traces.computeIfAbsent(trace.getRoot().getKind(), kind -> new ArrayDeque<>(size));
+        if (ring.size() >= size) {
+            ring.removeLast();
+        }
+        ring.addFirst(trace);
+    }
+
+    /**
+     * @param kind the kind of the root spans, or null for all
+     * @return the traces kept, the last recorded first
+     */
+    public synchronized List<Trace> findAll(Span.Kind kind) {
+        List<Trace> all = new ArrayList<>();
+        for (Map.Entry<Span.Kind, Deque<Trace>> ring : traces.entrySet()) {
+            if (kind == null || kind == ring.getKey()) {
+                all.addAll(ring.getValue());
+            }
+        }
+        all.sort((a, b) -> Long.compare(b.getRoot().getStartTime(), a.getRoot().getStartTime()));
+        return all;
+    }
+
+    /**
+     * @return the trace, or null if it is not kept
+     */
+    public synchronized Trace findOne(String id) {
+        for (Deque<Trace> ring : traces.values()) {
+            for (Iterator<Trace> it = ring.iterator(); it.hasNext(); ) {
+                Trace trace = it.next();
+                if (trace.getId().equals(id)) {
+                    return trace;
+                }
+            }
+        }
+        return null;
+    }
+}
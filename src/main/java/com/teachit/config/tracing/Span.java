@@ -0,0 +1,159 @@
+package com.teachit.config.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed unit of work of a {@link Trace}: an HTTP request, a service call, a JDBC statement, an asynchronous task
+ * or a scheduled job, see {@link Tracer}.
+ */
+public final class Span {
+
+    public enum Kind {
+        HTTP, SERVICE, JDBC, ASYNC, SCHEDULED
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Trace trace;
+
+    private final String id;
+
+    private final Span parent;
+
+    private final Kind kind;
+
+    private volatile String name;
+
+    private final long startTime;
+
+    private final long startNanos;
+
+    private volatile long durationNanos = -1;
+
+    private volatile boolean error;
+
+    /**
+     * The span current on the thread before this one, restored when this one is finished. Only used by the thread of
+     * the span.
+     */
+    Span previous;
+
+    Span(Trace trace, Span parent, Kind kind, String name, long startNanos) {
+        this.trace = trace;
+        this.id = newId();
+        this.parent = parent;
+        this.kind = kind;
+        this.name = name;
+        this.startTime = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @return a random id of 16 hexadecimal digits, for a trace or a span
+     */
+    static String newId() {
+        long random = ThreadLocalRandom.current().nextLong();
+        char[] digits = new char[16];
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = HEX_DIGITS[(int) random & 0xf];
+            random >>>= 4;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Ends the span, from any thread, adding it to its trace. The trace is recorded once its root span is ended.
+     */
+    public void end() {
+        end(System.nanoTime() - startNanos);
+    }
+
+    void end(long durationNanos) {
+        if (this.durationNanos >= 0) {
+            return;
+        }
+        this.durationNanos = durationNanos;
+        trace.spanEnded(this);
+    }
+
+    Trace getTrace() {
+        return trace;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return the start of the span, in milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public String getTraceId() {
+        return trace.getId();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getParentId() {
+        return parent != null ? parent.id : null;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Names the span once known, e.g. the request mapping of a request once it is matched.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the time from the start of the trace to the start of the span, in microseconds
+     */
+    public long getOffsetMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(startNanos - trace.getRoot().startNanos);
+    }
+
+    /**
+     * @return the duration of the span, in microseconds, or null if it is not ended
+     */
+    public Long getDurationMicros() {
+        long duration = durationNanos;
+        return duration >= 0 ? TimeUnit.NANOSECONDS.toMicros(duration) : null;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void markError() {
+        this.error = true;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+            "traceId='" + trace.getId() + "'" +
+            ", id='" + id + "'" +
+            ", kind=" + kind +
+            ", name='" + name + "'" +
+            ", durationNanos=" + durationNanos +
+            '}';
+    }
+}
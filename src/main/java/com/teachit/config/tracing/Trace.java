@@ -0,0 +1,106 @@
+package com.teachit.config.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The spans of the work caused by one HTTP request, scheduled job or asynchronous task, its root span.
+ *
+ * <p>
+ * The spans are added as they end, the root span last, except for the asynchronous tasks started by the work, which
+ * may end after it. The number of spans kept is bounded, so that a batch running many statements cannot exhaust the
+ * memory: the spans beyond are only counted.
+ * </p>
+ * <p>
+ * A trace not sampled by its {@link RecentTraces} has no child spans, see {@link Tracer#start(Span.Kind, String)}, and
+ * is not recorded.
+ * </p>
+ */
+public final class Trace {
+
+    static final int MAX_SPANS = 1000;
+
+    private final String id;
+
+    private final RecentTraces recentTraces;
+
+    private final boolean sampled;
+
+    private final List<Span> spans = new ArrayList<>();
+
+    private final AtomicInteger droppedSpans = new AtomicInteger();
+
+    private Span root;
+
+    Trace(RecentTraces recentTraces) {
+        this.id = Span.newId();
+        this.recentTraces = recentTraces;
+        this.sampled = recentTraces != null && recentTraces.sample();
+    }
+
+    void setRoot(Span root) {
+        this.root = root;
+    }
+
+    void spanEnded(Span span) {
+        if (!sampled) {
+            return;
+        }
+        synchronized (spans) {
+            if (spans.size() < MAX_SPANS || span == root) {
+                spans.add(span);
+            } else {
+                droppedSpans.incrementAndGet();
+            }
+        }
+        if (span == root) {
+            recentTraces.add(this);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    /**
+     * @return whether the spans of the trace are created and the trace recorded once ended
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return the spans ended, in order of start
+     */
+    public List<Span> getSpans() {
+        List<Span> copy;
+        synchronized (spans) {
+            copy = new ArrayList<>(spans);
+        }
+        copy.sort((a, b) -> Long.compare(a.getStartNanos(), b.getStartNanos()));
+        return copy;
+    }
+
+    public int getSpanCount() {
+        synchronized (spans) {
+            return spans.size();
+        }
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Trace{" +
+            "id='" + id + "'" +
+            ", root=" + root +
+            '}';
+    }
+}
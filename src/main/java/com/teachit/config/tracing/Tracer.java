@@ -0,0 +1,212 @@
+package com.teachit.config.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Traces the work of the application, as a tree of {@link Span}s per HTTP request, scheduled job or asynchronous task.
+ *
+ * <p>
+ * The span current on a thread is kept in a thread local, and its trace and span ids in the MDC under "traceId" and
+ * "spanId", so that the log lines carry them. The tasks handed to an executor are wrapped by
+ * {@link #inCurrentTrace(Runnable, String, RecentTraces)}, so that their span is a child of the span current when they
+ * are submitted, on whichever thread they run.
+ * </p>
+ * <p>
+ * Usage:
+ * <pre>
+ * Span span = Tracer.start(Span.Kind.SERVICE, "UserService.createUser");
+ * try {
+ *     ...
+ * } finally {
+ *     Tracer.finish(span);
+ * }
+ * </pre>
+ * A span started without a current trace, or within a trace not sampled, is null, which {@link #finish(Span)}
+ * ignores: only the work of the sampled requests, jobs and tasks is traced, without allocating for the other ones.
+ * </p>
+ */
+public final class Tracer {
+
+    public static final String TRACE_ID = "traceId";
+
+    public static final String SPAN_ID = "spanId";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    /**
+     * @return the span current on this thread, or null if none
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a new trace, its root span becoming current on this thread.
+     *
+     * @param recentTraces the buffer the trace is added to once ended, or null to not keep it
+     */
+    public static Span startTrace(Span.Kind kind, String name, RecentTraces recentTraces) {
+        Trace trace = new Trace(recentTraces);
+        Span span = new Span(trace, null, kind, name, System.nanoTime());
+        trace.setRoot(span);
+        return enter(span);
+    }
+
+    /**
+     * Starts a child of the span current on this thread, becoming current.
+     *
+     * @return the span, or null if there is no current span or its trace is not sampled
+     */
+    public static Span start(Span.Kind kind, String name) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.getTrace().isSampled()) {
+            return null;
+        }
+        return startChild(parent, kind, name);
+    }
+
+    /**
+     * Starts a child of a span of another thread, becoming current on this thread.
+     */
+    public static Span startChild(Span parent, Span.Kind kind, String name) {
+        return enter(new Span(parent.getTrace(), parent, kind, name, System.nanoTime()));
+    }
+
+    /**
+     * Ends a span started on this thread, restoring the span current before it.
+     */
+    public static void finish(Span span) {
+        if (span != null) {
+            span.end();
+            detach(span);
+        }
+    }
+
+    /**
+     * Restores the span current on this thread before a span, without ending it, for a span ended by another thread,
+     * e.g. the one of an asynchronous request.
+     */
+    public static void detach(Span span) {
+        if (span != null && CURRENT.get() == span) {
+            Span previous = span.previous;
+            span.previous = null;
+            if (previous != null) {
+                CURRENT.set(previous);
+                putMdc(previous);
+            } else {
+                CURRENT.remove();
+                MDC.remove(TRACE_ID);
+                MDC.remove(SPAN_ID);
+            }
+        }
+    }
+
+    /**
+     * Records an ended child of the span current on this thread, without making it current, e.g. for a JDBC
+     * statement, unless its trace is not sampled.
+     */
+    public static void record(Span.Kind kind, String name, long startNanos, long durationNanos, boolean error) {
+        Span parent = CURRENT.get();
+        if (parent != null && parent.getTrace().isSampled()) {
+            Span span = new Span(parent.getTrace(), parent, kind, name, startNanos);
+            if (error) {
+                span.markError();
+            }
+            span.end(durationNanos);
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs in an asynchronous span, child of the span current when it is wrapped, or root of
+     * a new trace if none.
+     *
+     * @param recentTraces the buffer of the new traces, or null to leave the task as is
+     */
+    public static Runnable inCurrentTrace(Runnable task, String name, RecentTraces recentTraces) {
+        if (recentTraces == null) {
+            return task;
+        }
+        Span parent = CURRENT.get();
+        return () -> {
+            Span span = startAsync(parent, name, recentTraces);
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                span.markError();
+                throw e;
+            } finally {
+                finish(span);
+            }
+        };
+    }
+
+    /**
+     * @see #inCurrentTrace(Runnable, String, RecentTraces)
+     */
+    public static <T> Callable<T> inCurrentTrace(Callable<T> task, String name, RecentTraces recentTraces) {
+        if (recentTraces == null) {
+            return task;
+        }
+        Span parent = CURRENT.get();
+        return () -> {
+            Span span = startAsync(parent, name, recentTraces);
+            try {
+                return task.call();
+            } catch (Exception | Error e) {
+                span.markError();
+                throw e;
+            } finally {
+                finish(span);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that each of its runs is the root span of a new trace, e.g. for a scheduled job.
+     */
+    public static Runnable inNewTrace(Runnable task, Span.Kind kind, String name, RecentTraces recentTraces) {
+        return () -> {
+            Span span = startTrace(kind, name, recentTraces);
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                span.markError();
+                throw e;
+            } finally {
+                finish(span);
+            }
+        };
+    }
+
+    private static Span startAsync(Span parent, String name, RecentTraces recentTraces) {
+        return parent != null ? startChild(parent, Span.Kind.ASYNC, name) :
+            startTrace(Span.Kind.ASYNC, name, recentTraces);
+    }
+
+    private static Span enter(Span span) {
+        span.previous = CURRENT.get();
+        CURRENT.set(span);
+        putMdc(span);
+        return span;
+    }
+
+    private static void putMdc(Span span) {
+        MDC.put(TRACE_ID, span.getTrace().getId());
+        MDC.put(SPAN_ID, span.getId());
+    }
+
+    /**
+     * @return the short name of the class of a task, without the suffix of the lambdas, to name its span
+     */
+    public static String nameOf(Object task) {
+        String name = ClassUtils.getUserClass(task).getName();
+        int lambda = name.indexOf("$$Lambda");
+        return ClassUtils.getShortName(lambda >= 0 ? name.substring(0, lambda) : name);
+    }
+}
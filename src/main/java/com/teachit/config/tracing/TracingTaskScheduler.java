@@ -0,0 +1,62 @@
+package com.teachit.config.tracing;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ClassUtils;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Runs each run of a scheduled job in a new trace, its root span named after the @Scheduled method.
+ */
+public class TracingTaskScheduler extends ThreadPoolTaskScheduler {
+
+    private final RecentTraces recentTraces;
+
+    public TracingTaskScheduler(RecentTraces recentTraces) {
+        this.recentTraces = recentTraces;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+        return super.schedule(inNewTrace(task), trigger);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+        return super.schedule(inNewTrace(task), startTime);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+        return super.scheduleAtFixedRate(inNewTrace(task), startTime, period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+        return super.scheduleAtFixedRate(inNewTrace(task), period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+        return super.scheduleWithFixedDelay(inNewTrace(task), startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+        return super.scheduleWithFixedDelay(inNewTrace(task), delay);
+    }
+
+    private Runnable inNewTrace(Runnable task) {
+        String name;
+        if (task instanceof ScheduledMethodRunnable) {
+            ScheduledMethodRunnable method = (ScheduledMethodRunnable) task;
+            name = ClassUtils.getUserClass(method.getTarget()).getSimpleName() + "." + method.getMethod().getName();
+        } else {
+            name = Tracer.nameOf(task);
+        }
+        return Tracer.inNewTrace(task, Span.Kind.SCHEDULED, name, recentTraces);
+    }
+}
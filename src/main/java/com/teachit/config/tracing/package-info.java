@@ -0,0 +1,4 @@
+/**
+ * Tracing of the requests, services, statements, asynchronous tasks and scheduled jobs.
+ */
+package com.teachit.config.tracing;
@@ -17,7 +17,7 @@ public class ApplicationAdmission implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "request_date")
@@ -1,5 +1,7 @@
 package com.teachit.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -10,12 +12,14 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "choice")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = "Choice.withQuestion", attributeNodes = { @NamedAttributeNode("question") })
 public class Choice implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "response")
@@ -27,7 +31,7 @@ public class Choice implements Serializable {
     @Column(name = "ordering")
     private Integer ordering;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private MultipleChoiceQuestion question;
 
     public Long getId() {
@@ -1,5 +1,8 @@
 package com.teachit.domain;
 
+import com.teachit.service.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -10,13 +13,21 @@ import java.util.Objects;
  * A Content.
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "content")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "Content.withCourseAndLesson", attributeNodes = { @NamedAttributeNode("course"), @NamedAttributeNode("lesson") }),
+    @NamedEntityGraph(name = "Content.withCourseLessonAndText", attributeNodes = { @NamedAttributeNode("course"), @NamedAttributeNode("lesson"),
+        @NamedAttributeNode("contentText") }),
+    @NamedEntityGraph(name = "Content.withText", attributeNodes = { @NamedAttributeNode("contentText") })
+})
 public class Content implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "file_name")
@@ -28,13 +39,31 @@ public class Content implements Serializable {
     @Column(name = "description")
     private String description;
 
-    @Column(name = "text")
-    private String text;
+    /**
+     * The text, only read when the content is displayed on its own: a new text is set rather than updated, so that
+     * the content is updated with it, see {@link #setText(String)}.
+     */
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "text_id", unique = true)
+    private ContentText contentText;
 
-    @ManyToOne
+    /**
+     * The SHA-256 of the file stored for the content, see BlobStore. The file columns are only written when a file
+     * is uploaded, not with the rest of the content.
+     */
+    @Column(name = "file_hash", length = 64, insertable = false, updatable = false)
+    private String fileHash;
+
+    @Column(name = "file_size", insertable = false, updatable = false)
+    private Long fileSize;
+
+    @Column(name = "file_content_type", insertable = false, updatable = false)
+    private String fileContentType;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     private Course course;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Lesson lesson;
 
     public Long getId() {
@@ -70,11 +99,37 @@ public class Content implements Serializable {
     }
 
     public String getText() {
-        return text;
+        return contentText != null ? contentText.getText() : null;
     }
 
     public void setText(String text) {
-        this.text = text;
+        if (!Objects.equals(text, getText())) {
+            contentText = text != null ? new ContentText(text) : null;
+        }
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
     }
 
     public Course getCourse() {
@@ -120,7 +175,8 @@ public class Content implements Serializable {
             ", fileName='" + fileName + "'" +
             ", startDate='" + startDate + "'" +
             ", description='" + description + "'" +
-            ", text='" + text + "'" +
+            ", fileHash='" + fileHash + "'" +
+            ", fileSize=" + fileSize +
             '}';
     }
 }
@@ -0,0 +1,79 @@
+package com.teachit.domain;
+
+import com.teachit.domain.util.CompressedTextConverter;
+import org.hibernate.annotations.BatchSize;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A ContentText: the text of a content, kept apart and compressed so that it is only read when needed, see Content.text.
+ */
+@Entity
+@Table(name = "content_text")
+@BatchSize(size = 50)
+public class ContentText implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    private Long id;
+
+    // @Lob cannot be combined with @Convert, the blob type is given as the column definition instead
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "text", columnDefinition = "blob")
+    private String text;
+
+    public ContentText() {
+    }
+
+    public ContentText(String text) {
+        this.text = text;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ContentText contentText = (ContentText) o;
+        if(contentText.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, contentText.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentText{" +
+            "id=" + id +
+            ", length=" + (text != null ? text.length() : 0) +
+            '}';
+    }
+}
@@ -10,21 +10,22 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "content_view")
+@NamedEntityGraph(name = "ContentView.withContent", attributeNodes = { @NamedAttributeNode("content") })
 public class ContentView implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "view")
     private Boolean view;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Person person;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Content content;
 
     public Long getId() {
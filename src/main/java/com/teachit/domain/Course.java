@@ -1,6 +1,9 @@
 package com.teachit.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.teachit.service.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -13,13 +16,16 @@ import java.util.Objects;
  * A Course.
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "course")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = "Course.withTeacher", attributeNodes = { @NamedAttributeNode("teacher") })
 public class Course implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "code")
@@ -34,29 +40,33 @@ public class Course implements Serializable {
     @Column(name = "open_course")
     private Boolean openCourse;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = true)
     private ApplicationAdmission applicationAdmission;
 
     @OneToMany(mappedBy = "course")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<MultipleChoiceQuestion> multipleChoices = new HashSet<>();
 
     @OneToMany(mappedBy = "course")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<DiscursiveQuestion> discursiveAnswers = new HashSet<>();
 
     @OneToMany(mappedBy = "course")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Content> contents = new HashSet<>();
 
     @ManyToMany
     @JoinTable(name = "course_lessons",
                joinColumns = @JoinColumn(name="courses_id", referencedColumnName="ID"),
                inverseJoinColumns = @JoinColumn(name="lessons_id", referencedColumnName="ID"))
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Lesson> lessons = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Person teacher;
 
     @ManyToMany(mappedBy = "learningCoursees")
@@ -0,0 +1,118 @@
+package com.teachit.domain;
+
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A CourseProgress: the contents viewed and the questions answered by a student in a course.
+ *
+ * <p>
+ * Each set is a bitmap over the ordinals of the progress items of the course, stored as the bytes of a
+ * {@link java.util.BitSet}. The progress is maintained by the ProgressService with the views and answers.
+ * </p>
+ */
+@Entity
+@Table(name = "course_progress")
+public class CourseProgress implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Person person;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Course course;
+
+    @Lob
+    @Column(name = "viewed_contents")
+    private byte[] viewedContents;
+
+    @Lob
+    @Column(name = "answered_multiple_choices")
+    private byte[] answeredMultipleChoices;
+
+    @Lob
+    @Column(name = "answered_discursives")
+    private byte[] answeredDiscursives;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Person getPerson() {
+        return person;
+    }
+
+    public void setPerson(Person person) {
+        this.person = person;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public byte[] getViewedContents() {
+        return viewedContents;
+    }
+
+    public void setViewedContents(byte[] viewedContents) {
+        this.viewedContents = viewedContents;
+    }
+
+    public byte[] getAnsweredMultipleChoices() {
+        return answeredMultipleChoices;
+    }
+
+    public void setAnsweredMultipleChoices(byte[] answeredMultipleChoices) {
+        this.answeredMultipleChoices = answeredMultipleChoices;
+    }
+
+    public byte[] getAnsweredDiscursives() {
+        return answeredDiscursives;
+    }
+
+    public void setAnsweredDiscursives(byte[] answeredDiscursives) {
+        this.answeredDiscursives = answeredDiscursives;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CourseProgress courseProgress = (CourseProgress) o;
+        if(courseProgress.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, courseProgress.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "CourseProgress{" +
+            "id=" + id +
+            '}';
+    }
+}
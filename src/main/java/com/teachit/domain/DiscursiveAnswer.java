@@ -10,24 +10,34 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "discursive_answer")
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "DiscursiveAnswer.withQuestion", attributeNodes = { @NamedAttributeNode("question") }),
+    @NamedEntityGraph(name = "DiscursiveAnswer.withQuestionAndAnswer", attributeNodes = { @NamedAttributeNode("question"),
+        @NamedAttributeNode("answerText") })
+})
 public class DiscursiveAnswer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
-    @Column(name = "answer")
-    private String answer;
+    /**
+     * The answer, only read when the answer is displayed on its own: a new text is set rather than updated, see
+     * {@link #setAnswer(String)}.
+     */
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "answer_id", unique = true)
+    private DiscursiveAnswerText answerText;
 
     @Column(name = "score")
     private Double score;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private DiscursiveQuestion question;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Person student;
 
     public Long getId() {
@@ -39,11 +49,13 @@ public class DiscursiveAnswer implements Serializable {
     }
 
     public String getAnswer() {
-        return answer;
+        return answerText != null ? answerText.getText() : null;
     }
 
     public void setAnswer(String answer) {
-        this.answer = answer;
+        if (!Objects.equals(answer, getAnswer())) {
+            answerText = answer != null ? new DiscursiveAnswerText(answer) : null;
+        }
     }
 
     public Double getScore() {
@@ -94,7 +106,6 @@ public class DiscursiveAnswer implements Serializable {
     public String toString() {
         return "DiscursiveAnswer{" +
             "id=" + id +
-            ", answer='" + answer + "'" +
             ", score='" + score + "'" +
             '}';
     }
@@ -1,5 +1,8 @@
 package com.teachit.domain;
 
+import com.teachit.service.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -10,13 +13,16 @@ import java.util.Objects;
  * A DiscursiveQuestion.
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "discursive_question")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = "DiscursiveQuestion.withCourseAndLesson", attributeNodes = { @NamedAttributeNode("course"), @NamedAttributeNode("lesson") })
 public class DiscursiveQuestion implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "ordering")
@@ -28,10 +34,10 @@ public class DiscursiveQuestion implements Serializable {
     @Column(name = "question")
     private String question;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Course course;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Lesson lesson;
 
     public Long getId() {
@@ -0,0 +1,174 @@
+package com.teachit.domain;
+
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A FileUpload: a file being uploaded for a content in chunks, which may be sent in any order, in parallel, and
+ * again after a failure or a restart.
+ *
+ * <p>
+ * The file is split in chunks of the chunk size, the last one possibly shorter, written in place in a sparse file
+ * by the UploadStore. The chunks written are a bitmap over their indexes, stored as the bytes of a {@link BitSet}.
+ * </p>
+ */
+@Entity
+@Table(name = "file_upload")
+public class FileUpload implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Content content;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_content_type")
+    private String fileContentType;
+
+    @NotNull
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @NotNull
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Lob
+    @Column(name = "received_chunks")
+    private byte[] receivedChunks;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private ZonedDateTime createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Content getContent() {
+        return content;
+    }
+
+    public void setContent(Content content) {
+        this.content = content;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public byte[] getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(byte[] receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public ZonedDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(ZonedDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * Returns the number of chunks of the file.
+     */
+    public int getChunks() {
+        return (int) ((fileSize + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Returns the length of a chunk: the chunk size, but for the last chunk.
+     *
+     * @param chunk the index of the chunk
+     */
+    public int getChunkLength(int chunk) {
+        return (int) Math.min(chunkSize, fileSize - (long) chunk * chunkSize);
+    }
+
+    public BitSet getReceivedChunkSet() {
+        return receivedChunks != null ? BitSet.valueOf(receivedChunks) : new BitSet();
+    }
+
+    public boolean isComplete() {
+        return getReceivedChunkSet().cardinality() == getChunks();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FileUpload fileUpload = (FileUpload) o;
+        if(fileUpload.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, fileUpload.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "FileUpload{" +
+            "id=" + id +
+            ", fileName='" + fileName + "'" +
+            ", fileContentType='" + fileContentType + "'" +
+            ", fileSize='" + fileSize + "'" +
+            ", chunkSize='" + chunkSize + "'" +
+            ", createdDate='" + createdDate + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,142 @@
+package com.teachit.domain;
+
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A GradebookEntry: the totals of the answers of a student to the questions of a course and lesson.
+ *
+ * <p>
+ * The entries are maintained by the GradebookService in the transactions writing the answers, so that the grades
+ * of a student or of a course are read without scanning the answers. The course or the lesson is null for the
+ * answers to questions without one.
+ * </p>
+ */
+@Entity
+@Table(name = "gradebook_entry")
+public class GradebookEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Person person;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Lesson lesson;
+
+    @Column(name = "discursive_answers", nullable = false)
+    private int discursiveAnswers;
+
+    @Column(name = "discursive_score", nullable = false)
+    private double discursiveScore;
+
+    @Column(name = "multiple_choice_answers", nullable = false)
+    private int multipleChoiceAnswers;
+
+    @Column(name = "correct_answers", nullable = false)
+    private int correctAnswers;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Person getPerson() {
+        return person;
+    }
+
+    public void setPerson(Person person) {
+        this.person = person;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public Lesson getLesson() {
+        return lesson;
+    }
+
+    public void setLesson(Lesson lesson) {
+        this.lesson = lesson;
+    }
+
+    public int getDiscursiveAnswers() {
+        return discursiveAnswers;
+    }
+
+    public void setDiscursiveAnswers(int discursiveAnswers) {
+        this.discursiveAnswers = discursiveAnswers;
+    }
+
+    public double getDiscursiveScore() {
+        return discursiveScore;
+    }
+
+    public void setDiscursiveScore(double discursiveScore) {
+        this.discursiveScore = discursiveScore;
+    }
+
+    public int getMultipleChoiceAnswers() {
+        return multipleChoiceAnswers;
+    }
+
+    public void setMultipleChoiceAnswers(int multipleChoiceAnswers) {
+        this.multipleChoiceAnswers = multipleChoiceAnswers;
+    }
+
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    public void setCorrectAnswers(int correctAnswers) {
+        this.correctAnswers = correctAnswers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GradebookEntry gradebookEntry = (GradebookEntry) o;
+        if(gradebookEntry.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, gradebookEntry.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "GradebookEntry{" +
+            "id=" + id +
+            ", discursiveAnswers='" + discursiveAnswers + "'" +
+            ", discursiveScore='" + discursiveScore + "'" +
+            ", multipleChoiceAnswers='" + multipleChoiceAnswers + "'" +
+            ", correctAnswers='" + correctAnswers + "'" +
+            '}';
+    }
+}
@@ -1,6 +1,9 @@
 package com.teachit.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.teachit.service.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -13,13 +16,15 @@ import java.util.Objects;
  * A Lesson.
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "lesson")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Lesson implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "ordering")
@@ -36,18 +41,22 @@ public class Lesson implements Serializable {
 
     @OneToMany(mappedBy = "lesson")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<MultipleChoiceQuestion> multipleChoices = new HashSet<>();
 
     @OneToMany(mappedBy = "lesson")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<DiscursiveQuestion> discursiveAnswers = new HashSet<>();
 
     @OneToMany(mappedBy = "lesson")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Content> contents = new HashSet<>();
 
     @ManyToMany(mappedBy = "lessons")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Course> courses = new HashSet<>();
 
     public Long getId() {
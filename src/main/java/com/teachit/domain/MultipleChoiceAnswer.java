@@ -10,22 +10,22 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "multiple_choice_answer")
+@NamedEntityGraph(name = "MultipleChoiceAnswer.withChoosenAndQuestion", attributeNodes = { @NamedAttributeNode("choosen"), @NamedAttributeNode("question") })
 public class MultipleChoiceAnswer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
-    @OneToOne
-    @JoinColumn(unique = true)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Choice choosen;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private MultipleChoiceQuestion question;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Person student;
 
     public Long getId() {
@@ -1,6 +1,9 @@
 package com.teachit.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.teachit.service.search.SearchIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -13,13 +16,16 @@ import java.util.Objects;
  * A MultipleChoiceQuestion.
  */
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "multiple_choice_question")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = "MultipleChoiceQuestion.withCourseAndLesson", attributeNodes = { @NamedAttributeNode("course"), @NamedAttributeNode("lesson") })
 public class MultipleChoiceQuestion implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooledIdGenerator")
     private Long id;
 
     @Column(name = "ordering")
@@ -33,12 +39,13 @@ public class MultipleChoiceQuestion implements Serializable {
 
     @OneToMany(mappedBy = "question")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Choice> answers = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Course course;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Lesson lesson;
 
     public Long getId() {
@@ -0,0 +1,110 @@
+package com.teachit.domain;
+
+
+import com.teachit.domain.enumeration.ProgressItemType;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A ProgressItem: the ordinal of a content or question in the progress bitmaps of its course.
+ *
+ * <p>
+ * The ordinals of each type of item are allocated from 0 per course, in the order the items are first tracked, so
+ * that the bitmaps stay dense whatever the ids of the items.
+ * </p>
+ */
+@Entity
+@Table(name = "progress_item")
+public class ProgressItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "pooledIdGenerator")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Course course;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false)
+    private ProgressItemType itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "item_ordinal", nullable = false)
+    private int ordinal;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public ProgressItemType getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(ProgressItemType itemType) {
+        this.itemType = itemType;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ProgressItem progressItem = (ProgressItem) o;
+        if(progressItem.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, progressItem.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ProgressItem{" +
+            "id=" + id +
+            ", itemType='" + itemType + "'" +
+            ", itemId='" + itemId + "'" +
+            ", ordinal='" + ordinal + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,8 @@
+package com.teachit.domain.enumeration;
+
+/**
+ * The ProgressItemType enumeration: the kinds of items of a course tracked by the progress bitmaps.
+ */
+public enum ProgressItemType {
+    CONTENT, MULTIPLE_CHOICE_QUESTION, DISCURSIVE_QUESTION
+}
@@ -0,0 +1,4 @@
+/**
+ * Enumerations of the domain objects.
+ */
+package com.teachit.domain.enumeration;
@@ -1,4 +1,21 @@
 /**
  * JPA domain objects.
+ *
+ * <p>
+ * The ids of the entities are handed out by blocks of 50 from the rows of the "id_generator" table, one row per
+ * entity table, so that new entities get their ids without a round trip each and their inserts can be batched.
+ * </p>
  */
+@GenericGenerator(name = "pooledIdGenerator", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+    @Parameter(name = TableGenerator.TABLE_PARAM, value = "id_generator"),
+    @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "sequence_name"),
+    @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "next_val"),
+    @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+    @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+    @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled")
+})
 package com.teachit.domain;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
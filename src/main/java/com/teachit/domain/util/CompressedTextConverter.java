@@ -0,0 +1,101 @@
+package com.teachit.domain.util;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores a text as its UTF-8 bytes deflated, behind a byte telling whether they are: the short texts, which deflate
+ * does not make shorter, are stored as is.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte PLAIN = 0;
+
+    private static final byte DEFLATED = 1;
+
+    private static final int MIN_DEFLATED_LENGTH = 256;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= MIN_DEFLATED_LENGTH) {
+            byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                return deflated;
+            }
+        }
+        byte[] column = new byte[bytes.length + 1];
+        column[0] = PLAIN;
+        System.arraycopy(bytes, 0, column, 1, bytes.length);
+        return column;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        if (column.length == 0) {
+            return "";
+        }
+        switch (column[0]) {
+            case PLAIN:
+                return new String(column, 1, column.length - 1, StandardCharsets.UTF_8);
+            case DEFLATED:
+                return new String(inflate(column), StandardCharsets.UTF_8);
+            default:
+                throw new IllegalArgumentException("Unknown text format: " + column[0]);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream column = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            column.write(DEFLATED);
+            byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+            while (!deflater.finished()) {
+                column.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return column.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] column) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column, 1, column.length - 1);
+            byte[] bytes = new byte[Math.max(64, column.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                int inflated = inflater.inflate(bytes, length, bytes.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated deflated text");
+                }
+                length += inflated;
+            }
+            return Arrays.copyOf(bytes, length);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflated text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -10,6 +10,6 @@ import java.util.List;
  * Spring Data JPA repository for the ApplicationAdmission entity.
  */
 @SuppressWarnings("unused")
-public interface ApplicationAdmissionRepository extends JpaRepository<ApplicationAdmission,Long> {
+public interface ApplicationAdmissionRepository extends JpaRepository<ApplicationAdmission,Long>, JpaSpecificationExecutor<ApplicationAdmission> {
 
 }
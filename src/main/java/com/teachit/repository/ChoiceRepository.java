@@ -2,14 +2,46 @@ package com.teachit.repository;
 
 import com.teachit.domain.Choice;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the Choice entity.
  */
 @SuppressWarnings("unused")
-public interface ChoiceRepository extends JpaRepository<Choice,Long> {
+public interface ChoiceRepository extends JpaRepository<Choice,Long>, JpaSpecificationExecutor<Choice> {
+
+    @Override
+    @EntityGraph("Choice.withQuestion")
+    Choice findOne(Long id);
+
+    @Override
+    @EntityGraph("Choice.withQuestion")
+    Page<Choice> findAll(Specification<Choice> spec, Pageable pageable);
+
+    /**
+     * Returns the answer key of the given choices in a single query, without loading the entities: an array of
+     * the choice id, the question id, whether the choice is correct, the lesson id and the course id of the
+     * question, for each choice found.
+     *
+     * @param ids the ids of the choices
+     */
+    @Query("select choice.id, question.id, choice.correct, question.lesson.id, question.course.id " +
+        "from Choice choice join choice.question question where choice.id in :ids")
+    List<Object[]> findAnswerKeys(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the answer key of all the questions, without loading the entities: an array of the choice id and
+     * the question id for each correct choice.
+     */
+    @Query("select choice.id, choice.question.id from Choice choice " +
+        "where choice.correct = true and choice.question is not null")
+    List<Object[]> findCorrectChoices();
 
 }
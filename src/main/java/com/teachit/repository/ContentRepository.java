@@ -2,14 +2,66 @@ package com.teachit.repository;
 
 import com.teachit.domain.Content;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the Content entity.
  */
 @SuppressWarnings("unused")
-public interface ContentRepository extends JpaRepository<Content,Long> {
+public interface ContentRepository extends JpaRepository<Content,Long>, JpaSpecificationExecutor<Content> {
+
+    @Override
+    @EntityGraph("Content.withCourseLessonAndText")
+    Content findOne(Long id);
+
+    @Override
+    @EntityGraph("Content.withCourseAndLesson")
+    Page<Content> findAll(Specification<Content> spec, Pageable pageable);
+
+    @Query("select content.id from Content content where content.id in :ids")
+    List<Long> findIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Selects the courses of some contents.
+     *
+     * @return a row per content having a course: the content id and the course id
+     */
+    @Query("select content.id, content.course.id from Content content " +
+        "where content.id in :ids and content.course is not null")
+    List<Object[]> findCourses(@Param("ids") Collection<Long> ids);
+
+    @Query("select content.id from Content content where content.course.id = :courseId " +
+        "order by content.startDate, content.id")
+    List<Long> findIdsOfCourse(@Param("courseId") Long courseId);
+
+    /**
+     * Points a content at a stored file, the file columns are not written with the rest of the content.
+     *
+     * @return the number of contents updated, 0 if the content does not exist
+     */
+    @Modifying
+    @Query("update Content content set content.fileHash = :fileHash, content.fileSize = :fileSize, " +
+        "content.fileContentType = :fileContentType where content.id = :id")
+    int updateFile(@Param("id") Long id, @Param("fileHash") String fileHash, @Param("fileSize") Long fileSize,
+                   @Param("fileContentType") String fileContentType);
+
+    /**
+     * Selects the file of a content, without its relationships nor its text, for the downloads.
+     *
+     * @return a row if the content exists: the file hash, size, content type and name
+     */
+    @Query("select content.fileHash, content.fileSize, content.fileContentType, content.fileName " +
+        "from Content content where content.id = :id")
+    List<Object[]> findFile(@Param("id") Long id);
+
+    @Query("select distinct content.fileHash from Content content where content.fileHash is not null")
+    List<String> findFileHashes();
 
 }
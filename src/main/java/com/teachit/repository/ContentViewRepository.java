@@ -2,14 +2,54 @@ package com.teachit.repository;
 
 import com.teachit.domain.ContentView;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the ContentView entity.
  */
 @SuppressWarnings("unused")
-public interface ContentViewRepository extends JpaRepository<ContentView,Long> {
+public interface ContentViewRepository extends JpaRepository<ContentView,Long>, JpaSpecificationExecutor<ContentView> {
+
+    @Override
+    @EntityGraph("ContentView.withContent")
+    ContentView findOne(Long id);
+
+    @Override
+    @EntityGraph("ContentView.withContent")
+    Page<ContentView> findAll(Specification<ContentView> spec, Pageable pageable);
+
+    /**
+     * Selects the views of some people on some contents, without loading the entities.
+     *
+     * @param personIds the ids of the people
+     * @param contentIds the ids of the contents
+     * @return a row per view of one of the people on one of the contents: the view id, the person id, the content
+     * id and whether the content was viewed
+     */
+    @Query("select contentView.id, contentView.person.id, contentView.content.id, contentView.view " +
+        "from ContentView contentView " +
+        "where contentView.person.id in :personIds and contentView.content.id in :contentIds")
+    List<Object[]> findViews(@Param("personIds") Collection<Long> personIds, @Param("contentIds") Collection<Long> contentIds);
+
+    @Modifying
+    @Query("update ContentView contentView set contentView.view = true where contentView.id in :ids")
+    int markViewed(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Selects the contents of a course viewed, for all the views.
+     *
+     * @return a row per view: the person id, the course id and the content id
+     */
+    @Query("select contentView.person.id, content.course.id, content.id " +
+        "from ContentView contentView join contentView.content content " +
+        "where contentView.view = true and contentView.person is not null and content.course is not null")
+    List<Object[]> findAllProgressRows();
 
 }
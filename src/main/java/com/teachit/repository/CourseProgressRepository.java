@@ -0,0 +1,41 @@
+package com.teachit.repository;
+
+import com.teachit.domain.CourseProgress;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the CourseProgress entity.
+ */
+@SuppressWarnings("unused")
+public interface CourseProgressRepository extends JpaRepository<CourseProgress,Long> {
+
+    @Query("select progress from CourseProgress progress " +
+        "where progress.person.id = :personId and progress.course.id = :courseId")
+    CourseProgress findOneOf(@Param("personId") Long personId, @Param("courseId") Long courseId);
+
+    /**
+     * Selects the progress of some people in some courses, with their keys so that the keys are read without
+     * initializing the references.
+     *
+     * @return a row per progress: the person id, the course id, then the progress
+     */
+    @Query("select progress.person.id, progress.course.id, progress from CourseProgress progress " +
+        "where progress.person.id in :personIds and progress.course.id in :courseIds")
+    List<Object[]> findAllOf(@Param("personIds") Collection<Long> personIds, @Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Selects the bitmaps of the students of a course, without loading the entities.
+     *
+     * @return a row per student: the person id, then the viewed contents, answered multiple choice questions and
+     * answered discursive questions bitmaps
+     */
+    @Query("select progress.person.id, progress.viewedContents, progress.answeredMultipleChoices, " +
+        "progress.answeredDiscursives from CourseProgress progress where progress.course.id = :courseId")
+    List<Object[]> findBitmapsOfCourse(@Param("courseId") Long courseId);
+
+}
@@ -2,21 +2,63 @@ package com.teachit.repository;
 
 import com.teachit.domain.Course;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import javax.persistence.LockModeType;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the Course entity.
  */
 @SuppressWarnings("unused")
-public interface CourseRepository extends JpaRepository<Course,Long> {
+public interface CourseRepository extends JpaRepository<Course,Long>, JpaSpecificationExecutor<Course> {
 
-    @Query("select distinct course from Course course left join fetch course.lessons")
-    List<Course> findAllWithEagerRelationships();
+    /**
+     * Query cache region holding the results of the course catalog queries.
+     */
+    String CATALOG_QUERY_CACHE = "com.teachit.repository.CourseRepository.catalog";
 
-    @Query("select course from Course course left join fetch course.lessons where course.id =:id")
+    /**
+     * Selects the lessons of the given courses, e.g. the ids of a page of courses, so that the page is completed
+     * with a single query instead of one per course.
+     *
+     * @param ids the ids of the courses
+     * @return a row per lesson of a course: the course id, then the lesson id, ordering, start date, name and
+     * description
+     */
+    @Query("select course.id, lesson.id, lesson.ordering, lesson.startDate, lesson.name, lesson.description " +
+        "from Course course join course.lessons lesson where course.id in :ids")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CATALOG_QUERY_CACHE)
+    })
+    List<Object[]> findLessonsOfCourses(@Param("ids") Collection<Long> ids);
+
+    @Query("select course from Course course left join fetch course.lessons left join fetch course.teacher where course.id =:id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CATALOG_QUERY_CACHE)
+    })
     Course findOneWithEagerRelationships(@Param("id") Long id);
 
+    @Override
+    @EntityGraph("Course.withTeacher")
+    Page<Course> findAll(Specification<Course> spec, Pageable pageable);
+
+    /**
+     * Locks the given courses until the end of the transaction, in the order of their ids.
+     *
+     * @param ids the ids of the courses
+     * @return the courses locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select course from Course course where course.id in :ids order by course.id")
+    List<Course> lockAll(@Param("ids") Collection<Long> ids);
+
 }
@@ -2,14 +2,79 @@ package com.teachit.repository;
 
 import com.teachit.domain.DiscursiveAnswer;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the DiscursiveAnswer entity.
  */
 @SuppressWarnings("unused")
-public interface DiscursiveAnswerRepository extends JpaRepository<DiscursiveAnswer,Long> {
+public interface DiscursiveAnswerRepository extends JpaRepository<DiscursiveAnswer,Long>, JpaSpecificationExecutor<DiscursiveAnswer> {
+
+    @Override
+    @EntityGraph("DiscursiveAnswer.withQuestionAndAnswer")
+    DiscursiveAnswer findOne(Long id);
+
+    @Override
+    @EntityGraph("DiscursiveAnswer.withQuestion")
+    Page<DiscursiveAnswer> findAll(Specification<DiscursiveAnswer> spec, Pageable pageable);
+
+    /**
+     * Selects the students of some discursive answers, to be locked before their totals are read.
+     *
+     * @param ids the ids of the answers
+     * @return the ids of the students
+     */
+    @Query("select distinct answer.student.id from DiscursiveAnswer answer where answer.id in :ids and answer.student is not null")
+    List<Long> findStudentIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums the discursive answers per student and per course and lesson of their question, i.e. the totals of
+     * the gradebook entries they count in.
+     *
+     * @param ids the ids of the answers
+     * @return a row per gradebook entry: the person, course and lesson ids, the number of answers and their score
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, count(answer), sum(answer.score) " +
+        "from DiscursiveAnswer answer left join answer.question question " +
+        "where answer.id in :ids and answer.student is not null " +
+        "group by answer.student.id, question.course.id, question.lesson.id")
+    List<Object[]> sumGrades(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums all the discursive answers, as {@link #sumGrades(Collection)}.
+     *
+     * @return a row per gradebook entry
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, count(answer), sum(answer.score) " +
+        "from DiscursiveAnswer answer left join answer.question question " +
+        "where answer.student is not null " +
+        "group by answer.student.id, question.course.id, question.lesson.id")
+    List<Object[]> sumAllGrades();
+
+    /**
+     * Selects the questions of a course answered by some answers.
+     *
+     * @param ids the ids of the answers
+     * @return a row per answer to a question of a course: the person id, the course id and the question id
+     */
+    @Query("select answer.student.id, question.course.id, question.id " +
+        "from DiscursiveAnswer answer join answer.question question " +
+        "where answer.id in :ids and answer.student is not null and question.course is not null")
+    List<Object[]> findProgressRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Selects the questions of a course answered by all the answers, as {@link #findProgressRows(Collection)}.
+     */
+    @Query("select distinct answer.student.id, question.course.id, question.id " +
+        "from DiscursiveAnswer answer join answer.question question " +
+        "where answer.student is not null and question.course is not null")
+    List<Object[]> findAllProgressRows();
 
 }
@@ -2,7 +2,11 @@ package com.teachit.repository;
 
 import com.teachit.domain.DiscursiveQuestion;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -10,6 +14,17 @@ import java.util.List;
  * Spring Data JPA repository for the DiscursiveQuestion entity.
  */
 @SuppressWarnings("unused")
-public interface DiscursiveQuestionRepository extends JpaRepository<DiscursiveQuestion,Long> {
+public interface DiscursiveQuestionRepository extends JpaRepository<DiscursiveQuestion,Long>, JpaSpecificationExecutor<DiscursiveQuestion> {
+
+    @Override
+    @EntityGraph("DiscursiveQuestion.withCourseAndLesson")
+    DiscursiveQuestion findOne(Long id);
+
+    @Override
+    @EntityGraph("DiscursiveQuestion.withCourseAndLesson")
+    Page<DiscursiveQuestion> findAll(Specification<DiscursiveQuestion> spec, Pageable pageable);
+
+    @Query("select question.id from DiscursiveQuestion question where question.course.id = :courseId")
+    List<Long> findIdsOfCourse(@Param("courseId") Long courseId);
 
 }
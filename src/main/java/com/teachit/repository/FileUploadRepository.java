@@ -0,0 +1,36 @@
+package com.teachit.repository;
+
+import com.teachit.domain.FileUpload;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the FileUpload entity.
+ */
+@SuppressWarnings("unused")
+public interface FileUploadRepository extends JpaRepository<FileUpload,Long> {
+
+    /**
+     * Selects an upload and locks it, so that the chunks received in parallel are added one after the other to its
+     * bitmap.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select upload from FileUpload upload where upload.id = :id")
+    FileUpload findOneForUpdate(@Param("id") Long id);
+
+    @Query("select upload.id from FileUpload upload")
+    List<Long> findIds();
+
+    @Query("select upload.id from FileUpload upload where upload.createdDate < :date")
+    List<Long> findIdsCreatedBefore(@Param("date") ZonedDateTime date);
+
+    @Modifying
+    @Query("delete from FileUpload upload where upload.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+}
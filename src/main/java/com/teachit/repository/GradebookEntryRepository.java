@@ -0,0 +1,79 @@
+package com.teachit.repository;
+
+import com.teachit.domain.GradebookEntry;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the GradebookEntry entity.
+ */
+@SuppressWarnings("unused")
+public interface GradebookEntryRepository extends JpaRepository<GradebookEntry,Long> {
+
+    /**
+     * Adds the given deltas to the totals of an entry, in the database. An entry already loaded in the persistence
+     * context is not updated: it must be refreshed before being written back, see GradingService.
+     *
+     * @return the number of entries updated, 0 if the entry does not exist yet
+     */
+    @Modifying
+    @Query("update GradebookEntry entry set " +
+        "entry.discursiveAnswers = entry.discursiveAnswers + :discursiveAnswers, " +
+        "entry.discursiveScore = entry.discursiveScore + :discursiveScore, " +
+        "entry.multipleChoiceAnswers = entry.multipleChoiceAnswers + :multipleChoiceAnswers, " +
+        "entry.correctAnswers = entry.correctAnswers + :correctAnswers " +
+        "where entry.person.id = :personId " +
+        "and (entry.course.id = :courseId or :courseId is null and entry.course is null) " +
+        "and (entry.lesson.id = :lessonId or :lessonId is null and entry.lesson is null)")
+    int increment(@Param("personId") Long personId, @Param("courseId") Long courseId, @Param("lessonId") Long lessonId,
+                  @Param("discursiveAnswers") int discursiveAnswers, @Param("discursiveScore") double discursiveScore,
+                  @Param("multipleChoiceAnswers") int multipleChoiceAnswers, @Param("correctAnswers") int correctAnswers);
+
+    /**
+     * Sums the entries of a student per course.
+     *
+     * @param personId the id of the student
+     * @return a row per course: the course id, the number of discursive answers, their score, the number of
+     * multiple choice answers and of correct ones
+     */
+    @Query("select entry.course.id, sum(entry.discursiveAnswers), sum(entry.discursiveScore), " +
+        "sum(entry.multipleChoiceAnswers), sum(entry.correctAnswers) " +
+        "from GradebookEntry entry where entry.person.id = :personId group by entry.course.id")
+    List<Object[]> sumByCourseOfStudent(@Param("personId") Long personId);
+
+    /**
+     * Sums the entries of a course per student.
+     *
+     * @param courseId the id of the course
+     * @return a row per student: the person id, then the totals as {@link #sumByCourseOfStudent(Long)}
+     */
+    @Query("select entry.person.id, sum(entry.discursiveAnswers), sum(entry.discursiveScore), " +
+        "sum(entry.multipleChoiceAnswers), sum(entry.correctAnswers) " +
+        "from GradebookEntry entry where entry.course.id = :courseId group by entry.person.id")
+    List<Object[]> sumByStudentOfCourse(@Param("courseId") Long courseId);
+
+    /**
+     * Selects the entries of a lesson with their keys, so that the keys are read without initializing the
+     * references.
+     *
+     * @param lessonId the id of the lesson
+     * @return a row per entry: the person, course and lesson ids, then the entry
+     */
+    @Query("select entry.person.id, entry.course.id, entry.lesson.id, entry " +
+        "from GradebookEntry entry where entry.lesson.id = :lessonId")
+    List<Object[]> findAllOfLesson(@Param("lessonId") Long lessonId);
+
+    /**
+     * Selects the entries of a course with their keys, as {@link #findAllOfLesson(Long)}.
+     *
+     * @param courseId the id of the course
+     * @return a row per entry
+     */
+    @Query("select entry.person.id, entry.course.id, entry.lesson.id, entry " +
+        "from GradebookEntry entry where entry.course.id = :courseId")
+    List<Object[]> findAllOfCourse(@Param("courseId") Long courseId);
+
+}
@@ -0,0 +1,21 @@
+package com.teachit.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a pagination cursor cannot be decoded, e.g. because it was tampered with or belongs to another sort.
+ *
+ * <p>
+ * It is not an IllegalArgumentException, which repositories would translate to a data access exception.
+ * </p>
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid pagination cursor")
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid pagination cursor: " + cursor, cause);
+    }
+}
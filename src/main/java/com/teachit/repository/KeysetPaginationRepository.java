@@ -0,0 +1,391 @@
+package com.teachit.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ReflectionUtils;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (a.k.a. seek) pagination of any entity.
+ *
+ * <p>
+ * Instead of skipping the rows of the previous pages, a page starts right after the position of the last row
+ * returned, given as an opaque cursor. The position is the value of every sort property plus the id, which is
+ * always used as the last sort property so that positions are unique. Pages are fetched without a count query,
+ * {@link #count(Class)} returns a cached total instead.
+ * </p>
+ *
+ * <p>
+ * Only basic attributes of the entity can be used as keys, other sorts (e.g. on an association) fall back to
+ * an offset query. Null values are considered lower than any other value, as MySQL and H2 sort them.
+ * </p>
+ *
+ * <p>
+ * A page can be selected into DTOs with a constructor projection, so that only the returned columns are read and
+ * no managed entity is loaded. The selected attributes are given as paths, either a basic attribute, e.g. "name",
+ * or an attribute of a to-one association, e.g. "course.name".
+ * </p>
+ */
+@Repository
+@Transactional(readOnly = true)
+public class KeysetPaginationRepository {
+
+    public static final String ENTITY_COUNTS_CACHE = "entityCounts";
+
+    private static final String ID = "id";
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    /**
+     * Returns the page starting after the given cursor, or the first page if there is no cursor.
+     *
+     * @param domainClass the entity to page
+     * @param spec the restriction of the entities to page, or null
+     * @param after the cursor returned by {@link #nextCursor(Slice)} for the previous page, or null
+     * @param pageable the page size and sort, the page number is only used when the sort is not supported
+     */
+    public <T> Slice<T> findAll(Class<T> domainClass, Specification<T> spec, String after, Pageable pageable) {
+        return findAll(domainClass, spec, after, pageable, null);
+    }
+
+    /**
+     * Returns the page starting after the given cursor, or the first page if there is no cursor, fetching the
+     * associations of the given entity graph with the entities.
+     *
+     * @param domainClass the entity to page
+     * @param spec the restriction of the entities to page, or null
+     * @param after the cursor returned by {@link #nextCursor(Slice)} for the previous page, or null
+     * @param pageable the page size and sort, the page number is only used when the sort is not supported
+     * @param entityGraph the name of the entity graph to fetch, or null
+     */
+    public <T> Slice<T> findAll(Class<T> domainClass, Specification<T> spec, String after, Pageable pageable,
+                                String entityGraph) {
+        CriteriaQuery<T> query = em.getCriteriaBuilder().createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        query.select(root);
+        TypedQuery<T> typedQuery = seekQuery(query, root, spec, after, pageable);
+        if (entityGraph != null) {
+            typedQuery.setHint(FETCH_GRAPH_HINT, em.getEntityGraph(entityGraph));
+        }
+        return slice(typedQuery, pageable);
+    }
+
+    /**
+     * Returns the page starting after the given cursor, or the first page if there is no cursor, selecting only
+     * the given attributes into DTOs instead of loading managed entities.
+     *
+     * @param domainClass the entity to page
+     * @param spec the restriction of the entities to page, or null
+     * @param after the cursor returned by {@link #nextCursor(Class, Slice)} for the previous page, or null
+     * @param pageable the page size and sort, the page number is only used when the sort is not supported
+     * @param projection the DTO, with a constructor taking the selected attributes in order
+     * @param paths the selected attributes, in the order of the constructor parameters
+     */
+    public <T, D> Slice<D> findAll(Class<T> domainClass, Specification<T> spec, String after, Pageable pageable,
+                                   Class<D> projection, String... paths) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(projection);
+        Root<T> root = query.from(domainClass);
+        query.select(cb.construct(projection, select(root, paths)));
+        return slice(seekQuery(query, root, spec, after, pageable), pageable);
+    }
+
+    /**
+     * Returns the page at the offset of the given page number, with the total number of matching entities,
+     * selecting only the given attributes into DTOs. Used when a client jumps to a page instead of following
+     * the cursors.
+     *
+     * @param domainClass the entity to page
+     * @param spec the restriction of the entities to page, or null
+     * @param pageable the page number, size and sort
+     * @param projection the DTO, with a constructor taking the selected attributes in order
+     * @param paths the selected attributes, in the order of the constructor parameters
+     */
+    public <T, D> Page<D> findPage(Class<T> domainClass, Specification<T> spec, Pageable pageable,
+                                   Class<D> projection, String... paths) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(projection);
+        Root<T> root = query.from(domainClass);
+        query.select(cb.construct(projection, select(root, paths)));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort() != null) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        List<D> content = em.createQuery(query)
+            .setFirstResult(pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        return new PageImpl<>(content, pageable, countMatching(domainClass, spec));
+    }
+
+    /**
+     * Returns the cursor of the page following the given page of entities, or null if it is the last page or its
+     * sort is not supported.
+     */
+    public String nextCursor(Slice<?> slice) {
+        if (!slice.hasNext() || !slice.hasContent()) {
+            return null;
+        }
+        Object last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        if (last instanceof HibernateProxy) {
+            last = ((HibernateProxy) last).getHibernateLazyInitializer().getImplementation();
+        }
+        return cursor(em.getMetamodel().entity(last.getClass()), slice.getSort(), last);
+    }
+
+    /**
+     * Returns the cursor of the page following the given page of DTOs, or null if it is the last page or its sort
+     * is not supported. The DTOs must have a field named after every basic attribute the page can be sorted by.
+     *
+     * @param domainClass the entity paged
+     * @param slice the page returned by {@link #findAll(Class, Specification, String, Pageable, Class, String...)}
+     */
+    public String nextCursor(Class<?> domainClass, Slice<?> slice) {
+        if (!slice.hasNext() || !slice.hasContent()) {
+            return null;
+        }
+        Object last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return cursor(em.getMetamodel().entity(domainClass), slice.getSort(), last);
+    }
+
+    /**
+     * Returns the number of entities, cached for the time to live of the {@value #ENTITY_COUNTS_CACHE} cache.
+     */
+    @Cacheable(cacheNames = ENTITY_COUNTS_CACHE, key = "#domainClass.name")
+    public long count(Class<?> domainClass) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(domainClass)));
+        return em.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Returns the number of entities matching the given restriction, counting each entity once when the
+     * restriction joins a collection.
+     */
+    private <T> long countMatching(Class<T> domainClass, Specification<T> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return em.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Restricts a query to the page of the given cursor, or to the offset of the given page number when its sort
+     * is not supported, and sorts it.
+     */
+    private <T, R> TypedQuery<R> seekQuery(CriteriaQuery<R> query, Root<T> root, Specification<T> spec, String after,
+                                           Pageable pageable) {
+        EntityType<T> entityType = root.getModel();
+        Sort sort = keysetSort(entityType, pageable.getSort());
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        int firstResult = 0;
+        if (sort == null) {
+            sort = pageable.getSort();
+            firstResult = pageable.getOffset();
+        } else if (after != null && !after.isEmpty()) {
+            predicates.add(seek(cb, root, sort, decode(entityType, sort, after)));
+        }
+        query.where(predicates.toArray(new Predicate[predicates.size()]));
+        if (sort != null) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return em.createQuery(query)
+            .setFirstResult(firstResult)
+            .setMaxResults(pageable.getPageSize() + 1);
+    }
+
+    /**
+     * Returns a page of the rows of a query fetching one row more than the page size, which tells whether there is
+     * a next page.
+     */
+    private <R> Slice<R> slice(TypedQuery<R> query, Pageable pageable) {
+        List<R> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Resolves the selected attributes of a projection. A path is either a basic attribute, e.g. "name", or an
+     * attribute of a to-one association, e.g. "course.name". The id of an association is read from the foreign
+     * key, other attributes of an association are read through a left join, so that entities without the
+     * association are still selected.
+     */
+    private Selection<?>[] select(Root<?> root, String[] paths) {
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        Selection<?>[] selections = new Selection<?>[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            int dot = paths[i].indexOf('.');
+            if (dot < 0) {
+                selections[i] = root.get(paths[i]);
+                continue;
+            }
+            String association = paths[i].substring(0, dot);
+            String attribute = paths[i].substring(dot + 1);
+            if (ID.equals(attribute)) {
+                selections[i] = root.get(association).get(ID);
+            } else {
+                selections[i] = joins.computeIfAbsent(association, key -> root.join(key, JoinType.LEFT)).get(attribute);
+            }
+        }
+        return selections;
+    }
+
+    /**
+     * Returns the cursor of the position of a row, read from the fields of the entity or DTO named after the
+     * properties of the sort.
+     */
+    private String cursor(EntityType<?> entityType, Sort requested, Object last) {
+        Sort sort = keysetSort(entityType, requested);
+        if (sort == null) {
+            return null;
+        }
+        ArrayNode position = objectMapper.createArrayNode();
+        for (Sort.Order order : sort) {
+            Field field = ReflectionUtils.findField(last.getClass(), order.getProperty());
+            if (field == null) {
+                throw new IllegalStateException("No field " + order.getProperty() + " in " + last.getClass());
+            }
+            ReflectionUtils.makeAccessible(field);
+            position.add(objectMapper.valueToTree(ReflectionUtils.getField(field, last)));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(position.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the requested sort ending with the id, or null if one of its properties cannot be used as a key.
+     */
+    private Sort keysetSort(EntityType<?> entityType, Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                Attribute<?, ?> attribute = findAttribute(entityType, order.getProperty());
+                if (attribute == null || attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC ||
+                    !(attribute.getJavaMember() instanceof Field) || order.isIgnoreCase()) {
+                    return null;
+                }
+                orders.add(order);
+                if (ID.equals(order.getProperty())) {
+                    // the id is unique, the following properties would never be compared
+                    return new Sort(orders);
+                }
+            }
+        }
+        orders.add(new Sort.Order(Sort.Direction.ASC, ID));
+        return new Sort(orders);
+    }
+
+    private Attribute<?, ?> findAttribute(EntityType<?> entityType, String property) {
+        for (Attribute<?, ?> attribute : entityType.getAttributes()) {
+            if (attribute.getName().equals(property)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private List<Object> decode(EntityType<?> entityType, Sort sort, String cursor) {
+        JsonNode position;
+        try {
+            position = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+        List<Object> values = new ArrayList<>();
+        int i = 0;
+        for (Sort.Order order : sort) {
+            if (position == null || !position.isArray() || position.size() <= i) {
+                throw new InvalidCursorException(cursor, null);
+            }
+            Class<?> type = ((SingularAttribute<?, ?>) entityType.getAttribute(order.getProperty())).getJavaType();
+            try {
+                values.add(objectMapper.treeToValue(position.get(i++), type));
+            } catch (IOException e) {
+                throw new InvalidCursorException(cursor, e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Builds the predicate of the rows following a position, for a sort on (k1, ..., kn):
+     * {@code k1 after v1 or (k1 = v1 and (k2 after v2 or (k2 = v2 and ...)))}.
+     */
+    private Predicate seek(CriteriaBuilder cb, Root<?> root, Sort sort, List<Object> position) {
+        List<Sort.Order> orders = new ArrayList<>();
+        sort.forEach(orders::add);
+        Predicate predicate = null;
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Path<Comparable<Object>> key = root.get(orders.get(i).getProperty());
+            Predicate after = after(cb, key, orders.get(i).getDirection(), position.get(i));
+            predicate = predicate == null ? after : cb.or(after, cb.and(equal(cb, key, position.get(i)), predicate));
+        }
+        return predicate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> key, Sort.Direction direction, Object value) {
+        if (direction == Sort.Direction.ASC) {
+            return value == null ? cb.isNotNull(key) : cb.greaterThan(key, (Comparable<Object>) value);
+        }
+        return value == null ? cb.disjunction() : cb.or(cb.lessThan(key, (Comparable<Object>) value), cb.isNull(key));
+    }
+
+    private Predicate equal(CriteriaBuilder cb, Path<?> key, Object value) {
+        return value == null ? cb.isNull(key) : cb.equal(key, value);
+    }
+}
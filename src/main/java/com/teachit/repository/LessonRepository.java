@@ -10,6 +10,6 @@ import java.util.List;
  * Spring Data JPA repository for the Lesson entity.
  */
 @SuppressWarnings("unused")
-public interface LessonRepository extends JpaRepository<Lesson,Long> {
+public interface LessonRepository extends JpaRepository<Lesson,Long>, JpaSpecificationExecutor<Lesson> {
 
 }
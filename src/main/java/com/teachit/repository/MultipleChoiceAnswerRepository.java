@@ -2,14 +2,104 @@ package com.teachit.repository;
 
 import com.teachit.domain.MultipleChoiceAnswer;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the MultipleChoiceAnswer entity.
  */
 @SuppressWarnings("unused")
-public interface MultipleChoiceAnswerRepository extends JpaRepository<MultipleChoiceAnswer,Long> {
+public interface MultipleChoiceAnswerRepository extends JpaRepository<MultipleChoiceAnswer,Long>, JpaSpecificationExecutor<MultipleChoiceAnswer> {
+
+    @Override
+    @EntityGraph("MultipleChoiceAnswer.withChoosenAndQuestion")
+    MultipleChoiceAnswer findOne(Long id);
+
+    @Override
+    @EntityGraph("MultipleChoiceAnswer.withChoosenAndQuestion")
+    Page<MultipleChoiceAnswer> findAll(Specification<MultipleChoiceAnswer> spec, Pageable pageable);
+
+    /**
+     * Selects the students of some multiple choice answers, to be locked before their totals are read.
+     *
+     * @param ids the ids of the answers
+     * @return the ids of the students
+     */
+    @Query("select distinct answer.student.id from MultipleChoiceAnswer answer where answer.id in :ids and answer.student is not null")
+    List<Long> findStudentIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums the multiple choice answers per student and per course and lesson of their question, i.e. the totals
+     * of the gradebook entries they count in.
+     *
+     * @param ids the ids of the answers
+     * @return a row per gradebook entry: the person, course and lesson ids, the number of answers and of correct ones
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, count(answer), " +
+        "sum(case when choice.correct = true then 1 else 0 end) " +
+        "from MultipleChoiceAnswer answer left join answer.question question left join answer.choosen choice " +
+        "where answer.id in :ids and answer.student is not null " +
+        "group by answer.student.id, question.course.id, question.lesson.id")
+    List<Object[]> sumGrades(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums all the multiple choice answers, as {@link #sumGrades(Collection)}.
+     *
+     * @return a row per gradebook entry
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, count(answer), " +
+        "sum(case when choice.correct = true then 1 else 0 end) " +
+        "from MultipleChoiceAnswer answer left join answer.question question left join answer.choosen choice " +
+        "where answer.student is not null " +
+        "group by answer.student.id, question.course.id, question.lesson.id")
+    List<Object[]> sumAllGrades();
+
+    /**
+     * Selects the multiple choice answers to the questions of a lesson, to be graded.
+     *
+     * @param lessonId the id of the lesson
+     * @return a row per answer: the person, course and lesson ids of its gradebook entry, the question id and the
+     * choice id
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, question.id, answer.choosen.id " +
+        "from MultipleChoiceAnswer answer join answer.question question " +
+        "where question.lesson.id = :lessonId and answer.student is not null")
+    List<Object[]> findGradingRowsOfLesson(@Param("lessonId") Long lessonId);
+
+    /**
+     * Selects the multiple choice answers to the questions of a course, as {@link #findGradingRowsOfLesson(Long)}.
+     *
+     * @param courseId the id of the course
+     * @return a row per answer
+     */
+    @Query("select answer.student.id, question.course.id, question.lesson.id, question.id, answer.choosen.id " +
+        "from MultipleChoiceAnswer answer join answer.question question " +
+        "where question.course.id = :courseId and answer.student is not null")
+    List<Object[]> findGradingRowsOfCourse(@Param("courseId") Long courseId);
+
+    /**
+     * Selects the questions of a course answered by some answers.
+     *
+     * @param ids the ids of the answers
+     * @return a row per answer to a question of a course: the person id, the course id and the question id
+     */
+    @Query("select answer.student.id, question.course.id, question.id " +
+        "from MultipleChoiceAnswer answer join answer.question question " +
+        "where answer.id in :ids and answer.student is not null and question.course is not null")
+    List<Object[]> findProgressRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Selects the questions of a course answered by all the answers, as {@link #findProgressRows(Collection)}.
+     */
+    @Query("select distinct answer.student.id, question.course.id, question.id " +
+        "from MultipleChoiceAnswer answer join answer.question question " +
+        "where answer.student is not null and question.course is not null")
+    List<Object[]> findAllProgressRows();
 
 }
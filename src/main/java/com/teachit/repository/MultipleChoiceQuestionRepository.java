@@ -2,7 +2,11 @@ package com.teachit.repository;
 
 import com.teachit.domain.MultipleChoiceQuestion;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -10,6 +14,17 @@ import java.util.List;
  * Spring Data JPA repository for the MultipleChoiceQuestion entity.
  */
 @SuppressWarnings("unused")
-public interface MultipleChoiceQuestionRepository extends JpaRepository<MultipleChoiceQuestion,Long> {
+public interface MultipleChoiceQuestionRepository extends JpaRepository<MultipleChoiceQuestion,Long>, JpaSpecificationExecutor<MultipleChoiceQuestion> {
+
+    @Override
+    @EntityGraph("MultipleChoiceQuestion.withCourseAndLesson")
+    MultipleChoiceQuestion findOne(Long id);
+
+    @Override
+    @EntityGraph("MultipleChoiceQuestion.withCourseAndLesson")
+    Page<MultipleChoiceQuestion> findAll(Specification<MultipleChoiceQuestion> spec, Pageable pageable);
+
+    @Query("select question.id from MultipleChoiceQuestion question where question.course.id = :courseId")
+    List<Long> findIdsOfCourse(@Param("courseId") Long courseId);
 
 }
@@ -5,18 +5,42 @@ import com.teachit.domain.Person;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for the Person entity.
  */
 @SuppressWarnings("unused")
-public interface PersonRepository extends JpaRepository<Person,Long> {
+public interface PersonRepository extends JpaRepository<Person,Long>, JpaSpecificationExecutor<Person> {
 
-    @Query("select distinct person from Person person left join fetch person.learningCoursees")
-    List<Person> findAllWithEagerRelationships();
+    /**
+     * Selects the courses learnt by the given people, e.g. the ids of a page of people, so that the page is
+     * completed with a single query instead of one per person.
+     *
+     * @param ids the ids of the people
+     * @return a row per course learnt by a person: the person id, then the course id and name
+     */
+    @Query("select person.id, course.id, course.name " +
+        "from Person person join person.learningCoursees course where person.id in :ids")
+    List<Object[]> findLearningCourseesOfPeople(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the given people until the end of the transaction, in the order of their ids so that transactions
+     * locking several people do not deadlock.
+     *
+     * @param ids the ids of the people
+     * @return the people locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select person from Person person where person.id in :ids order by person.id")
+    List<Person> lockAll(@Param("ids") Collection<Long> ids);
 
     @Query("select person from Person person left join fetch person.learningCoursees where person.id =:id")
     Person findOneWithEagerRelationships(@Param("id") Long id);
 
+    @Query("select person.id from Person person where person.id in :ids")
+    List<Long> findIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,49 @@
+package com.teachit.repository;
+
+import com.teachit.domain.ProgressItem;
+import com.teachit.domain.enumeration.ProgressItemType;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the ProgressItem entity.
+ */
+@SuppressWarnings("unused")
+public interface ProgressItemRepository extends JpaRepository<ProgressItem,Long> {
+
+    /**
+     * Selects the ordinals of some items of a course.
+     *
+     * @return a row per item having an ordinal: the item id and its ordinal
+     */
+    @Query("select item.itemId, item.ordinal from ProgressItem item " +
+        "where item.course.id = :courseId and item.itemType = :itemType and item.itemId in :itemIds")
+    List<Object[]> findOrdinals(@Param("courseId") Long courseId, @Param("itemType") ProgressItemType itemType,
+                                @Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Selects and locks some items of a course, reading the items committed since the transaction started.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select item from ProgressItem item " +
+        "where item.course.id = :courseId and item.itemType = :itemType and item.itemId in :itemIds")
+    List<ProgressItem> lockAll(@Param("courseId") Long courseId, @Param("itemType") ProgressItemType itemType,
+                               @Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    ProgressItem findFirstByCourseIdAndItemTypeOrderByOrdinalDesc(Long courseId, ProgressItemType itemType);
+
+    /**
+     * Selects the ordinals of all the items of a course.
+     *
+     * @return a row per item: the item type, the item id and its ordinal
+     */
+    @Query("select item.itemType, item.itemId, item.ordinal from ProgressItem item where item.course.id = :courseId")
+    List<Object[]> findAllOfCourse(@Param("courseId") Long courseId);
+
+}
@@ -0,0 +1,232 @@
+package com.teachit.repository.filter;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Filter of an entity list, built from the request parameters and run by the database.
+ *
+ * <p>
+ * Every parameter named {@code <property>.<operator>} restricts the list, other parameters (e.g. the page or the
+ * sort) are ignored. The property is either a basic attribute of the entity, e.g. {@code name.contains=java}, or
+ * the id of an association suffixed with "Id", e.g. {@code courseId.equals=1} or {@code candidateId.specified=false}.
+ * The operators are:
+ * </p>
+ * <ul>
+ *     <li>{@code equals}, {@code in} (comma separated values)</li>
+ *     <li>{@code greaterThan}, {@code greaterOrEqualThan}, {@code lessThan}, {@code lessOrEqualThan}</li>
+ *     <li>{@code contains}, case insensitive, for strings</li>
+ *     <li>{@code specified}, true if the property must not be null, false if it must be null</li>
+ * </ul>
+ */
+public class EntityFilter<T> implements Specification<T> {
+
+    private static final String ASSOCIATION_ID_SUFFIX = "Id";
+
+    private static final ConversionService conversionService = new DefaultConversionService();
+
+    private final List<Criterion> criteria = new ArrayList<>();
+
+    public EntityFilter(Map<String, String> parameters) {
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            int dot = parameter.getKey().lastIndexOf('.');
+            if (dot > 0) {
+                criteria.add(new Criterion(parameter.getKey().substring(0, dot),
+                    Operator.of(parameter.getKey().substring(dot + 1)), parameter.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Returns true if the filter does not restrict the list.
+     */
+    public boolean isEmpty() {
+        return criteria.isEmpty();
+    }
+
+    /**
+     * Adds a criterion to the filter.
+     *
+     * @param property the basic attribute, or the association suffixed with "Id"
+     * @param operator the name of the operator, e.g. "equals"
+     * @param value the value, as a request parameter
+     */
+    public EntityFilter<T> and(String property, String operator, String value) {
+        criteria.add(new Criterion(property, Operator.of(operator), value));
+        return this;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Map<String, Join<T, ?>> joins = new HashMap<>();
+        List<Predicate> predicates = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            Path<?> path = resolve(root, query, joins, criterion.property);
+            predicates.add(criterion.operator.toPredicate(cb, path, criterion.property, criterion.value));
+        }
+        return cb.and(predicates.toArray(new Predicate[predicates.size()]));
+    }
+
+    /**
+     * Returns the path of a basic attribute, or the id of the association joined once per query.
+     */
+    private Path<?> resolve(Root<T> root, CriteriaQuery<?> query, Map<String, Join<T, ?>> joins, String property) {
+        ManagedType<T> type = root.getModel();
+        Attribute<? super T, ?> attribute = findAttribute(type, property);
+        if (attribute != null && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+            return root.get(property);
+        }
+        if (property.endsWith(ASSOCIATION_ID_SUFFIX)) {
+            String name = property.substring(0, property.length() - ASSOCIATION_ID_SUFFIX.length());
+            attribute = findAttribute(type, name);
+            if (attribute != null && attribute.isAssociation()) {
+                if (attribute.isCollection()) {
+                    // a row per element of the collection, the entity must be returned once
+                    query.distinct(true);
+                }
+                return joins.computeIfAbsent(name, key -> root.join(key, JoinType.LEFT)).get("id");
+            }
+        }
+        throw new InvalidFilterException("Unknown filter property: " + property);
+    }
+
+    private Attribute<? super T, ?> findAttribute(ManagedType<T> type, String name) {
+        for (Attribute<? super T, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private static Object convert(String property, String value, Class<?> type) {
+        Object converted;
+        try {
+            if (LocalDate.class.equals(type)) {
+                converted = LocalDate.parse(value);
+            } else if (ZonedDateTime.class.equals(type)) {
+                converted = ZonedDateTime.parse(value);
+            } else {
+                converted = conversionService.convert(value, type);
+            }
+        } catch (DateTimeParseException | ConversionException e) {
+            throw new InvalidFilterException("Invalid value of filter " + property + ": " + value, e);
+        }
+        if (converted == null) {
+            throw new InvalidFilterException("Missing value of filter " + property);
+        }
+        return converted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> convertComparable(String property, String value, Path<?> path) {
+        if (!Comparable.class.isAssignableFrom(path.getJavaType())) {
+            throw new InvalidFilterException("Filter property cannot be compared: " + property);
+        }
+        return (Comparable<Object>) convert(property, value, path.getJavaType());
+    }
+
+    private static final class Criterion {
+
+        private final String property;
+
+        private final Operator operator;
+
+        private final String value;
+
+        Criterion(String property, Operator operator, String value) {
+            this.property = property;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private enum Operator {
+
+        EQUALS("equals") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return cb.equal(path, convert(property, value, path.getJavaType()));
+            }
+        },
+        IN("in") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                CriteriaBuilder.In<Object> in = cb.in((Path<Object>) path);
+                for (String element : value.split(",")) {
+                    in.value(convert(property, element.trim(), path.getJavaType()));
+                }
+                return in;
+            }
+        },
+        GREATER_THAN("greaterThan") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return cb.greaterThan((Path<Comparable<Object>>) path, convertComparable(property, value, path));
+            }
+        },
+        GREATER_OR_EQUAL_THAN("greaterOrEqualThan") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return cb.greaterThanOrEqualTo((Path<Comparable<Object>>) path, convertComparable(property, value, path));
+            }
+        },
+        LESS_THAN("lessThan") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return cb.lessThan((Path<Comparable<Object>>) path, convertComparable(property, value, path));
+            }
+        },
+        LESS_OR_EQUAL_THAN("lessOrEqualThan") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return cb.lessThanOrEqualTo((Path<Comparable<Object>>) path, convertComparable(property, value, path));
+            }
+        },
+        CONTAINS("contains") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                if (!String.class.equals(path.getJavaType())) {
+                    throw new InvalidFilterException("Filter property is not a string: " + property);
+                }
+                String pattern = "%" + value.toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                return cb.like(cb.lower((Path<String>) path), pattern, '\\');
+            }
+        },
+        SPECIFIED("specified") {
+            @Override
+            Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value) {
+                return (Boolean) convert(property, value, Boolean.class) ? cb.isNotNull(path) : cb.isNull(path);
+            }
+        };
+
+        private final String name;
+
+        Operator(String name) {
+            this.name = name;
+        }
+
+        abstract Predicate toPredicate(CriteriaBuilder cb, Path<?> path, String property, String value);
+
+        static Operator of(String name) {
+            for (Operator operator : values()) {
+                if (operator.name.equals(name)) {
+                    return operator;
+                }
+            }
+            throw new InvalidFilterException("Unknown filter operator: " + name);
+        }
+    }
+}
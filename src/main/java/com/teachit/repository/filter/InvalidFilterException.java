@@ -0,0 +1,25 @@
+package com.teachit.repository.filter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a filter parameter names an unknown property or operator, or has a value of the wrong type.
+ *
+ * <p>
+ * It is not an IllegalArgumentException, which repositories would translate to a data access exception.
+ * </p>
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid filter")
+public class InvalidFilterException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+
+    public InvalidFilterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Database-side filters of the entity lists.
+ */
+package com.teachit.repository.filter;
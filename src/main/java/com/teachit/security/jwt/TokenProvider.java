@@ -2,13 +2,21 @@ package com.teachit.security.jwt;
 
 import com.teachit.config.JHipsterProperties;
 
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -25,6 +33,8 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    public static final String AUTHENTICATION_CACHE = "jwtAuthentications";
+
     private String secretKey;
 
     private long tokenValidityInSeconds;
@@ -34,6 +44,16 @@ public class TokenProvider {
     @Inject
     private JHipsterProperties jHipsterProperties;
 
+    @Inject
+    private CacheManager cacheManager;
+
+    private Cache authenticationCache;
+
+    /**
+     * Authorities are shared by all authentications instead of being allocated for every token.
+     */
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         this.secretKey =
@@ -43,6 +63,7 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInSecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.authenticationCache = cacheManager.getCache(AUTHENTICATION_CACHE);
     }
 
     public String createToken(Authentication authentication, Boolean rememberMe) {
@@ -66,30 +87,73 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Returns the authentication of a token, or null if its signature is invalid.
+     *
+     * <p>
+     * The token is parsed and its signature verified only the first time it is seen. The resulting principal and
+     * authorities are then cached, keyed by a digest of the token, until the token expires. Each call returns a new
+     * authentication, since an authentication is mutable, e.g. by its details.
+     * </p>
+     */
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(secretKey)
-            .parseClaimsJws(token)
-            .getBody();
+        String key = digest(token);
+        CachedAuthentication cached = authenticationCache.get(key, CachedAuthentication.class);
+        if (cached != null) {
+            if (cached.expiration > System.currentTimeMillis()) {
+                return new UsernamePasswordAuthenticationToken(cached.principal, "", cached.principal.getAuthorities());
+            }
+            authenticationCache.evict(key);
+        }
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                .setSigningKey(secretKey)
+                .parseClaimsJws(token)
+                .getBody();
+        } catch (SignatureException e) {
+            log.info("Invalid JWT signature: " + e.getMessage());
+            return null;
+        }
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.asList(claims.get(AUTHORITIES_KEY).toString().split(",")).stream()
-                .map(authority -> new SimpleGrantedAuthority(authority))
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String authority : claims.get(AUTHORITIES_KEY).toString().split(",")) {
+            authorities.add(this.authorities.computeIfAbsent(authority, SimpleGrantedAuthority::new));
+        }
+        authorities = Collections.unmodifiableList(authorities);
 
         User principal = new User(claims.getSubject(), "",
             authorities);
 
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(key, new CachedAuthentication(principal, claims.getExpiration().getTime()));
+        }
         return new UsernamePasswordAuthenticationToken(principal, "", authorities);
     }
 
-    public boolean validateToken(String authToken) {
+    private String digest(String token) {
         try {
-            Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken);
-            return true;
-        } catch (SignatureException e) {
-            log.info("Invalid JWT signature: " + e.getMessage());
-            return false;
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedAuthentication implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Immutable, its authorities being an unmodifiable list and its empty password never erased.
+         */
+        private final User principal;
+
+        private final long expiration;
+
+        CachedAuthentication(User principal, long expiration) {
+            this.principal = principal;
+            this.expiration = expiration;
         }
     }
 }
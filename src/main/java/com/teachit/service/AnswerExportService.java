@@ -0,0 +1,126 @@
+package com.teachit.service;
+
+import com.teachit.config.JHipsterProperties;
+import com.teachit.config.jdbc.ReplicaRouting;
+import com.teachit.service.export.RowWriter;
+import org.hibernate.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Service class for exporting the answers of the students, e.g. all the answers of a course.
+ *
+ * <p>
+ * The rows are streamed from the database to the writer: the query runs in a read-only stateless session, without
+ * persistence context, and its results are read through a forward-only cursor fetching a bounded number of rows at
+ * once. Only the columns of the export are selected, so the heap used does not depend on the number of rows.
+ * </p>
+ * <p>
+ * MySQL only honours the fetch size with a server-side cursor, which is enabled on the export connection only, for
+ * the duration of the export, the other queries keeping their client-side result sets.
+ * </p>
+ */
+@Service
+public class AnswerExportService {
+
+    public static final String[] DISCURSIVE_ANSWER_COLUMNS = { "id", "questionId", "studentId", "score", "answer" };
+
+    public static final String[] MULTIPLE_CHOICE_ANSWER_COLUMNS = { "id", "questionId", "studentId", "choiceId", "correct" };
+
+    private final Logger log = LoggerFactory.getLogger(AnswerExportService.class);
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private SessionFactory sessionFactory;
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Writes the discursive answers, with the {@link #DISCURSIVE_ANSWER_COLUMNS} columns.
+     *
+     * @param courseId the course of the questions answered, or null for all the answers
+     * @param writer the writer of the rows
+     */
+    public void exportDiscursiveAnswers(Long courseId, RowWriter writer) throws IOException {
+        export("select answer.id, answer.question.id, answer.student.id, answer.score, answerText.text " +
+            "from DiscursiveAnswer answer left join answer.answerText answerText", courseId, writer);
+    }
+
+    /**
+     * Writes the multiple choice answers, with the {@link #MULTIPLE_CHOICE_ANSWER_COLUMNS} columns.
+     *
+     * @param courseId the course of the questions answered, or null for all the answers
+     * @param writer the writer of the rows
+     */
+    public void exportMultipleChoiceAnswers(Long courseId, RowWriter writer) throws IOException {
+        export("select answer.id, answer.question.id, answer.student.id, choice.id, choice.correct " +
+            "from MultipleChoiceAnswer answer left join answer.choosen choice", courseId, writer);
+    }
+
+    private void export(String select, Long courseId, RowWriter writer) throws IOException {
+        int fetchSize = jHipsterProperties.getExport().getFetchSize();
+        int flushInterval = jHipsterProperties.getExport().getFlushInterval();
+        // exports read outside of a transaction of the transaction manager, from the replica if there is one
+        ReplicaRouting.preferReplica();
+        StatelessSession session = sessionFactory.openStatelessSession();
+        com.mysql.jdbc.Connection mysqlConnection = null;
+        try {
+            try {
+                Connection connection = session.connection();
+                connection.setReadOnly(true);
+                if (connection.isWrapperFor(com.mysql.jdbc.Connection.class)) {
+                    mysqlConnection = connection.unwrap(com.mysql.jdbc.Connection.class);
+                    mysqlConnection.setUseCursorFetch(true);
+                }
+            } catch (SQLException e) {
+                throw new DataAccessResourceFailureException("Could not prepare the export connection", e);
+            }
+            Transaction transaction = session.beginTransaction();
+            Query query = session.createQuery(select +
+                (courseId != null ? " where answer.question.course.id = :courseId" : "") + " order by answer.id")
+                .setReadOnly(true)
+                .setFetchSize(fetchSize);
+            if (courseId != null) {
+                query.setParameter("courseId", courseId);
+            }
+            long rows = 0;
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    writer.writeRow(results.get());
+                    if (++rows % flushInterval == 0) {
+                        writer.flush();
+                    }
+                }
+            } finally {
+                results.close();
+            }
+            transaction.commit();
+            writer.flush();
+            log.debug("Exported {} rows of course {}", rows, courseId);
+        } finally {
+            if (mysqlConnection != null) {
+                // the connection goes back to the pool
+                mysqlConnection.setUseCursorFetch(false);
+            }
+            session.close();
+            ReplicaRouting.reset();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.teachit.service;
+
+import com.teachit.config.JHipsterProperties;
+import com.teachit.domain.Content;
+import com.teachit.repository.ContentRepository;
+import com.teachit.service.storage.BlobStore;
+import com.teachit.service.storage.StoredBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for the files of the contents, stored by the BlobStore.
+ *
+ * <p>
+ * A file is stored first, out of any transaction as it may take long, then the content is pointed at it. The file
+ * previously pointed at, or a file whose content was deleted meanwhile, is left to the garbage collection.
+ * </p>
+ */
+@Service
+@Transactional
+public class ContentFileService {
+
+    private final Logger log = LoggerFactory.getLogger(ContentFileService.class);
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    /**
+     * Points a content at a stored file.
+     *
+     * @param id the id of the content
+     * @param blob the file stored
+     * @param fileName the new name of the file, or null to keep the current one
+     * @param contentType the media type of the file
+     * @return the content updated, or null if it does not exist
+     */
+    public Content updateFile(Long id, StoredBlob blob, String fileName, String contentType) {
+        log.debug("Request to point Content : {} at {}", id, blob);
+        Content content = contentRepository.findOne(id);
+        if (content == null) {
+            return null;
+        }
+        if (fileName != null) {
+            content.setFileName(fileName);
+        }
+        contentRepository.updateFile(id, blob.getHash(), blob.getSize(), contentType);
+        content.setFileHash(blob.getHash());
+        content.setFileSize(blob.getSize());
+        content.setFileContentType(contentType);
+        return content;
+    }
+
+    /**
+     * Deletes the stored files no content points at, every garbage collection interval.
+     */
+    @Scheduled(initialDelayString = "${jhipster.storage.garbageCollectionIntervalMillis:3600000}",
+        fixedDelayString = "${jhipster.storage.garbageCollectionIntervalMillis:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void collectGarbage() {
+        Set<String> referenced = new HashSet<>(contentRepository.findFileHashes());
+        try {
+            int deleted = blobStore.collectGarbage(referenced,
+                TimeUnit.SECONDS.toMillis(jHipsterProperties.getStorage().getOrphanGracePeriodSeconds()));
+            log.info("Deleted {} stored files no content points at", deleted);
+        } catch (IOException e) {
+            log.warn("Could not delete the stored files no content points at: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.teachit.service;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer of the views of the contents by the people.
+ *
+ * <p>
+ * The views are coalesced by person and content in sets split in stripes, each locked on its own, so that the
+ * requests tracking views rarely wait for each other and a content viewed many times by a person is written once.
+ * The buffer is flushed in JDBC batches by the ContentViewService every flush interval, and on the task executor as
+ * soon as it holds a flush size of views. The views lost if the application stops abruptly are thus bounded by the
+ * flush interval and the maximum pending. The buffer is also flushed when the application is shut down.
+ * </p>
+ * <p>
+ * The requests tracking views never write them: beyond the maximum pending, e.g. while the database is down, the
+ * views tracked are dropped and counted by the "dropped" meter. A batch that could not be written is buffered again,
+ * up to the maximum retries, then its views are dropped and logged.
+ * </p>
+ */
+@Component
+public class ContentViewBuffer {
+
+    private final Logger log = LoggerFactory.getLogger(ContentViewBuffer.class);
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Number of failed writes of the views buffered again, guarded by the flush lock.
+     */
+    private final Map<Key, Integer> failures = new HashMap<>();
+
+    private Stripe[] stripes;
+
+    private Meter tracked;
+
+    private Meter dropped;
+
+    private Meter written;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private ContentViewService contentViewService;
+
+    @Inject
+    @Named("taskExecutor")
+    private Executor taskExecutor;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @PostConstruct
+    public void init() {
+        stripes = new Stripe[jHipsterProperties.getContentViews().getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        tracked = metricRegistry.meter(MetricRegistry.name(ContentViewBuffer.class, "tracked"));
+        dropped = metricRegistry.meter(MetricRegistry.name(ContentViewBuffer.class, "dropped"));
+        written = metricRegistry.meter(MetricRegistry.name(ContentViewBuffer.class, "written"));
+    }
+
+    /**
+     * Tracks the view of a content by a person, written by the next flush.
+     *
+     * @param personId the id of the person
+     * @param contentId the id of the content
+     */
+    public void track(Long personId, Long contentId) {
+        tracked.mark();
+        JHipsterProperties.ContentViews properties = jHipsterProperties.getContentViews();
+        if (pending.get() >= properties.getMaxPending()) {
+            // the flushes do not keep up, e.g. the database is down: the view is dropped rather than the request slowed
+            dropped.mark();
+            requestFlush();
+            return;
+        }
+        Key view = new Key(personId, contentId);
+        Stripe stripe = stripes[(view.hashCode() & Integer.MAX_VALUE) % stripes.length];
+        boolean added;
+        synchronized (stripe) {
+            added = stripe.views.add(view);
+        }
+        if (added && pending.incrementAndGet() >= properties.getFlushSize()) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Writes the views buffered. The views not written, e.g. because the database is down, are buffered again, but
+     * the ones of a batch which failed the maximum retries times.
+     *
+     * @return the number of views written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            List<Key> views = drain();
+            int flushSize = jHipsterProperties.getContentViews().getFlushSize();
+            int written = 0;
+            try {
+                while (written < views.size()) {
+                    List<Key> batch = views.subList(written, Math.min(written + flushSize, views.size()));
+                    contentViewService.saveViews(batch);
+                    if (!failures.isEmpty()) {
+                        batch.forEach(failures::remove);
+                    }
+                    written += batch.size();
+                }
+            } finally {
+                if (written < views.size()) {
+                    int failed = Math.min(written + flushSize, views.size());
+                    requeue(views.subList(written, failed), views.subList(failed, views.size()));
+                }
+                this.written.mark(written);
+            }
+            if (written > 0) {
+                log.debug("Wrote {} content views", written);
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the buffer every flush interval.
+     */
+    @Scheduled(initialDelayString = "${jhipster.contentViews.flushIntervalMillis:1000}",
+        fixedDelayString = "${jhipster.contentViews.flushIntervalMillis:1000}")
+    public void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write the content views, {} are buffered: {}", pending.get(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        log.info("Writing the {} buffered content views", pending.get());
+        flushQuietly();
+    }
+
+    private List<Key> drain() {
+        List<Key> views = new ArrayList<>(pending.get());
+        for (Stripe stripe : stripes) {
+            Set<Key> drained;
+            synchronized (stripe) {
+                drained = stripe.views;
+                stripe.views = new HashSet<>();
+            }
+            views.addAll(drained);
+        }
+        pending.addAndGet(-views.size());
+        return views;
+    }
+
+    /**
+     * Buffers again the views of a batch which could not be written, but the ones which failed too many times, and
+     * the views not written yet.
+     */
+    private void requeue(List<Key> failed, List<Key> unwritten) {
+        int maxRetries = jHipsterProperties.getContentViews().getMaxRetries();
+        List<Key> abandoned = new ArrayList<>();
+        for (Key view : failed) {
+            if (failures.merge(view, 1, Integer::sum) > maxRetries) {
+                failures.remove(view);
+                abandoned.add(view);
+            } else {
+                requeue(view);
+            }
+        }
+        unwritten.forEach(this::requeue);
+        if (!abandoned.isEmpty()) {
+            dropped.mark(abandoned.size());
+            log.error("Dropped {} content views which could not be written {} times: {}", abandoned.size(),
+                maxRetries + 1, abandoned);
+        }
+    }
+
+    private void requeue(Key view) {
+        Stripe stripe = stripes[(view.hashCode() & Integer.MAX_VALUE) % stripes.length];
+        synchronized (stripe) {
+            if (stripe.views.add(view)) {
+                pending.incrementAndGet();
+            }
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // left to the next scheduled flush
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private static class Stripe {
+
+        private Set<Key> views = new HashSet<>();
+    }
+
+    /**
+     * The view of a content by a person.
+     */
+    public static final class Key {
+
+        private final Long personId;
+
+        private final Long contentId;
+
+        public Key(Long personId, Long contentId) {
+            this.personId = personId;
+            this.contentId = contentId;
+        }
+
+        public Long getPersonId() {
+            return personId;
+        }
+
+        public Long getContentId() {
+            return contentId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(personId, key.personId) && Objects.equals(contentId, key.contentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(personId, contentId);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                "personId=" + personId +
+                ", contentId=" + contentId +
+                '}';
+        }
+    }
+}
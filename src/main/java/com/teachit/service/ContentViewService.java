@@ -0,0 +1,92 @@
+package com.teachit.service;
+
+import com.teachit.domain.ContentView;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.ContentViewRepository;
+import com.teachit.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.*;
+
+/**
+ * Service class for writing the views of the contents buffered by the ContentViewBuffer, keeping the progress of the
+ * students up to date in the same transaction.
+ */
+@Service
+@Transactional
+public class ContentViewService {
+
+    private final Logger log = LoggerFactory.getLogger(ContentViewService.class);
+
+    @Inject
+    private ContentViewRepository contentViewRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private ProgressService progressService;
+
+    /**
+     * Upserts views: the views already saved are marked as viewed with a single update, the others are inserted
+     * in JDBC batches, then all are added to the progress. The views of unknown people or contents are skipped.
+     *
+     * @param views the views, without duplicates
+     */
+    public void saveViews(Collection<ContentViewBuffer.Key> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        Set<Long> personIds = new HashSet<>();
+        Set<Long> contentIds = new HashSet<>();
+        for (ContentViewBuffer.Key view : views) {
+            personIds.add(view.getPersonId());
+            contentIds.add(view.getContentId());
+        }
+        Set<Long> existingPersonIds = new HashSet<>(personRepository.findIds(personIds));
+        Set<Long> existingContentIds = new HashSet<>(contentRepository.findIds(contentIds));
+
+        Set<ContentViewBuffer.Key> saved = new HashSet<>();
+        List<Long> unviewed = new ArrayList<>();
+        if (!existingPersonIds.isEmpty() && !existingContentIds.isEmpty()) {
+            for (Object[] row : contentViewRepository.findViews(existingPersonIds, existingContentIds)) {
+                saved.add(new ContentViewBuffer.Key((Long) row[1], (Long) row[2]));
+                if (!Boolean.TRUE.equals(row[3])) {
+                    unviewed.add((Long) row[0]);
+                }
+            }
+        }
+        if (!unviewed.isEmpty()) {
+            contentViewRepository.markViewed(unviewed);
+        }
+
+        List<ContentView> contentViews = new ArrayList<>();
+        List<ContentViewBuffer.Key> viewed = new ArrayList<>();
+        for (ContentViewBuffer.Key view : views) {
+            if (saved.contains(view)) {
+                viewed.add(view);
+                continue;
+            }
+            if (!existingPersonIds.contains(view.getPersonId()) || !existingContentIds.contains(view.getContentId())) {
+                log.warn("Skipping the view of unknown person or content: {}", view);
+                continue;
+            }
+            viewed.add(view);
+            // references only, the rows were checked above
+            ContentView contentView = new ContentView();
+            contentView.setPerson(personRepository.getOne(view.getPersonId()));
+            contentView.setContent(contentRepository.getOne(view.getContentId()));
+            contentView.setView(true);
+            contentViews.add(contentView);
+        }
+        contentViewRepository.save(contentViews);
+        progressService.addContentViews(viewed);
+    }
+}
@@ -0,0 +1,60 @@
+package com.teachit.service;
+
+import com.teachit.domain.DiscursiveAnswer;
+import com.teachit.repository.DiscursiveAnswerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.Collections;
+
+/**
+ * Service class for writing discursiveAnswers, keeping the gradebook and the progress of the students
+ * up to date in the same transaction.
+ */
+@Service
+@Transactional
+public class DiscursiveAnswerService {
+
+    private final Logger log = LoggerFactory.getLogger(DiscursiveAnswerService.class);
+
+    @Inject
+    private DiscursiveAnswerRepository discursiveAnswerRepository;
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private ProgressService progressService;
+
+    /**
+     * Saves a discursiveAnswer, moving it from its previous entry of the gradebook to its new one.
+     *
+     * @param discursiveAnswer the discursiveAnswer to create, or to update as a detached entity: the previous state is read from the
+     * database, so it must not be flushed before
+     * @return the discursiveAnswer saved
+     */
+    public DiscursiveAnswer save(DiscursiveAnswer discursiveAnswer) {
+        log.debug("Request to save DiscursiveAnswer : {}", discursiveAnswer);
+        if (discursiveAnswer.getId() != null) {
+            gradebookService.removeDiscursiveAnswers(Collections.singleton(discursiveAnswer.getId()));
+        }
+        DiscursiveAnswer result = discursiveAnswerRepository.save(discursiveAnswer);
+        gradebookService.addDiscursiveAnswers(Collections.singleton(result.getId()));
+        progressService.addDiscursiveAnswers(Collections.singleton(result.getId()));
+        return result;
+    }
+
+    /**
+     * Deletes a discursiveAnswer, removing it from the gradebook.
+     *
+     * @param id the id of the discursiveAnswer
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete DiscursiveAnswer : {}", id);
+        gradebookService.removeDiscursiveAnswers(Collections.singleton(id));
+        discursiveAnswerRepository.delete(id);
+    }
+}
@@ -0,0 +1,175 @@
+package com.teachit.service;
+
+import com.teachit.config.JHipsterProperties;
+import com.teachit.domain.Content;
+import com.teachit.domain.FileUpload;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.FileUploadRepository;
+import com.teachit.service.storage.StoredBlob;
+import com.teachit.service.storage.UploadStore;
+import com.teachit.web.rest.dto.FileUploadDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for the uploads of the files of the contents in chunks.
+ *
+ * <p>
+ * The chunks are written by the UploadStore out of any transaction, then marked as received, each in a short
+ * transaction locking its upload. Once all the chunks are received, the file is moved to the BlobStore, then the
+ * content is pointed at it and the upload deleted. The uploads abandoned are deleted with their files once expired.
+ * </p>
+ */
+@Service
+@Transactional
+public class FileUploadService {
+
+    private final Logger log = LoggerFactory.getLogger(FileUploadService.class);
+
+    @Inject
+    private FileUploadRepository fileUploadRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private ContentFileService contentFileService;
+
+    @Inject
+    private UploadStore uploadStore;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    /**
+     * Starts the upload of the file of a content.
+     *
+     * @param contentId the id of the content
+     * @param fileUploadDTO the name, media type and size of the file
+     * @return the upload, or null if the content does not exist
+     */
+    public FileUploadDTO create(Long contentId, FileUploadDTO fileUploadDTO) {
+        log.debug("Request to upload the file of Content : {}, {}", contentId, fileUploadDTO);
+        if (!contentRepository.exists(contentId)) {
+            return null;
+        }
+        FileUpload fileUpload = new FileUpload();
+        fileUpload.setContent(contentRepository.getOne(contentId));
+        fileUpload.setFileName(fileUploadDTO.getFileName());
+        fileUpload.setFileContentType(fileUploadDTO.getFileContentType());
+        fileUpload.setFileSize(fileUploadDTO.getFileSize());
+        fileUpload.setChunkSize(jHipsterProperties.getStorage().getUploadChunkSize());
+        fileUpload.setCreatedDate(ZonedDateTime.now());
+        fileUpload = fileUploadRepository.save(fileUpload);
+        return toDTO(contentId, fileUpload);
+    }
+
+    @Transactional(readOnly = true)
+    public FileUpload findOne(Long id) {
+        return fileUploadRepository.findOne(id);
+    }
+
+    @Transactional(readOnly = true)
+    public FileUploadDTO findOneDTO(Long id) {
+        FileUpload fileUpload = fileUploadRepository.findOne(id);
+        return fileUpload != null ? toDTO(fileUpload.getContent().getId(), fileUpload) : null;
+    }
+
+    /**
+     * Marks a chunk written by the UploadStore as received.
+     *
+     * @param id the id of the upload
+     * @param chunk the index of the chunk
+     * @return the upload, or null if it does not exist anymore
+     */
+    public FileUploadDTO markReceived(Long id, int chunk) {
+        FileUpload fileUpload = fileUploadRepository.findOneForUpdate(id);
+        if (fileUpload == null) {
+            return null;
+        }
+        BitSet receivedChunks = fileUpload.getReceivedChunkSet();
+        if (!receivedChunks.get(chunk)) {
+            receivedChunks.set(chunk);
+            fileUpload.setReceivedChunks(receivedChunks.toByteArray());
+        }
+        return toDTO(fileUpload.getContent().getId(), fileUpload);
+    }
+
+    /**
+     * Points the content of a complete upload at its file, moved to the BlobStore, and deletes the upload.
+     *
+     * @param id the id of the upload
+     * @param blob the file stored
+     * @return the content updated, or null if the upload or the content does not exist anymore
+     */
+    public Content finish(Long id, StoredBlob blob) {
+        FileUpload fileUpload = fileUploadRepository.findOneForUpdate(id);
+        if (fileUpload == null) {
+            return null;
+        }
+        Content content = contentFileService.updateFile(fileUpload.getContent().getId(), blob,
+            fileUpload.getFileName(), fileUpload.getFileContentType());
+        fileUploadRepository.delete(fileUpload);
+        return content;
+    }
+
+    public void delete(Long id) {
+        log.debug("Request to delete FileUpload : {}", id);
+        fileUploadRepository.delete(id);
+    }
+
+    /**
+     * Deletes the uploads expired and the files of the uploads which don't exist anymore, every garbage collection
+     * interval of the storage.
+     */
+    @Scheduled(initialDelayString = "${jhipster.storage.garbageCollectionIntervalMillis:3600000}",
+        fixedDelayString = "${jhipster.storage.garbageCollectionIntervalMillis:3600000}")
+    public void expireUploads() {
+        JHipsterProperties.Storage properties = jHipsterProperties.getStorage();
+        List<Long> expired = new ArrayList<>(fileUploadRepository.findIdsCreatedBefore(
+            ZonedDateTime.now().minusSeconds(properties.getUploadExpirySeconds())));
+        if (!expired.isEmpty()) {
+            fileUploadRepository.deleteByIds(expired);
+            log.info("Deleted {} expired uploads", expired.size());
+        }
+        try {
+            int deleted = uploadStore.collectGarbage(new HashSet<>(fileUploadRepository.findIds()),
+                TimeUnit.SECONDS.toMillis(properties.getOrphanGracePeriodSeconds()));
+            log.info("Deleted {} files of uploads which don't exist anymore", deleted);
+        } catch (IOException e) {
+            log.warn("Could not delete the files of the uploads which don't exist anymore: {}", e.getMessage());
+        }
+    }
+
+    private static FileUploadDTO toDTO(Long contentId, FileUpload fileUpload) {
+        FileUploadDTO fileUploadDTO = new FileUploadDTO();
+        fileUploadDTO.setId(fileUpload.getId());
+        fileUploadDTO.setContentId(contentId);
+        fileUploadDTO.setFileName(fileUpload.getFileName());
+        fileUploadDTO.setFileContentType(fileUpload.getFileContentType());
+        fileUploadDTO.setFileSize(fileUpload.getFileSize());
+        fileUploadDTO.setChunkSize(fileUpload.getChunkSize());
+        BitSet receivedChunks = fileUpload.getReceivedChunkSet();
+        List<Long> missingOffsets = new ArrayList<>();
+        for (int chunk = receivedChunks.nextClearBit(0); chunk < fileUpload.getChunks();
+             chunk = receivedChunks.nextClearBit(chunk + 1)) {
+            missingOffsets.add((long) chunk * fileUpload.getChunkSize());
+        }
+        fileUploadDTO.setReceivedChunks(receivedChunks.cardinality());
+        fileUploadDTO.setMissingOffsets(missingOffsets);
+        fileUploadDTO.setComplete(missingOffsets.isEmpty());
+        return fileUploadDTO;
+    }
+}
@@ -0,0 +1,252 @@
+package com.teachit.service;
+
+import com.teachit.domain.GradebookEntry;
+import com.teachit.repository.CourseRepository;
+import com.teachit.repository.DiscursiveAnswerRepository;
+import com.teachit.repository.GradebookEntryRepository;
+import com.teachit.repository.LessonRepository;
+import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.web.rest.dto.GradeSummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class for the gradebook, i.e. the totals of the answers of each student per course and lesson.
+ *
+ * <p>
+ * The answers are added to and removed from the gradebook in the transactions writing them: their totals are
+ * summed with one query, then each entry is incremented in the database. The students are locked first, so that
+ * concurrent transactions neither read the totals of answers being changed nor insert the same entry twice. The
+ * gradebook can also be rebuilt from the answers.
+ * </p>
+ * <p>
+ * Answers removed while their entry is missing were not counted, i.e. the gradebook was not rebuilt since they
+ * were written: the gradebook is then rebuilt at night, see {@link #rebuildIfStale()}.
+ * </p>
+ * <p>
+ * Moving a question to another course or lesson is not propagated to the gradebook: it must be rebuilt afterwards.
+ * Changing which choices are correct is propagated by grading the lesson or course again, see GradingService.
+ * </p>
+ */
+@Service
+@Transactional
+public class GradebookService {
+
+    private final Logger log = LoggerFactory.getLogger(GradebookService.class);
+
+    @Inject
+    private GradebookEntryRepository gradebookEntryRepository;
+
+    @Inject
+    private DiscursiveAnswerRepository discursiveAnswerRepository;
+
+    @Inject
+    private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private CourseRepository courseRepository;
+
+    @Inject
+    private LessonRepository lessonRepository;
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    /**
+     * Adds discursive answers to the gradebook, once they are saved with their student, question and score.
+     *
+     * @param ids the ids of the answers
+     */
+    public void addDiscursiveAnswers(Collection<Long> ids) {
+        if (lockStudents(discursiveAnswerRepository.findStudentIds(ids))) {
+            apply(discursiveAnswerRepository.sumGrades(ids), 1, true);
+        }
+    }
+
+    /**
+     * Removes discursive answers from the gradebook, before they are deleted or updated.
+     *
+     * @param ids the ids of the answers
+     */
+    public void removeDiscursiveAnswers(Collection<Long> ids) {
+        if (lockStudents(discursiveAnswerRepository.findStudentIds(ids))) {
+            apply(discursiveAnswerRepository.sumGrades(ids), -1, true);
+        }
+    }
+
+    /**
+     * Adds multiple choice answers to the gradebook, once they are saved with their student, question and choice.
+     *
+     * @param ids the ids of the answers
+     */
+    public void addMultipleChoiceAnswers(Collection<Long> ids) {
+        if (lockStudents(multipleChoiceAnswerRepository.findStudentIds(ids))) {
+            apply(multipleChoiceAnswerRepository.sumGrades(ids), 1, false);
+        }
+    }
+
+    /**
+     * Removes multiple choice answers from the gradebook, before they are deleted or updated.
+     *
+     * @param ids the ids of the answers
+     */
+    public void removeMultipleChoiceAnswers(Collection<Long> ids) {
+        if (lockStudents(multipleChoiceAnswerRepository.findStudentIds(ids))) {
+            apply(multipleChoiceAnswerRepository.sumGrades(ids), -1, false);
+        }
+    }
+
+    /**
+     * Recomputes the whole gradebook from the answers.
+     *
+     * <p>
+     * The answers written while the gradebook is rebuilt may be counted twice or not at all, so this is meant to
+     * be run when no answers are written, e.g. once after a deployment or after questions were moved.
+     * </p>
+     *
+     * @return the number of entries of the gradebook
+     */
+    public int rebuild() {
+        log.info("Rebuilding the gradebook");
+        gradebookEntryRepository.deleteAllInBatch();
+        Map<List<Long>, GradebookEntry> entries = new LinkedHashMap<>();
+        for (Object[] row : discursiveAnswerRepository.sumAllGrades()) {
+            GradebookEntry entry = entries.computeIfAbsent(key(row), this::newEntry);
+            entry.setDiscursiveAnswers(((Number) row[3]).intValue());
+            entry.setDiscursiveScore(row[4] != null ? ((Number) row[4]).doubleValue() : 0);
+        }
+        for (Object[] row : multipleChoiceAnswerRepository.sumAllGrades()) {
+            GradebookEntry entry = entries.computeIfAbsent(key(row), this::newEntry);
+            entry.setMultipleChoiceAnswers(((Number) row[3]).intValue());
+            entry.setCorrectAnswers(row[4] != null ? ((Number) row[4]).intValue() : 0);
+        }
+        gradebookEntryRepository.save(entries.values());
+        log.info("Rebuilt the gradebook, {} entries", entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Rebuilds the gradebook if answers missing from it were removed.
+     * <p>
+     * This is scheduled to get fired everyday, at 03:00 (am), when few answers are written.
+     * </p>
+     */
+    @Scheduled(cron = "${jhipster.gradebook.rebuildCron:0 0 3 * * ?}")
+    public void rebuildIfStale() {
+        if (stale.compareAndSet(true, false)) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                stale.set(true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Gets the grades of a student, per course.
+     *
+     * @param personId the id of the student
+     * @return the grades of the student
+     */
+    @Transactional(readOnly = true)
+    public List<GradeSummaryDTO> findGradesOfStudent(Long personId) {
+        List<GradeSummaryDTO> grades = new ArrayList<>();
+        for (Object[] row : gradebookEntryRepository.sumByCourseOfStudent(personId)) {
+            grades.add(summary(personId, (Long) row[0], row));
+        }
+        return grades;
+    }
+
+    /**
+     * Gets the grades of the students of a course.
+     *
+     * @param courseId the id of the course
+     * @return the grades of the students who answered questions of the course
+     */
+    @Transactional(readOnly = true)
+    public List<GradeSummaryDTO> findGradesOfCourse(Long courseId) {
+        List<GradeSummaryDTO> grades = new ArrayList<>();
+        for (Object[] row : gradebookEntryRepository.sumByStudentOfCourse(courseId)) {
+            grades.add(summary((Long) row[0], courseId, row));
+        }
+        return grades;
+    }
+
+    /**
+     * Locks the students of answers, before the totals of their answers are read.
+     *
+     * @return false if the answers have no students, i.e. do not count in the gradebook
+     */
+    private boolean lockStudents(List<Long> personIds) {
+        if (personIds.isEmpty()) {
+            return false;
+        }
+        personRepository.lockAll(personIds);
+        return true;
+    }
+
+    private void apply(List<Object[]> rows, int sign, boolean discursive) {
+        for (Object[] row : rows) {
+            int answers = sign * ((Number) row[3]).intValue();
+            Number total = row[4] != null ? (Number) row[4] : 0;
+            int updated = discursive ?
+                gradebookEntryRepository.increment((Long) row[0], (Long) row[1], (Long) row[2],
+                    answers, sign * total.doubleValue(), 0, 0) :
+                gradebookEntryRepository.increment((Long) row[0], (Long) row[1], (Long) row[2],
+                    0, 0, answers, sign * total.intValue());
+            if (updated == 0 && sign < 0) {
+                log.warn("Removed answers missing from the gradebook entry {}, the gradebook will be rebuilt",
+                    key(row));
+                stale.set(true);
+            } else if (updated == 0) {
+                GradebookEntry entry = newEntry(key(row));
+                if (discursive) {
+                    entry.setDiscursiveAnswers(answers);
+                    entry.setDiscursiveScore(sign * total.doubleValue());
+                } else {
+                    entry.setMultipleChoiceAnswers(answers);
+                    entry.setCorrectAnswers(sign * total.intValue());
+                }
+                gradebookEntryRepository.save(entry);
+            }
+        }
+    }
+
+    /**
+     * Reads the key of a gradebook entry, i.e. its person, course and lesson ids, from the first columns of a row.
+     */
+    static List<Long> key(Object[] row) {
+        return Arrays.asList((Long) row[0], (Long) row[1], (Long) row[2]);
+    }
+
+    /**
+     * Creates an entry, not saved yet, with references to its person, course and lesson.
+     *
+     * @param key the person, course and lesson ids of the entry, the course and lesson ids may be null
+     * @return the new entry
+     */
+    public GradebookEntry newEntry(List<Long> key) {
+        // references only, the ids come from the answers
+        GradebookEntry entry = new GradebookEntry();
+        entry.setPerson(personRepository.getOne(key.get(0)));
+        entry.setCourse(key.get(1) != null ? courseRepository.getOne(key.get(1)) : null);
+        entry.setLesson(key.get(2) != null ? lessonRepository.getOne(key.get(2)) : null);
+        return entry;
+    }
+
+    private static GradeSummaryDTO summary(Long personId, Long courseId, Object[] row) {
+        return new GradeSummaryDTO(personId, courseId, ((Number) row[1]).longValue(), ((Number) row[2]).doubleValue(),
+            ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+    }
+}
@@ -0,0 +1,120 @@
+package com.teachit.service;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.teachit.domain.GradebookEntry;
+import com.teachit.repository.GradebookEntryRepository;
+import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.service.grading.AnswerKeyIndex;
+import com.teachit.service.grading.GradingTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Service class for grading the multiple choice answers of a whole lesson or course, e.g. once its exam is closed.
+ *
+ * <p>
+ * The answers are selected with a single query, without their choices, and graded against the AnswerKeyIndex in
+ * parallel batches of the common fork/join pool. The totals of the multiple choice answers of the gradebook entries
+ * of the lesson or course are then replaced, in JDBC batches.
+ * </p>
+ * <p>
+ * The students are locked once their answers are selected: an answer written meanwhile by one of them may not be
+ * counted, until the next grading, so this is meant to be run when the lesson or course no longer takes answers.
+ * </p>
+ * <p>
+ * The gradebook entries are incremented by bulk updates, which leave the entries already loaded in the persistence
+ * context stale. The persistence context is therefore flushed and cleared before the entries are read, so that the
+ * totals of the discursive answers written back with the graded ones are current.
+ * </p>
+ */
+@Service
+@Transactional
+public class GradingService {
+
+    private final Logger log = LoggerFactory.getLogger(GradingService.class);
+
+    @Inject
+    private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private GradebookEntryRepository gradebookEntryRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private AnswerKeyIndex answerKeyIndex;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Grades the multiple choice answers to the questions of a lesson.
+     *
+     * @param lessonId the id of the lesson
+     * @return the number of answers graded
+     */
+    public int gradeLesson(Long lessonId) {
+        log.debug("Grading the multiple choice answers of lesson {}", lessonId);
+        return grade(multipleChoiceAnswerRepository.findGradingRowsOfLesson(lessonId),
+            () -> gradebookEntryRepository.findAllOfLesson(lessonId));
+    }
+
+    /**
+     * Grades the multiple choice answers to the questions of a course.
+     *
+     * @param courseId the id of the course
+     * @return the number of answers graded
+     */
+    public int gradeCourse(Long courseId) {
+        log.debug("Grading the multiple choice answers of course {}", courseId);
+        return grade(multipleChoiceAnswerRepository.findGradingRowsOfCourse(courseId),
+            () -> gradebookEntryRepository.findAllOfCourse(courseId));
+    }
+
+    private int grade(List<Object[]> answers, Supplier<List<Object[]>> entries) {
+        LongHashSet questionIds = new LongHashSet();
+        Set<Long> personIds = new HashSet<>();
+        for (Object[] answer : answers) {
+            personIds.add((Long) answer[0]);
+            questionIds.add((Long) answer[3]);
+        }
+        Map<List<Long>, int[]> totals = ForkJoinPool.commonPool()
+            .invoke(new GradingTask(answers, answerKeyIndex.copyOf(questionIds)));
+
+        if (!personIds.isEmpty()) {
+            personRepository.lockAll(personIds);
+        }
+        em.flush();
+        em.clear();
+        for (Object[] row : entries.get()) {
+            GradebookEntry entry = (GradebookEntry) row[3];
+            int[] total = totals.remove(GradebookService.key(row));
+            entry.setMultipleChoiceAnswers(total != null ? total[0] : 0);
+            entry.setCorrectAnswers(total != null ? total[1] : 0);
+        }
+        List<GradebookEntry> newEntries = new ArrayList<>();
+        for (Map.Entry<List<Long>, int[]> total : totals.entrySet()) {
+            GradebookEntry entry = gradebookService.newEntry(total.getKey());
+            entry.setMultipleChoiceAnswers(total.getValue()[0]);
+            entry.setCorrectAnswers(total.getValue()[1]);
+            newEntries.add(entry);
+        }
+        gradebookEntryRepository.save(newEntries);
+        log.debug("Graded {} multiple choice answers", answers.size());
+        return answers.size();
+    }
+}
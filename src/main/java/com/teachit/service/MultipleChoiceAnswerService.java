@@ -0,0 +1,60 @@
+package com.teachit.service;
+
+import com.teachit.domain.MultipleChoiceAnswer;
+import com.teachit.repository.MultipleChoiceAnswerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.Collections;
+
+/**
+ * Service class for writing multipleChoiceAnswers, keeping the gradebook and the progress of the students
+ * up to date in the same transaction.
+ */
+@Service
+@Transactional
+public class MultipleChoiceAnswerService {
+
+    private final Logger log = LoggerFactory.getLogger(MultipleChoiceAnswerService.class);
+
+    @Inject
+    private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private ProgressService progressService;
+
+    /**
+     * Saves a multipleChoiceAnswer, moving it from its previous entry of the gradebook to its new one.
+     *
+     * @param multipleChoiceAnswer the multipleChoiceAnswer to create, or to update as a detached entity: the previous state is read from the
+     * database, so it must not be flushed before
+     * @return the multipleChoiceAnswer saved
+     */
+    public MultipleChoiceAnswer save(MultipleChoiceAnswer multipleChoiceAnswer) {
+        log.debug("Request to save MultipleChoiceAnswer : {}", multipleChoiceAnswer);
+        if (multipleChoiceAnswer.getId() != null) {
+            gradebookService.removeMultipleChoiceAnswers(Collections.singleton(multipleChoiceAnswer.getId()));
+        }
+        MultipleChoiceAnswer result = multipleChoiceAnswerRepository.save(multipleChoiceAnswer);
+        gradebookService.addMultipleChoiceAnswers(Collections.singleton(result.getId()));
+        progressService.addMultipleChoiceAnswers(Collections.singleton(result.getId()));
+        return result;
+    }
+
+    /**
+     * Deletes a multipleChoiceAnswer, removing it from the gradebook.
+     *
+     * @param id the id of the multipleChoiceAnswer
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete MultipleChoiceAnswer : {}", id);
+        gradebookService.removeMultipleChoiceAnswers(Collections.singleton(id));
+        multipleChoiceAnswerRepository.delete(id);
+    }
+}
@@ -0,0 +1,403 @@
+package com.teachit.service;
+
+import com.teachit.domain.CourseProgress;
+import com.teachit.domain.ProgressItem;
+import com.teachit.domain.enumeration.ProgressItemType;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.ContentViewRepository;
+import com.teachit.repository.CourseProgressRepository;
+import com.teachit.repository.CourseRepository;
+import com.teachit.repository.DiscursiveAnswerRepository;
+import com.teachit.repository.DiscursiveQuestionRepository;
+import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.repository.ProgressItemRepository;
+import com.teachit.service.progress.ProgressBitmaps;
+import com.teachit.service.progress.ProgressCatalog;
+import com.teachit.web.rest.dto.CohortProgressDTO;
+import com.teachit.web.rest.dto.CourseProgressDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service class for the progress of the students in the courses, i.e. the contents they viewed and the questions
+ * they answered.
+ *
+ * <p>
+ * Each content and question of a course is given a dense ordinal in the course, the first time it is viewed or
+ * answered, so that the progress of a student in a course is a few small bitmaps. The progress is computed with
+ * bitmap operations against the catalog of the course, both cached, the bitmaps until they change and the catalog
+ * for the time to live of its cache, as the contents and questions of the courses are written elsewhere.
+ * </p>
+ * <p>
+ * The views and answers are added to the progress in the transactions writing them: the students are locked first,
+ * then the courses needing new ordinals. The progress must thus be written last in these transactions, after the
+ * gradebook, so that no course is locked while waiting for a student. The progress is not removed with the views
+ * and answers: it can be rebuilt from them.
+ * </p>
+ */
+@Service
+@Transactional
+public class ProgressService {
+
+    public static final String COURSE_PROGRESS_CACHE = "courseProgress";
+
+    public static final String PROGRESS_CATALOGS_CACHE = "progressCatalogs";
+
+    private static final int PROGRESS_EVICTION_STRIPES = 64;
+
+    private final Logger log = LoggerFactory.getLogger(ProgressService.class);
+
+    @Inject
+    private CourseProgressRepository courseProgressRepository;
+
+    @Inject
+    private ProgressItemRepository progressItemRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private CourseRepository courseRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private ContentViewRepository contentViewRepository;
+
+    @Inject
+    private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private DiscursiveQuestionRepository discursiveQuestionRepository;
+
+    @Inject
+    private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private DiscursiveAnswerRepository discursiveAnswerRepository;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    /**
+     * Written directly: the progresses read are put as soon as read, and evicted after commit by {@link #evictProgress}.
+     */
+    private Cache progressCache;
+
+    private Cache catalogCache;
+
+    /**
+     * Number of evictions of the progresses, by stripe of their keys, so that a progress read while it is changed is
+     * not cached: a reader puts a progress only if no eviction of its stripe happened since it started reading it.
+     */
+    private final AtomicLongArray progressEvictions = new AtomicLongArray(PROGRESS_EVICTION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        progressCache = cacheManager.getCache(COURSE_PROGRESS_CACHE);
+        // written after commit only, so that a rolled back transaction leaves the cache untouched
+        catalogCache = new TransactionAwareCacheDecorator(cacheManager.getCache(PROGRESS_CATALOGS_CACHE));
+    }
+
+    /**
+     * Adds views to the progress, once they are saved. The views of contents without a course are ignored.
+     *
+     * @param views the views of the contents by the people
+     */
+    public void addContentViews(Collection<ContentViewBuffer.Key> views) {
+        Set<Long> contentIds = new HashSet<>();
+        for (ContentViewBuffer.Key view : views) {
+            contentIds.add(view.getContentId());
+        }
+        if (contentIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> courseIds = new HashMap<>();
+        for (Object[] row : contentRepository.findCourses(contentIds)) {
+            courseIds.put((Long) row[0], (Long) row[1]);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (ContentViewBuffer.Key view : views) {
+            Long courseId = courseIds.get(view.getContentId());
+            if (courseId != null) {
+                rows.add(new Object[]{view.getPersonId(), courseId, view.getContentId()});
+            }
+        }
+        apply(ProgressItemType.CONTENT, rows);
+    }
+
+    /**
+     * Adds discursive answers to the progress, once they are saved with their student and question.
+     *
+     * @param ids the ids of the answers
+     */
+    public void addDiscursiveAnswers(Collection<Long> ids) {
+        apply(ProgressItemType.DISCURSIVE_QUESTION, discursiveAnswerRepository.findProgressRows(ids));
+    }
+
+    /**
+     * Adds multiple choice answers to the progress, once they are saved with their student and question.
+     *
+     * @param ids the ids of the answers
+     */
+    public void addMultipleChoiceAnswers(Collection<Long> ids) {
+        apply(ProgressItemType.MULTIPLE_CHOICE_QUESTION, multipleChoiceAnswerRepository.findProgressRows(ids));
+    }
+
+    /**
+     * Recomputes the progress of all the students from the views and answers, keeping the ordinals of the items.
+     *
+     * <p>
+     * The views and answers written while the progress is rebuilt may not be counted, so this is meant to be run
+     * when none are written, e.g. once after a deployment or after contents or questions were deleted.
+     * </p>
+     *
+     * @return the number of progresses
+     */
+    public int rebuild() {
+        log.info("Rebuilding the progress");
+        courseProgressRepository.deleteAllInBatch();
+        // the progresses are all new, do not look for them
+        Map<List<Long>, CourseProgress> progresses = new LinkedHashMap<>();
+        apply(ProgressItemType.CONTENT, contentViewRepository.findAllProgressRows(), progresses);
+        apply(ProgressItemType.MULTIPLE_CHOICE_QUESTION, multipleChoiceAnswerRepository.findAllProgressRows(), progresses);
+        apply(ProgressItemType.DISCURSIVE_QUESTION, discursiveAnswerRepository.findAllProgressRows(), progresses);
+        courseProgressRepository.save(progresses.values());
+        evictProgress(null);
+        catalogCache.clear();
+        log.info("Rebuilt the progress, {} progresses", progresses.size());
+        return progresses.size();
+    }
+
+    /**
+     * Gets the progress of a student in a course.
+     *
+     * @param personId the id of the student
+     * @param courseId the id of the course
+     * @return the progress, empty if the student did not start the course
+     */
+    @Transactional(readOnly = true)
+    public CourseProgressDTO findProgress(Long personId, Long courseId) {
+        String key = personId + ":" + courseId;
+        // read before the database, so that a change committed since is seen by the reads or by the check below
+        int stripe = progressEvictionStripe(key);
+        long evictions = progressEvictions.get(stripe);
+        ProgressCatalog catalog = findCatalog(courseId);
+        ProgressBitmaps progress = progressCache.get(key, ProgressBitmaps.class);
+        if (progress == null) {
+            progress = ProgressBitmaps.of(courseProgressRepository.findOneOf(personId, courseId));
+            progressCache.put(key, progress);
+            if (progressEvictions.get(stripe) != evictions) {
+                // changed while read, the progress read may be older than the change
+                progressCache.evict(key);
+            }
+        }
+        CourseProgressDTO dto = new CourseProgressDTO();
+        dto.setPersonId(personId);
+        dto.setCourseId(courseId);
+        dto.setContents(catalog.getContents());
+        dto.setViewedContents(catalog.viewedContents(progress));
+        dto.setQuestions(catalog.getQuestions());
+        dto.setAnsweredQuestions(catalog.answeredQuestions(progress));
+        int items = dto.getContents() + dto.getQuestions();
+        dto.setPercent(items > 0 ? 100.0 * (dto.getViewedContents() + dto.getAnsweredQuestions()) / items : 0);
+        dto.setNextContentId(catalog.nextContentId(progress));
+        return dto;
+    }
+
+    /**
+     * Gets the progress of the students of a course, from their bitmaps read with a single query.
+     *
+     * @param courseId the id of the course
+     * @return the progress of the students who started the course
+     */
+    @Transactional(readOnly = true)
+    public CohortProgressDTO findCohortProgress(Long courseId) {
+        ProgressCatalog catalog = findCatalog(courseId);
+        int[] viewers = new int[catalog.getContents()];
+        CohortProgressDTO dto = new CohortProgressDTO();
+        dto.setCourseId(courseId);
+        for (Object[] row : courseProgressRepository.findBitmapsOfCourse(courseId)) {
+            ProgressBitmaps progress = new ProgressBitmaps((byte[]) row[1], (byte[]) row[2], (byte[]) row[3]);
+            dto.setStudents(dto.getStudents() + 1);
+            if (catalog.isCompleted(progress)) {
+                dto.setCompletedStudents(dto.getCompletedStudents() + 1);
+            }
+            catalog.countViewers(progress, viewers);
+        }
+        for (int i = 0; i < viewers.length; i++) {
+            dto.getViewersByContent().put(catalog.getContentId(i), viewers[i]);
+        }
+        return dto;
+    }
+
+    private ProgressCatalog findCatalog(Long courseId) {
+        ProgressCatalog catalog = catalogCache.get(courseId, ProgressCatalog.class);
+        if (catalog == null) {
+            Map<ProgressItemType, Map<Long, Integer>> ordinals = new EnumMap<>(ProgressItemType.class);
+            for (Object[] row : progressItemRepository.findAllOfCourse(courseId)) {
+                ordinals.computeIfAbsent((ProgressItemType) row[0], type -> new HashMap<>())
+                    .put((Long) row[1], (Integer) row[2]);
+            }
+            catalog = new ProgressCatalog(contentRepository.findIdsOfCourse(courseId),
+                multipleChoiceQuestionRepository.findIdsOfCourse(courseId),
+                discursiveQuestionRepository.findIdsOfCourse(courseId), ordinals);
+            catalogCache.put(courseId, catalog);
+        }
+        return catalog;
+    }
+
+    private void apply(ProgressItemType itemType, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<Long> personIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (Object[] row : rows) {
+            personIds.add((Long) row[0]);
+            courseIds.add((Long) row[1]);
+        }
+        personRepository.lockAll(personIds);
+        Map<List<Long>, CourseProgress> progresses = new HashMap<>();
+        for (Object[] row : courseProgressRepository.findAllOf(personIds, courseIds)) {
+            progresses.put(Arrays.asList((Long) row[0], (Long) row[1]), (CourseProgress) row[2]);
+        }
+        List<CourseProgress> newProgresses = new ArrayList<>();
+        for (CourseProgress progress : apply(itemType, rows, progresses)) {
+            if (progress.getId() == null) {
+                newProgresses.add(progress);
+            }
+        }
+        courseProgressRepository.save(newProgresses);
+    }
+
+    /**
+     * Sets the items of the rows in the given progresses, creating the missing ones.
+     *
+     * @param rows the person id, course id and item id of each item to set
+     * @param progresses the progresses by person and course ids, completed with the new ones
+     * @return the progresses changed
+     */
+    private List<CourseProgress> apply(ProgressItemType itemType, List<Object[]> rows,
+                                       Map<List<Long>, CourseProgress> progresses) {
+        // the courses in the order of their ids, as they may be locked
+        Map<Long, Set<Long>> itemIdsByCourse = new TreeMap<>();
+        for (Object[] row : rows) {
+            itemIdsByCourse.computeIfAbsent((Long) row[1], courseId -> new HashSet<>()).add((Long) row[2]);
+        }
+        Map<Long, Map<Long, Integer>> ordinals = new HashMap<>();
+        for (Map.Entry<Long, Set<Long>> items : itemIdsByCourse.entrySet()) {
+            ordinals.put(items.getKey(), findOrAllocateOrdinals(itemType, items.getKey(), items.getValue()));
+        }
+
+        Map<List<Long>, BitSet> added = new HashMap<>();
+        for (Object[] row : rows) {
+            Long courseId = (Long) row[1];
+            added.computeIfAbsent(Arrays.asList((Long) row[0], courseId), key -> new BitSet())
+                .set(ordinals.get(courseId).get((Long) row[2]));
+        }
+        List<CourseProgress> changed = new ArrayList<>();
+        for (Map.Entry<List<Long>, BitSet> ordinalsOfProgress : added.entrySet()) {
+            List<Long> key = ordinalsOfProgress.getKey();
+            CourseProgress progress = progresses.computeIfAbsent(key, this::newProgress);
+            if (ProgressBitmaps.set(progress, itemType, ordinalsOfProgress.getValue())) {
+                changed.add(progress);
+                evictProgress(key.get(0) + ":" + key.get(1));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Gets the ordinals of some items of a course, allocating the missing ones after the greatest ordinal of the
+     * items of the course. The course is locked while allocating, so that concurrent transactions do not allocate
+     * the same ordinal twice.
+     */
+    private Map<Long, Integer> findOrAllocateOrdinals(ProgressItemType itemType, Long courseId, Set<Long> itemIds) {
+        Map<Long, Integer> ordinals = new HashMap<>();
+        for (Object[] row : progressItemRepository.findOrdinals(courseId, itemType, itemIds)) {
+            ordinals.put((Long) row[0], (Integer) row[1]);
+        }
+        if (ordinals.size() == itemIds.size()) {
+            return ordinals;
+        }
+        courseRepository.lockAll(Collections.singleton(courseId));
+        // locking reads, which see the items allocated by the transactions committed since this one started
+        for (ProgressItem item : progressItemRepository.lockAll(courseId, itemType, itemIds)) {
+            ordinals.put(item.getItemId(), item.getOrdinal());
+        }
+        ProgressItem last = progressItemRepository.findFirstByCourseIdAndItemTypeOrderByOrdinalDesc(courseId, itemType);
+        int next = last != null ? last.getOrdinal() + 1 : 0;
+        List<ProgressItem> items = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (!ordinals.containsKey(itemId)) {
+                ProgressItem item = new ProgressItem();
+                item.setCourse(courseRepository.getOne(courseId));
+                item.setItemType(itemType);
+                item.setItemId(itemId);
+                item.setOrdinal(next);
+                ordinals.put(itemId, next++);
+                items.add(item);
+            }
+        }
+        progressItemRepository.save(items);
+        catalogCache.evict(courseId);
+        return ordinals;
+    }
+
+    /**
+     * Evicts a progress, or all of them if the key is null, after commit: the evictions are counted first, so that a
+     * progress read concurrently is either not put or evicted after it is put.
+     */
+    private void evictProgress(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    doEvictProgress(key);
+                }
+            });
+        } else {
+            doEvictProgress(key);
+        }
+    }
+
+    private void doEvictProgress(String key) {
+        if (key != null) {
+            progressEvictions.incrementAndGet(progressEvictionStripe(key));
+            progressCache.evict(key);
+        } else {
+            for (int i = 0; i < progressEvictions.length(); i++) {
+                progressEvictions.incrementAndGet(i);
+            }
+            progressCache.clear();
+        }
+    }
+
+    private static int progressEvictionStripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % PROGRESS_EVICTION_STRIPES;
+    }
+
+    private CourseProgress newProgress(List<Long> key) {
+        // references only, the ids come from the views and answers
+        CourseProgress progress = new CourseProgress();
+        progress.setPerson(personRepository.getOne(key.get(0)));
+        progress.setCourse(courseRepository.getOne(key.get(1)));
+        return progress;
+    }
+}
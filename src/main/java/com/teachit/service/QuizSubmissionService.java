@@ -0,0 +1,112 @@
+package com.teachit.service;
+
+import com.teachit.domain.MultipleChoiceAnswer;
+import com.teachit.domain.Person;
+import com.teachit.repository.ChoiceRepository;
+import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.web.rest.dto.QuizAnswerDTO;
+import com.teachit.web.rest.dto.QuizSubmissionDTO;
+import com.teachit.web.rest.errors.CustomParameterizedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.*;
+
+/**
+ * Service class for submitting the answers of a student to a quiz, i.e. to the multiple choice questions of a
+ * lesson or a course, at once.
+ *
+ * <p>
+ * The choices are checked against their questions with a single query, and the answers are inserted in one
+ * transaction, in JDBC batches, then added to the gradebook and to the progress of the student.
+ * </p>
+ */
+@Service
+@Transactional
+public class QuizSubmissionService {
+
+    private final Logger log = LoggerFactory.getLogger(QuizSubmissionService.class);
+
+    @Inject
+    private ChoiceRepository choiceRepository;
+
+    @Inject
+    private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private ProgressService progressService;
+
+    /**
+     * Saves the answers of the submission.
+     *
+     * @param submission the student, the lesson or course of the quiz if any, and one answer per question
+     * @return the answers saved, with their id and whether they are correct, in the order of the submission
+     * @throws CustomParameterizedException if a question is answered twice, if a choice is not one of its
+     * question, if a question is not in the lesson or course of the quiz, or if the student does not exist
+     */
+    public List<QuizAnswerDTO> submit(QuizSubmissionDTO submission) {
+        log.debug("Submitting {} answers of student {}", submission.getAnswers().size(), submission.getStudentId());
+        Set<Long> questionIds = new HashSet<>();
+        Set<Long> choiceIds = new HashSet<>();
+        for (QuizAnswerDTO answer : submission.getAnswers()) {
+            if (!questionIds.add(answer.getQuestionId())) {
+                throw new CustomParameterizedException("error.duplicatequizanswer", answer.getQuestionId().toString());
+            }
+            choiceIds.add(answer.getChoiceId());
+        }
+        if (!personRepository.exists(submission.getStudentId())) {
+            throw new CustomParameterizedException("error.unknownstudent", submission.getStudentId().toString());
+        }
+
+        Map<Long, Object[]> answerKeys = new HashMap<>();
+        for (Object[] answerKey : choiceRepository.findAnswerKeys(choiceIds)) {
+            answerKeys.put((Long) answerKey[0], answerKey);
+        }
+        for (QuizAnswerDTO answer : submission.getAnswers()) {
+            Object[] answerKey = answerKeys.get(answer.getChoiceId());
+            if (answerKey == null || !answer.getQuestionId().equals(answerKey[1])) {
+                throw new CustomParameterizedException("error.invalidquizanswer",
+                    answer.getQuestionId().toString(), answer.getChoiceId().toString());
+            }
+            if (submission.getLessonId() != null && !submission.getLessonId().equals(answerKey[3]) ||
+                submission.getCourseId() != null && !submission.getCourseId().equals(answerKey[4])) {
+                throw new CustomParameterizedException("error.quizquestionoutofscope", answer.getQuestionId().toString());
+            }
+            answer.setCorrect(Boolean.TRUE.equals(answerKey[2]));
+        }
+
+        // references only, the rows were checked above
+        Person student = personRepository.getOne(submission.getStudentId());
+        List<MultipleChoiceAnswer> multipleChoiceAnswers = new ArrayList<>();
+        for (QuizAnswerDTO answer : submission.getAnswers()) {
+            MultipleChoiceAnswer multipleChoiceAnswer = new MultipleChoiceAnswer();
+            multipleChoiceAnswer.setStudent(student);
+            multipleChoiceAnswer.setQuestion(multipleChoiceQuestionRepository.getOne(answer.getQuestionId()));
+            multipleChoiceAnswer.setChoosen(choiceRepository.getOne(answer.getChoiceId()));
+            multipleChoiceAnswers.add(multipleChoiceAnswer);
+        }
+        multipleChoiceAnswerRepository.save(multipleChoiceAnswers);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < multipleChoiceAnswers.size(); i++) {
+            submission.getAnswers().get(i).setId(multipleChoiceAnswers.get(i).getId());
+            ids.add(multipleChoiceAnswers.get(i).getId());
+        }
+        gradebookService.addMultipleChoiceAnswers(ids);
+        progressService.addMultipleChoiceAnswers(ids);
+        return submission.getAnswers();
+    }
+}
@@ -0,0 +1,137 @@
+package com.teachit.service;
+
+import com.teachit.config.JHipsterProperties;
+import com.teachit.domain.Content;
+import com.teachit.domain.Course;
+import com.teachit.domain.DiscursiveQuestion;
+import com.teachit.domain.Lesson;
+import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.service.search.MemorySegment;
+import com.teachit.service.search.SearchDocument;
+import com.teachit.service.search.SearchIndex;
+import com.teachit.service.search.SearchIndexListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.Executor;
+
+/**
+ * Service class for rebuilding the full-text SearchIndex from the database.
+ *
+ * <p>
+ * The entities are read by pages of their ids, each in its own transaction unless the rebuild is called in one.
+ * The changes committed meanwhile are indexed as usual by the SearchIndexListener, and replayed by the index over
+ * the documents read.
+ * </p>
+ * <p>
+ * It also loads the contents written without their text loaded, for the SearchIndexListener.
+ * </p>
+ */
+@Service
+public class SearchService {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    @Inject
+    private SearchIndex searchIndex;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    @Named("taskExecutor")
+    private Executor taskExecutor;
+
+    @PostConstruct
+    public void init() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // the contents are loaded once the transaction writing them is committed, while it is still bound
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        SearchIndexListener.registerContentLoader(id ->
+            transactionTemplate.execute(status -> SearchDocument.of(contentRepository.findOne(id))));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        SearchIndexListener.registerContentLoader(null);
+    }
+
+    /**
+     * Rebuilds the index in the background once the application is started, unless disabled.
+     */
+    @EventListener
+    public void rebuildOnStartup(ApplicationReadyEvent event) {
+        if (jHipsterProperties.getSearch().isRebuildOnStartup()) {
+            taskExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Could not rebuild the search index: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Replaces the index with the courses, lessons, contents and questions of the database.
+     *
+     * @return the number of documents indexed
+     */
+    public int rebuild() {
+        log.info("Rebuilding the search index");
+        MemorySegment documents = searchIndex.startRebuild();
+        try {
+            load(Course.class, null, documents);
+            load(Lesson.class, null, documents);
+            load(Content.class, "Content.withText", documents);
+            load(MultipleChoiceQuestion.class, null, documents);
+            load(DiscursiveQuestion.class, null, documents);
+        } catch (RuntimeException e) {
+            searchIndex.cancelRebuild();
+            throw e;
+        }
+        int indexed = searchIndex.finishRebuild(documents);
+        log.info("Rebuilt the search index, {} documents", indexed);
+        return indexed;
+    }
+
+    private <T> void load(Class<T> domainClass, String entityGraph, MemorySegment documents) {
+        Pageable pageable = new PageRequest(0, PAGE_SIZE, Sort.Direction.ASC, "id");
+        String after = null;
+        do {
+            Slice<T> slice = keysetPaginationRepository.findAll(domainClass, null, after, pageable, entityGraph);
+            for (T entity : slice) {
+                documents.add(SearchDocument.of(entity));
+            }
+            after = keysetPaginationRepository.nextCursor(slice);
+        } while (after != null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.teachit.service.export;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows as CSV (RFC 4180), starting with a header row of the column names.
+ *
+ * <p>
+ * A text starting with =, +, - or @ is prefixed with a quote, so that a spreadsheet opening the export shows it
+ * instead of evaluating it as a formula.
+ * </p>
+ */
+class CsvRowWriter implements RowWriter {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer writer;
+
+    CsvRowWriter(OutputStream out, String[] columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeRow(columns);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof Number) {
+                writeValue(values[i].toString());
+            } else if (values[i] != null) {
+                writeValue(escapeFormula(values[i].toString()));
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private static String escapeFormula(String value) {
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\r') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+        } else {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
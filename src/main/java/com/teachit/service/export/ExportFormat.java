@@ -0,0 +1,65 @@
+package com.teachit.service.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Format of an export.
+ */
+public enum ExportFormat {
+
+    CSV("csv", new MediaType("text", "csv")) {
+        @Override
+        public RowWriter open(OutputStream out, String[] columns) throws IOException {
+            return new CsvRowWriter(out, columns);
+        }
+    },
+    NDJSON("ndjson", new MediaType("application", "x-ndjson")) {
+        @Override
+        public RowWriter open(OutputStream out, String[] columns) throws IOException {
+            return new NdjsonRowWriter(out, columns);
+        }
+    };
+
+    private final String extension;
+
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns a writer of the rows of an export in this format.
+     *
+     * @param out the stream to write to, e.g. the body of the response
+     * @param columns the names of the columns
+     */
+    public abstract RowWriter open(OutputStream out, String[] columns) throws IOException;
+
+    /**
+     * Returns the format of the given extension, e.g. "csv".
+     *
+     * @throws UnknownExportFormatException if there is no such format
+     */
+    public static ExportFormat of(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(extension.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new UnknownExportFormatException(extension);
+    }
+}
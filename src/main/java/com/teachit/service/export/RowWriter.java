@@ -0,0 +1,21 @@
+package com.teachit.service.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes the rows of an export, one at a time, to an output stream.
+ *
+ * <p>
+ * Rows are buffered until the writer is flushed. Flushing does not close the stream.
+ * </p>
+ */
+public interface RowWriter extends Flushable {
+
+    /**
+     * Writes a row.
+     *
+     * @param values the value of each column, in the order of the columns of the export
+     */
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,17 @@
+package com.teachit.service.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an export is requested in a format which is not supported.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Unknown export format")
+public class UnknownExportFormatException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownExportFormatException(String format) {
+        super("Unknown export format: " + format);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Writers of the rows of the exports.
+ */
+package com.teachit.service.export;
@@ -0,0 +1,173 @@
+package com.teachit.service.grading;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.teachit.repository.ChoiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory answer key of the multiple choice questions: the ids of the correct choices of each question.
+ *
+ * <p>
+ * The ids are held in primitive long maps and sets, so the index of a large question bank stays small and is read
+ * without boxing. It is loaded with a single query on first use, then kept up to date by the writes of the choices
+ * through the ChoiceResource. Each instance of the application holds its own index, like the entity caches: the
+ * choices written directly in the database are only seen after a {@link #reload()}.
+ * </p>
+ */
+@Component
+public class AnswerKeyIndex {
+
+    private final Logger log = LoggerFactory.getLogger(AnswerKeyIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongObjectHashMap<LongHashSet> correctChoicesByQuestion = new LongObjectHashMap<>();
+
+    private final LongLongHashMap questionByCorrectChoice = new LongLongHashMap();
+
+    private volatile boolean loaded;
+
+    @Inject
+    private ChoiceRepository choiceRepository;
+
+    /**
+     * Checks whether a choice is a correct answer to a question.
+     *
+     * @param questionId the id of the question
+     * @param choiceId the id of the choice
+     * @return true if the choice is one of the correct choices of the question
+     */
+    public boolean isCorrect(long questionId, long choiceId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            LongHashSet correctChoices = correctChoicesByQuestion.get(questionId);
+            return correctChoices != null && correctChoices.contains(choiceId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the answer key of some questions, e.g. to be read by several threads without locking.
+     *
+     * @param questionIds the ids of the questions
+     * @return the ids of the correct choices of each question having some
+     */
+    public LongObjectHashMap<LongHashSet> copyOf(LongHashSet questionIds) {
+        ensureLoaded();
+        LongObjectHashMap<LongHashSet> copy = new LongObjectHashMap<>(questionIds.size());
+        lock.readLock().lock();
+        try {
+            for (LongCursor questionId : questionIds) {
+                LongHashSet correctChoices = correctChoicesByQuestion.get(questionId.value);
+                if (correctChoices != null) {
+                    copy.put(questionId.value, new LongHashSet(correctChoices));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return copy;
+    }
+
+    /**
+     * Updates the index once a choice is saved.
+     *
+     * @param choiceId the id of the choice
+     * @param questionId the id of its question, or null
+     * @param correct whether the choice is correct, or null
+     */
+    public void put(Long choiceId, Long questionId, Boolean correct) {
+        lock.writeLock().lock();
+        try {
+            // when not loaded yet, the choice is read with the others
+            if (loaded) {
+                removeChoice(choiceId);
+                if (questionId != null && Boolean.TRUE.equals(correct)) {
+                    addChoice(choiceId, questionId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the index once a choice is deleted.
+     *
+     * @param choiceId the id of the choice
+     */
+    public void remove(Long choiceId) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                removeChoice(choiceId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index again from the database.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            correctChoicesByQuestion.clear();
+            questionByCorrectChoice.clear();
+            for (Object[] correctChoice : choiceRepository.findCorrectChoices()) {
+                addChoice((Long) correctChoice[0], (Long) correctChoice[1]);
+            }
+            loaded = true;
+            log.info("Loaded the answer key of {} questions", correctChoicesByQuestion.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void addChoice(long choiceId, long questionId) {
+        LongHashSet correctChoices = correctChoicesByQuestion.get(questionId);
+        if (correctChoices == null) {
+            correctChoices = new LongHashSet();
+            correctChoicesByQuestion.put(questionId, correctChoices);
+        }
+        correctChoices.add(choiceId);
+        questionByCorrectChoice.put(choiceId, questionId);
+    }
+
+    private void removeChoice(long choiceId) {
+        if (!questionByCorrectChoice.containsKey(choiceId)) {
+            return;
+        }
+        long questionId = questionByCorrectChoice.remove(choiceId);
+        LongHashSet correctChoices = correctChoicesByQuestion.get(questionId);
+        correctChoices.remove(choiceId);
+        if (correctChoices.isEmpty()) {
+            correctChoicesByQuestion.remove(questionId);
+        }
+    }
+}
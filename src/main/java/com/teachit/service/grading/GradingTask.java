@@ -0,0 +1,87 @@
+package com.teachit.service.grading;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongObjectHashMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Grades multiple choice answers against an answer key, splitting them in batches graded in parallel.
+ *
+ * <p>
+ * Each answer is a row of the person, course and lesson ids of its gradebook entry, then the question and choice
+ * ids. The result maps the key of each gradebook entry, i.e. its person, course and lesson ids, to its number of
+ * answers and of correct ones.
+ * </p>
+ */
+public class GradingTask extends RecursiveTask<Map<List<Long>, int[]>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final List<Object[]> answers;
+
+    private final LongObjectHashMap<LongHashSet> answerKey;
+
+    private final int from;
+
+    private final int to;
+
+    public GradingTask(List<Object[]> answers, LongObjectHashMap<LongHashSet> answerKey) {
+        this(answers, answerKey, 0, answers.size());
+    }
+
+    private GradingTask(List<Object[]> answers, LongObjectHashMap<LongHashSet> answerKey, int from, int to) {
+        this.answers = answers;
+        this.answerKey = answerKey;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Map<List<Long>, int[]> compute() {
+        if (to - from <= BATCH_SIZE) {
+            return grade();
+        }
+        int middle = (from + to) >>> 1;
+        GradingTask left = new GradingTask(answers, answerKey, from, middle);
+        left.fork();
+        Map<List<Long>, int[]> right = new GradingTask(answers, answerKey, middle, to).compute();
+        return merge(left.join(), right);
+    }
+
+    private Map<List<Long>, int[]> grade() {
+        Map<List<Long>, int[]> totals = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            Object[] answer = answers.get(i);
+            int[] total = totals.computeIfAbsent(Arrays.asList((Long) answer[0], (Long) answer[1], (Long) answer[2]),
+                key -> new int[2]);
+            total[0]++;
+            LongHashSet correctChoices = answerKey.get((Long) answer[3]);
+            if (answer[4] != null && correctChoices != null && correctChoices.contains((Long) answer[4])) {
+                total[1]++;
+            }
+        }
+        return totals;
+    }
+
+    private static Map<List<Long>, int[]> merge(Map<List<Long>, int[]> left, Map<List<Long>, int[]> right) {
+        Map<List<Long>, int[]> larger = left.size() >= right.size() ? left : right;
+        Map<List<Long>, int[]> smaller = larger == left ? right : left;
+        for (Map.Entry<List<Long>, int[]> entry : smaller.entrySet()) {
+            int[] total = larger.get(entry.getKey());
+            if (total == null) {
+                larger.put(entry.getKey(), entry.getValue());
+            } else {
+                total[0] += entry.getValue()[0];
+                total[1] += entry.getValue()[1];
+            }
+        }
+        return larger;
+    }
+}
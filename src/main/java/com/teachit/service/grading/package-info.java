@@ -0,0 +1,4 @@
+/**
+ * Answer-key index and batches of the auto-grading.
+ */
+package com.teachit.service.grading;
@@ -0,0 +1,92 @@
+package com.teachit.service.progress;
+
+import com.teachit.domain.CourseProgress;
+import com.teachit.domain.enumeration.ProgressItemType;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * The decoded progress of a student in a course: a bitmap per item type, over the ordinals of the items.
+ */
+public class ProgressBitmaps implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BitSet viewedContents;
+
+    private final BitSet answeredMultipleChoices;
+
+    private final BitSet answeredDiscursives;
+
+    public ProgressBitmaps(byte[] viewedContents, byte[] answeredMultipleChoices, byte[] answeredDiscursives) {
+        this.viewedContents = decode(viewedContents);
+        this.answeredMultipleChoices = decode(answeredMultipleChoices);
+        this.answeredDiscursives = decode(answeredDiscursives);
+    }
+
+    /**
+     * Decodes the bitmaps of a progress, or returns empty bitmaps if there is no progress.
+     */
+    public static ProgressBitmaps of(CourseProgress progress) {
+        if (progress == null) {
+            return new ProgressBitmaps(null, null, null);
+        }
+        return new ProgressBitmaps(progress.getViewedContents(), progress.getAnsweredMultipleChoices(),
+            progress.getAnsweredDiscursives());
+    }
+
+    /**
+     * Returns the bitmap of an item type, not to be modified.
+     */
+    public BitSet get(ProgressItemType itemType) {
+        switch (itemType) {
+            case CONTENT:
+                return viewedContents;
+            case MULTIPLE_CHOICE_QUESTION:
+                return answeredMultipleChoices;
+            default:
+                return answeredDiscursives;
+        }
+    }
+
+    /**
+     * Sets the given ordinals in the bitmap of an item type of a progress.
+     *
+     * @return true if the bitmap changed, false if the ordinals were all set already
+     */
+    public static boolean set(CourseProgress progress, ProgressItemType itemType, BitSet ordinals) {
+        BitSet bitmap;
+        switch (itemType) {
+            case CONTENT:
+                bitmap = decode(progress.getViewedContents());
+                break;
+            case MULTIPLE_CHOICE_QUESTION:
+                bitmap = decode(progress.getAnsweredMultipleChoices());
+                break;
+            default:
+                bitmap = decode(progress.getAnsweredDiscursives());
+        }
+        BitSet added = (BitSet) ordinals.clone();
+        added.andNot(bitmap);
+        if (added.isEmpty()) {
+            return false;
+        }
+        bitmap.or(added);
+        switch (itemType) {
+            case CONTENT:
+                progress.setViewedContents(bitmap.toByteArray());
+                break;
+            case MULTIPLE_CHOICE_QUESTION:
+                progress.setAnsweredMultipleChoices(bitmap.toByteArray());
+                break;
+            default:
+                progress.setAnsweredDiscursives(bitmap.toByteArray());
+        }
+        return true;
+    }
+
+    private static BitSet decode(byte[] bytes) {
+        return bytes != null ? BitSet.valueOf(bytes) : new BitSet();
+    }
+}
@@ -0,0 +1,127 @@
+package com.teachit.service.progress;
+
+import com.teachit.domain.enumeration.ProgressItemType;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The items of a course counted by the progress: its contents, in the order they are meant to be viewed, and its
+ * questions, with the ordinals of those already tracked.
+ *
+ * <p>
+ * The bitmaps of the students may hold the ordinals of items removed from the course since: they are masked with
+ * the ordinals of the current items, so that the progress only counts these.
+ * </p>
+ */
+public class ProgressCatalog implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long[] contentIds;
+
+    /** The ordinals of the contents, in the order of the contents, -1 for those never viewed yet */
+    private final int[] contentOrdinals;
+
+    private final int questions;
+
+    private final Map<ProgressItemType, BitSet> masks = new EnumMap<>(ProgressItemType.class);
+
+    /**
+     * @param contentIds the ids of the contents of the course, in the order they are meant to be viewed
+     * @param multipleChoiceQuestionIds the ids of the multiple choice questions of the course
+     * @param discursiveQuestionIds the ids of the discursive questions of the course
+     * @param ordinals the ordinals of the items of the course, by type and id
+     */
+    public ProgressCatalog(List<Long> contentIds, Collection<Long> multipleChoiceQuestionIds,
+                           Collection<Long> discursiveQuestionIds, Map<ProgressItemType, Map<Long, Integer>> ordinals) {
+        this.contentIds = contentIds.toArray(new Long[contentIds.size()]);
+        this.contentOrdinals = new int[contentIds.size()];
+        this.questions = multipleChoiceQuestionIds.size() + discursiveQuestionIds.size();
+        Map<Long, Integer> contentOrdinalsById = ordinals.getOrDefault(ProgressItemType.CONTENT, Collections.emptyMap());
+        for (int i = 0; i < this.contentIds.length; i++) {
+            this.contentOrdinals[i] = contentOrdinalsById.getOrDefault(this.contentIds[i], -1);
+        }
+        masks.put(ProgressItemType.CONTENT, mask(contentIds, contentOrdinalsById));
+        masks.put(ProgressItemType.MULTIPLE_CHOICE_QUESTION, mask(multipleChoiceQuestionIds,
+            ordinals.getOrDefault(ProgressItemType.MULTIPLE_CHOICE_QUESTION, Collections.emptyMap())));
+        masks.put(ProgressItemType.DISCURSIVE_QUESTION, mask(discursiveQuestionIds,
+            ordinals.getOrDefault(ProgressItemType.DISCURSIVE_QUESTION, Collections.emptyMap())));
+    }
+
+    public int getContents() {
+        return contentIds.length;
+    }
+
+    public int getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Counts the current contents of the course viewed.
+     */
+    public int viewedContents(ProgressBitmaps progress) {
+        return count(progress, ProgressItemType.CONTENT);
+    }
+
+    /**
+     * Counts the current questions of the course answered.
+     */
+    public int answeredQuestions(ProgressBitmaps progress) {
+        return count(progress, ProgressItemType.MULTIPLE_CHOICE_QUESTION)
+            + count(progress, ProgressItemType.DISCURSIVE_QUESTION);
+    }
+
+    /**
+     * Returns the first content of the course not viewed, or null if all were viewed.
+     */
+    public Long nextContentId(ProgressBitmaps progress) {
+        BitSet viewed = progress.get(ProgressItemType.CONTENT);
+        for (int i = 0; i < contentIds.length; i++) {
+            if (contentOrdinals[i] < 0 || !viewed.get(contentOrdinals[i])) {
+                return contentIds[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether all the current contents of the course were viewed and all its questions answered.
+     */
+    public boolean isCompleted(ProgressBitmaps progress) {
+        return viewedContents(progress) == getContents() && answeredQuestions(progress) == getQuestions();
+    }
+
+    /**
+     * Adds the current contents viewed to the counts of viewers, in the order of the contents.
+     */
+    public void countViewers(ProgressBitmaps progress, int[] viewers) {
+        BitSet viewed = progress.get(ProgressItemType.CONTENT);
+        for (int i = 0; i < contentIds.length; i++) {
+            if (contentOrdinals[i] >= 0 && viewed.get(contentOrdinals[i])) {
+                viewers[i]++;
+            }
+        }
+    }
+
+    public Long getContentId(int index) {
+        return contentIds[index];
+    }
+
+    private int count(ProgressBitmaps progress, ProgressItemType itemType) {
+        BitSet bitmap = (BitSet) progress.get(itemType).clone();
+        bitmap.and(masks.get(itemType));
+        return bitmap.cardinality();
+    }
+
+    private static BitSet mask(Collection<Long> ids, Map<Long, Integer> ordinals) {
+        BitSet mask = new BitSet();
+        for (Long id : ids) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                mask.set(ordinal);
+            }
+        }
+        return mask;
+    }
+}
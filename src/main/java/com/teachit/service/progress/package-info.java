@@ -0,0 +1,4 @@
+/**
+ * Bitmaps of the progress of the students and catalogs of the items of the courses.
+ */
+package com.teachit.service.progress;
@@ -0,0 +1,187 @@
+package com.teachit.service.search;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A segment of the index written to disk by a {@link SegmentWriter}, memory-mapped and read in place: only the map
+ * from the document keys to their ordinals is loaded on the heap.
+ *
+ * <p>
+ * The file starts with a header, followed by the sections of the documents, of the terms, of the postings and of the
+ * strings. The documents and terms are fixed-size entries, so that a document is read by ordinal and a term is found
+ * by binary search. The buffer is only read with absolute gets, so a segment can be read by concurrent threads.
+ * </p>
+ */
+final class DiskSegment {
+
+    static final int MAGIC = 0x54495831;
+
+    /** magic, document count, term count, total length, then the offsets of the four sections */
+    static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 4 * 4;
+
+    /** key, length, title offset and title length */
+    private static final int DOCUMENT_SIZE = 8 + 4 + 4 + 4;
+
+    /** term offset, term length, document frequency and postings offset */
+    private static final int TERM_SIZE = 4 + 4 + 4 + 4;
+
+    private static final int POSTING_SIZE = 8;
+
+    private final ByteBuffer buffer;
+
+    private final int documentCount;
+
+    private final int termCount;
+
+    private final long totalLength;
+
+    private final int documentsOffset;
+
+    private final int termsOffset;
+
+    private final int postingsOffset;
+
+    private final int stringsOffset;
+
+    private final LongIntHashMap ordinals;
+
+    private DiskSegment(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a segment of the search index");
+        }
+        this.documentCount = buffer.getInt(4);
+        this.termCount = buffer.getInt(8);
+        this.totalLength = buffer.getLong(12);
+        this.documentsOffset = buffer.getInt(20);
+        this.termsOffset = buffer.getInt(24);
+        this.postingsOffset = buffer.getInt(28);
+        this.stringsOffset = buffer.getInt(32);
+        this.ordinals = new LongIntHashMap(documentCount);
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            ordinals.put(key(ordinal), ordinal);
+        }
+    }
+
+    /**
+     * Maps a segment file, or returns an empty segment if there is no file.
+     */
+    static DiskSegment open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping outlives the channel, it is released once the segment is garbage collected
+            return new DiskSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static DiskSegment empty() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(0).putInt(0).putLong(0L)
+            .putInt(HEADER_SIZE).putInt(HEADER_SIZE).putInt(HEADER_SIZE).putInt(HEADER_SIZE);
+        try {
+            return new DiskSegment(header);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int getDocumentCount() {
+        return documentCount;
+    }
+
+    int getTermCount() {
+        return termCount;
+    }
+
+    long getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * Returns the ordinal of a document, or -1 if the document is not in the segment.
+     */
+    int ordinal(long key) {
+        return ordinals.getOrDefault(key, -1);
+    }
+
+    long key(int ordinal) {
+        return buffer.getLong(documentsOffset + ordinal * DOCUMENT_SIZE);
+    }
+
+    int length(int ordinal) {
+        return buffer.getInt(documentsOffset + ordinal * DOCUMENT_SIZE + 8);
+    }
+
+    String title(int ordinal) {
+        int entry = documentsOffset + ordinal * DOCUMENT_SIZE;
+        int length = buffer.getInt(entry + 16);
+        return length >= 0 ? string(buffer.getInt(entry + 12), length) : null;
+    }
+
+    String term(int index) {
+        int entry = termsOffset + index * TERM_SIZE;
+        return string(buffer.getInt(entry), buffer.getInt(entry + 4));
+    }
+
+    int documentFrequency(int index) {
+        return buffer.getInt(termsOffset + index * TERM_SIZE + 8);
+    }
+
+    /**
+     * Finds a term by binary search.
+     *
+     * @return the index of the term, or -1 if no document has the term
+     */
+    int find(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = term(middle).compareTo(term);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the postings of a term, in the order of the ordinals of the documents.
+     */
+    void forEachPosting(int index, PostingConsumer consumer) {
+        int entry = termsOffset + index * TERM_SIZE;
+        int count = buffer.getInt(entry + 8);
+        int offset = postingsOffset + buffer.getInt(entry + 12);
+        for (int i = 0; i < count; i++) {
+            long posting = buffer.getLong(offset + i * POSTING_SIZE);
+            consumer.accept((int) (posting >>> 32), (int) posting);
+        }
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(stringsOffset + offset);
+        duplicate.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    interface PostingConsumer {
+
+        void accept(int ordinal, int frequency);
+    }
+}
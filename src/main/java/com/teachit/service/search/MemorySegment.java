@@ -0,0 +1,100 @@
+package com.teachit.service.search;
+
+import java.util.*;
+
+/**
+ * The documents indexed in memory, not written to disk yet, with their postings by term.
+ */
+public final class MemorySegment {
+
+    private final Map<Long, Document> documents = new LinkedHashMap<>();
+
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    private long totalLength;
+
+    /**
+     * Adds a document, replacing its previous version.
+     */
+    public void add(SearchDocument document) {
+        long key = document.getKey();
+        remove(key);
+        Map<String, Integer> frequencies = document.termFrequencies();
+        int length = 0;
+        for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            postings.computeIfAbsent(frequency.getKey(), term -> new HashMap<>()).put(key, frequency.getValue());
+            length += frequency.getValue();
+        }
+        documents.put(key, new Document(key, document.getStoredTitle(), length, frequencies.keySet()));
+        totalLength += length;
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @return true if the document was in the segment
+     */
+    boolean remove(long key) {
+        Document document = documents.remove(key);
+        if (document == null) {
+            return false;
+        }
+        for (String term : document.terms) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            termPostings.remove(key);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+        return true;
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    long getTotalLength() {
+        return totalLength;
+    }
+
+    Collection<Document> documents() {
+        return documents.values();
+    }
+
+    Document document(long key) {
+        return documents.get(key);
+    }
+
+    /**
+     * Returns the frequencies of a term by document key, or null if no document has the term.
+     */
+    Map<Long, Integer> postings(String term) {
+        return postings.get(term);
+    }
+
+    /**
+     * Returns the postings of all the terms, in the order of the terms.
+     */
+    SortedMap<String, Map<Long, Integer>> postings() {
+        return postings;
+    }
+
+    static final class Document {
+
+        final long key;
+
+        final String title;
+
+        final int length;
+
+        final Set<String> terms;
+
+        Document(long key, String title, int length, Set<String> terms) {
+            this.key = key;
+            this.title = title;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.teachit.service.search;
+
+import com.teachit.domain.Content;
+import com.teachit.domain.Course;
+import com.teachit.domain.DiscursiveQuestion;
+import com.teachit.domain.Lesson;
+import com.teachit.domain.MultipleChoiceQuestion;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The text of an entity indexed for the full-text search: a title, weighted more than the rest of the text and
+ * returned with the hits, and the rest of the text.
+ */
+public final class SearchDocument {
+
+    /** The weight of the terms of the title, relative to the terms of the text */
+    static final int TITLE_BOOST = 3;
+
+    /** The longest title returned with the hits */
+    static final int MAX_TITLE_LENGTH = 200;
+
+    private final SearchDocumentType type;
+
+    private final Long id;
+
+    private final String title;
+
+    private final String text;
+
+    public SearchDocument(SearchDocumentType type, Long id, String title, String text) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.text = text;
+    }
+
+    /**
+     * Extracts the document of an entity.
+     *
+     * @return the document, or null if the entity is not indexed
+     */
+    public static SearchDocument of(Object entity) {
+        if (entity instanceof Course) {
+            Course course = (Course) entity;
+            return new SearchDocument(SearchDocumentType.COURSE, course.getId(), course.getName(), course.getCode());
+        }
+        if (entity instanceof Lesson) {
+            Lesson lesson = (Lesson) entity;
+            return new SearchDocument(SearchDocumentType.LESSON, lesson.getId(), lesson.getName(), lesson.getDescription());
+        }
+        if (entity instanceof Content) {
+            Content content = (Content) entity;
+            String text = content.getFileName() != null ?
+                content.getFileName() + (content.getText() != null ? " " + content.getText() : "") : content.getText();
+            return new SearchDocument(SearchDocumentType.CONTENT, content.getId(), content.getDescription(), text);
+        }
+        if (entity instanceof MultipleChoiceQuestion) {
+            MultipleChoiceQuestion question = (MultipleChoiceQuestion) entity;
+            return new SearchDocument(SearchDocumentType.MULTIPLE_CHOICE_QUESTION, question.getId(), question.getQuestion(), null);
+        }
+        if (entity instanceof DiscursiveQuestion) {
+            DiscursiveQuestion question = (DiscursiveQuestion) entity;
+            return new SearchDocument(SearchDocumentType.DISCURSIVE_QUESTION, question.getId(), question.getQuestion(), null);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key of a document in the index: its type in the highest byte, then its id.
+     */
+    public static long key(SearchDocumentType type, Long id) {
+        return ((long) type.ordinal() << 56) | id;
+    }
+
+    static SearchDocumentType typeOf(long key) {
+        return SearchDocumentType.values()[(int) (key >>> 56)];
+    }
+
+    static Long idOf(long key) {
+        return key & 0x00FFFFFFFFFFFFFFL;
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getKey() {
+        return key(type, id);
+    }
+
+    /**
+     * Returns the title stored in the index, cut to {@value #MAX_TITLE_LENGTH} characters.
+     */
+    String getStoredTitle() {
+        return title != null && title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+
+    /**
+     * Counts the weighted occurrences of each term of the document.
+     */
+    Map<String, Integer> termFrequencies() {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.terms(title)) {
+            frequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchDocument{" +
+            "type=" + type +
+            ", id=" + id +
+            ", title='" + title + "'" +
+            '}';
+    }
+}
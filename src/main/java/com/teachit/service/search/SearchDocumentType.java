@@ -0,0 +1,8 @@
+package com.teachit.service.search;
+
+/**
+ * The entities indexed for the full-text search.
+ */
+public enum SearchDocumentType {
+    COURSE, LESSON, CONTENT, MULTIPLE_CHOICE_QUESTION, DISCURSIVE_QUESTION
+}
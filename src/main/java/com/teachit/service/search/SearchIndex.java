@@ -0,0 +1,448 @@
+package com.teachit.service.search;
+
+import com.carrotsearch.hppc.IntDoubleHashMap;
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.IntDoubleCursor;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.web.rest.dto.SearchHitDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index of the courses, lessons, contents and questions, ranking the hits with BM25.
+ *
+ * <p>
+ * The index is a segment file, memory-mapped, plus the documents indexed since it was written, held in memory
+ * along with the documents of the segment they replace or delete. The memory segment is merged with the segment
+ * file into a new one every flush interval, or on the task executor as soon as it holds the maximum of buffered
+ * documents. The documents indexed since the last flush are lost if the application stops abruptly, the index is
+ * thus rebuilt from the database on startup, see SearchService.
+ * </p>
+ * <p>
+ * The searches only wait for the swap of the segments. The changes wait for the whole flush, so the index is
+ * meant for the few thousands of documents of a school rather than for a large corpus: the merge is done in
+ * memory, and a segment file is limited to 2 GB.
+ * </p>
+ */
+@Component
+public class SearchIndex {
+
+    private static final String SEGMENT_FILE = "index.seg";
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    /** Held by the changes and the flushes, so that a flush reads a stable index without blocking the searches */
+    private final ReentrantLock mutationLock = new ReentrantLock();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private Path segmentPath;
+
+    private DiskSegment segment = DiskSegment.empty();
+
+    /** The ordinals of the documents of the segment replaced or deleted since it was written */
+    private BitSet deleted = new BitSet();
+
+    private long deletedLength;
+
+    private MemorySegment buffer = new MemorySegment();
+
+    /** The changes made while the index is rebuilt, by document key, null for a deletion */
+    private Map<Long, SearchDocument> rebuildChanges;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    @Named("taskExecutor")
+    private Executor taskExecutor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path directory = Paths.get(jHipsterProperties.getSearch().getDirectory());
+        Files.createDirectories(directory);
+        segmentPath = directory.resolve(SEGMENT_FILE);
+        try {
+            segment = DiskSegment.open(segmentPath);
+            log.debug("Opened the search index, {} documents", segment.getDocumentCount());
+        } catch (IOException e) {
+            log.warn("Could not open the search index, it must be rebuilt: {}", e.getMessage());
+        }
+        SearchIndexListener.register(this);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        SearchIndexListener.register(null);
+        flushQuietly();
+    }
+
+    /**
+     * Indexes a document, replacing its previous version.
+     */
+    public void index(SearchDocument document) {
+        long key = document.getKey();
+        mutationLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                deleteFromSegment(key);
+                buffer.add(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (rebuildChanges != null) {
+                rebuildChanges.put(key, document);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        requestFlush();
+    }
+
+    /**
+     * Removes a document from the index.
+     */
+    public void delete(SearchDocumentType type, Long id) {
+        long key = SearchDocument.key(type, id);
+        mutationLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                deleteFromSegment(key);
+                buffer.remove(key);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (rebuildChanges != null) {
+                rebuildChanges.put(key, null);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        requestFlush();
+    }
+
+    /**
+     * Searches the documents having any of the terms of a query, the most relevant first.
+     *
+     * @param query the text searched
+     * @param pageable the page of hits
+     * @return the page of hits, with the number of documents found
+     */
+    public Page<SearchHitDTO> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        lock.readLock().lock();
+        try {
+            int documents = segment.getDocumentCount() - deleted.cardinality() + buffer.size();
+            if (terms.isEmpty() || documents == 0) {
+                return new PageImpl<>(Collections.emptyList(), pageable, 0);
+            }
+            double averageLength = Math.max(1.0,
+                (segment.getTotalLength() - deletedLength + buffer.getTotalLength()) / (double) documents);
+            IntDoubleHashMap segmentScores = new IntDoubleHashMap();
+            LongDoubleHashMap bufferScores = new LongDoubleHashMap();
+            for (String term : terms) {
+                int index = segment.find(term);
+                Map<Long, Integer> bufferPostings = buffer.postings(term);
+                // the frequency in the segment counts its deleted documents
+                int frequency = Math.min(documents, (index >= 0 ? segment.documentFrequency(index) : 0)
+                    + (bufferPostings != null ? bufferPostings.size() : 0));
+                if (frequency == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+                if (index >= 0) {
+                    segment.forEachPosting(index, (ordinal, termFrequency) -> {
+                        if (!deleted.get(ordinal)) {
+                            segmentScores.addTo(ordinal,
+                                score(idf, termFrequency, segment.length(ordinal), averageLength));
+                        }
+                    });
+                }
+                if (bufferPostings != null) {
+                    for (Map.Entry<Long, Integer> posting : bufferPostings.entrySet()) {
+                        bufferScores.addTo(posting.getKey(), score(idf, posting.getValue(),
+                            buffer.document(posting.getKey()).length, averageLength));
+                    }
+                }
+            }
+            return new PageImpl<>(topHits(segmentScores, bufferScores, pageable), pageable,
+                segmentScores.size() + bufferScores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the documents indexed in memory to disk, merged with the segment file.
+     *
+     * @return the number of documents written from memory
+     */
+    public int flush() {
+        mutationLock.lock();
+        try {
+            flushRequested.set(false);
+            int written = buffer.size();
+            if (written == 0 && deleted.isEmpty()) {
+                return 0;
+            }
+            swap(merge(segment, deleted, buffer));
+            log.debug("Flushed the search index, {} documents written", written);
+            return written;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the index every flush interval.
+     */
+    @Scheduled(initialDelayString = "${jhipster.search.flushIntervalMillis:60000}",
+        fixedDelayString = "${jhipster.search.flushIntervalMillis:60000}")
+    public void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not write the search index, {} documents are in memory only: {}", buffer.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Starts rebuilding the index: the changes made until the rebuild is finished are recorded, to be applied to
+     * the documents read from the database meanwhile.
+     *
+     * @return the segment to add the documents read from the database to
+     */
+    public MemorySegment startRebuild() {
+        mutationLock.lock();
+        try {
+            if (rebuildChanges != null) {
+                throw new IllegalStateException("The search index is already being rebuilt");
+            }
+            rebuildChanges = new LinkedHashMap<>();
+            return new MemorySegment();
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with the documents read from the database, and the changes made since the rebuild started.
+     *
+     * @param documents the segment returned by {@link #startRebuild()}
+     * @return the number of documents of the index
+     */
+    public int finishRebuild(MemorySegment documents) {
+        mutationLock.lock();
+        try {
+            for (Map.Entry<Long, SearchDocument> change : rebuildChanges.entrySet()) {
+                if (change.getValue() != null) {
+                    documents.add(change.getValue());
+                } else {
+                    documents.remove(change.getKey());
+                }
+            }
+            swap(merge(DiskSegment.empty(), new BitSet(), documents));
+            return documents.size();
+        } finally {
+            rebuildChanges = null;
+            mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Cancels a rebuild, e.g. because the database could not be read.
+     */
+    public void cancelRebuild() {
+        mutationLock.lock();
+        try {
+            rebuildChanges = null;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    private void requestFlush() {
+        if (buffer.size() >= jHipsterProperties.getSearch().getMaxBufferedDocuments()
+            && flushRequested.compareAndSet(false, true)) {
+            taskExecutor.execute(this::flushQuietly);
+        }
+    }
+
+    private void deleteFromSegment(long key) {
+        int ordinal = segment.ordinal(key);
+        if (ordinal >= 0 && !deleted.get(ordinal)) {
+            deleted.set(ordinal);
+            deletedLength += segment.length(ordinal);
+        }
+    }
+
+    /**
+     * Writes the documents of a segment, but the deleted ones, followed by the documents of a memory segment into
+     * a new segment file, then maps it.
+     */
+    private DiskSegment merge(DiskSegment segment, BitSet deleted, MemorySegment buffer) {
+        try {
+            SegmentWriter writer = new SegmentWriter();
+            int[] ordinals = new int[segment.getDocumentCount()];
+            int next = 0;
+            for (int ordinal = 0; ordinal < segment.getDocumentCount(); ordinal++) {
+                if (deleted.get(ordinal)) {
+                    ordinals[ordinal] = -1;
+                } else {
+                    ordinals[ordinal] = next++;
+                    writer.addDocument(segment.key(ordinal), segment.length(ordinal), segment.title(ordinal));
+                }
+            }
+            Map<Long, Integer> bufferOrdinals = new HashMap<>();
+            for (MemorySegment.Document document : buffer.documents()) {
+                bufferOrdinals.put(document.key, next++);
+                writer.addDocument(document.key, document.length, document.title);
+            }
+
+            // both term lists are sorted, merge them
+            Iterator<Map.Entry<String, Map<Long, Integer>>> bufferTerms = buffer.postings().entrySet().iterator();
+            Map.Entry<String, Map<Long, Integer>> bufferTerm = bufferTerms.hasNext() ? bufferTerms.next() : null;
+            int index = 0;
+            long[] postings = new long[next];
+            while (index < segment.getTermCount() || bufferTerm != null) {
+                String segmentTerm = index < segment.getTermCount() ? segment.term(index) : null;
+                int comparison = segmentTerm == null ? 1 :
+                    bufferTerm == null ? -1 : segmentTerm.compareTo(bufferTerm.getKey());
+                int[] count = {0};
+                if (comparison <= 0) {
+                    segment.forEachPosting(index, (ordinal, frequency) -> {
+                        if (ordinals[ordinal] >= 0) {
+                            postings[count[0]++] = ((long) ordinals[ordinal] << 32) | frequency;
+                        }
+                    });
+                }
+                if (comparison >= 0) {
+                    // the documents of the memory segment come after those of the segment
+                    int start = count[0];
+                    for (Map.Entry<Long, Integer> posting : bufferTerm.getValue().entrySet()) {
+                        postings[count[0]++] = ((long) bufferOrdinals.get(posting.getKey()) << 32) | posting.getValue();
+                    }
+                    Arrays.sort(postings, start, count[0]);
+                }
+                writer.addTerm(comparison <= 0 ? segmentTerm : bufferTerm.getKey(), postings, count[0]);
+                if (comparison <= 0) {
+                    index++;
+                }
+                if (comparison >= 0) {
+                    bufferTerm = bufferTerms.hasNext() ? bufferTerms.next() : null;
+                }
+            }
+            writer.writeTo(segmentPath);
+            return DiskSegment.open(segmentPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the search index", e);
+        }
+    }
+
+    private void swap(DiskSegment merged) {
+        lock.writeLock().lock();
+        try {
+            segment = merged;
+            deleted = new BitSet();
+            deletedLength = 0;
+            buffer = new MemorySegment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<SearchHitDTO> topHits(IntDoubleHashMap segmentScores, LongDoubleHashMap bufferScores,
+                                       Pageable pageable) {
+        int total = segmentScores.size() + bufferScores.size();
+        // computed in longs, a page far beyond the hits overflowing an int offset
+        long offset = (long) pageable.getPageNumber() * pageable.getPageSize();
+        if (offset >= total) {
+            return Collections.emptyList();
+        }
+        int limit = (int) Math.min(offset + pageable.getPageSize(), total);
+        // the lowest of the best hits first, so that it is the one replaced
+        PriorityQueue<Hit> hits = new PriorityQueue<>(Math.max(1, limit));
+        for (IntDoubleCursor score : segmentScores) {
+            offer(hits, new Hit(segment.key(score.key), score.key, score.value), limit);
+        }
+        for (LongDoubleCursor score : bufferScores) {
+            offer(hits, new Hit(score.key, -1, score.value), limit);
+        }
+        List<Hit> sorted = new ArrayList<>(hits);
+        Collections.sort(sorted, Collections.reverseOrder());
+        List<SearchHitDTO> page = new ArrayList<>();
+        for (int i = (int) offset; i < sorted.size(); i++) {
+            Hit hit = sorted.get(i);
+            String title = hit.ordinal >= 0 ? segment.title(hit.ordinal) : buffer.document(hit.key).title;
+            page.add(new SearchHitDTO(SearchDocument.typeOf(hit.key), SearchDocument.idOf(hit.key), title, hit.score));
+        }
+        return page;
+    }
+
+    private static void offer(PriorityQueue<Hit> hits, Hit hit, int limit) {
+        if (hits.size() < limit) {
+            hits.add(hit);
+        } else if (limit > 0 && hit.compareTo(hits.peek()) > 0) {
+            hits.poll();
+            hits.add(hit);
+        }
+    }
+
+    private static double score(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    /**
+     * A document found, ordered by score, then by key so that the order of the hits is stable.
+     */
+    private static final class Hit implements Comparable<Hit> {
+
+        private final long key;
+
+        /** The ordinal of the document in the segment, -1 if it is in the memory segment */
+        private final int ordinal;
+
+        private final double score;
+
+        private Hit(long key, int ordinal, double score) {
+            this.key = key;
+            this.ordinal = ordinal;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            int comparison = Double.compare(score, other.score);
+            return comparison != 0 ? comparison : Long.compare(other.key, key);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.teachit.service.search;
+
+import com.teachit.domain.Content;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceUtil;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * JPA entity listener keeping the SearchIndex up to date with the entities indexed.
+ *
+ * <p>
+ * The listener is instantiated by Hibernate, so the index registers itself once started. The document of an entity
+ * is extracted when the entity is written, and indexed once the transaction is committed, so that a rolled back
+ * transaction leaves the index untouched.
+ * </p>
+ * <p>
+ * The lazy text of a content is not loaded while the content is flushed: a content written without its text loaded
+ * is read again with its text once the transaction is committed, by the loader registered by the SearchService.
+ * </p>
+ */
+public class SearchIndexListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexListener.class);
+
+    private static final PersistenceUtil persistenceUtil = Persistence.getPersistenceUtil();
+
+    private static volatile SearchIndex searchIndex;
+
+    private static volatile Function<Long, SearchDocument> contentLoader;
+
+    static void register(SearchIndex index) {
+        searchIndex = index;
+    }
+
+    /**
+     * Registers the loader of the document of a content, read in a new transaction.
+     *
+     * @param loader the loader, returning null for a deleted content, or null to unregister it
+     */
+    public static void registerContentLoader(Function<Long, SearchDocument> loader) {
+        contentLoader = loader;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Content && !persistenceUtil.isLoaded(entity, "contentText")) {
+            Long id = ((Content) entity).getId();
+            afterCommit(index -> {
+                Function<Long, SearchDocument> loader = contentLoader;
+                SearchDocument document = loader != null ? loader.apply(id) : null;
+                if (document != null) {
+                    index.index(document);
+                }
+            });
+            return;
+        }
+        SearchDocument document = SearchDocument.of(entity);
+        if (document != null) {
+            afterCommit(index -> index.index(document));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        SearchDocument document = SearchDocument.of(entity);
+        if (document != null) {
+            afterCommit(index -> index.delete(document.getType(), document.getId()));
+        }
+    }
+
+    private static void afterCommit(Consumer<SearchIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private static void apply(Consumer<SearchIndex> change) {
+        SearchIndex index = searchIndex;
+        if (index == null) {
+            return;
+        }
+        try {
+            change.accept(index);
+        } catch (RuntimeException e) {
+            // the transaction is committed, the index catches up on the next rebuild
+            log.warn("Could not update the search index: {}", e.getMessage());
+        }
+    }
+}
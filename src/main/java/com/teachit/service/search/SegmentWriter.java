@@ -0,0 +1,126 @@
+package com.teachit.service.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a segment file, read by {@link DiskSegment}: the documents are added in the order of their ordinals, then
+ * the terms in their natural order, each with its postings in the order of the ordinals.
+ *
+ * <p>
+ * The sections are built in memory, then written to a temporary file which replaces the segment file once synced,
+ * so that the segment file is always complete.
+ * </p>
+ */
+final class SegmentWriter {
+
+    private final ByteArrayOutputStream documentBytes = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream termBytes = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream postingBytes = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream documents = new DataOutputStream(documentBytes);
+
+    private final DataOutputStream terms = new DataOutputStream(termBytes);
+
+    private final DataOutputStream postings = new DataOutputStream(postingBytes);
+
+    private int documentCount;
+
+    private int termCount;
+
+    private long totalLength;
+
+    /**
+     * Adds the next document.
+     *
+     * @param key the key of the document
+     * @param length the number of weighted terms of the document
+     * @param title the title returned with the hits, or null
+     */
+    void addDocument(long key, int length, String title) throws IOException {
+        documents.writeLong(key);
+        documents.writeInt(length);
+        if (title != null) {
+            byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+            documents.writeInt(stringBytes.size());
+            documents.writeInt(bytes.length);
+            stringBytes.write(bytes);
+        } else {
+            documents.writeInt(0);
+            documents.writeInt(-1);
+        }
+        documentCount++;
+        totalLength += length;
+    }
+
+    /**
+     * Adds the next term, unless it has no postings.
+     *
+     * @param term the term, greater than the previous one
+     * @param termPostings the postings of the term, each the ordinal of a document in the high int and the frequency of
+     * the term in the document in the low int, sorted
+     * @param count the number of postings
+     */
+    void addTerm(String term, long[] termPostings, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        terms.writeInt(stringBytes.size());
+        terms.writeInt(bytes.length);
+        terms.writeInt(count);
+        terms.writeInt(postingBytes.size());
+        stringBytes.write(bytes);
+        for (int i = 0; i < count; i++) {
+            postings.writeLong(termPostings[i]);
+        }
+        termCount++;
+    }
+
+    /**
+     * Writes the segment, replacing the given file.
+     */
+    void writeTo(Path path) throws IOException {
+        documents.flush();
+        terms.flush();
+        postings.flush();
+        int documentsOffset = DiskSegment.HEADER_SIZE;
+        int termsOffset = documentsOffset + documentBytes.size();
+        int postingsOffset = termsOffset + termBytes.size();
+        int stringsOffset = postingsOffset + postingBytes.size();
+        ByteBuffer header = ByteBuffer.allocate(DiskSegment.HEADER_SIZE);
+        header.putInt(DiskSegment.MAGIC).putInt(documentCount).putInt(termCount).putLong(totalLength)
+            .putInt(documentsOffset).putInt(termsOffset).putInt(postingsOffset).putInt(stringsOffset);
+        header.flip();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, header);
+            write(channel, ByteBuffer.wrap(documentBytes.toByteArray()));
+            write(channel, ByteBuffer.wrap(termBytes.toByteArray()));
+            write(channel, ByteBuffer.wrap(postingBytes.toByteArray()));
+            write(channel, ByteBuffer.wrap(stringBytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Embedded full-text index of the courses, lessons, contents and questions.
+ */
+package com.teachit.service.search;
@@ -0,0 +1,115 @@
+package com.teachit.service.storage;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sends the stored files as the bodies of the responses, without copying them through the heap when possible.
+ *
+ * <p>
+ * The hot files are sent from the HotBlobCache. The others are handed to Tomcat, which sends them from its poller
+ * with FileChannel.transferTo, i.e. sendfile, once the request is processed, so the request thread is not held by a
+ * slow download; when the connector doesn't support it, e.g. in the tests, they are sent with
+ * FileChannel.transferTo to the output stream of the response.
+ * </p>
+ */
+@Component
+public class BlobSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private HotBlobCache hotBlobCache;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private Meter bytes;
+
+    private Meter cacheBytes;
+
+    private Meter sendfileBytes;
+
+    private Meter transferBytes;
+
+    @PostConstruct
+    public void init() {
+        bytes = metricRegistry.meter(MetricRegistry.name(BlobSender.class, "bytes"));
+        cacheBytes = metricRegistry.meter(MetricRegistry.name(BlobSender.class, "bytes", "cache"));
+        sendfileBytes = metricRegistry.meter(MetricRegistry.name(BlobSender.class, "bytes", "sendfile"));
+        transferBytes = metricRegistry.meter(MetricRegistry.name(BlobSender.class, "bytes", "transfer"));
+    }
+
+    /**
+     * Sends a range of a stored file, setting the length of the response, whose status and other headers are set.
+     *
+     * @param hash the SHA-256 of the file
+     * @param size the size of the file, in bytes
+     * @param start the first byte of the range
+     * @param length the length of the range, in bytes
+     * @param request the request
+     * @param response the response
+     */
+    public void send(String hash, long size, long start, long length, HttpServletRequest request,
+                     HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(length);
+        ByteBuffer cached = hotBlobCache.get(hash, size);
+        if (cached != null) {
+            cached.position((int) start).limit((int) (start + length));
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            while (cached.hasRemaining()) {
+                target.write(cached);
+            }
+            sent(cacheBytes, length);
+            return;
+        }
+        Path path = blobStore.path(hash);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            sent(sendfileBytes, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long transferred = 0;
+            while (transferred < length) {
+                long count = channel.transferTo(start + transferred, length - transferred, target);
+                if (count == 0 && start + transferred >= channel.size()) {
+                    throw new EOFException("Stored file " + hash + " is shorter than " + size + " bytes");
+                }
+                transferred += count;
+            }
+        }
+        sent(transferBytes, length);
+    }
+
+    private void sent(Meter pathBytes, long length) {
+        bytes.mark(length);
+        pathBytes.mark(length);
+    }
+}
@@ -0,0 +1,208 @@
+package com.teachit.service.storage;
+
+import com.teachit.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local content-addressed store of the files uploaded for the contents: a file is named after its SHA-256, so the
+ * same file uploaded for several contents, e.g. a PDF shared by courses, is stored once.
+ *
+ * <p>
+ * A file is streamed to a temporary file while hashed, synced, then moved atomically to its name, so a stored file
+ * is always complete. The files are spread in directories named after the first two characters of their hash. The
+ * files no content points at are deleted by the garbage collection, once older than a grace period which keeps the
+ * files just uploaded, see ContentFileService.
+ * </p>
+ */
+@Component
+public class BlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private Path blobs;
+
+    private Path temporaryFiles;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path directory = Paths.get(jHipsterProperties.getStorage().getDirectory());
+        blobs = Files.createDirectories(directory.resolve("blobs"));
+        temporaryFiles = Files.createDirectories(directory.resolve("tmp"));
+    }
+
+    /**
+     * Stores a file, without holding more than a buffer of it in memory.
+     *
+     * @param input the content of the file, not closed
+     * @param maxSize the largest size of the file, in bytes
+     * @return the file stored
+     * @throws BlobTooLargeException if the file is larger than the maximum size
+     */
+    public StoredBlob store(InputStream input, long maxSize) throws IOException {
+        MessageDigest digest = sha256();
+        Path temporary = Files.createTempFile(temporaryFiles, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                byte[] bytes = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                int read;
+                while ((read = input.read(bytes)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BlobTooLargeException(maxSize);
+                    }
+                    digest.update(bytes, 0, read);
+                    buffer.clear();
+                    buffer.limit(read);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                channel.force(true);
+            }
+            return moveIn(temporary, hex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Stores a complete file of the same file system, e.g. uploaded in chunks, by moving it rather than copying it.
+     * The file is only read to be hashed.
+     *
+     * @param file the file, synced, which is moved or deleted
+     * @return the file stored
+     */
+    public StoredBlob storeFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                size += read;
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        try {
+            return moveIn(file, hex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private StoredBlob moveIn(Path file, String hash, long size) throws IOException {
+        Path path = path(hash);
+        try {
+            // already stored, e.g. for another course: renewed so that the garbage collection keeps it
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug("File {} already stored", hash);
+        } catch (NoSuchFileException e) {
+            Files.createDirectories(path.getParent());
+            Files.move(file, path, StandardCopyOption.ATOMIC_MOVE);
+            // the file may have been written long ago, e.g. the first chunk of an upload
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug("Stored file {}, {} bytes", hash, size);
+        }
+        return new StoredBlob(hash, size);
+    }
+
+    /**
+     * Returns the path of a stored file.
+     *
+     * @param hash the SHA-256 of the file
+     * @throws IllegalArgumentException if the hash is not a SHA-256 in lower-case hexadecimal
+     */
+    public Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256: " + hash);
+        }
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean exists(String hash) {
+        return Files.isRegularFile(path(hash));
+    }
+
+    /**
+     * Deletes the stored files not referenced and the temporary files left by interrupted uploads, once older than
+     * the grace period.
+     *
+     * @param referenced the hashes of the files referenced, read before the files are listed
+     * @param gracePeriodMillis the time a file is kept once stored or renewed
+     * @return the number of stored files deleted
+     */
+    public int collectGarbage(Set<String> referenced, long gracePeriodMillis) throws IOException {
+        long limit = System.currentTimeMillis() - gracePeriodMillis;
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(blobs)) {
+            for (Iterator<Path> iterator = files.iterator(); iterator.hasNext(); ) {
+                Path file = iterator.next();
+                if (Files.isRegularFile(file) && !referenced.contains(file.getFileName().toString())
+                    && deleteIfOlder(file, limit)) {
+                    deleted++;
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(temporaryFiles)) {
+            for (Path file : files) {
+                deleteIfOlder(file, limit);
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean deleteIfOlder(Path file, long limit) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() < limit && Files.deleteIfExists(file);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,15 @@
+package com.teachit.service.storage;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file being stored is larger than allowed, the bytes read so far are discarded.
+ */
+public class BlobTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BlobTooLargeException(long maxSize) {
+        super("The file is larger than " + maxSize + " bytes");
+    }
+}
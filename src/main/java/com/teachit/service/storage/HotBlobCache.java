@@ -0,0 +1,187 @@
+package com.teachit.service.storage;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the small stored files downloaded often, e.g. the slides of the lesson of the day, held in direct
+ * buffers so that they are sent without reading the disk nor filling the heap.
+ *
+ * <p>
+ * The downloads of every file are counted, in a small count-min sketch indexed by the hash of the file since it is
+ * already random, and halved periodically so that the files downloaded often recently win. A file is admitted once
+ * downloaded a minimum number of times, evicting the files downloaded less often to make room for it; if they were
+ * downloaded as often, the file is not admitted, so that a burst of files downloaded once does not flush the cache.
+ * A stored file never changes, so the cache is never invalidated.
+ * </p>
+ */
+@Component
+public class HotBlobCache {
+
+    private static final int SKETCH_DEPTH = 4;
+
+    private static final int SKETCH_WIDTH = 4096;
+
+    private static final int SAMPLE_SIZE = 10 * SKETCH_WIDTH;
+
+    private final Logger log = LoggerFactory.getLogger(HotBlobCache.class);
+
+    private final ConcurrentMap<String, ByteBuffer> files = new ConcurrentHashMap<>();
+
+    private final AtomicIntegerArray sketch = new AtomicIntegerArray(SKETCH_DEPTH * SKETCH_WIDTH);
+
+    private final AtomicLong downloads = new AtomicLong();
+
+    private final AtomicLong size = new AtomicLong();
+
+    private Meter hits;
+
+    private Meter misses;
+
+    private Meter evictions;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @PostConstruct
+    public void init() {
+        metricRegistry.register(MetricRegistry.name(HotBlobCache.class, "size"), (Gauge<Long>) size::get);
+        metricRegistry.register(MetricRegistry.name(HotBlobCache.class, "files"), (Gauge<Integer>) files::size);
+        hits = metricRegistry.meter(MetricRegistry.name(HotBlobCache.class, "hits"));
+        misses = metricRegistry.meter(MetricRegistry.name(HotBlobCache.class, "misses"));
+        evictions = metricRegistry.meter(MetricRegistry.name(HotBlobCache.class, "evictions"));
+    }
+
+    /**
+     * Counts a download of a stored file and returns its content, if the file is in the cache or admitted.
+     *
+     * @param hash the SHA-256 of the file
+     * @param length the size of the file, in bytes
+     * @return a buffer of the whole file, of its own position and limit, or null if the file is not cached
+     * @throws IOException if the file was admitted but could not be read
+     */
+    public ByteBuffer get(String hash, long length) throws IOException {
+        JHipsterProperties.Storage properties = jHipsterProperties.getStorage();
+        if (length > properties.getHotFileMaxSize() || length > properties.getHotCacheSize()) {
+            return null;
+        }
+        int frequency = increment(hash);
+        ByteBuffer file = files.get(hash);
+        if (file != null) {
+            hits.mark();
+            return file.duplicate();
+        }
+        misses.mark();
+        if (frequency < properties.getHotFileMinDownloads()) {
+            return null;
+        }
+        file = admit(hash, length, frequency);
+        return file != null ? file.duplicate() : null;
+    }
+
+    private synchronized ByteBuffer admit(String hash, long length, int frequency) throws IOException {
+        ByteBuffer file = files.get(hash);
+        if (file != null) {
+            return file;
+        }
+        long excess = size.get() + length - jHipsterProperties.getStorage().getHotCacheSize();
+        if (excess > 0) {
+            // the downloads go on meanwhile, so the frequencies are read once for the sort to be consistent
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String victim : files.keySet()) {
+                frequencies.put(victim, frequency(victim));
+            }
+            List<String> victims = new ArrayList<>(frequencies.keySet());
+            victims.sort(Comparator.comparingInt(frequencies::get));
+            List<String> evicted = new ArrayList<>();
+            for (String victim : victims) {
+                if (excess <= 0) {
+                    break;
+                }
+                if (frequencies.get(victim) >= frequency) {
+                    return null;
+                }
+                evicted.add(victim);
+                excess -= files.get(victim).capacity();
+            }
+            for (String victim : evicted) {
+                size.addAndGet(-files.remove(victim).capacity());
+            }
+            evictions.mark(evicted.size());
+        }
+        file = read(hash, (int) length);
+        files.put(hash, file);
+        size.addAndGet(length);
+        log.debug("Cached file {}, downloaded {} times", hash, frequency);
+        return file;
+    }
+
+    private ByteBuffer read(String hash, int length) throws IOException {
+        ByteBuffer file = ByteBuffer.allocateDirect(length);
+        try (FileChannel channel = FileChannel.open(blobStore.path(hash), StandardOpenOption.READ)) {
+            while (file.hasRemaining()) {
+                if (channel.read(file, file.position()) < 0) {
+                    throw new EOFException("Stored file " + hash + " is shorter than " + length + " bytes");
+                }
+            }
+        }
+        file.flip();
+        return file.asReadOnlyBuffer();
+    }
+
+    private int increment(String hash) {
+        if (downloads.incrementAndGet() % SAMPLE_SIZE == 0) {
+            // ages the counts, approximately as the downloads go on meanwhile
+            for (int i = 0; i < sketch.length(); i++) {
+                sketch.set(i, sketch.get(i) >>> 1);
+            }
+        }
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            frequency = Math.min(frequency, sketch.incrementAndGet(index(hash, row)));
+        }
+        return frequency;
+    }
+
+    private int frequency(String hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            frequency = Math.min(frequency, sketch.get(index(hash, row)));
+        }
+        return frequency;
+    }
+
+    private static int index(String hash, int row) {
+        // each row uses its own 8 hexadecimal digits of the hash
+        int column = (int) (Long.parseLong(hash.substring(8 * row, 8 * row + 8), 16) % SKETCH_WIDTH);
+        return row * SKETCH_WIDTH + column;
+    }
+}
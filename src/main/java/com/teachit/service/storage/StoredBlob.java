@@ -0,0 +1,32 @@
+package com.teachit.service.storage;
+
+/**
+ * A file stored by the BlobStore: its SHA-256, in lower-case hexadecimal, and its size in bytes.
+ */
+public final class StoredBlob {
+
+    private final String hash;
+
+    private final long size;
+
+    public StoredBlob(String hash, long size) {
+        this.hash = hash;
+        this.size = size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredBlob{" +
+            "hash='" + hash + "'" +
+            ", size=" + size +
+            '}';
+    }
+}
@@ -0,0 +1,123 @@
+package com.teachit.service.storage;
+
+import com.teachit.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Set;
+
+/**
+ * Local store of the files being uploaded in chunks, see FileUpload: a file per upload, named after its id, in which
+ * every chunk is written in place, so the chunks may be written in any order and in parallel.
+ *
+ * <p>
+ * The file is sparse, so the chunks not received yet take no room on the disk. Once complete, the file is moved to
+ * the BlobStore, not copied. The files are in the directory of the BlobStore so that the move is atomic.
+ * </p>
+ */
+@Component
+public class UploadStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String EXTENSION = ".part";
+
+    private final Logger log = LoggerFactory.getLogger(UploadStore.class);
+
+    private Path uploads;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploads = Files.createDirectories(Paths.get(jHipsterProperties.getStorage().getDirectory()).resolve("uploads"));
+    }
+
+    public Path path(Long id) {
+        return uploads.resolve(id + EXTENSION);
+    }
+
+    /**
+     * Writes a chunk of a file at its offset, with positional writes, then syncs it so that the chunk may be marked
+     * as received.
+     *
+     * @param id the id of the upload
+     * @param offset the offset of the chunk in the file
+     * @param input the content of the chunk, not closed
+     * @param length the length of the chunk, in bytes
+     * @throws EOFException if the chunk is shorter than its length, e.g. the client disconnected
+     */
+    public void write(Long id, long offset, InputStream input, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.SPARSE)) {
+            byte[] bytes = new byte[Math.min(BUFFER_SIZE, length)];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                int read = input.read(bytes, 0, Math.min(bytes.length, remaining));
+                if (read == -1) {
+                    throw new EOFException("Chunk at " + offset + " of upload " + id + " is shorter than " + length +
+                        " bytes");
+                }
+                buffer.clear();
+                buffer.limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                remaining -= read;
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Deletes the file of an upload, if any.
+     */
+    public void delete(Long id) throws IOException {
+        Files.deleteIfExists(path(id));
+    }
+
+    /**
+     * Deletes the files of the uploads which don't exist anymore, e.g. a chunk written while the upload was
+     * finalized, once older than the grace period.
+     *
+     * @param existing the ids of the uploads which exist, read before the files are listed
+     * @param gracePeriodMillis the time a file is kept once written
+     * @return the number of files deleted
+     */
+    public int collectGarbage(Set<Long> existing, long gracePeriodMillis) throws IOException {
+        long limit = System.currentTimeMillis() - gracePeriodMillis;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploads, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Long id;
+                try {
+                    id = Long.valueOf(name.substring(0, name.length() - EXTENSION.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                try {
+                    if (!existing.contains(id) && Files.getLastModifiedTime(file).toMillis() < limit
+                        && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (NoSuchFileException e) {
+                    log.debug("Upload file {} deleted meanwhile", file);
+                }
+            }
+        }
+        return deleted;
+    }
+}
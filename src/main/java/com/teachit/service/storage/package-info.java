@@ -0,0 +1,4 @@
+/**
+ * Content-addressed storage of the files uploaded for the contents.
+ */
+package com.teachit.service.storage;
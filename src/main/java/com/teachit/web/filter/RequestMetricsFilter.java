@@ -0,0 +1,100 @@
+package com.teachit.web.filter;
+
+import com.teachit.config.metrics.RequestTimers;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each request in the {@link RequestTimers}, by HTTP method, request mapping and status.
+ *
+ * <p>
+ * The requests which match no request mapping are timed as "NOT_FOUND", "REDIRECTION" or "UNKNOWN", rather than by
+ * URI, and the unknown HTTP methods as "OTHER", so that the number of timers is bounded. An asynchronous request
+ * is timed until it completes.
+ * </p>
+ */
+public class RequestMetricsFilter implements Filter {
+
+    private final RequestTimers requestTimers;
+
+    public RequestMetricsFilter(RequestTimers requestTimers) {
+        this.requestTimers = requestTimers;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Nothing to initialize
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to destroy
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && httpRequest.isAsyncStarted()) {
+                httpRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(httpRequest, httpResponse.getStatus(), start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        // timed on completion
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        // timed on completion
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else {
+                // the exception is turned into an error by the container
+                record(httpRequest, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : httpResponse.getStatus(), start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long start) {
+        String method = HttpMethod.resolve(request.getMethod()) != null ? request.getMethod() : "OTHER";
+        requestTimers.timer(method, getUri(request, status), status)
+            .update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String getUri(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status / 100 == 3) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+}
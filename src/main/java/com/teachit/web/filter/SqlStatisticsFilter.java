@@ -0,0 +1,180 @@
+package com.teachit.web.filter;
+
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.config.jdbc.SqlStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accounts the SQL statements, rows and database time of each request.
+ *
+ * <p>
+ * The numbers are recorded in the metric registry per endpoint, i.e. per HTTP method and request mapping, e.g.
+ * "com.teachit.config.jdbc.SqlStatistics.GET.api.courses.id.statements" for "GET /api/courses/{id}". A
+ * statement executed more times than the configured threshold by one request is logged as a likely N+1 select,
+ * and slow requests are logged with their SQL. The numbers can also be returned in debug response headers.
+ * </p>
+ */
+public class SqlStatisticsFilter implements Filter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+
+    public static final String TIME_HEADER = "X-Sql-Time";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final JHipsterProperties.Metrics.Sql properties;
+
+    private final MetricRegistry metricRegistry;
+
+    public SqlStatisticsFilter(JHipsterProperties jHipsterProperties, MetricRegistry metricRegistry) {
+        this.properties = jHipsterProperties.getMetrics().getSql();
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Nothing to initialize
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to destroy
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        SqlStatistics statistics = SqlStatistics.start();
+        long start = System.nanoTime();
+        try {
+            if (properties.isDebugHeaders()) {
+                DebugHeadersResponse debugResponse = new DebugHeadersResponse(httpResponse, statistics);
+                chain.doFilter(request, debugResponse);
+                debugResponse.addDebugHeaders();
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            SqlStatistics.stop();
+            record(httpRequest, statistics, System.nanoTime() - start);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics, long nanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        if (pattern != null) {
+            // only mapped endpoints, so that the number of metrics is bounded
+            String name = metricName(request.getMethod(), pattern.toString());
+            metricRegistry.histogram(MetricRegistry.name(name, "statements"))
+                .update(statistics.getStatements());
+            metricRegistry.histogram(MetricRegistry.name(name, "rows"))
+                .update(statistics.getRows());
+            metricRegistry.timer(MetricRegistry.name(name, "time"))
+                .update(statistics.getTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+        for (Map.Entry<String, Integer> execution : statistics.getExecutions().entrySet()) {
+            if (execution.getValue() > properties.getRepeatedStatementThreshold()) {
+                log.warn("Likely N+1 select in {}, statement executed {} times: {}",
+                    endpoint, execution.getValue(), execution.getKey());
+                metricRegistry.meter(MetricRegistry.name(SqlStatistics.class, "repeatedStatements")).mark();
+            }
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= properties.getSlowRequestThresholdMillis()) {
+            StringBuilder statements = new StringBuilder();
+            for (Map.Entry<String, Integer> execution : statistics.getExecutions().entrySet()) {
+                statements.append("\n    ").append(execution.getValue()).append(" x ").append(execution.getKey());
+            }
+            log.warn("Slow request {} took {} ms, {} SQL statements in {} ms, {} rows:{}", endpoint, millis,
+                statistics.getStatements(), statistics.getTime(TimeUnit.MILLISECONDS), statistics.getRows(), statements);
+        }
+    }
+
+    /**
+     * Returns the prefix of the metrics of an endpoint, the segments of its request mapping becoming the dotted parts
+     * of the name, without the spaces, slashes and braces that the reporters do not accept.
+     */
+    static String metricName(String method, String pattern) {
+        String path = pattern.replaceAll("[{}]", "").replaceAll("[^a-zA-Z0-9_/.-]", "_").replaceAll("^/+|/+$", "");
+        return MetricRegistry.name(SqlStatistics.class, method, path.replace('/', '.'));
+    }
+
+    /**
+     * Adds the debug headers before the response is committed, i.e. with the statements executed until the body
+     * starts to be written.
+     */
+    private static class DebugHeadersResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics statistics;
+
+        private boolean headersAdded;
+
+        DebugHeadersResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void addDebugHeaders() {
+            if (!headersAdded && !isCommitted()) {
+                headersAdded = true;
+                setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+                setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+                setHeader(TIME_HEADER, String.valueOf(statistics.getTime(TimeUnit.MILLISECONDS)));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addDebugHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addDebugHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addDebugHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addDebugHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addDebugHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addDebugHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.teachit.web.filter;
+
+import com.teachit.config.tracing.RecentTraces;
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Tracer;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Traces each request, its span being the root of a new trace, see {@link Tracer}.
+ *
+ * <p>
+ * The id of the trace is returned in the X-Trace-Id response header, to find the trace in the
+ * {@link RecentTraces}, and the span is named after the HTTP method and request mapping, or URI if none. An
+ * asynchronous request is traced until it completes, its asynchronous processing as a child span.
+ * </p>
+ */
+public class TracingFilter implements Filter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final RecentTraces recentTraces;
+
+    public TracingFilter(RecentTraces recentTraces) {
+        this.recentTraces = recentTraces;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Nothing to initialize
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to destroy
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        Span span = Tracer.startTrace(Span.Kind.HTTP, httpRequest.getMethod() + " " + httpRequest.getRequestURI(),
+            recentTraces);
+        httpResponse.setHeader(TRACE_ID_HEADER, span.getTraceId());
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && httpRequest.isAsyncStarted()) {
+                Tracer.detach(span);
+                httpRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        end(span, httpRequest, httpResponse.getStatus());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        // traced on completion
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        // traced on completion
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else {
+                end(span, httpRequest, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : httpResponse.getStatus());
+                Tracer.detach(span);
+            }
+        }
+    }
+
+    private void end(Span span, HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            span.setName(request.getMethod() + " " + pattern);
+        }
+        if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            span.markError();
+        }
+        span.end();
+    }
+}
@@ -1,27 +1,33 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.ApplicationAdmission;
 import com.teachit.repository.ApplicationAdmissionRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.ApplicationAdmissionDTO;
+import com.teachit.web.rest.mapper.ApplicationAdmissionMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * REST controller for managing ApplicationAdmission.
@@ -34,11 +40,17 @@ public class ApplicationAdmissionResource {
         
     @Inject
     private ApplicationAdmissionRepository applicationAdmissionRepository;
+
+    @Inject
+    private ApplicationAdmissionMapper applicationAdmissionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /application-admissions : Create a new applicationAdmission.
      *
-     * @param applicationAdmission the applicationAdmission to create
+     * @param applicationAdmissionDTO the applicationAdmissionDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new applicationAdmission, or with status 400 (Bad Request) if the applicationAdmission has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -46,12 +58,14 @@ public class ApplicationAdmissionResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ApplicationAdmission> createApplicationAdmission(@RequestBody ApplicationAdmission applicationAdmission) throws URISyntaxException {
-        log.debug("REST request to save ApplicationAdmission : {}", applicationAdmission);
-        if (applicationAdmission.getId() != null) {
+    public ResponseEntity<ApplicationAdmissionDTO> createApplicationAdmission(@RequestBody ApplicationAdmissionDTO applicationAdmissionDTO) throws URISyntaxException {
+        log.debug("REST request to save ApplicationAdmission : {}", applicationAdmissionDTO);
+        if (applicationAdmissionDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("applicationAdmission", "idexists", "A new applicationAdmission cannot already have an ID")).body(null);
         }
-        ApplicationAdmission result = applicationAdmissionRepository.save(applicationAdmission);
+        ApplicationAdmission applicationAdmission = applicationAdmissionMapper.applicationAdmissionDTOToApplicationAdmission(applicationAdmissionDTO);
+        applicationAdmission = applicationAdmissionRepository.save(applicationAdmission);
+        ApplicationAdmissionDTO result = applicationAdmissionMapper.applicationAdmissionToApplicationAdmissionDTO(applicationAdmission);
         return ResponseEntity.created(new URI("/api/application-admissions/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("applicationAdmission", result.getId().toString()))
             .body(result);
@@ -60,7 +74,7 @@ public class ApplicationAdmissionResource {
     /**
      * PUT  /application-admissions : Updates an existing applicationAdmission.
      *
-     * @param applicationAdmission the applicationAdmission to update
+     * @param applicationAdmissionDTO the applicationAdmissionDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated applicationAdmission,
      * or with status 400 (Bad Request) if the applicationAdmission is not valid,
      * or with status 500 (Internal Server Error) if the applicationAdmission couldnt be updated
@@ -70,22 +84,26 @@ public class ApplicationAdmissionResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ApplicationAdmission> updateApplicationAdmission(@RequestBody ApplicationAdmission applicationAdmission) throws URISyntaxException {
-        log.debug("REST request to update ApplicationAdmission : {}", applicationAdmission);
-        if (applicationAdmission.getId() == null) {
-            return createApplicationAdmission(applicationAdmission);
+    public ResponseEntity<ApplicationAdmissionDTO> updateApplicationAdmission(@RequestBody ApplicationAdmissionDTO applicationAdmissionDTO) throws URISyntaxException {
+        log.debug("REST request to update ApplicationAdmission : {}", applicationAdmissionDTO);
+        if (applicationAdmissionDTO.getId() == null) {
+            return createApplicationAdmission(applicationAdmissionDTO);
         }
-        ApplicationAdmission result = applicationAdmissionRepository.save(applicationAdmission);
+        ApplicationAdmission applicationAdmission = applicationAdmissionMapper.applicationAdmissionDTOToApplicationAdmission(applicationAdmissionDTO);
+        applicationAdmission = applicationAdmissionRepository.save(applicationAdmission);
+        ApplicationAdmissionDTO result = applicationAdmissionMapper.applicationAdmissionToApplicationAdmissionDTO(applicationAdmission);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("applicationAdmission", applicationAdmission.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("applicationAdmission", applicationAdmissionDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /application-admissions : get all the applicationAdmissions.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
-     * @param filter the filter of the request
+     * @param filter the filter of the request, "candidate-is-null" or "course-is-null"
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of applicationAdmissions in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -93,26 +111,31 @@ public class ApplicationAdmissionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<ApplicationAdmission>> getAllApplicationAdmissions(Pageable pageable, @RequestParam(required = false) String filter)
+    @ReadFromReplica
+    public ResponseEntity<List<ApplicationAdmissionDTO>> getAllApplicationAdmissions(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String filter, @RequestParam(required = false) String after)
         throws URISyntaxException {
+        EntityFilter<ApplicationAdmission> entityFilter = new EntityFilter<>(parameters);
         if ("candidate-is-null".equals(filter)) {
-            log.debug("REST request to get all ApplicationAdmissions where candidate is null");
-            return new ResponseEntity<>(StreamSupport
-                .stream(applicationAdmissionRepository.findAll().spliterator(), false)
-                .filter(applicationAdmission -> applicationAdmission.getCandidate() == null)
-                .collect(Collectors.toList()), HttpStatus.OK);
+            entityFilter.and("candidateId", "specified", "false");
         }
         if ("course-is-null".equals(filter)) {
-            log.debug("REST request to get all ApplicationAdmissions where course is null");
-            return new ResponseEntity<>(StreamSupport
-                .stream(applicationAdmissionRepository.findAll().spliterator(), false)
-                .filter(applicationAdmission -> applicationAdmission.getCourse() == null)
-                .collect(Collectors.toList()), HttpStatus.OK);
+            entityFilter.and("courseId", "specified", "false");
+        }
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of ApplicationAdmissions by offset");
+            Page<ApplicationAdmissionDTO> page = keysetPaginationRepository.findPage(ApplicationAdmission.class, entityFilter, pageable,
+                ApplicationAdmissionDTO.class, ApplicationAdmissionDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
         }
-        log.debug("REST request to get a page of ApplicationAdmissions");
-        Page<ApplicationAdmission> page = applicationAdmissionRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/application-admissions");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        log.debug("REST request to get a page of ApplicationAdmissions after {}", after);
+        Slice<ApplicationAdmissionDTO> slice = keysetPaginationRepository.findAll(ApplicationAdmission.class, entityFilter, after, pageable,
+            ApplicationAdmissionDTO.class, ApplicationAdmissionDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(ApplicationAdmission.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(ApplicationAdmission.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -125,10 +148,12 @@ public class ApplicationAdmissionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ApplicationAdmission> getApplicationAdmission(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<ApplicationAdmissionDTO> getApplicationAdmission(@PathVariable Long id) {
         log.debug("REST request to get ApplicationAdmission : {}", id);
         ApplicationAdmission applicationAdmission = applicationAdmissionRepository.findOne(id);
-        return Optional.ofNullable(applicationAdmission)
+        ApplicationAdmissionDTO applicationAdmissionDTO = applicationAdmissionMapper.applicationAdmissionToApplicationAdmissionDTO(applicationAdmission);
+        return Optional.ofNullable(applicationAdmissionDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
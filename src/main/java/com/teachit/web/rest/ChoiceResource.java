@@ -1,24 +1,33 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.Choice;
 import com.teachit.repository.ChoiceRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.service.grading.AnswerKeyIndex;
+import com.teachit.web.rest.dto.ChoiceDTO;
+import com.teachit.web.rest.mapper.ChoiceMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +41,20 @@ public class ChoiceResource {
         
     @Inject
     private ChoiceRepository choiceRepository;
+
+    @Inject
+    private ChoiceMapper choiceMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private AnswerKeyIndex answerKeyIndex;
     
     /**
      * POST  /choices : Create a new choice.
      *
-     * @param choice the choice to create
+     * @param choiceDTO the choiceDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new choice, or with status 400 (Bad Request) if the choice has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +62,15 @@ public class ChoiceResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Choice> createChoice(@RequestBody Choice choice) throws URISyntaxException {
-        log.debug("REST request to save Choice : {}", choice);
-        if (choice.getId() != null) {
+    public ResponseEntity<ChoiceDTO> createChoice(@RequestBody ChoiceDTO choiceDTO) throws URISyntaxException {
+        log.debug("REST request to save Choice : {}", choiceDTO);
+        if (choiceDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("choice", "idexists", "A new choice cannot already have an ID")).body(null);
         }
-        Choice result = choiceRepository.save(choice);
+        Choice choice = choiceMapper.choiceDTOToChoice(choiceDTO);
+        choice = choiceRepository.save(choice);
+        answerKeyIndex.put(choice.getId(), choiceDTO.getQuestionId(), choice.isCorrect());
+        ChoiceDTO result = choiceMapper.choiceToChoiceDTO(choice);
         return ResponseEntity.created(new URI("/api/choices/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("choice", result.getId().toString()))
             .body(result);
@@ -58,7 +79,7 @@ public class ChoiceResource {
     /**
      * PUT  /choices : Updates an existing choice.
      *
-     * @param choice the choice to update
+     * @param choiceDTO the choiceDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated choice,
      * or with status 400 (Bad Request) if the choice is not valid,
      * or with status 500 (Internal Server Error) if the choice couldnt be updated
@@ -68,21 +89,26 @@ public class ChoiceResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Choice> updateChoice(@RequestBody Choice choice) throws URISyntaxException {
-        log.debug("REST request to update Choice : {}", choice);
-        if (choice.getId() == null) {
-            return createChoice(choice);
+    public ResponseEntity<ChoiceDTO> updateChoice(@RequestBody ChoiceDTO choiceDTO) throws URISyntaxException {
+        log.debug("REST request to update Choice : {}", choiceDTO);
+        if (choiceDTO.getId() == null) {
+            return createChoice(choiceDTO);
         }
-        Choice result = choiceRepository.save(choice);
+        Choice choice = choiceMapper.choiceDTOToChoice(choiceDTO);
+        choice = choiceRepository.save(choice);
+        answerKeyIndex.put(choice.getId(), choiceDTO.getQuestionId(), choice.isCorrect());
+        ChoiceDTO result = choiceMapper.choiceToChoiceDTO(choice);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("choice", choice.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("choice", choiceDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /choices : get all the choices.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of choices in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +116,25 @@ public class ChoiceResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<Choice>> getAllChoices(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<ChoiceDTO>> getAllChoices(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of Choices");
-        Page<Choice> page = choiceRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/choices");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<Choice> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of Choices by offset");
+            Page<ChoiceDTO> page = keysetPaginationRepository.findPage(Choice.class, entityFilter, pageable,
+                ChoiceDTO.class, ChoiceDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of Choices after {}", after);
+        Slice<ChoiceDTO> slice = keysetPaginationRepository.findAll(Choice.class, entityFilter, after, pageable,
+            ChoiceDTO.class, ChoiceDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(Choice.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(Choice.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,10 +147,12 @@ public class ChoiceResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Choice> getChoice(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<ChoiceDTO> getChoice(@PathVariable Long id) {
         log.debug("REST request to get Choice : {}", id);
         Choice choice = choiceRepository.findOne(id);
-        return Optional.ofNullable(choice)
+        ChoiceDTO choiceDTO = choiceMapper.choiceToChoiceDTO(choice);
+        return Optional.ofNullable(choiceDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -131,6 +172,7 @@ public class ChoiceResource {
     public ResponseEntity<Void> deleteChoice(@PathVariable Long id) {
         log.debug("REST request to delete Choice : {}", id);
         choiceRepository.delete(id);
+        answerKeyIndex.remove(id);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("choice", id.toString())).build();
     }
 
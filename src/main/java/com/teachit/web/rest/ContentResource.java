@@ -1,24 +1,44 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.Content;
 import com.teachit.repository.ContentRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.service.ContentFileService;
+import com.teachit.service.storage.BlobSender;
+import com.teachit.service.storage.BlobStore;
+import com.teachit.service.storage.BlobTooLargeException;
+import com.teachit.service.storage.StoredBlob;
+import com.teachit.web.rest.dto.ContentDTO;
+import com.teachit.web.rest.mapper.ContentMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -32,11 +52,29 @@ public class ContentResource {
         
     @Inject
     private ContentRepository contentRepository;
-    
+
+    @Inject
+    private ContentMapper contentMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private ContentFileService contentFileService;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private BlobSender blobSender;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
     /**
      * POST  /contents : Create a new content.
      *
-     * @param content the content to create
+     * @param contentDTO the contentDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new content, or with status 400 (Bad Request) if the content has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +82,14 @@ public class ContentResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Content> createContent(@RequestBody Content content) throws URISyntaxException {
-        log.debug("REST request to save Content : {}", content);
-        if (content.getId() != null) {
+    public ResponseEntity<ContentDTO> createContent(@RequestBody ContentDTO contentDTO) throws URISyntaxException {
+        log.debug("REST request to save Content : {}", contentDTO);
+        if (contentDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("content", "idexists", "A new content cannot already have an ID")).body(null);
         }
-        Content result = contentRepository.save(content);
+        Content content = contentMapper.contentDTOToContent(contentDTO);
+        content = contentRepository.save(content);
+        ContentDTO result = contentMapper.contentToContentDTO(content);
         return ResponseEntity.created(new URI("/api/contents/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("content", result.getId().toString()))
             .body(result);
@@ -58,9 +98,15 @@ public class ContentResource {
     /**
      * PUT  /contents : Updates an existing content.
      *
-     * @param content the content to update
+     * <p>
+     * The content is loaded and updated in place: its text is only replaced when the DTO has another one, so that a
+     * DTO without text, e.g. from the list, keeps the text of the content.
+     * </p>
+     *
+     * @param contentDTO the contentDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated content,
      * or with status 400 (Bad Request) if the content is not valid,
+     * or with status 404 (Not Found) if the content doesn't exist,
      * or with status 500 (Internal Server Error) if the content couldnt be updated
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -68,21 +114,38 @@ public class ContentResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Content> updateContent(@RequestBody Content content) throws URISyntaxException {
-        log.debug("REST request to update Content : {}", content);
-        if (content.getId() == null) {
-            return createContent(content);
+    @Transactional
+    public ResponseEntity<ContentDTO> updateContent(@RequestBody ContentDTO contentDTO) throws URISyntaxException {
+        log.debug("REST request to update Content : {}", contentDTO);
+        if (contentDTO.getId() == null) {
+            return createContent(contentDTO);
         }
-        Content result = contentRepository.save(content);
+        Content content = contentRepository.findOne(contentDTO.getId());
+        if (content == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        contentMapper.updateContentFromContentDTO(contentDTO, content);
+        if (contentDTO.getText() != null) {
+            content.setText(contentDTO.getText());
+        }
+        if (!Objects.equals(contentDTO.getCourseId(), content.getCourse() != null ? content.getCourse().getId() : null)) {
+            content.setCourse(contentMapper.courseFromId(contentDTO.getCourseId()));
+        }
+        if (!Objects.equals(contentDTO.getLessonId(), content.getLesson() != null ? content.getLesson().getId() : null)) {
+            content.setLesson(contentMapper.lessonFromId(contentDTO.getLessonId()));
+        }
+        ContentDTO result = contentMapper.contentToContentDTO(content);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("content", content.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("content", contentDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /contents : get all the contents.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of contents in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +153,25 @@ public class ContentResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<Content>> getAllContents(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<ContentDTO>> getAllContents(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of Contents");
-        Page<Content> page = contentRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/contents");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<Content> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of Contents by offset");
+            Page<ContentDTO> page = keysetPaginationRepository.findPage(Content.class, entityFilter, pageable,
+                ContentDTO.class, ContentDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of Contents after {}", after);
+        Slice<ContentDTO> slice = keysetPaginationRepository.findAll(Content.class, entityFilter, after, pageable,
+            ContentDTO.class, ContentDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(Content.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(Content.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,16 +184,123 @@ public class ContentResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Content> getContent(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<ContentDTO> getContent(@PathVariable Long id) {
         log.debug("REST request to get Content : {}", id);
         Content content = contentRepository.findOne(id);
-        return Optional.ofNullable(content)
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(content);
+        return Optional.ofNullable(contentDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
             .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * POST  /contents/:id/file : Upload the file of the "id" content.
+     *
+     * <p>
+     * The body of the request is the file itself, not a multipart form, so that it is streamed to the BlobStore.
+     * </p>
+     *
+     * @param id the id of the content
+     * @param fileName the new name of the file, or null to keep the current one
+     * @param request the request, its body being the file and its Content-Type the media type of the file
+     * @return the ResponseEntity with status 200 (OK) and with body the updated content, or with status 404 (Not Found),
+     * or with status 413 (Payload Too Large) if the file is larger than the maximum file size
+     * @throws IOException if the file couldn't be read or stored
+     */
+    @RequestMapping(value = "/contents/{id}/file",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<ContentDTO> uploadContentFile(@PathVariable Long id, @RequestParam(required = false) String fileName,
+                                                        HttpServletRequest request) throws IOException {
+        log.debug("REST request to upload the file of Content : {}", id);
+        if (!contentRepository.exists(id)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        long maxFileSize = jHipsterProperties.getStorage().getMaxFileSize();
+        StoredBlob blob;
+        try {
+            if (request.getContentLengthLong() > maxFileSize) {
+                throw new BlobTooLargeException(maxFileSize);
+            }
+            blob = blobStore.store(request.getInputStream(), maxFileSize);
+        } catch (BlobTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .headers(HeaderUtil.createFailureAlert("content", "filetoolarge", e.getMessage())).body(null);
+        }
+        String contentType = request.getContentType() != null ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        Content content = contentFileService.updateFile(id, blob, fileName, contentType);
+        return Optional.ofNullable(contentMapper.contentToContentDTO(content))
+            .map(result -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert("content", id.toString()))
+                .body(result))
+            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * GET  /contents/:id/file : download the file of the "id" content.
+     *
+     * <p>
+     * The ETag of the file is its hash, so it changes only when another file is uploaded. A single range of bytes may
+     * be requested, optionally if the file is still the same with If-Range, e.g. to resume a download or seek a video;
+     * several ranges are answered with the whole file.
+     * </p>
+     *
+     * @param id the id of the content
+     * @param request the request
+     * @param response the response, with status 200 (OK) and with body the file, or with status 206 (Partial Content)
+     * and with body the range requested, or with status 304 (Not Modified) if the file matches If-None-Match,
+     * or with status 404 (Not Found) if the content or its file doesn't exist,
+     * or with status 416 (Requested Range Not Satisfiable) if the range is outside of the file
+     * @throws IOException if the file couldn't be sent
+     */
+    @RequestMapping(value = "/contents/{id}/file",
+        method = RequestMethod.GET)
+    @Timed
+    @ReadFromReplica
+    public void downloadContentFile(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to download the file of Content : {}", id);
+        List<Object[]> files = contentRepository.findFile(id);
+        if (files.isEmpty() || files.get(0)[0] == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Object[] file = files.get(0);
+        String fileHash = (String) file[0];
+        String eTag = "\"" + fileHash + "\"";
+        long size = (Long) file[1];
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long start = 0;
+        long length = size;
+        HttpRange range = getRange(request, eTag);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            if (start >= size || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            length = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        String contentType = file[2] != null ? (String) file[2] : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        response.setContentType(contentType);
+        response.setHeader("Content-Disposition", getContentDisposition(contentType, (String) file[3]));
+        blobSender.send(fileHash, size, start, length, request, response);
+    }
+
     /**
      * DELETE  /contents/:id : delete the "id" content.
      *
@@ -134,4 +317,48 @@ public class ContentResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("content", id.toString())).build();
     }
 
+    private static boolean matchesETag(String header, String eTag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the single range requested, or null if the whole file is requested, or several ranges, or the range
+     * is invalid or applies to another version of the file.
+     */
+    private static HttpRange getRange(HttpServletRequest request, String eTag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(eTag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the Content-Disposition of a file: shown by the browser if it is a media or a PDF, downloaded otherwise
+     * so that an HTML file uploaded cannot run scripts in the application.
+     */
+    private static String getContentDisposition(String contentType, String fileName) {
+        boolean inline = contentType.startsWith("video/") || contentType.startsWith("audio/")
+            || (contentType.startsWith("image/") && !contentType.startsWith("image/svg"))
+            || contentType.startsWith("application/pdf");
+        String disposition = inline ? "inline" : "attachment";
+        if (fileName == null) {
+            return disposition;
+        }
+        return disposition + "; filename=\"" + fileName.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_") + "\"";
+    }
 }
@@ -1,24 +1,33 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.ContentView;
 import com.teachit.repository.ContentViewRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.service.ContentViewBuffer;
+import com.teachit.web.rest.dto.ContentViewDTO;
+import com.teachit.web.rest.mapper.ContentViewMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +41,20 @@ public class ContentViewResource {
         
     @Inject
     private ContentViewRepository contentViewRepository;
+
+    @Inject
+    private ContentViewMapper contentViewMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private ContentViewBuffer contentViewBuffer;
     
     /**
      * POST  /content-views : Create a new contentView.
      *
-     * @param contentView the contentView to create
+     * @param contentViewDTO the contentViewDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new contentView, or with status 400 (Bad Request) if the contentView has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,21 +62,50 @@ public class ContentViewResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ContentView> createContentView(@RequestBody ContentView contentView) throws URISyntaxException {
-        log.debug("REST request to save ContentView : {}", contentView);
-        if (contentView.getId() != null) {
+    public ResponseEntity<ContentViewDTO> createContentView(@RequestBody ContentViewDTO contentViewDTO) throws URISyntaxException {
+        log.debug("REST request to save ContentView : {}", contentViewDTO);
+        if (contentViewDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("contentView", "idexists", "A new contentView cannot already have an ID")).body(null);
         }
-        ContentView result = contentViewRepository.save(contentView);
+        ContentView contentView = contentViewMapper.contentViewDTOToContentView(contentViewDTO);
+        contentView = contentViewRepository.save(contentView);
+        ContentViewDTO result = contentViewMapper.contentViewToContentViewDTO(contentView);
         return ResponseEntity.created(new URI("/api/content-views/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("contentView", result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * POST  /content-views/track : Track the views of contents by people, e.g. of the contents of a page.
+     *
+     * <p>
+     * The views are buffered and written in batches shortly after, a view already saved is only marked as viewed.
+     * </p>
+     *
+     * @param contentViewDTOs the views, with their personId and contentId
+     * @return the ResponseEntity with status 202 (Accepted), or with status 400 (Bad Request) if a view has no personId or contentId
+     */
+    @RequestMapping(value = "/content-views/track",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<Void> trackContentViews(@RequestBody List<ContentViewDTO> contentViewDTOs) {
+        log.debug("REST request to track {} ContentViews", contentViewDTOs.size());
+        for (ContentViewDTO contentViewDTO : contentViewDTOs) {
+            if (contentViewDTO.getPersonId() == null || contentViewDTO.getContentId() == null) {
+                return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("contentView", "invalidview", "A view needs a personId and a contentId")).build();
+            }
+        }
+        for (ContentViewDTO contentViewDTO : contentViewDTOs) {
+            contentViewBuffer.track(contentViewDTO.getPersonId(), contentViewDTO.getContentId());
+        }
+        return ResponseEntity.accepted().build();
+    }
+
     /**
      * PUT  /content-views : Updates an existing contentView.
      *
-     * @param contentView the contentView to update
+     * @param contentViewDTO the contentViewDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated contentView,
      * or with status 400 (Bad Request) if the contentView is not valid,
      * or with status 500 (Internal Server Error) if the contentView couldnt be updated
@@ -68,21 +115,25 @@ public class ContentViewResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ContentView> updateContentView(@RequestBody ContentView contentView) throws URISyntaxException {
-        log.debug("REST request to update ContentView : {}", contentView);
-        if (contentView.getId() == null) {
-            return createContentView(contentView);
+    public ResponseEntity<ContentViewDTO> updateContentView(@RequestBody ContentViewDTO contentViewDTO) throws URISyntaxException {
+        log.debug("REST request to update ContentView : {}", contentViewDTO);
+        if (contentViewDTO.getId() == null) {
+            return createContentView(contentViewDTO);
         }
-        ContentView result = contentViewRepository.save(contentView);
+        ContentView contentView = contentViewMapper.contentViewDTOToContentView(contentViewDTO);
+        contentView = contentViewRepository.save(contentView);
+        ContentViewDTO result = contentViewMapper.contentViewToContentViewDTO(contentView);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("contentView", contentView.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("contentView", contentViewDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /content-views : get all the contentViews.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of contentViews in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +141,25 @@ public class ContentViewResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<ContentView>> getAllContentViews(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<ContentViewDTO>> getAllContentViews(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of ContentViews");
-        Page<ContentView> page = contentViewRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/content-views");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<ContentView> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of ContentViews by offset");
+            Page<ContentViewDTO> page = keysetPaginationRepository.findPage(ContentView.class, entityFilter, pageable,
+                ContentViewDTO.class, ContentViewDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of ContentViews after {}", after);
+        Slice<ContentViewDTO> slice = keysetPaginationRepository.findAll(ContentView.class, entityFilter, after, pageable,
+            ContentViewDTO.class, ContentViewDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(ContentView.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(ContentView.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,10 +172,12 @@ public class ContentViewResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<ContentView> getContentView(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<ContentViewDTO> getContentView(@PathVariable Long id) {
         log.debug("REST request to get ContentView : {}", id);
         ContentView contentView = contentViewRepository.findOne(id);
-        return Optional.ofNullable(contentView)
+        ContentViewDTO contentViewDTO = contentViewMapper.contentViewToContentViewDTO(contentView);
+        return Optional.ofNullable(contentViewDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -1,25 +1,37 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.Course;
 import com.teachit.repository.CourseRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.CourseDTO;
+import com.teachit.web.rest.dto.LessonDTO;
+import com.teachit.web.rest.mapper.CourseMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing Course.
@@ -32,11 +44,17 @@ public class CourseResource {
         
     @Inject
     private CourseRepository courseRepository;
+
+    @Inject
+    private CourseMapper courseMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /courses : Create a new course.
      *
-     * @param course the course to create
+     * @param courseDTO the courseDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new course, or with status 400 (Bad Request) if the course has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +62,14 @@ public class CourseResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Course> createCourse(@RequestBody Course course) throws URISyntaxException {
-        log.debug("REST request to save Course : {}", course);
-        if (course.getId() != null) {
+    public ResponseEntity<CourseDTO> createCourse(@RequestBody CourseDTO courseDTO) throws URISyntaxException {
+        log.debug("REST request to save Course : {}", courseDTO);
+        if (courseDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("course", "idexists", "A new course cannot already have an ID")).body(null);
         }
-        Course result = courseRepository.save(course);
+        Course course = courseMapper.courseDTOToCourse(courseDTO);
+        course = courseRepository.save(course);
+        CourseDTO result = courseMapper.courseToCourseDTO(course);
         return ResponseEntity.created(new URI("/api/courses/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("course", result.getId().toString()))
             .body(result);
@@ -58,7 +78,7 @@ public class CourseResource {
     /**
      * PUT  /courses : Updates an existing course.
      *
-     * @param course the course to update
+     * @param courseDTO the courseDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated course,
      * or with status 400 (Bad Request) if the course is not valid,
      * or with status 500 (Internal Server Error) if the course couldnt be updated
@@ -68,21 +88,25 @@ public class CourseResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Course> updateCourse(@RequestBody Course course) throws URISyntaxException {
-        log.debug("REST request to update Course : {}", course);
-        if (course.getId() == null) {
-            return createCourse(course);
+    public ResponseEntity<CourseDTO> updateCourse(@RequestBody CourseDTO courseDTO) throws URISyntaxException {
+        log.debug("REST request to update Course : {}", courseDTO);
+        if (courseDTO.getId() == null) {
+            return createCourse(courseDTO);
         }
-        Course result = courseRepository.save(course);
+        Course course = courseMapper.courseDTOToCourse(courseDTO);
+        course = courseRepository.save(course);
+        CourseDTO result = courseMapper.courseToCourseDTO(course);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("course", course.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("course", courseDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /courses : get all the courses.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of courses in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +114,41 @@ public class CourseResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<Course>> getAllCourses(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<CourseDTO>> getAllCourses(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of Courses");
-        Page<Course> page = courseRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/courses");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<Course> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of Courses by offset");
+            Page<CourseDTO> page = keysetPaginationRepository.findPage(Course.class, entityFilter, pageable,
+                CourseDTO.class, CourseDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(fetchEagerRelationships(page), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of Courses after {}", after);
+        Slice<CourseDTO> slice = keysetPaginationRepository.findAll(Course.class, entityFilter, after, pageable,
+            CourseDTO.class, CourseDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(Course.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(Course.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(fetchEagerRelationships(slice), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Completes a page of courses with their lessons, selected with a single query.
+     */
+    private List<CourseDTO> fetchEagerRelationships(Slice<CourseDTO> slice) {
+        if (!slice.hasContent()) {
+            return slice.getContent();
+        }
+        Map<Long, CourseDTO> courses = slice.getContent().stream()
+            .collect(Collectors.toMap(CourseDTO::getId, Function.identity()));
+        for (Object[] row : courseRepository.findLessonsOfCourses(courses.keySet())) {
+            courses.get((Long) row[0]).getLessons()
+                .add(new LessonDTO((Long) row[1], (Integer) row[2], (LocalDate) row[3], (String) row[4], (String) row[5]));
+        }
+        return slice.getContent();
     }
 
     /**
@@ -108,10 +161,12 @@ public class CourseResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Course> getCourse(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<CourseDTO> getCourse(@PathVariable Long id) {
         log.debug("REST request to get Course : {}", id);
         Course course = courseRepository.findOneWithEagerRelationships(id);
-        return Optional.ofNullable(course)
+        CourseDTO courseDTO = courseMapper.courseToCourseDTO(course);
+        return Optional.ofNullable(courseDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -1,24 +1,38 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.DiscursiveAnswer;
 import com.teachit.repository.DiscursiveAnswerRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.service.AnswerExportService;
+import com.teachit.service.DiscursiveAnswerService;
+import com.teachit.service.export.ExportFormat;
+import com.teachit.service.export.RowWriter;
+import com.teachit.web.rest.dto.DiscursiveAnswerDTO;
+import com.teachit.web.rest.mapper.DiscursiveAnswerMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +46,23 @@ public class DiscursiveAnswerResource {
         
     @Inject
     private DiscursiveAnswerRepository discursiveAnswerRepository;
+
+    @Inject
+    private DiscursiveAnswerService discursiveAnswerService;
+
+    @Inject
+    private DiscursiveAnswerMapper discursiveAnswerMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private AnswerExportService answerExportService;
     
     /**
      * POST  /discursive-answers : Create a new discursiveAnswer.
      *
-     * @param discursiveAnswer the discursiveAnswer to create
+     * @param discursiveAnswerDTO the discursiveAnswerDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new discursiveAnswer, or with status 400 (Bad Request) if the discursiveAnswer has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +70,14 @@ public class DiscursiveAnswerResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveAnswer> createDiscursiveAnswer(@RequestBody DiscursiveAnswer discursiveAnswer) throws URISyntaxException {
-        log.debug("REST request to save DiscursiveAnswer : {}", discursiveAnswer);
-        if (discursiveAnswer.getId() != null) {
+    public ResponseEntity<DiscursiveAnswerDTO> createDiscursiveAnswer(@RequestBody DiscursiveAnswerDTO discursiveAnswerDTO) throws URISyntaxException {
+        log.debug("REST request to save DiscursiveAnswer : {}", discursiveAnswerDTO);
+        if (discursiveAnswerDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("discursiveAnswer", "idexists", "A new discursiveAnswer cannot already have an ID")).body(null);
         }
-        DiscursiveAnswer result = discursiveAnswerRepository.save(discursiveAnswer);
+        DiscursiveAnswer discursiveAnswer = discursiveAnswerMapper.discursiveAnswerDTOToDiscursiveAnswer(discursiveAnswerDTO);
+        discursiveAnswer = discursiveAnswerService.save(discursiveAnswer);
+        DiscursiveAnswerDTO result = discursiveAnswerMapper.discursiveAnswerToDiscursiveAnswerDTO(discursiveAnswer);
         return ResponseEntity.created(new URI("/api/discursive-answers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("discursiveAnswer", result.getId().toString()))
             .body(result);
@@ -58,7 +86,7 @@ public class DiscursiveAnswerResource {
     /**
      * PUT  /discursive-answers : Updates an existing discursiveAnswer.
      *
-     * @param discursiveAnswer the discursiveAnswer to update
+     * @param discursiveAnswerDTO the discursiveAnswerDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated discursiveAnswer,
      * or with status 400 (Bad Request) if the discursiveAnswer is not valid,
      * or with status 500 (Internal Server Error) if the discursiveAnswer couldnt be updated
@@ -68,21 +96,25 @@ public class DiscursiveAnswerResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveAnswer> updateDiscursiveAnswer(@RequestBody DiscursiveAnswer discursiveAnswer) throws URISyntaxException {
-        log.debug("REST request to update DiscursiveAnswer : {}", discursiveAnswer);
-        if (discursiveAnswer.getId() == null) {
-            return createDiscursiveAnswer(discursiveAnswer);
+    public ResponseEntity<DiscursiveAnswerDTO> updateDiscursiveAnswer(@RequestBody DiscursiveAnswerDTO discursiveAnswerDTO) throws URISyntaxException {
+        log.debug("REST request to update DiscursiveAnswer : {}", discursiveAnswerDTO);
+        if (discursiveAnswerDTO.getId() == null) {
+            return createDiscursiveAnswer(discursiveAnswerDTO);
         }
-        DiscursiveAnswer result = discursiveAnswerRepository.save(discursiveAnswer);
+        DiscursiveAnswer discursiveAnswer = discursiveAnswerMapper.discursiveAnswerDTOToDiscursiveAnswer(discursiveAnswerDTO);
+        discursiveAnswer = discursiveAnswerService.save(discursiveAnswer);
+        DiscursiveAnswerDTO result = discursiveAnswerMapper.discursiveAnswerToDiscursiveAnswerDTO(discursiveAnswer);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("discursiveAnswer", discursiveAnswer.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("discursiveAnswer", discursiveAnswerDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /discursive-answers : get all the discursiveAnswers.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of discursiveAnswers in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +122,49 @@ public class DiscursiveAnswerResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<DiscursiveAnswer>> getAllDiscursiveAnswers(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<DiscursiveAnswerDTO>> getAllDiscursiveAnswers(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of DiscursiveAnswers");
-        Page<DiscursiveAnswer> page = discursiveAnswerRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/discursive-answers");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<DiscursiveAnswer> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of DiscursiveAnswers by offset");
+            Page<DiscursiveAnswerDTO> page = keysetPaginationRepository.findPage(DiscursiveAnswer.class, entityFilter, pageable,
+                DiscursiveAnswerDTO.class, DiscursiveAnswerDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of DiscursiveAnswers after {}", after);
+        Slice<DiscursiveAnswerDTO> slice = keysetPaginationRepository.findAll(DiscursiveAnswer.class, entityFilter, after, pageable,
+            DiscursiveAnswerDTO.class, DiscursiveAnswerDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(DiscursiveAnswer.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(DiscursiveAnswer.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * GET  /discursive-answers/export : export the discursiveAnswers, streamed from the database.
+     *
+     * @param courseId the course of the questions answered, or null for all the discursiveAnswers
+     * @param format the format of the export, "csv" or "ndjson"
+     * @param response the response, whose headers are set before the body is written asynchronously
+     * @return the body of the response, with status 200 (OK) and the discursiveAnswers,
+     * or with status 400 (Bad Request) if the format is not supported
+     */
+    @RequestMapping(value = "/discursive-answers/export",
+        method = RequestMethod.GET)
+    @Timed
+    public StreamingResponseBody exportDiscursiveAnswers(@RequestParam(required = false) Long courseId, @RequestParam(defaultValue = "csv") String format,
+                                                 HttpServletResponse response) {
+        log.debug("REST request to export DiscursiveAnswers of course {} as {}", courseId, format);
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"discursive-answers." + exportFormat.getExtension() + "\"");
+        return out -> {
+            RowWriter writer = exportFormat.open(out, AnswerExportService.DISCURSIVE_ANSWER_COLUMNS);
+            answerExportService.exportDiscursiveAnswers(courseId, writer);
+        };
     }
 
     /**
@@ -108,10 +177,12 @@ public class DiscursiveAnswerResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveAnswer> getDiscursiveAnswer(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<DiscursiveAnswerDTO> getDiscursiveAnswer(@PathVariable Long id) {
         log.debug("REST request to get DiscursiveAnswer : {}", id);
         DiscursiveAnswer discursiveAnswer = discursiveAnswerRepository.findOne(id);
-        return Optional.ofNullable(discursiveAnswer)
+        DiscursiveAnswerDTO discursiveAnswerDTO = discursiveAnswerMapper.discursiveAnswerToDiscursiveAnswerDTO(discursiveAnswer);
+        return Optional.ofNullable(discursiveAnswerDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -130,7 +201,7 @@ public class DiscursiveAnswerResource {
     @Timed
     public ResponseEntity<Void> deleteDiscursiveAnswer(@PathVariable Long id) {
         log.debug("REST request to delete DiscursiveAnswer : {}", id);
-        discursiveAnswerRepository.delete(id);
+        discursiveAnswerService.delete(id);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("discursiveAnswer", id.toString())).build();
     }
 
@@ -1,24 +1,32 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.DiscursiveQuestion;
 import com.teachit.repository.DiscursiveQuestionRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.DiscursiveQuestionDTO;
+import com.teachit.web.rest.mapper.DiscursiveQuestionMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +40,17 @@ public class DiscursiveQuestionResource {
         
     @Inject
     private DiscursiveQuestionRepository discursiveQuestionRepository;
+
+    @Inject
+    private DiscursiveQuestionMapper discursiveQuestionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /discursive-questions : Create a new discursiveQuestion.
      *
-     * @param discursiveQuestion the discursiveQuestion to create
+     * @param discursiveQuestionDTO the discursiveQuestionDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new discursiveQuestion, or with status 400 (Bad Request) if the discursiveQuestion has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +58,14 @@ public class DiscursiveQuestionResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveQuestion> createDiscursiveQuestion(@RequestBody DiscursiveQuestion discursiveQuestion) throws URISyntaxException {
-        log.debug("REST request to save DiscursiveQuestion : {}", discursiveQuestion);
-        if (discursiveQuestion.getId() != null) {
+    public ResponseEntity<DiscursiveQuestionDTO> createDiscursiveQuestion(@RequestBody DiscursiveQuestionDTO discursiveQuestionDTO) throws URISyntaxException {
+        log.debug("REST request to save DiscursiveQuestion : {}", discursiveQuestionDTO);
+        if (discursiveQuestionDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("discursiveQuestion", "idexists", "A new discursiveQuestion cannot already have an ID")).body(null);
         }
-        DiscursiveQuestion result = discursiveQuestionRepository.save(discursiveQuestion);
+        DiscursiveQuestion discursiveQuestion = discursiveQuestionMapper.discursiveQuestionDTOToDiscursiveQuestion(discursiveQuestionDTO);
+        discursiveQuestion = discursiveQuestionRepository.save(discursiveQuestion);
+        DiscursiveQuestionDTO result = discursiveQuestionMapper.discursiveQuestionToDiscursiveQuestionDTO(discursiveQuestion);
         return ResponseEntity.created(new URI("/api/discursive-questions/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("discursiveQuestion", result.getId().toString()))
             .body(result);
@@ -58,7 +74,7 @@ public class DiscursiveQuestionResource {
     /**
      * PUT  /discursive-questions : Updates an existing discursiveQuestion.
      *
-     * @param discursiveQuestion the discursiveQuestion to update
+     * @param discursiveQuestionDTO the discursiveQuestionDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated discursiveQuestion,
      * or with status 400 (Bad Request) if the discursiveQuestion is not valid,
      * or with status 500 (Internal Server Error) if the discursiveQuestion couldnt be updated
@@ -68,21 +84,25 @@ public class DiscursiveQuestionResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveQuestion> updateDiscursiveQuestion(@RequestBody DiscursiveQuestion discursiveQuestion) throws URISyntaxException {
-        log.debug("REST request to update DiscursiveQuestion : {}", discursiveQuestion);
-        if (discursiveQuestion.getId() == null) {
-            return createDiscursiveQuestion(discursiveQuestion);
+    public ResponseEntity<DiscursiveQuestionDTO> updateDiscursiveQuestion(@RequestBody DiscursiveQuestionDTO discursiveQuestionDTO) throws URISyntaxException {
+        log.debug("REST request to update DiscursiveQuestion : {}", discursiveQuestionDTO);
+        if (discursiveQuestionDTO.getId() == null) {
+            return createDiscursiveQuestion(discursiveQuestionDTO);
         }
-        DiscursiveQuestion result = discursiveQuestionRepository.save(discursiveQuestion);
+        DiscursiveQuestion discursiveQuestion = discursiveQuestionMapper.discursiveQuestionDTOToDiscursiveQuestion(discursiveQuestionDTO);
+        discursiveQuestion = discursiveQuestionRepository.save(discursiveQuestion);
+        DiscursiveQuestionDTO result = discursiveQuestionMapper.discursiveQuestionToDiscursiveQuestionDTO(discursiveQuestion);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("discursiveQuestion", discursiveQuestion.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("discursiveQuestion", discursiveQuestionDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /discursive-questions : get all the discursiveQuestions.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of discursiveQuestions in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +110,25 @@ public class DiscursiveQuestionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<DiscursiveQuestion>> getAllDiscursiveQuestions(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<DiscursiveQuestionDTO>> getAllDiscursiveQuestions(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of DiscursiveQuestions");
-        Page<DiscursiveQuestion> page = discursiveQuestionRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/discursive-questions");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<DiscursiveQuestion> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of DiscursiveQuestions by offset");
+            Page<DiscursiveQuestionDTO> page = keysetPaginationRepository.findPage(DiscursiveQuestion.class, entityFilter, pageable,
+                DiscursiveQuestionDTO.class, DiscursiveQuestionDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of DiscursiveQuestions after {}", after);
+        Slice<DiscursiveQuestionDTO> slice = keysetPaginationRepository.findAll(DiscursiveQuestion.class, entityFilter, after, pageable,
+            DiscursiveQuestionDTO.class, DiscursiveQuestionDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(DiscursiveQuestion.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(DiscursiveQuestion.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,10 +141,12 @@ public class DiscursiveQuestionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<DiscursiveQuestion> getDiscursiveQuestion(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<DiscursiveQuestionDTO> getDiscursiveQuestion(@PathVariable Long id) {
         log.debug("REST request to get DiscursiveQuestion : {}", id);
         DiscursiveQuestion discursiveQuestion = discursiveQuestionRepository.findOne(id);
-        return Optional.ofNullable(discursiveQuestion)
+        DiscursiveQuestionDTO discursiveQuestionDTO = discursiveQuestionMapper.discursiveQuestionToDiscursiveQuestionDTO(discursiveQuestion);
+        return Optional.ofNullable(discursiveQuestionDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
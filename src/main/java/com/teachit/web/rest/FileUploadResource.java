@@ -0,0 +1,215 @@
+package com.teachit.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.domain.Content;
+import com.teachit.domain.FileUpload;
+import com.teachit.service.FileUploadService;
+import com.teachit.service.storage.BlobStore;
+import com.teachit.service.storage.StoredBlob;
+import com.teachit.service.storage.UploadStore;
+import com.teachit.web.rest.dto.ContentDTO;
+import com.teachit.web.rest.dto.FileUploadDTO;
+import com.teachit.web.rest.mapper.ContentMapper;
+import com.teachit.web.rest.util.HeaderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.NoSuchFileException;
+import java.util.Optional;
+
+/**
+ * REST controller for uploading the files of the contents in chunks, so that a large file is uploaded with several
+ * requests, possibly in parallel, and an upload interrupted is resumed rather than restarted.
+ *
+ * <p>
+ * An upload is created with the size of the file, then each chunk is sent with a PATCH at its offset, as the body
+ * of the request, and the upload is finalized once all are received. The upload gives the chunk size and the
+ * offsets of the chunks still to send, e.g. after a failure.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api")
+public class FileUploadResource {
+
+    private final Logger log = LoggerFactory.getLogger(FileUploadResource.class);
+
+    @Inject
+    private FileUploadService fileUploadService;
+
+    @Inject
+    private UploadStore uploadStore;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private ContentMapper contentMapper;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    /**
+     * POST  /contents/:contentId/uploads : Start the upload of the file of the "contentId" content.
+     *
+     * @param contentId the id of the content
+     * @param fileUploadDTO the name, media type and size of the file
+     * @return the ResponseEntity with status 201 (Created) and with body the new upload, or with status 404 (Not Found),
+     * or with status 400 (Bad Request) if the size is missing, or with status 413 (Payload Too Large) if the file is
+     * larger than the maximum file size
+     * @throws URISyntaxException if the Location URI syntax is incorrect
+     */
+    @RequestMapping(value = "/contents/{contentId}/uploads",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<FileUploadDTO> createFileUpload(@PathVariable Long contentId, @RequestBody FileUploadDTO fileUploadDTO)
+        throws URISyntaxException {
+        log.debug("REST request to upload the file of Content : {}", contentId);
+        if (fileUploadDTO.getFileSize() == null || fileUploadDTO.getFileSize() <= 0) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("fileUpload", "badsize", "The size of the file must be positive")).body(null);
+        }
+        long maxFileSize = jHipsterProperties.getStorage().getMaxFileSize();
+        if (fileUploadDTO.getFileSize() > maxFileSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .headers(HeaderUtil.createFailureAlert("fileUpload", "filetoolarge", "File larger than " + maxFileSize + " bytes")).body(null);
+        }
+        FileUploadDTO result = fileUploadService.create(contentId, fileUploadDTO);
+        if (result == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.created(new URI("/api/uploads/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert("fileUpload", result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * GET  /uploads/:id : get the "id" upload, with the offsets of the chunks still to send.
+     *
+     * @param id the id of the upload
+     * @return the ResponseEntity with status 200 (OK) and with body the upload, or with status 404 (Not Found)
+     */
+    @RequestMapping(value = "/uploads/{id}",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<FileUploadDTO> getFileUpload(@PathVariable Long id) {
+        log.debug("REST request to get FileUpload : {}", id);
+        return Optional.ofNullable(fileUploadService.findOneDTO(id))
+            .map(result -> new ResponseEntity<>(
+                result,
+                HttpStatus.OK))
+            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * PATCH  /uploads/:id?offset= : Send the chunk of the "id" upload at an offset. A chunk already received is not
+     * written again, so a chunk whose response was lost may be sent again.
+     *
+     * @param id the id of the upload
+     * @param offset the offset of the chunk, a multiple of the chunk size
+     * @param request the request, its body being the chunk and its Content-Length the length of the chunk
+     * @return the ResponseEntity with status 200 (OK) and with body the upload, or with status 404 (Not Found),
+     * or with status 400 (Bad Request) if the offset or the length of the chunk is not the one of a chunk, or if the
+     * chunk is shorter than its length
+     * @throws IOException if the chunk couldn't be read or written
+     */
+    @RequestMapping(value = "/uploads/{id}",
+        method = RequestMethod.PATCH,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<FileUploadDTO> uploadChunk(@PathVariable Long id, @RequestParam long offset,
+                                                     HttpServletRequest request) throws IOException {
+        log.debug("REST request to upload the chunk at {} of FileUpload : {}", offset, id);
+        FileUpload fileUpload = fileUploadService.findOne(id);
+        if (fileUpload == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (offset < 0 || offset >= fileUpload.getFileSize() || offset % fileUpload.getChunkSize() != 0) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("fileUpload", "badoffset", "Not the offset of a chunk: " + offset)).body(null);
+        }
+        int chunk = (int) (offset / fileUpload.getChunkSize());
+        int length = fileUpload.getChunkLength(chunk);
+        if (request.getContentLengthLong() != length) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("fileUpload", "badlength", "The chunk at " + offset + " is " + length + " bytes long")).body(null);
+        }
+        if (!fileUpload.getReceivedChunkSet().get(chunk)) {
+            try {
+                uploadStore.write(id, offset, request.getInputStream(), length);
+            } catch (EOFException e) {
+                return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("fileUpload", "badlength", e.getMessage())).body(null);
+            }
+        }
+        return Optional.ofNullable(fileUploadService.markReceived(id, chunk))
+            .map(result -> new ResponseEntity<>(
+                result,
+                HttpStatus.OK))
+            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * POST  /uploads/:id/finalize : Point the content of the "id" upload at the file uploaded, once all its chunks
+     * are received. The file is moved to the storage, not copied.
+     *
+     * @param id the id of the upload
+     * @return the ResponseEntity with status 200 (OK) and with body the updated content, or with status 404 (Not Found),
+     * or with status 409 (Conflict) if chunks are missing or the upload is being finalized
+     * @throws IOException if the file couldn't be stored
+     */
+    @RequestMapping(value = "/uploads/{id}/finalize",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<ContentDTO> finalizeFileUpload(@PathVariable Long id) throws IOException {
+        log.debug("REST request to finalize FileUpload : {}", id);
+        FileUpload fileUpload = fileUploadService.findOne(id);
+        if (fileUpload == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!fileUpload.isComplete()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).headers(HeaderUtil.createFailureAlert("fileUpload", "incomplete", "Chunks of the file are missing")).body(null);
+        }
+        StoredBlob blob;
+        try {
+            blob = blobStore.storeFile(uploadStore.path(id));
+        } catch (NoSuchFileException e) {
+            // finalized by another request meanwhile
+            return ResponseEntity.status(HttpStatus.CONFLICT).headers(HeaderUtil.createFailureAlert("fileUpload", "finalized", "The upload is already finalized")).body(null);
+        }
+        Content content = fileUploadService.finish(id, blob);
+        return Optional.ofNullable(contentMapper.contentToContentDTO(content))
+            .map(result -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert("content", result.getId().toString()))
+                .body(result))
+            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * DELETE  /uploads/:id : abort the "id" upload, deleting its chunks.
+     *
+     * @param id the id of the upload to delete
+     * @return the ResponseEntity with status 200 (OK)
+     * @throws IOException if the chunks couldn't be deleted
+     */
+    @RequestMapping(value = "/uploads/{id}",
+        method = RequestMethod.DELETE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<Void> deleteFileUpload(@PathVariable Long id) throws IOException {
+        log.debug("REST request to delete FileUpload : {}", id);
+        fileUploadService.delete(id);
+        uploadStore.delete(id);
+        return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("fileUpload", id.toString())).build();
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.teachit.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
+import com.teachit.security.AuthoritiesConstants;
+import com.teachit.service.GradebookService;
+import com.teachit.service.GradingService;
+import com.teachit.web.rest.dto.GradeSummaryDTO;
+import com.teachit.web.rest.util.HeaderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import java.util.List;
+
+/**
+ * REST controller for reading the gradebook.
+ */
+@RestController
+@RequestMapping("/api")
+public class GradebookResource {
+
+    private final Logger log = LoggerFactory.getLogger(GradebookResource.class);
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private GradingService gradingService;
+
+    /**
+     * GET  /gradebook/students/:personId : get the grades of a student, per course.
+     *
+     * @param personId the id of the student
+     * @return the ResponseEntity with status 200 (OK) and the grades in body
+     */
+    @RequestMapping(value = "/gradebook/students/{personId}",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @ReadFromReplica
+    public ResponseEntity<List<GradeSummaryDTO>> getGradesOfStudent(@PathVariable Long personId) {
+        log.debug("REST request to get the grades of student : {}", personId);
+        return new ResponseEntity<>(gradebookService.findGradesOfStudent(personId), HttpStatus.OK);
+    }
+
+    /**
+     * GET  /gradebook/courses/:courseId : get the grades of the students of a course.
+     *
+     * @param courseId the id of the course
+     * @return the ResponseEntity with status 200 (OK) and the grades in body
+     */
+    @RequestMapping(value = "/gradebook/courses/{courseId}",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @ReadFromReplica
+    public ResponseEntity<List<GradeSummaryDTO>> getGradesOfCourse(@PathVariable Long courseId) {
+        log.debug("REST request to get the grades of course : {}", courseId);
+        return new ResponseEntity<>(gradebookService.findGradesOfCourse(courseId), HttpStatus.OK);
+    }
+
+    /**
+     * POST  /gradebook/rebuild : recompute the gradebook from the answers.
+     *
+     * @return the ResponseEntity with status 200 (OK), and the number of entries in an alert header
+     */
+    @RequestMapping(value = "/gradebook/rebuild",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ResponseEntity<Void> rebuildGradebook() {
+        log.debug("REST request to rebuild the gradebook");
+        int entries = gradebookService.rebuild();
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("teachitApp.gradebook.rebuilt", String.valueOf(entries))).build();
+    }
+
+    /**
+     * POST  /gradebook/lessons/:lessonId/grade : grade the multiple choice answers of a lesson.
+     *
+     * @param lessonId the id of the lesson
+     * @return the ResponseEntity with status 200 (OK), and the number of answers graded in an alert header
+     */
+    @RequestMapping(value = "/gradebook/lessons/{lessonId}/grade",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ResponseEntity<Void> gradeLesson(@PathVariable Long lessonId) {
+        log.debug("REST request to grade lesson : {}", lessonId);
+        int answers = gradingService.gradeLesson(lessonId);
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("teachitApp.gradebook.graded", String.valueOf(answers))).build();
+    }
+
+    /**
+     * POST  /gradebook/courses/:courseId/grade : grade the multiple choice answers of a course.
+     *
+     * @param courseId the id of the course
+     * @return the ResponseEntity with status 200 (OK), and the number of answers graded in an alert header
+     */
+    @RequestMapping(value = "/gradebook/courses/{courseId}/grade",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ResponseEntity<Void> gradeCourse(@PathVariable Long courseId) {
+        log.debug("REST request to grade course : {}", courseId);
+        int answers = gradingService.gradeCourse(courseId);
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("teachitApp.gradebook.graded", String.valueOf(answers))).build();
+    }
+
+}
@@ -1,24 +1,32 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.Lesson;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.LessonRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.LessonDTO;
+import com.teachit.web.rest.mapper.LessonMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +40,17 @@ public class LessonResource {
         
     @Inject
     private LessonRepository lessonRepository;
+
+    @Inject
+    private LessonMapper lessonMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /lessons : Create a new lesson.
      *
-     * @param lesson the lesson to create
+     * @param lessonDTO the lessonDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new lesson, or with status 400 (Bad Request) if the lesson has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +58,14 @@ public class LessonResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Lesson> createLesson(@RequestBody Lesson lesson) throws URISyntaxException {
-        log.debug("REST request to save Lesson : {}", lesson);
-        if (lesson.getId() != null) {
+    public ResponseEntity<LessonDTO> createLesson(@RequestBody LessonDTO lessonDTO) throws URISyntaxException {
+        log.debug("REST request to save Lesson : {}", lessonDTO);
+        if (lessonDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("lesson", "idexists", "A new lesson cannot already have an ID")).body(null);
         }
-        Lesson result = lessonRepository.save(lesson);
+        Lesson lesson = lessonMapper.lessonDTOToLesson(lessonDTO);
+        lesson = lessonRepository.save(lesson);
+        LessonDTO result = lessonMapper.lessonToLessonDTO(lesson);
         return ResponseEntity.created(new URI("/api/lessons/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("lesson", result.getId().toString()))
             .body(result);
@@ -58,7 +74,7 @@ public class LessonResource {
     /**
      * PUT  /lessons : Updates an existing lesson.
      *
-     * @param lesson the lesson to update
+     * @param lessonDTO the lessonDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated lesson,
      * or with status 400 (Bad Request) if the lesson is not valid,
      * or with status 500 (Internal Server Error) if the lesson couldnt be updated
@@ -68,21 +84,25 @@ public class LessonResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Lesson> updateLesson(@RequestBody Lesson lesson) throws URISyntaxException {
-        log.debug("REST request to update Lesson : {}", lesson);
-        if (lesson.getId() == null) {
-            return createLesson(lesson);
+    public ResponseEntity<LessonDTO> updateLesson(@RequestBody LessonDTO lessonDTO) throws URISyntaxException {
+        log.debug("REST request to update Lesson : {}", lessonDTO);
+        if (lessonDTO.getId() == null) {
+            return createLesson(lessonDTO);
         }
-        Lesson result = lessonRepository.save(lesson);
+        Lesson lesson = lessonMapper.lessonDTOToLesson(lessonDTO);
+        lesson = lessonRepository.save(lesson);
+        LessonDTO result = lessonMapper.lessonToLessonDTO(lesson);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("lesson", lesson.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("lesson", lessonDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /lessons : get all the lessons.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of lessons in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +110,25 @@ public class LessonResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<Lesson>> getAllLessons(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<LessonDTO>> getAllLessons(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of Lessons");
-        Page<Lesson> page = lessonRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/lessons");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<Lesson> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of Lessons by offset");
+            Page<LessonDTO> page = keysetPaginationRepository.findPage(Lesson.class, entityFilter, pageable,
+                LessonDTO.class, LessonDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of Lessons after {}", after);
+        Slice<LessonDTO> slice = keysetPaginationRepository.findAll(Lesson.class, entityFilter, after, pageable,
+            LessonDTO.class, LessonDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(Lesson.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(Lesson.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,10 +141,12 @@ public class LessonResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Lesson> getLesson(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<LessonDTO> getLesson(@PathVariable Long id) {
         log.debug("REST request to get Lesson : {}", id);
         Lesson lesson = lessonRepository.findOne(id);
-        return Optional.ofNullable(lesson)
+        LessonDTO lessonDTO = lessonMapper.lessonToLessonDTO(lesson);
+        return Optional.ofNullable(lessonDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
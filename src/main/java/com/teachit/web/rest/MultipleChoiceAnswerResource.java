@@ -1,24 +1,42 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.MultipleChoiceAnswer;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.service.AnswerExportService;
+import com.teachit.service.MultipleChoiceAnswerService;
+import com.teachit.service.QuizSubmissionService;
+import com.teachit.web.rest.dto.QuizAnswerDTO;
+import com.teachit.web.rest.dto.QuizSubmissionDTO;
+import com.teachit.service.export.ExportFormat;
+import com.teachit.service.export.RowWriter;
+import com.teachit.web.rest.dto.MultipleChoiceAnswerDTO;
+import com.teachit.web.rest.mapper.MultipleChoiceAnswerMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +50,26 @@ public class MultipleChoiceAnswerResource {
         
     @Inject
     private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
+
+    @Inject
+    private MultipleChoiceAnswerService multipleChoiceAnswerService;
+
+    @Inject
+    private MultipleChoiceAnswerMapper multipleChoiceAnswerMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private AnswerExportService answerExportService;
+
+    @Inject
+    private QuizSubmissionService quizSubmissionService;
     
     /**
      * POST  /multiple-choice-answers : Create a new multipleChoiceAnswer.
      *
-     * @param multipleChoiceAnswer the multipleChoiceAnswer to create
+     * @param multipleChoiceAnswerDTO the multipleChoiceAnswerDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new multipleChoiceAnswer, or with status 400 (Bad Request) if the multipleChoiceAnswer has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,21 +77,42 @@ public class MultipleChoiceAnswerResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceAnswer> createMultipleChoiceAnswer(@RequestBody MultipleChoiceAnswer multipleChoiceAnswer) throws URISyntaxException {
-        log.debug("REST request to save MultipleChoiceAnswer : {}", multipleChoiceAnswer);
-        if (multipleChoiceAnswer.getId() != null) {
+    public ResponseEntity<MultipleChoiceAnswerDTO> createMultipleChoiceAnswer(@RequestBody MultipleChoiceAnswerDTO multipleChoiceAnswerDTO) throws URISyntaxException {
+        log.debug("REST request to save MultipleChoiceAnswer : {}", multipleChoiceAnswerDTO);
+        if (multipleChoiceAnswerDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("multipleChoiceAnswer", "idexists", "A new multipleChoiceAnswer cannot already have an ID")).body(null);
         }
-        MultipleChoiceAnswer result = multipleChoiceAnswerRepository.save(multipleChoiceAnswer);
+        MultipleChoiceAnswer multipleChoiceAnswer = multipleChoiceAnswerMapper.multipleChoiceAnswerDTOToMultipleChoiceAnswer(multipleChoiceAnswerDTO);
+        multipleChoiceAnswer = multipleChoiceAnswerService.save(multipleChoiceAnswer);
+        MultipleChoiceAnswerDTO result = multipleChoiceAnswerMapper.multipleChoiceAnswerToMultipleChoiceAnswerDTO(multipleChoiceAnswer);
         return ResponseEntity.created(new URI("/api/multiple-choice-answers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("multipleChoiceAnswer", result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * POST  /multiple-choice-answers/bulk : Submit the answers of a student to a quiz at once.
+     *
+     * @param submission the student, the lesson or course of the quiz if any, and the choice for each question
+     * @return the ResponseEntity with status 201 (Created) and with body the answers saved with their correctness,
+     * or with status 400 (Bad Request) if a choice is not one of its question or a question is not in the quiz
+     */
+    @RequestMapping(value = "/multiple-choice-answers/bulk",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<QuizAnswerDTO>> submitMultipleChoiceAnswers(@Valid @RequestBody QuizSubmissionDTO submission) {
+        log.debug("REST request to submit MultipleChoiceAnswers : {}", submission);
+        List<QuizAnswerDTO> result = quizSubmissionService.submit(submission);
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .headers(HeaderUtil.createEntityCreationAlert("multipleChoiceAnswer", String.valueOf(result.size())))
+            .body(result);
+    }
+
     /**
      * PUT  /multiple-choice-answers : Updates an existing multipleChoiceAnswer.
      *
-     * @param multipleChoiceAnswer the multipleChoiceAnswer to update
+     * @param multipleChoiceAnswerDTO the multipleChoiceAnswerDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated multipleChoiceAnswer,
      * or with status 400 (Bad Request) if the multipleChoiceAnswer is not valid,
      * or with status 500 (Internal Server Error) if the multipleChoiceAnswer couldnt be updated
@@ -68,21 +122,25 @@ public class MultipleChoiceAnswerResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceAnswer> updateMultipleChoiceAnswer(@RequestBody MultipleChoiceAnswer multipleChoiceAnswer) throws URISyntaxException {
-        log.debug("REST request to update MultipleChoiceAnswer : {}", multipleChoiceAnswer);
-        if (multipleChoiceAnswer.getId() == null) {
-            return createMultipleChoiceAnswer(multipleChoiceAnswer);
+    public ResponseEntity<MultipleChoiceAnswerDTO> updateMultipleChoiceAnswer(@RequestBody MultipleChoiceAnswerDTO multipleChoiceAnswerDTO) throws URISyntaxException {
+        log.debug("REST request to update MultipleChoiceAnswer : {}", multipleChoiceAnswerDTO);
+        if (multipleChoiceAnswerDTO.getId() == null) {
+            return createMultipleChoiceAnswer(multipleChoiceAnswerDTO);
         }
-        MultipleChoiceAnswer result = multipleChoiceAnswerRepository.save(multipleChoiceAnswer);
+        MultipleChoiceAnswer multipleChoiceAnswer = multipleChoiceAnswerMapper.multipleChoiceAnswerDTOToMultipleChoiceAnswer(multipleChoiceAnswerDTO);
+        multipleChoiceAnswer = multipleChoiceAnswerService.save(multipleChoiceAnswer);
+        MultipleChoiceAnswerDTO result = multipleChoiceAnswerMapper.multipleChoiceAnswerToMultipleChoiceAnswerDTO(multipleChoiceAnswer);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("multipleChoiceAnswer", multipleChoiceAnswer.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("multipleChoiceAnswer", multipleChoiceAnswerDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /multiple-choice-answers : get all the multipleChoiceAnswers.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of multipleChoiceAnswers in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +148,49 @@ public class MultipleChoiceAnswerResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<MultipleChoiceAnswer>> getAllMultipleChoiceAnswers(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<MultipleChoiceAnswerDTO>> getAllMultipleChoiceAnswers(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of MultipleChoiceAnswers");
-        Page<MultipleChoiceAnswer> page = multipleChoiceAnswerRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/multiple-choice-answers");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<MultipleChoiceAnswer> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of MultipleChoiceAnswers by offset");
+            Page<MultipleChoiceAnswerDTO> page = keysetPaginationRepository.findPage(MultipleChoiceAnswer.class, entityFilter, pageable,
+                MultipleChoiceAnswerDTO.class, MultipleChoiceAnswerDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of MultipleChoiceAnswers after {}", after);
+        Slice<MultipleChoiceAnswerDTO> slice = keysetPaginationRepository.findAll(MultipleChoiceAnswer.class, entityFilter, after, pageable,
+            MultipleChoiceAnswerDTO.class, MultipleChoiceAnswerDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(MultipleChoiceAnswer.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(MultipleChoiceAnswer.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * GET  /multiple-choice-answers/export : export the multipleChoiceAnswers, streamed from the database.
+     *
+     * @param courseId the course of the questions answered, or null for all the multipleChoiceAnswers
+     * @param format the format of the export, "csv" or "ndjson"
+     * @param response the response, whose headers are set before the body is written asynchronously
+     * @return the body of the response, with status 200 (OK) and the multipleChoiceAnswers,
+     * or with status 400 (Bad Request) if the format is not supported
+     */
+    @RequestMapping(value = "/multiple-choice-answers/export",
+        method = RequestMethod.GET)
+    @Timed
+    public StreamingResponseBody exportMultipleChoiceAnswers(@RequestParam(required = false) Long courseId, @RequestParam(defaultValue = "csv") String format,
+                                                 HttpServletResponse response) {
+        log.debug("REST request to export MultipleChoiceAnswers of course {} as {}", courseId, format);
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"multiple-choice-answers." + exportFormat.getExtension() + "\"");
+        return out -> {
+            RowWriter writer = exportFormat.open(out, AnswerExportService.MULTIPLE_CHOICE_ANSWER_COLUMNS);
+            answerExportService.exportMultipleChoiceAnswers(courseId, writer);
+        };
     }
 
     /**
@@ -108,10 +203,12 @@ public class MultipleChoiceAnswerResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceAnswer> getMultipleChoiceAnswer(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<MultipleChoiceAnswerDTO> getMultipleChoiceAnswer(@PathVariable Long id) {
         log.debug("REST request to get MultipleChoiceAnswer : {}", id);
         MultipleChoiceAnswer multipleChoiceAnswer = multipleChoiceAnswerRepository.findOne(id);
-        return Optional.ofNullable(multipleChoiceAnswer)
+        MultipleChoiceAnswerDTO multipleChoiceAnswerDTO = multipleChoiceAnswerMapper.multipleChoiceAnswerToMultipleChoiceAnswerDTO(multipleChoiceAnswer);
+        return Optional.ofNullable(multipleChoiceAnswerDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -130,7 +227,7 @@ public class MultipleChoiceAnswerResource {
     @Timed
     public ResponseEntity<Void> deleteMultipleChoiceAnswer(@PathVariable Long id) {
         log.debug("REST request to delete MultipleChoiceAnswer : {}", id);
-        multipleChoiceAnswerRepository.delete(id);
+        multipleChoiceAnswerService.delete(id);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert("multipleChoiceAnswer", id.toString())).build();
     }
 
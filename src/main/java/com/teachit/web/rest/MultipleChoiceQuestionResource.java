@@ -1,24 +1,32 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.MultipleChoiceQuestionDTO;
+import com.teachit.web.rest.mapper.MultipleChoiceQuestionMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,11 +40,17 @@ public class MultipleChoiceQuestionResource {
         
     @Inject
     private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private MultipleChoiceQuestionMapper multipleChoiceQuestionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /multiple-choice-questions : Create a new multipleChoiceQuestion.
      *
-     * @param multipleChoiceQuestion the multipleChoiceQuestion to create
+     * @param multipleChoiceQuestionDTO the multipleChoiceQuestionDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new multipleChoiceQuestion, or with status 400 (Bad Request) if the multipleChoiceQuestion has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +58,14 @@ public class MultipleChoiceQuestionResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceQuestion> createMultipleChoiceQuestion(@RequestBody MultipleChoiceQuestion multipleChoiceQuestion) throws URISyntaxException {
-        log.debug("REST request to save MultipleChoiceQuestion : {}", multipleChoiceQuestion);
-        if (multipleChoiceQuestion.getId() != null) {
+    public ResponseEntity<MultipleChoiceQuestionDTO> createMultipleChoiceQuestion(@RequestBody MultipleChoiceQuestionDTO multipleChoiceQuestionDTO) throws URISyntaxException {
+        log.debug("REST request to save MultipleChoiceQuestion : {}", multipleChoiceQuestionDTO);
+        if (multipleChoiceQuestionDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("multipleChoiceQuestion", "idexists", "A new multipleChoiceQuestion cannot already have an ID")).body(null);
         }
-        MultipleChoiceQuestion result = multipleChoiceQuestionRepository.save(multipleChoiceQuestion);
+        MultipleChoiceQuestion multipleChoiceQuestion = multipleChoiceQuestionMapper.multipleChoiceQuestionDTOToMultipleChoiceQuestion(multipleChoiceQuestionDTO);
+        multipleChoiceQuestion = multipleChoiceQuestionRepository.save(multipleChoiceQuestion);
+        MultipleChoiceQuestionDTO result = multipleChoiceQuestionMapper.multipleChoiceQuestionToMultipleChoiceQuestionDTO(multipleChoiceQuestion);
         return ResponseEntity.created(new URI("/api/multiple-choice-questions/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("multipleChoiceQuestion", result.getId().toString()))
             .body(result);
@@ -58,7 +74,7 @@ public class MultipleChoiceQuestionResource {
     /**
      * PUT  /multiple-choice-questions : Updates an existing multipleChoiceQuestion.
      *
-     * @param multipleChoiceQuestion the multipleChoiceQuestion to update
+     * @param multipleChoiceQuestionDTO the multipleChoiceQuestionDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated multipleChoiceQuestion,
      * or with status 400 (Bad Request) if the multipleChoiceQuestion is not valid,
      * or with status 500 (Internal Server Error) if the multipleChoiceQuestion couldnt be updated
@@ -68,21 +84,25 @@ public class MultipleChoiceQuestionResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceQuestion> updateMultipleChoiceQuestion(@RequestBody MultipleChoiceQuestion multipleChoiceQuestion) throws URISyntaxException {
-        log.debug("REST request to update MultipleChoiceQuestion : {}", multipleChoiceQuestion);
-        if (multipleChoiceQuestion.getId() == null) {
-            return createMultipleChoiceQuestion(multipleChoiceQuestion);
+    public ResponseEntity<MultipleChoiceQuestionDTO> updateMultipleChoiceQuestion(@RequestBody MultipleChoiceQuestionDTO multipleChoiceQuestionDTO) throws URISyntaxException {
+        log.debug("REST request to update MultipleChoiceQuestion : {}", multipleChoiceQuestionDTO);
+        if (multipleChoiceQuestionDTO.getId() == null) {
+            return createMultipleChoiceQuestion(multipleChoiceQuestionDTO);
         }
-        MultipleChoiceQuestion result = multipleChoiceQuestionRepository.save(multipleChoiceQuestion);
+        MultipleChoiceQuestion multipleChoiceQuestion = multipleChoiceQuestionMapper.multipleChoiceQuestionDTOToMultipleChoiceQuestion(multipleChoiceQuestionDTO);
+        multipleChoiceQuestion = multipleChoiceQuestionRepository.save(multipleChoiceQuestion);
+        MultipleChoiceQuestionDTO result = multipleChoiceQuestionMapper.multipleChoiceQuestionToMultipleChoiceQuestionDTO(multipleChoiceQuestion);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("multipleChoiceQuestion", multipleChoiceQuestion.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("multipleChoiceQuestion", multipleChoiceQuestionDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /multiple-choice-questions : get all the multipleChoiceQuestions.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of multipleChoiceQuestions in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +110,25 @@ public class MultipleChoiceQuestionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<MultipleChoiceQuestion>> getAllMultipleChoiceQuestions(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<MultipleChoiceQuestionDTO>> getAllMultipleChoiceQuestions(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of MultipleChoiceQuestions");
-        Page<MultipleChoiceQuestion> page = multipleChoiceQuestionRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/multiple-choice-questions");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<MultipleChoiceQuestion> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of MultipleChoiceQuestions by offset");
+            Page<MultipleChoiceQuestionDTO> page = keysetPaginationRepository.findPage(MultipleChoiceQuestion.class, entityFilter, pageable,
+                MultipleChoiceQuestionDTO.class, MultipleChoiceQuestionDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of MultipleChoiceQuestions after {}", after);
+        Slice<MultipleChoiceQuestionDTO> slice = keysetPaginationRepository.findAll(MultipleChoiceQuestion.class, entityFilter, after, pageable,
+            MultipleChoiceQuestionDTO.class, MultipleChoiceQuestionDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(MultipleChoiceQuestion.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(MultipleChoiceQuestion.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     /**
@@ -108,10 +141,12 @@ public class MultipleChoiceQuestionResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<MultipleChoiceQuestion> getMultipleChoiceQuestion(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<MultipleChoiceQuestionDTO> getMultipleChoiceQuestion(@PathVariable Long id) {
         log.debug("REST request to get MultipleChoiceQuestion : {}", id);
         MultipleChoiceQuestion multipleChoiceQuestion = multipleChoiceQuestionRepository.findOne(id);
-        return Optional.ofNullable(multipleChoiceQuestion)
+        MultipleChoiceQuestionDTO multipleChoiceQuestionDTO = multipleChoiceQuestionMapper.multipleChoiceQuestionToMultipleChoiceQuestionDTO(multipleChoiceQuestion);
+        return Optional.ofNullable(multipleChoiceQuestionDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -1,25 +1,36 @@
 package com.teachit.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
 import com.teachit.domain.Person;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.PersonRepository;
+import com.teachit.repository.filter.EntityFilter;
+import com.teachit.web.rest.dto.CourseDTO;
+import com.teachit.web.rest.dto.PersonDTO;
+import com.teachit.web.rest.mapper.PersonMapper;
 import com.teachit.web.rest.util.HeaderUtil;
 import com.teachit.web.rest.util.PaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing Person.
@@ -32,11 +43,17 @@ public class PersonResource {
         
     @Inject
     private PersonRepository personRepository;
+
+    @Inject
+    private PersonMapper personMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
     
     /**
      * POST  /people : Create a new person.
      *
-     * @param person the person to create
+     * @param personDTO the personDTO to create
      * @return the ResponseEntity with status 201 (Created) and with body the new person, or with status 400 (Bad Request) if the person has already an ID
      * @throws URISyntaxException if the Location URI syntax is incorrect
      */
@@ -44,12 +61,14 @@ public class PersonResource {
         method = RequestMethod.POST,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Person> createPerson(@RequestBody Person person) throws URISyntaxException {
-        log.debug("REST request to save Person : {}", person);
-        if (person.getId() != null) {
+    public ResponseEntity<PersonDTO> createPerson(@RequestBody PersonDTO personDTO) throws URISyntaxException {
+        log.debug("REST request to save Person : {}", personDTO);
+        if (personDTO.getId() != null) {
             return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("person", "idexists", "A new person cannot already have an ID")).body(null);
         }
-        Person result = personRepository.save(person);
+        Person person = personMapper.personDTOToPerson(personDTO);
+        person = personRepository.save(person);
+        PersonDTO result = personMapper.personToPersonDTO(person);
         return ResponseEntity.created(new URI("/api/people/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert("person", result.getId().toString()))
             .body(result);
@@ -58,7 +77,7 @@ public class PersonResource {
     /**
      * PUT  /people : Updates an existing person.
      *
-     * @param person the person to update
+     * @param personDTO the personDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated person,
      * or with status 400 (Bad Request) if the person is not valid,
      * or with status 500 (Internal Server Error) if the person couldnt be updated
@@ -68,21 +87,25 @@ public class PersonResource {
         method = RequestMethod.PUT,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Person> updatePerson(@RequestBody Person person) throws URISyntaxException {
-        log.debug("REST request to update Person : {}", person);
-        if (person.getId() == null) {
-            return createPerson(person);
+    public ResponseEntity<PersonDTO> updatePerson(@RequestBody PersonDTO personDTO) throws URISyntaxException {
+        log.debug("REST request to update Person : {}", personDTO);
+        if (personDTO.getId() == null) {
+            return createPerson(personDTO);
         }
-        Person result = personRepository.save(person);
+        Person person = personMapper.personDTOToPerson(personDTO);
+        person = personRepository.save(person);
+        PersonDTO result = personMapper.personToPersonDTO(person);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert("person", person.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert("person", personDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * GET  /people : get all the people.
      *
+     * @param parameters the filter of the list, see EntityFilter
      * @param pageable the pagination information
+     * @param after the cursor of the page, given by the "next" link of the previous page
      * @return the ResponseEntity with status 200 (OK) and the list of people in body
      * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
      */
@@ -90,12 +113,43 @@ public class PersonResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<List<Person>> getAllPeople(Pageable pageable)
+    @ReadFromReplica
+    public ResponseEntity<List<PersonDTO>> getAllPeople(@RequestParam Map<String, String> parameters, Pageable pageable, @RequestParam(required = false) String after)
         throws URISyntaxException {
-        log.debug("REST request to get a page of People");
-        Page<Person> page = personRepository.findAll(pageable); 
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/people");
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        EntityFilter<Person> entityFilter = new EntityFilter<>(parameters);
+        if (after == null && pageable.getPageNumber() > 0) {
+            log.debug("REST request to get a page of People by offset");
+            Page<PersonDTO> page = keysetPaginationRepository.findPage(Person.class, entityFilter, pageable,
+                PersonDTO.class, PersonDTO.PROJECTION);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest());
+            return new ResponseEntity<>(fetchEagerRelationships(page), headers, HttpStatus.OK);
+        }
+        log.debug("REST request to get a page of People after {}", after);
+        Slice<PersonDTO> slice = keysetPaginationRepository.findAll(Person.class, entityFilter, after, pageable,
+            PersonDTO.class, PersonDTO.PROJECTION);
+        Long total = entityFilter.isEmpty() ? keysetPaginationRepository.count(Person.class) : null;
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(slice,
+            keysetPaginationRepository.nextCursor(Person.class, slice), total,
+            ServletUriComponentsBuilder.fromCurrentRequest());
+        return new ResponseEntity<>(fetchEagerRelationships(slice), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Completes a page of people with the courses they learn, selected with a single query.
+     */
+    private List<PersonDTO> fetchEagerRelationships(Slice<PersonDTO> slice) {
+        if (!slice.hasContent()) {
+            return slice.getContent();
+        }
+        Map<Long, PersonDTO> people = slice.getContent().stream()
+            .collect(Collectors.toMap(PersonDTO::getId, Function.identity()));
+        for (Object[] row : personRepository.findLearningCourseesOfPeople(people.keySet())) {
+            CourseDTO course = new CourseDTO();
+            course.setId((Long) row[1]);
+            course.setName((String) row[2]);
+            people.get((Long) row[0]).getLearningCoursees().add(course);
+        }
+        return slice.getContent();
     }
 
     /**
@@ -108,10 +162,12 @@ public class PersonResource {
         method = RequestMethod.GET,
         produces = MediaType.APPLICATION_JSON_VALUE)
     @Timed
-    public ResponseEntity<Person> getPerson(@PathVariable Long id) {
+    @ReadFromReplica
+    public ResponseEntity<PersonDTO> getPerson(@PathVariable Long id) {
         log.debug("REST request to get Person : {}", id);
         Person person = personRepository.findOneWithEagerRelationships(id);
-        return Optional.ofNullable(person)
+        PersonDTO personDTO = personMapper.personToPersonDTO(person);
+        return Optional.ofNullable(personDTO)
             .map(result -> new ResponseEntity<>(
                 result,
                 HttpStatus.OK))
@@ -0,0 +1,81 @@
+package com.teachit.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.jdbc.ReadFromReplica;
+import com.teachit.security.AuthoritiesConstants;
+import com.teachit.service.ProgressService;
+import com.teachit.web.rest.dto.CohortProgressDTO;
+import com.teachit.web.rest.dto.CourseProgressDTO;
+import com.teachit.web.rest.util.HeaderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+
+/**
+ * REST controller for reading the progress of the students in the courses.
+ */
+@RestController
+@RequestMapping("/api")
+public class ProgressResource {
+
+    private final Logger log = LoggerFactory.getLogger(ProgressResource.class);
+
+    @Inject
+    private ProgressService progressService;
+
+    /**
+     * GET  /progress/students/:personId/courses/:courseId : get the progress of a student in a course.
+     *
+     * @param personId the id of the student
+     * @param courseId the id of the course
+     * @return the ResponseEntity with status 200 (OK) and the progress in body
+     */
+    @RequestMapping(value = "/progress/students/{personId}/courses/{courseId}",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @ReadFromReplica
+    public ResponseEntity<CourseProgressDTO> getProgress(@PathVariable Long personId, @PathVariable Long courseId) {
+        log.debug("REST request to get the progress of student : {} in course : {}", personId, courseId);
+        return new ResponseEntity<>(progressService.findProgress(personId, courseId), HttpStatus.OK);
+    }
+
+    /**
+     * GET  /progress/courses/:courseId : get the progress of the students of a course.
+     *
+     * @param courseId the id of the course
+     * @return the ResponseEntity with status 200 (OK) and the progress in body
+     */
+    @RequestMapping(value = "/progress/courses/{courseId}",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @ReadFromReplica
+    public ResponseEntity<CohortProgressDTO> getCohortProgress(@PathVariable Long courseId) {
+        log.debug("REST request to get the progress of the students of course : {}", courseId);
+        return new ResponseEntity<>(progressService.findCohortProgress(courseId), HttpStatus.OK);
+    }
+
+    /**
+     * POST  /progress/rebuild : recompute the progress from the views and answers.
+     *
+     * @return the ResponseEntity with status 200 (OK), and the number of progresses in an alert header
+     */
+    @RequestMapping(value = "/progress/rebuild",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ResponseEntity<Void> rebuildProgress() {
+        log.debug("REST request to rebuild the progress");
+        int progresses = progressService.rebuild();
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("teachitApp.progress.rebuilt", String.valueOf(progresses))).build();
+    }
+
+}
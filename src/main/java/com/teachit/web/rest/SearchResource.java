@@ -0,0 +1,76 @@
+package com.teachit.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.teachit.security.AuthoritiesConstants;
+import com.teachit.service.SearchService;
+import com.teachit.service.search.SearchIndex;
+import com.teachit.web.rest.dto.SearchHitDTO;
+import com.teachit.web.rest.util.HeaderUtil;
+import com.teachit.web.rest.util.PaginationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import java.net.URISyntaxException;
+import java.util.List;
+
+/**
+ * REST controller for the full-text search of the courses, lessons, contents and questions.
+ */
+@RestController
+@RequestMapping("/api")
+public class SearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchResource.class);
+
+    @Inject
+    private SearchIndex searchIndex;
+
+    @Inject
+    private SearchService searchService;
+
+    /**
+     * GET  /_search?query=:query : search the courses, lessons, contents and questions.
+     *
+     * @param query the text searched
+     * @param pageable the pagination information
+     * @return the ResponseEntity with status 200 (OK) and the hits in body, the most relevant first
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @RequestMapping(value = "/_search",
+        method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<SearchHitDTO>> search(@RequestParam String query, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to search for a page of hits for query : {}", query);
+        Page<SearchHitDTO> page = searchIndex.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(query, page, "/api/_search");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * POST  /_search/rebuild : rebuild the search index from the database.
+     *
+     * @return the ResponseEntity with status 200 (OK), and the number of documents indexed in an alert header
+     */
+    @RequestMapping(value = "/_search/rebuild",
+        method = RequestMethod.POST,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    @Secured(AuthoritiesConstants.ADMIN)
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        log.debug("REST request to rebuild the search index");
+        int documents = searchService.rebuild();
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("teachitApp.search.rebuilt", String.valueOf(documents))).build();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.teachit.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.teachit.config.tracing.RecentTraces;
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Trace;
+import com.teachit.web.rest.dto.TraceDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for getting the last traces of the requests, asynchronous tasks and scheduled jobs.
+ */
+@RestController
+@RequestMapping(value = "/management/jhipster/traces", produces = MediaType.APPLICATION_JSON_VALUE)
+@ConditionalOnProperty(prefix = "jhipster.metrics.tracing", name = "enabled", matchIfMissing = true)
+public class TracesResource {
+
+    @Inject
+    private RecentTraces recentTraces;
+
+    /**
+     * GET  /traces : get the last traces, without their spans, the last recorded first.
+     *
+     * @param kind the kind of the root span of the traces, e.g. HTTP or SCHEDULED, all if none
+     * @return the ResponseEntity with status 200 (OK) and the list of traces in body
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    @Timed
+    public List<TraceDTO> getAll(@RequestParam(value = "kind", required = false) Span.Kind kind) {
+        return recentTraces.findAll(kind)
+            .stream()
+            .map(trace -> new TraceDTO(trace, false))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * GET  /traces/:id : get a trace with its spans, e.g. the one of the X-Trace-Id header of a response.
+     *
+     * @param id the id of the trace to get
+     * @return the ResponseEntity with status 200 (OK) and the trace in body, or status 404 (Not Found) if it is no
+     * longer kept
+     */
+    @RequestMapping(value = "/{id}",
+        method = RequestMethod.GET)
+    @Timed
+    public ResponseEntity<TraceDTO> get(@PathVariable String id) {
+        Trace trace = recentTraces.findOne(id);
+        if (trace == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(new TraceDTO(trace, true), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,89 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A DTO for the ApplicationAdmission entity.
+ */
+public class ApplicationAdmissionDTO implements Serializable {
+
+    /**
+     * Paths of the ApplicationAdmission attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "requestDate", "accepted"
+    };
+
+    private Long id;
+
+    private LocalDate requestDate;
+
+    private Boolean accepted;
+
+    public ApplicationAdmissionDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public ApplicationAdmissionDTO(Long id, LocalDate requestDate, Boolean accepted) {
+        this.id = id;
+        this.requestDate = requestDate;
+        this.accepted = accepted;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getRequestDate() {
+        return requestDate;
+    }
+
+    public void setRequestDate(LocalDate requestDate) {
+        this.requestDate = requestDate;
+    }
+
+    public Boolean getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ApplicationAdmissionDTO applicationAdmissionDTO = (ApplicationAdmissionDTO) o;
+        if (applicationAdmissionDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, applicationAdmissionDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationAdmissionDTO{" +
+            "id=" + id +
+            ", requestDate='" + requestDate + "'" +
+            ", accepted='" + accepted + "'" +
+            '}';
+    }
+}
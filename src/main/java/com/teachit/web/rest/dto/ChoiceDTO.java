@@ -0,0 +1,125 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the Choice entity.
+ */
+public class ChoiceDTO implements Serializable {
+
+    /**
+     * Paths of the Choice attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "response", "correct", "ordering", "question.id", "question.question"
+    };
+
+    private Long id;
+
+    private String response;
+
+    private Boolean correct;
+
+    private Integer ordering;
+
+    private Long questionId;
+
+    private String questionQuestion;
+
+    public ChoiceDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public ChoiceDTO(Long id, String response, Boolean correct, Integer ordering, Long questionId,
+                     String questionQuestion) {
+        this.id = id;
+        this.response = response;
+        this.correct = correct;
+        this.ordering = ordering;
+        this.questionId = questionId;
+        this.questionQuestion = questionQuestion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public Boolean getCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(Boolean correct) {
+        this.correct = correct;
+    }
+
+    public Integer getOrdering() {
+        return ordering;
+    }
+
+    public void setOrdering(Integer ordering) {
+        this.ordering = ordering;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getQuestionQuestion() {
+        return questionQuestion;
+    }
+
+    public void setQuestionQuestion(String questionQuestion) {
+        this.questionQuestion = questionQuestion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ChoiceDTO choiceDTO = (ChoiceDTO) o;
+        if (choiceDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, choiceDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ChoiceDTO{" +
+            "id=" + id +
+            ", response='" + response + "'" +
+            ", correct='" + correct + "'" +
+            ", ordering='" + ordering + "'" +
+            ", questionId=" + questionId +
+            ", questionQuestion='" + questionQuestion + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.teachit.web.rest.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A DTO representing the progress of the students of a course: how many started it, how many completed it, and how
+ * many viewed each of its contents, in the order of the contents.
+ */
+public class CohortProgressDTO {
+
+    private Long courseId;
+
+    private int students;
+
+    private int completedStudents;
+
+    private Map<Long, Integer> viewersByContent = new LinkedHashMap<>();
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public int getCompletedStudents() {
+        return completedStudents;
+    }
+
+    public void setCompletedStudents(int completedStudents) {
+        this.completedStudents = completedStudents;
+    }
+
+    public Map<Long, Integer> getViewersByContent() {
+        return viewersByContent;
+    }
+
+    public void setViewersByContent(Map<Long, Integer> viewersByContent) {
+        this.viewersByContent = viewersByContent;
+    }
+
+    @Override
+    public String toString() {
+        return "CohortProgressDTO{" +
+            "courseId=" + courseId +
+            ", students=" + students +
+            ", completedStudents=" + completedStudents +
+            '}';
+    }
+}
@@ -0,0 +1,198 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A DTO for the Content entity.
+ */
+public class ContentDTO implements Serializable {
+
+    /**
+     * Paths of the Content attributes selected by the list queries, in the order of the projection constructor. The
+     * text is not listed, only read with the content alone.
+     */
+    public static final String[] PROJECTION = {
+        "id", "fileName", "startDate", "description", "fileHash", "fileSize", "fileContentType", "course.id",
+        "course.name", "lesson.id", "lesson.name"
+    };
+
+    private Long id;
+
+    private String fileName;
+
+    private LocalDate startDate;
+
+    private String description;
+
+    private String text;
+
+    private String fileHash;
+
+    private Long fileSize;
+
+    private String fileContentType;
+
+    private Long courseId;
+
+    private String courseName;
+
+    private Long lessonId;
+
+    private String lessonName;
+
+    public ContentDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public ContentDTO(Long id, String fileName, LocalDate startDate, String description, String fileHash,
+                      Long fileSize, String fileContentType, Long courseId, String courseName, Long lessonId,
+                      String lessonName) {
+        this.id = id;
+        this.fileName = fileName;
+        this.startDate = startDate;
+        this.description = description;
+        this.fileHash = fileHash;
+        this.fileSize = fileSize;
+        this.fileContentType = fileContentType;
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.lessonId = lessonId;
+        this.lessonName = lessonName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public String getLessonName() {
+        return lessonName;
+    }
+
+    public void setLessonName(String lessonName) {
+        this.lessonName = lessonName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ContentDTO contentDTO = (ContentDTO) o;
+        if (contentDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, contentDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentDTO{" +
+            "id=" + id +
+            ", fileName='" + fileName + "'" +
+            ", startDate='" + startDate + "'" +
+            ", description='" + description + "'" +
+            ", fileHash='" + fileHash + "'" +
+            ", fileSize=" + fileSize +
+            ", courseId=" + courseId +
+            ", courseName='" + courseName + "'" +
+            ", lessonId=" + lessonId +
+            ", lessonName='" + lessonName + "'" +
+            '}';
+    }
+}
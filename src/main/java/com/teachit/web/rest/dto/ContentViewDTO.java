@@ -0,0 +1,112 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the ContentView entity.
+ */
+public class ContentViewDTO implements Serializable {
+
+    /**
+     * Paths of the ContentView attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "view", "person.id", "content.id", "content.description"
+    };
+
+    private Long id;
+
+    private Boolean view;
+
+    private Long personId;
+
+    private Long contentId;
+
+    private String contentDescription;
+
+    public ContentViewDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public ContentViewDTO(Long id, Boolean view, Long personId, Long contentId, String contentDescription) {
+        this.id = id;
+        this.view = view;
+        this.personId = personId;
+        this.contentId = contentId;
+        this.contentDescription = contentDescription;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boolean getView() {
+        return view;
+    }
+
+    public void setView(Boolean view) {
+        this.view = view;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public void setPersonId(Long personId) {
+        this.personId = personId;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getContentDescription() {
+        return contentDescription;
+    }
+
+    public void setContentDescription(String contentDescription) {
+        this.contentDescription = contentDescription;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ContentViewDTO contentViewDTO = (ContentViewDTO) o;
+        if (contentViewDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, contentViewDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentViewDTO{" +
+            "id=" + id +
+            ", view='" + view + "'" +
+            ", personId=" + personId +
+            ", contentId=" + contentId +
+            ", contentDescription='" + contentDescription + "'" +
+            '}';
+    }
+}
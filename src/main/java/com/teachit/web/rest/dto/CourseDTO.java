@@ -0,0 +1,150 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A DTO for the Course entity.
+ */
+public class CourseDTO implements Serializable {
+
+    /**
+     * Paths of the Course attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "code", "startDate", "name", "openCourse", "applicationAdmission.id", "teacher.id"
+    };
+
+    private Long id;
+
+    private String code;
+
+    private LocalDate startDate;
+
+    private String name;
+
+    private Boolean openCourse;
+
+    private Long applicationAdmissionId;
+
+    private Long teacherId;
+
+    private Set<LessonDTO> lessons = new HashSet<>();
+
+    public CourseDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public CourseDTO(Long id, String code, LocalDate startDate, String name, Boolean openCourse,
+                     Long applicationAdmissionId, Long teacherId) {
+        this.id = id;
+        this.code = code;
+        this.startDate = startDate;
+        this.name = name;
+        this.openCourse = openCourse;
+        this.applicationAdmissionId = applicationAdmissionId;
+        this.teacherId = teacherId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Boolean getOpenCourse() {
+        return openCourse;
+    }
+
+    public void setOpenCourse(Boolean openCourse) {
+        this.openCourse = openCourse;
+    }
+
+    public Long getApplicationAdmissionId() {
+        return applicationAdmissionId;
+    }
+
+    public void setApplicationAdmissionId(Long applicationAdmissionId) {
+        this.applicationAdmissionId = applicationAdmissionId;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Set<LessonDTO> getLessons() {
+        return lessons;
+    }
+
+    public void setLessons(Set<LessonDTO> lessons) {
+        this.lessons = lessons;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CourseDTO courseDTO = (CourseDTO) o;
+        if (courseDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, courseDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "CourseDTO{" +
+            "id=" + id +
+            ", code='" + code + "'" +
+            ", startDate='" + startDate + "'" +
+            ", name='" + name + "'" +
+            ", openCourse='" + openCourse + "'" +
+            ", applicationAdmissionId=" + applicationAdmissionId +
+            ", teacherId=" + teacherId +
+            '}';
+    }
+}
@@ -0,0 +1,99 @@
+package com.teachit.web.rest.dto;
+
+/**
+ * A DTO representing the progress of a student in a course: the contents viewed and the questions answered, among
+ * the current ones of the course, and the next content to view, null once all were viewed.
+ */
+public class CourseProgressDTO {
+
+    private Long personId;
+
+    private Long courseId;
+
+    private int contents;
+
+    private int viewedContents;
+
+    private int questions;
+
+    private int answeredQuestions;
+
+    private double percent;
+
+    private Long nextContentId;
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public void setPersonId(Long personId) {
+        this.personId = personId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public int getContents() {
+        return contents;
+    }
+
+    public void setContents(int contents) {
+        this.contents = contents;
+    }
+
+    public int getViewedContents() {
+        return viewedContents;
+    }
+
+    public void setViewedContents(int viewedContents) {
+        this.viewedContents = viewedContents;
+    }
+
+    public int getQuestions() {
+        return questions;
+    }
+
+    public void setQuestions(int questions) {
+        this.questions = questions;
+    }
+
+    public int getAnsweredQuestions() {
+        return answeredQuestions;
+    }
+
+    public void setAnsweredQuestions(int answeredQuestions) {
+        this.answeredQuestions = answeredQuestions;
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+
+    public void setPercent(double percent) {
+        this.percent = percent;
+    }
+
+    public Long getNextContentId() {
+        return nextContentId;
+    }
+
+    public void setNextContentId(Long nextContentId) {
+        this.nextContentId = nextContentId;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseProgressDTO{" +
+            "personId=" + personId +
+            ", courseId=" + courseId +
+            ", viewedContents=" + viewedContents + "/" + contents +
+            ", answeredQuestions=" + answeredQuestions + "/" + questions +
+            ", nextContentId=" + nextContentId +
+            '}';
+    }
+}
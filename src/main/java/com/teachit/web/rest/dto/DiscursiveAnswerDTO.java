@@ -0,0 +1,123 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the DiscursiveAnswer entity.
+ */
+public class DiscursiveAnswerDTO implements Serializable {
+
+    /**
+     * Paths of the DiscursiveAnswer attributes selected by the list queries, in the order of the projection constructor.
+     * The answer is not listed, only read with the discursiveAnswer alone.
+     */
+    public static final String[] PROJECTION = {
+        "id", "score", "question.id", "question.question", "student.id"
+    };
+
+    private Long id;
+
+    private String answer;
+
+    private Double score;
+
+    private Long questionId;
+
+    private String questionQuestion;
+
+    private Long studentId;
+
+    public DiscursiveAnswerDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public DiscursiveAnswerDTO(Long id, Double score, Long questionId, String questionQuestion, Long studentId) {
+        this.id = id;
+        this.score = score;
+        this.questionId = questionId;
+        this.questionQuestion = questionQuestion;
+        this.studentId = studentId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public void setAnswer(String answer) {
+        this.answer = answer;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getQuestionQuestion() {
+        return questionQuestion;
+    }
+
+    public void setQuestionQuestion(String questionQuestion) {
+        this.questionQuestion = questionQuestion;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DiscursiveAnswerDTO discursiveAnswerDTO = (DiscursiveAnswerDTO) o;
+        if (discursiveAnswerDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, discursiveAnswerDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "DiscursiveAnswerDTO{" +
+            "id=" + id +
+            ", score='" + score + "'" +
+            ", questionId=" + questionId +
+            ", questionQuestion='" + questionQuestion + "'" +
+            ", studentId=" + studentId +
+            '}';
+    }
+}
@@ -0,0 +1,150 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A DTO for the DiscursiveQuestion entity.
+ */
+public class DiscursiveQuestionDTO implements Serializable {
+
+    /**
+     * Paths of the DiscursiveQuestion attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "ordering", "startDate", "question", "course.id", "course.name", "lesson.id", "lesson.name"
+    };
+
+    private Long id;
+
+    private Integer ordering;
+
+    private LocalDate startDate;
+
+    private String question;
+
+    private Long courseId;
+
+    private String courseName;
+
+    private Long lessonId;
+
+    private String lessonName;
+
+    public DiscursiveQuestionDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public DiscursiveQuestionDTO(Long id, Integer ordering, LocalDate startDate, String question, Long courseId,
+                                 String courseName, Long lessonId, String lessonName) {
+        this.id = id;
+        this.ordering = ordering;
+        this.startDate = startDate;
+        this.question = question;
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.lessonId = lessonId;
+        this.lessonName = lessonName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getOrdering() {
+        return ordering;
+    }
+
+    public void setOrdering(Integer ordering) {
+        this.ordering = ordering;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public String getLessonName() {
+        return lessonName;
+    }
+
+    public void setLessonName(String lessonName) {
+        this.lessonName = lessonName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DiscursiveQuestionDTO discursiveQuestionDTO = (DiscursiveQuestionDTO) o;
+        if (discursiveQuestionDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, discursiveQuestionDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "DiscursiveQuestionDTO{" +
+            "id=" + id +
+            ", ordering='" + ordering + "'" +
+            ", startDate='" + startDate + "'" +
+            ", question='" + question + "'" +
+            ", courseId=" + courseId +
+            ", courseName='" + courseName + "'" +
+            ", lessonId=" + lessonId +
+            ", lessonName='" + lessonName + "'" +
+            '}';
+    }
+}
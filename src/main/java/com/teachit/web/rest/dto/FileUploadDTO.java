@@ -0,0 +1,111 @@
+package com.teachit.web.rest.dto;
+
+import java.util.List;
+
+/**
+ * A DTO representing an upload in chunks of the file of a content: the size of its chunks, and the offsets of the
+ * chunks still to send, in order.
+ */
+public class FileUploadDTO {
+
+    private Long id;
+
+    private Long contentId;
+
+    private String fileName;
+
+    private String fileContentType;
+
+    private Long fileSize;
+
+    private Integer chunkSize;
+
+    private int receivedChunks;
+
+    private List<Long> missingOffsets;
+
+    private boolean complete;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(int receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public List<Long> getMissingOffsets() {
+        return missingOffsets;
+    }
+
+    public void setMissingOffsets(List<Long> missingOffsets) {
+        this.missingOffsets = missingOffsets;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    @Override
+    public String toString() {
+        return "FileUploadDTO{" +
+            "id=" + id +
+            ", contentId='" + contentId + "'" +
+            ", fileName='" + fileName + "'" +
+            ", fileSize='" + fileSize + "'" +
+            ", receivedChunks='" + receivedChunks + "'" +
+            '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.teachit.web.rest.dto;
+
+/**
+ * A DTO representing the grades of a student in a course, summed from the gradebook. The course is null for the
+ * answers to questions without one.
+ */
+public class GradeSummaryDTO {
+
+    private Long personId;
+
+    private Long courseId;
+
+    private long discursiveAnswers;
+
+    private double discursiveScore;
+
+    private long multipleChoiceAnswers;
+
+    private long correctAnswers;
+
+    public GradeSummaryDTO() {
+    }
+
+    public GradeSummaryDTO(Long personId, Long courseId, long discursiveAnswers, double discursiveScore,
+                           long multipleChoiceAnswers, long correctAnswers) {
+        this.personId = personId;
+        this.courseId = courseId;
+        this.discursiveAnswers = discursiveAnswers;
+        this.discursiveScore = discursiveScore;
+        this.multipleChoiceAnswers = multipleChoiceAnswers;
+        this.correctAnswers = correctAnswers;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public void setPersonId(Long personId) {
+        this.personId = personId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public long getDiscursiveAnswers() {
+        return discursiveAnswers;
+    }
+
+    public void setDiscursiveAnswers(long discursiveAnswers) {
+        this.discursiveAnswers = discursiveAnswers;
+    }
+
+    public double getDiscursiveScore() {
+        return discursiveScore;
+    }
+
+    public void setDiscursiveScore(double discursiveScore) {
+        this.discursiveScore = discursiveScore;
+    }
+
+    public long getMultipleChoiceAnswers() {
+        return multipleChoiceAnswers;
+    }
+
+    public void setMultipleChoiceAnswers(long multipleChoiceAnswers) {
+        this.multipleChoiceAnswers = multipleChoiceAnswers;
+    }
+
+    public long getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    public void setCorrectAnswers(long correctAnswers) {
+        this.correctAnswers = correctAnswers;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeSummaryDTO{" +
+            "personId=" + personId +
+            ", courseId=" + courseId +
+            ", discursiveAnswers=" + discursiveAnswers +
+            ", discursiveScore=" + discursiveScore +
+            ", multipleChoiceAnswers=" + multipleChoiceAnswers +
+            ", correctAnswers=" + correctAnswers +
+            '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A DTO for the Lesson entity.
+ */
+public class LessonDTO implements Serializable {
+
+    /**
+     * Paths of the Lesson attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "ordering", "startDate", "name", "description"
+    };
+
+    private Long id;
+
+    private Integer ordering;
+
+    private LocalDate startDate;
+
+    private String name;
+
+    private String description;
+
+    public LessonDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public LessonDTO(Long id, Integer ordering, LocalDate startDate, String name, String description) {
+        this.id = id;
+        this.ordering = ordering;
+        this.startDate = startDate;
+        this.name = name;
+        this.description = description;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getOrdering() {
+        return ordering;
+    }
+
+    public void setOrdering(Integer ordering) {
+        this.ordering = ordering;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LessonDTO lessonDTO = (LessonDTO) o;
+        if (lessonDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, lessonDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "LessonDTO{" +
+            "id=" + id +
+            ", ordering='" + ordering + "'" +
+            ", startDate='" + startDate + "'" +
+            ", name='" + name + "'" +
+            ", description='" + description + "'" +
+            '}';
+    }
+}
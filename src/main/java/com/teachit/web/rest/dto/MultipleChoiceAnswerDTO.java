@@ -0,0 +1,125 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the MultipleChoiceAnswer entity.
+ */
+public class MultipleChoiceAnswerDTO implements Serializable {
+
+    /**
+     * Paths of the MultipleChoiceAnswer attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "choosen.id", "choosen.response", "question.id", "question.question", "student.id"
+    };
+
+    private Long id;
+
+    private Long choosenId;
+
+    private String choosenResponse;
+
+    private Long questionId;
+
+    private String questionQuestion;
+
+    private Long studentId;
+
+    public MultipleChoiceAnswerDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public MultipleChoiceAnswerDTO(Long id, Long choosenId, String choosenResponse, Long questionId,
+                                   String questionQuestion, Long studentId) {
+        this.id = id;
+        this.choosenId = choosenId;
+        this.choosenResponse = choosenResponse;
+        this.questionId = questionId;
+        this.questionQuestion = questionQuestion;
+        this.studentId = studentId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getChoosenId() {
+        return choosenId;
+    }
+
+    public void setChoosenId(Long choosenId) {
+        this.choosenId = choosenId;
+    }
+
+    public String getChoosenResponse() {
+        return choosenResponse;
+    }
+
+    public void setChoosenResponse(String choosenResponse) {
+        this.choosenResponse = choosenResponse;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getQuestionQuestion() {
+        return questionQuestion;
+    }
+
+    public void setQuestionQuestion(String questionQuestion) {
+        this.questionQuestion = questionQuestion;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MultipleChoiceAnswerDTO multipleChoiceAnswerDTO = (MultipleChoiceAnswerDTO) o;
+        if (multipleChoiceAnswerDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, multipleChoiceAnswerDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "MultipleChoiceAnswerDTO{" +
+            "id=" + id +
+            ", choosenId=" + choosenId +
+            ", choosenResponse='" + choosenResponse + "'" +
+            ", questionId=" + questionId +
+            ", questionQuestion='" + questionQuestion + "'" +
+            ", studentId=" + studentId +
+            '}';
+    }
+}
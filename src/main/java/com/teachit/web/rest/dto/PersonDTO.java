@@ -0,0 +1,100 @@
+package com.teachit.web.rest.dto;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A DTO for the Person entity.
+ */
+public class PersonDTO implements Serializable {
+
+    /**
+     * Paths of the Person attributes selected by the list queries, in the order of the projection constructor.
+     */
+    public static final String[] PROJECTION = {
+        "id", "active", "applicationAdmission.id"
+    };
+
+    private Long id;
+
+    private Boolean active;
+
+    private Long applicationAdmissionId;
+
+    private Set<CourseDTO> learningCoursees = new HashSet<>();
+
+    public PersonDTO() {
+    }
+
+    /**
+     * Projection constructor, taking the attributes of {@link #PROJECTION}.
+     */
+    public PersonDTO(Long id, Boolean active, Long applicationAdmissionId) {
+        this.id = id;
+        this.active = active;
+        this.applicationAdmissionId = applicationAdmissionId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public Long getApplicationAdmissionId() {
+        return applicationAdmissionId;
+    }
+
+    public void setApplicationAdmissionId(Long applicationAdmissionId) {
+        this.applicationAdmissionId = applicationAdmissionId;
+    }
+
+    public Set<CourseDTO> getLearningCoursees() {
+        return learningCoursees;
+    }
+
+    public void setLearningCoursees(Set<CourseDTO> learningCoursees) {
+        this.learningCoursees = learningCoursees;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PersonDTO personDTO = (PersonDTO) o;
+        if (personDTO.id == null || id == null) {
+            return false;
+        }
+        return Objects.equals(id, personDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "PersonDTO{" +
+            "id=" + id +
+            ", active='" + active + "'" +
+            ", applicationAdmissionId=" + applicationAdmissionId +
+            '}';
+    }
+}
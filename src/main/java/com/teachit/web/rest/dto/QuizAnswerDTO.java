@@ -0,0 +1,70 @@
+package com.teachit.web.rest.dto;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing the choice of a student for a multiple choice question, and once submitted the id of the
+ * answer saved and whether the choice is correct.
+ */
+public class QuizAnswerDTO {
+
+    private Long id;
+
+    @NotNull
+    private Long questionId;
+
+    @NotNull
+    private Long choiceId;
+
+    private Boolean correct;
+
+    public QuizAnswerDTO() {
+    }
+
+    public QuizAnswerDTO(Long questionId, Long choiceId) {
+        this.questionId = questionId;
+        this.choiceId = choiceId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public Long getChoiceId() {
+        return choiceId;
+    }
+
+    public void setChoiceId(Long choiceId) {
+        this.choiceId = choiceId;
+    }
+
+    public Boolean getCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(Boolean correct) {
+        this.correct = correct;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizAnswerDTO{" +
+            "id=" + id +
+            ", questionId=" + questionId +
+            ", choiceId=" + choiceId +
+            ", correct=" + correct +
+            '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.teachit.web.rest.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the answers of a student to the multiple choice questions of a lesson or a course.
+ */
+public class QuizSubmissionDTO {
+
+    /**
+     * Upper bound of the answers submitted at once, so that one request cannot hold a transaction for long.
+     */
+    public static final int MAX_ANSWERS = 500;
+
+    @NotNull
+    private Long studentId;
+
+    private Long lessonId;
+
+    private Long courseId;
+
+    @NotNull
+    @Size(min = 1, max = MAX_ANSWERS)
+    @Valid
+    private List<QuizAnswerDTO> answers = new ArrayList<>();
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public List<QuizAnswerDTO> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<QuizAnswerDTO> answers) {
+        this.answers = answers;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizSubmissionDTO{" +
+            "studentId=" + studentId +
+            ", lessonId=" + lessonId +
+            ", courseId=" + courseId +
+            ", answers=" + answers +
+            '}';
+    }
+}
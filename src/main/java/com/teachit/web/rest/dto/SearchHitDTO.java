@@ -0,0 +1,68 @@
+package com.teachit.web.rest.dto;
+
+import com.teachit.service.search.SearchDocumentType;
+
+/**
+ * A DTO representing a hit of the full-text search: the entity found, its title and its relevance.
+ */
+public class SearchHitDTO {
+
+    private SearchDocumentType type;
+
+    private Long id;
+
+    private String title;
+
+    private double score;
+
+    public SearchHitDTO() {
+    }
+
+    public SearchHitDTO(SearchDocumentType type, Long id, String title, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    public SearchDocumentType getType() {
+        return type;
+    }
+
+    public void setType(SearchDocumentType type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHitDTO{" +
+            "type=" + type +
+            ", id=" + id +
+            ", score=" + score +
+            '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.teachit.web.rest.dto;
+
+import com.teachit.config.tracing.Span;
+
+/**
+ * A DTO representing a span of a trace: its parent, kind, name, and its start and duration in microseconds.
+ */
+public class SpanDTO {
+
+    private final String id;
+
+    private final String parentId;
+
+    private final Span.Kind kind;
+
+    private final String name;
+
+    private final long offsetMicros;
+
+    private final Long durationMicros;
+
+    private final boolean error;
+
+    public SpanDTO(Span span) {
+        this.id = span.getId();
+        this.parentId = span.getParentId();
+        this.kind = span.getKind();
+        this.name = span.getName();
+        this.offsetMicros = span.getOffsetMicros();
+        this.durationMicros = span.getDurationMicros();
+        this.error = span.isError();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public Span.Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getOffsetMicros() {
+        return offsetMicros;
+    }
+
+    public Long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "SpanDTO{" +
+            "id='" + id + "'" +
+            ", kind=" + kind +
+            ", name='" + name + "'" +
+            ", durationMicros=" + durationMicros +
+            '}';
+    }
+}
@@ -0,0 +1,95 @@
+package com.teachit.web.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.teachit.config.tracing.Span;
+import com.teachit.config.tracing.Trace;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO representing a trace, summarized by its root span, with its spans when it is read alone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TraceDTO {
+
+    private final String id;
+
+    private final Span.Kind kind;
+
+    private final String name;
+
+    private final ZonedDateTime startTime;
+
+    private final Long durationMicros;
+
+    private final boolean error;
+
+    private final int spanCount;
+
+    private final int droppedSpans;
+
+    private final List<SpanDTO> spans;
+
+    public TraceDTO(Trace trace, boolean withSpans) {
+        Span root = trace.getRoot();
+        this.id = trace.getId();
+        this.kind = root.getKind();
+        this.name = root.getName();
+        this.startTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(root.getStartTime()), ZoneId.systemDefault());
+        this.durationMicros = root.getDurationMicros();
+        this.error = root.isError();
+        this.spanCount = trace.getSpanCount();
+        this.droppedSpans = trace.getDroppedSpans();
+        this.spans = withSpans ? trace.getSpans().stream().map(SpanDTO::new).collect(Collectors.toList()) : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Span.Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ZonedDateTime getStartTime() {
+        return startTime;
+    }
+
+    public Long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public List<SpanDTO> getSpans() {
+        return spans;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceDTO{" +
+            "id='" + id + "'" +
+            ", kind=" + kind +
+            ", name='" + name + "'" +
+            ", durationMicros=" + durationMicros +
+            '}';
+    }
+}
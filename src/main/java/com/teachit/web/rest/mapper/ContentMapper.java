@@ -0,0 +1,61 @@
+package com.teachit.web.rest.mapper;
+
+import com.teachit.domain.Content;
+import com.teachit.domain.Course;
+import com.teachit.domain.Lesson;
+import com.teachit.web.rest.dto.ContentDTO;
+import org.mapstruct.*;
+
+import java.util.List;
+
+/**
+ * Mapper for the entity Content and its DTO ContentDTO.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface ContentMapper {
+
+    @Mapping(source = "course.id", target = "courseId")
+    @Mapping(source = "course.name", target = "courseName")
+    @Mapping(source = "lesson.id", target = "lessonId")
+    @Mapping(source = "lesson.name", target = "lessonName")
+    ContentDTO contentToContentDTO(Content content);
+
+    List<ContentDTO> contentsToContentDTOs(List<Content> contents);
+
+    @Mapping(source = "courseId", target = "course")
+    @Mapping(source = "lessonId", target = "lesson")
+    Content contentDTOToContent(ContentDTO contentDTO);
+
+    List<Content> contentDTOsToContents(List<ContentDTO> contentDTOs);
+
+    /**
+     * Copies the scalar attributes of a DTO onto a loaded content. The text, the file and the relationships are left
+     * to the caller, so that they are only replaced when they change.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "text", ignore = true)
+    @Mapping(target = "fileHash", ignore = true)
+    @Mapping(target = "fileSize", ignore = true)
+    @Mapping(target = "fileContentType", ignore = true)
+    @Mapping(target = "course", ignore = true)
+    @Mapping(target = "lesson", ignore = true)
+    void updateContentFromContentDTO(ContentDTO contentDTO, @MappingTarget Content content);
+
+    default Course courseFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Course course = new Course();
+        course.setId(id);
+        return course;
+    }
+
+    default Lesson lessonFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Lesson lesson = new Lesson();
+        lesson.setId(id);
+        return lesson;
+    }
+}
@@ -0,0 +1,50 @@
+package com.teachit.web.rest.mapper;
+
+import com.teachit.domain.ApplicationAdmission;
+import com.teachit.domain.Course;
+import com.teachit.domain.Person;
+import com.teachit.web.rest.dto.CourseDTO;
+import org.mapstruct.*;
+
+import java.util.List;
+
+/**
+ * Mapper for the entity Course and its DTO CourseDTO.
+ */
+@Mapper(componentModel = "spring", uses = {LessonMapper.class})
+public interface CourseMapper {
+
+    @Mapping(source = "applicationAdmission.id", target = "applicationAdmissionId")
+    @Mapping(source = "teacher.id", target = "teacherId")
+    CourseDTO courseToCourseDTO(Course course);
+
+    List<CourseDTO> coursesToCourseDTOs(List<Course> courses);
+
+    @Mapping(source = "applicationAdmissionId", target = "applicationAdmission")
+    @Mapping(source = "teacherId", target = "teacher")
+    @Mapping(target = "multipleChoices", ignore = true)
+    @Mapping(target = "discursiveAnswers", ignore = true)
+    @Mapping(target = "contents", ignore = true)
+    @Mapping(target = "students", ignore = true)
+    Course courseDTOToCourse(CourseDTO courseDTO);
+
+    List<Course> courseDTOsToCourses(List<CourseDTO> courseDTOs);
+
+    default ApplicationAdmission applicationAdmissionFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        ApplicationAdmission applicationAdmission = new ApplicationAdmission();
+        applicationAdmission.setId(id);
+        return applicationAdmission;
+    }
+
+    default Person personFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Person person = new Person();
+        person.setId(id);
+        return person;
+    }
+}
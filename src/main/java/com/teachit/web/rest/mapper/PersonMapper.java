@@ -0,0 +1,67 @@
+package com.teachit.web.rest.mapper;
+
+import com.teachit.domain.ApplicationAdmission;
+import com.teachit.domain.Course;
+import com.teachit.domain.Person;
+import com.teachit.web.rest.dto.CourseDTO;
+import com.teachit.web.rest.dto.PersonDTO;
+import org.mapstruct.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mapper for the entity Person and its DTO PersonDTO.
+ */
+@Mapper(componentModel = "spring", uses = {})
+public interface PersonMapper {
+
+    @Mapping(source = "applicationAdmission.id", target = "applicationAdmissionId")
+    PersonDTO personToPersonDTO(Person person);
+
+    List<PersonDTO> peopleToPersonDTOs(List<Person> people);
+
+    @Mapping(source = "applicationAdmissionId", target = "applicationAdmission")
+    @Mapping(target = "views", ignore = true)
+    @Mapping(target = "teachingCoursees", ignore = true)
+    Person personDTOToPerson(PersonDTO personDTO);
+
+    List<Person> personDTOsToPeople(List<PersonDTO> personDTOs);
+
+    default ApplicationAdmission applicationAdmissionFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        ApplicationAdmission applicationAdmission = new ApplicationAdmission();
+        applicationAdmission.setId(id);
+        return applicationAdmission;
+    }
+
+    default Course courseFromId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Course course = new Course();
+        course.setId(id);
+        return course;
+    }
+
+    /**
+     * Maps the courses learnt by a person to references, i.e. their id and name, so that the lessons and the
+     * teacher of every course are not loaded.
+     */
+    default Set<CourseDTO> coursesToCourseReferences(Set<Course> courses) {
+        return courses.stream().map(course -> {
+            CourseDTO courseDTO = new CourseDTO();
+            courseDTO.setId(course.getId());
+            courseDTO.setName(course.getName());
+            return courseDTO;
+        }).collect(Collectors.toSet());
+    }
+
+    default Set<Course> courseReferencesToCourses(Set<CourseDTO> courseDTOs) {
+        return courseDTOs.stream().map(courseDTO -> courseFromId(courseDTO.getId()))
+            .collect(Collectors.toSet());
+    }
+}
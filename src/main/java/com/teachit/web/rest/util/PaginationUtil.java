@@ -1,6 +1,7 @@
 package com.teachit.web.rest.util;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -39,7 +40,83 @@ public class PaginationUtil {
         return headers;
     }
 
+    /**
+     * Generates the headers of a page fetched by offset, the links keeping the parameters of the current request, e.g.
+     * its filter and sort.
+     *
+     * @param page the page
+     * @param requestUri the URI of the current request, see {@code ServletUriComponentsBuilder.fromCurrentRequest()}
+     */
+    public static HttpHeaders generatePaginationHttpHeaders(Page<?> page, UriComponentsBuilder requestUri)
+        throws URISyntaxException {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Total-Count", "" + page.getTotalElements());
+        String link = "";
+        if ((page.getNumber() + 1) < page.getTotalPages()) {
+            link = "<" + generateUri(requestUri, page.getNumber() + 1, page.getSize(), null) + ">; rel=\"next\",";
+        }
+        if ((page.getNumber()) > 0) {
+            link += "<" + generateUri(requestUri, page.getNumber() - 1, page.getSize(), null) + ">; rel=\"prev\",";
+        }
+        int lastPage = page.getTotalPages() > 0 ? page.getTotalPages() - 1 : 0;
+        link += "<" + generateUri(requestUri, lastPage, page.getSize(), null) + ">; rel=\"last\",";
+        link += "<" + generateUri(requestUri, 0, page.getSize(), null) + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
+    /**
+     * Generates the headers of a page of search hits, the links carrying the query.
+     */
+    public static HttpHeaders generateSearchPaginationHttpHeaders(String query, Page<?> page, String baseUrl)
+        throws URISyntaxException {
+
+        String searchUrl = UriComponentsBuilder.fromUriString(baseUrl).queryParam("query", query).build().encode().toUriString();
+        return generatePaginationHttpHeaders(page, searchUrl);
+    }
+
+    /**
+     * Generates the headers of a page fetched with a cursor, without counting the rows.
+     *
+     * <p>
+     * The links keep the parameters of the current request, e.g. its filter and sort, and the "next" link carries the
+     * cursor of the following page in its "after" parameter. The "last" link is only given when the number of
+     * elements is known.
+     * </p>
+     *
+     * @param slice the page
+     * @param nextCursor the cursor of the next page, or null if there is no next page or it must be fetched by offset
+     * @param totalElements the approximate number of elements, or null if unknown
+     * @param requestUri the URI of the current request, see {@code ServletUriComponentsBuilder.fromCurrentRequest()}
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(Slice<?> slice, String nextCursor, Long totalElements,
+                                                                  UriComponentsBuilder requestUri) throws URISyntaxException {
+
+        HttpHeaders headers = new HttpHeaders();
+        String link = "";
+        if (slice.hasNext()) {
+            link = "<" + generateUri(requestUri, slice.getNumber() + 1, slice.getSize(), nextCursor) + ">; rel=\"next\",";
+        }
+        if (totalElements != null) {
+            headers.add("X-Total-Count", "" + totalElements);
+            long lastPage = totalElements > 0 ? (totalElements - 1) / slice.getSize() : 0;
+            link += "<" + generateUri(requestUri, lastPage, slice.getSize(), null) + ">; rel=\"last\",";
+        }
+        link += "<" + generateUri(requestUri, 0, slice.getSize(), null) + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
     private static String generateUri(String baseUrl, int page, int size) throws URISyntaxException {
         return UriComponentsBuilder.fromUriString(baseUrl).queryParam("page", page).queryParam("size", size).toUriString();
     }
+
+    private static String generateUri(UriComponentsBuilder requestUri, long page, int size, String after) {
+        return requestUri.cloneBuilder()
+            .replaceQueryParam("page", page)
+            .replaceQueryParam("size", size)
+            .replaceQueryParam("after", after != null ? new Object[]{after} : new Object[0])
+            .toUriString();
+    }
 }
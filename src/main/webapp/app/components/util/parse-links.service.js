@@ -21,6 +21,8 @@
             // Split parts by comma
             var parts = header.split(',');
             var links = {};
+            // Cursors of the links which have one, to fetch the next pages without an offset
+            var cursors = {};
             // Parse each part into a named link
             angular.forEach(parts, function(p) {
                 var section = p.split(';');
@@ -39,7 +41,11 @@
                 }
                 var name = section[1].replace(/rel="(.*)"/, '$1').trim();
                 links[name] = page;
+                if (angular.isString(queryString.after)) {
+                    cursors[name] = decodeURIComponent(queryString.after);
+                }
             });
+            links.cursors = cursors;
             return links;
         }
     }
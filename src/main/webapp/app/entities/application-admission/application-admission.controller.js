@@ -26,7 +26,8 @@
             ApplicationAdmission.query({
                 page: vm.page,
                 size: 20,
-                sort: sort()
+                sort: sort(),
+                after: after()
             }, onSuccess, onError);
             function sort() {
                 var result = [vm.predicate + ',' + (vm.reverse ? 'asc' : 'desc')];
@@ -36,6 +37,12 @@
                 return result;
             }
 
+            function after() {
+                if (vm.links.cursors && vm.page === vm.links.next) {
+                    return vm.links.cursors.next;
+                }
+            }
+
             function onSuccess(data, headers) {
                 vm.links = ParseLinks.parse(headers('link'));
                 vm.totalItems = headers('X-Total-Count');
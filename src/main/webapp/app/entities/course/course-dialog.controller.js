@@ -5,9 +5,9 @@
         .module('teachitApp')
         .controller('CourseDialogController', CourseDialogController);
 
-    CourseDialogController.$inject = ['$timeout', '$scope', '$stateParams', '$uibModalInstance', '$q', 'entity', 'Course', 'ApplicationAdmission', 'MultipleChoiceQuestion', 'DiscursiveQuestion', 'Content', 'Lesson', 'Person'];
+    CourseDialogController.$inject = ['$timeout', '$scope', '$stateParams', '$uibModalInstance', '$q', 'entity', 'ParseLinks', 'Course', 'ApplicationAdmission', 'MultipleChoiceQuestion', 'DiscursiveQuestion', 'Content', 'Lesson', 'Person'];
 
-    function CourseDialogController ($timeout, $scope, $stateParams, $uibModalInstance, $q, entity, Course, ApplicationAdmission, MultipleChoiceQuestion, DiscursiveQuestion, Content, Lesson, Person) {
+    function CourseDialogController ($timeout, $scope, $stateParams, $uibModalInstance, $q, entity, ParseLinks, Course, ApplicationAdmission, MultipleChoiceQuestion, DiscursiveQuestion, Content, Lesson, Person) {
         var vm = this;
 
         vm.course = entity;
@@ -15,12 +15,12 @@
         vm.datePickerOpenStatus = {};
         vm.openCalendar = openCalendar;
         vm.save = save;
-        vm.applicationadmissions = ApplicationAdmission.query({filter: 'course-is-null'});
-        $q.all([vm.course.$promise, vm.applicationadmissions.$promise]).then(function() {
-            if (!vm.course.applicationAdmission || !vm.course.applicationAdmission.id) {
+        vm.applicationadmissions = [];
+        $q.all([vm.course.$promise, loadApplicationAdmissions()]).then(function() {
+            if (!vm.course.applicationAdmissionId) {
                 return $q.reject();
             }
-            return ApplicationAdmission.get({id : vm.course.applicationAdmission.id}).$promise;
+            return ApplicationAdmission.get({id : vm.course.applicationAdmissionId}).$promise;
         }).then(function(applicationAdmission) {
             vm.applicationadmissions.push(applicationAdmission);
         });
@@ -34,6 +34,18 @@
             angular.element('.form-group:eq(1)>input').focus();
         });
 
+        // every page of the free application admissions, following the next links
+        function loadApplicationAdmissions (page, after) {
+            var deferred = $q.defer();
+            ApplicationAdmission.query({filter: 'course-is-null', page: page, after: after}, function (data, headers) {
+                Array.prototype.push.apply(vm.applicationadmissions, data);
+                var links = ParseLinks.parse(headers('link'));
+                deferred.resolve(links.next === undefined ? vm.applicationadmissions :
+                    loadApplicationAdmissions(links.next, links.cursors.next));
+            }, deferred.reject);
+            return deferred.promise;
+        }
+
         function clear () {
             $uibModalInstance.dismiss('cancel');
         }
@@ -5,20 +5,20 @@
         .module('teachitApp')
         .controller('PersonDialogController', PersonDialogController);
 
-    PersonDialogController.$inject = ['$timeout', '$scope', '$stateParams', '$uibModalInstance', '$q', 'entity', 'Person', 'ApplicationAdmission', 'ContentView', 'Course'];
+    PersonDialogController.$inject = ['$timeout', '$scope', '$stateParams', '$uibModalInstance', '$q', 'entity', 'ParseLinks', 'Person', 'ApplicationAdmission', 'ContentView', 'Course'];
 
-    function PersonDialogController ($timeout, $scope, $stateParams, $uibModalInstance, $q, entity, Person, ApplicationAdmission, ContentView, Course) {
+    function PersonDialogController ($timeout, $scope, $stateParams, $uibModalInstance, $q, entity, ParseLinks, Person, ApplicationAdmission, ContentView, Course) {
         var vm = this;
 
         vm.person = entity;
         vm.clear = clear;
         vm.save = save;
-        vm.applicationadmissions = ApplicationAdmission.query({filter: 'candidate-is-null'});
-        $q.all([vm.person.$promise, vm.applicationadmissions.$promise]).then(function() {
-            if (!vm.person.applicationAdmission || !vm.person.applicationAdmission.id) {
+        vm.applicationadmissions = [];
+        $q.all([vm.person.$promise, loadApplicationAdmissions()]).then(function() {
+            if (!vm.person.applicationAdmissionId) {
                 return $q.reject();
             }
-            return ApplicationAdmission.get({id : vm.person.applicationAdmission.id}).$promise;
+            return ApplicationAdmission.get({id : vm.person.applicationAdmissionId}).$promise;
         }).then(function(applicationAdmission) {
             vm.applicationadmissions.push(applicationAdmission);
         });
@@ -29,6 +29,18 @@
             angular.element('.form-group:eq(1)>input').focus();
         });
 
+        // every page of the free application admissions, following the next links
+        function loadApplicationAdmissions (page, after) {
+            var deferred = $q.defer();
+            ApplicationAdmission.query({filter: 'candidate-is-null', page: page, after: after}, function (data, headers) {
+                Array.prototype.push.apply(vm.applicationadmissions, data);
+                var links = ParseLinks.parse(headers('link'));
+                deferred.resolve(links.next === undefined ? vm.applicationadmissions :
+                    loadApplicationAdmissions(links.next, links.cursors.next));
+            }, deferred.reject);
+            return deferred.promise;
+        }
+
         function clear () {
             $uibModalInstance.dismiss('cancel');
         }
@@ -0,0 +1,47 @@
+package com.teachit.config;
+
+import com.teachit.TeachitApp;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CacheConfiguration class.
+ *
+ * @see com.teachit.config.CacheConfiguration
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = TeachitApp.class)
+@WebAppConfiguration
+public class CacheConfigurationIntTest {
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Test
+    public void testCachesUseTheJHipsterSettings() {
+        CacheConfiguration configuration = CacheManager.getInstance()
+            .getEhcache("org.hibernate.cache.internal.StandardQueryCache").getCacheConfiguration();
+
+        assertThat(configuration.getMaxEntriesLocalHeap()).isEqualTo(jHipsterProperties.getCache().getMaxEntries());
+        assertThat(configuration.getTimeToLiveSeconds()).isEqualTo(jHipsterProperties.getCache().getTimeToLiveSeconds());
+    }
+
+    @Test
+    public void testUpdateTimestampsRegionKeepsItsSettings() {
+        CacheConfiguration configuration = CacheManager.getInstance()
+            .getEhcache(com.teachit.config.CacheConfiguration.UPDATE_TIMESTAMPS_REGION).getCacheConfiguration();
+
+        assertThat(configuration.getMaxEntriesLocalHeap()).isEqualTo(10000);
+        assertThat(configuration.isEternal()).isTrue();
+        assertThat(configuration.getTimeToLiveSeconds()).isEqualTo(0);
+    }
+}
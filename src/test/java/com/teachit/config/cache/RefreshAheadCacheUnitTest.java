@@ -0,0 +1,174 @@
+package com.teachit.config.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.ehcache.EhCacheCache;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the RefreshAheadCache class, with the RefreshAheadInterceptor around a cache interceptor.
+ *
+ * @see RefreshAheadCache
+ * @see RefreshAheadInterceptor
+ */
+public class RefreshAheadCacheUnitTest {
+
+    private static final String CACHE = "counts";
+
+    public interface CountService {
+
+        @Cacheable(cacheNames = CACHE)
+        Long count(String key);
+    }
+
+    private static class CountingService implements CountService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Long count(String key) {
+            return (long) calls.incrementAndGet();
+        }
+    }
+
+    private CacheManager ehcacheManager;
+
+    private Ehcache ehcache;
+
+    private MetricRegistry metricRegistry;
+
+    private RefreshAheadCache cache;
+
+    private CountingService target;
+
+    private CountService service;
+
+    @Before
+    public void setup() {
+        ehcacheManager = CacheManager.newInstance(new Configuration().name("refreshAheadCacheUnitTest"));
+        ehcacheManager.addCache(new net.sf.ehcache.Cache(new CacheConfiguration(CACHE, 100).timeToLiveSeconds(3600)));
+        ehcache = ehcacheManager.getEhcache(CACHE);
+        metricRegistry = new MetricRegistry();
+        target = new CountingService();
+        // the refreshes run synchronously, to be checked as soon as the stale value is returned
+        service = proxy(Runnable::run);
+    }
+
+    @After
+    public void destroy() {
+        ehcacheManager.shutdown();
+    }
+
+    private CountService proxy(Executor executor) {
+        cache = new RefreshAheadCache(new EhCacheCache(ehcache), ehcache, 60, executor, metricRegistry);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(Collections.singletonList(cache));
+        cacheManager.afterPropertiesSet();
+        CacheInterceptor cacheInterceptor = new CacheInterceptor();
+        cacheInterceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+        cacheInterceptor.setCacheManager(cacheManager);
+        cacheInterceptor.afterPropertiesSet();
+        cacheInterceptor.afterSingletonsInstantiated();
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(CountService.class);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+            AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class), new RefreshAheadInterceptor()));
+        proxyFactory.addAdvice(cacheInterceptor);
+        return (CountService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testCacheableReaderGetsTheStaleValueWhileItIsRefreshed() {
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(target.calls.get()).isEqualTo(1);
+
+        age("a");
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(target.calls.get()).isEqualTo(2);
+        assertThat(service.count("a")).isEqualTo(2L);
+        assertThat(target.calls.get()).isEqualTo(2);
+        assertThat(refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRejectedRefreshIsLeftToTheNextReader() {
+        service = proxy(task -> {
+            throw new RejectedExecutionException();
+        });
+        assertThat(service.count("a")).isEqualTo(1L);
+        age("a");
+
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(refreshes()).isEqualTo(2);
+    }
+
+    @Test
+    public void testTypedReaderGetsAMissToRefreshTheEntry() {
+        cache.put("b", 1L);
+        age("b");
+
+        // without a @Cacheable invocation to replay, the first reader is the one refreshing the entry
+        assertThat(cache.get("b", Long.class)).isNull();
+        assertThat(cache.get("b", Long.class)).isEqualTo(1L);
+        assertThat(refreshes()).isEqualTo(1);
+
+        cache.put("b", 2L);
+        assertThat(cache.get("b", Long.class)).isEqualTo(2L);
+        assertThat(metricRegistry.timer(MetricRegistry.name(net.sf.ehcache.Cache.class, CACHE, "loads")).getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testTypedMissesDoNotHoldLoads() {
+        // more keys than the loads tracked at the same time, none of them ever put
+        for (int i = 0; i <= 10000; i++) {
+            assertThat(cache.get("missing-" + i, Long.class)).isNull();
+        }
+
+        assertThat(service.count("a")).isEqualTo(1L);
+        age("a");
+        assertThat(service.count("a")).isEqualTo(1L);
+        assertThat(service.count("a")).isEqualTo(2L);
+        assertThat(refreshes()).isEqualTo(1);
+        assertThat(metricRegistry.timer(MetricRegistry.name(net.sf.ehcache.Cache.class, CACHE, "loads")).getCount())
+            .isEqualTo(2);
+    }
+
+    /**
+     * Makes the cached entry of a key older than the refresh delay.
+     */
+    private void age(String key) {
+        long created = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(2);
+        ehcache.putQuiet(new Element(key, ehcache.getQuiet(key).getObjectValue(), 1, created, created, 0, true, 0, 0,
+            created));
+    }
+
+    private long refreshes() {
+        return metricRegistry.meter(MetricRegistry.name(net.sf.ehcache.Cache.class, CACHE, "refreshes")).getCount();
+    }
+}
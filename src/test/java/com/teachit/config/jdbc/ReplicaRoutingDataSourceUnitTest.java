@@ -0,0 +1,93 @@
+package com.teachit.config.jdbc;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ReplicaRoutingDataSource class, with two H2 databases standing in for the primary and the
+ * replica databases.
+ *
+ * @see ReplicaRoutingDataSource
+ */
+public class ReplicaRoutingDataSourceUnitTest {
+
+    private ReplicaRoutingDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setup() {
+        dataSource = new ReplicaRoutingDataSource(database("primary"), database("replica"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @After
+    public void tearDown() {
+        ReplicaRouting.reset();
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesReplica() {
+        transactionTemplate.setReadOnly(true);
+        String database = transactionTemplate.execute(status -> currentDatabase());
+        assertThat(database).isEqualTo("replica");
+    }
+
+    @Test
+    public void testReadWriteTransactionUsesPrimary() {
+        String database = transactionTemplate.execute(status -> currentDatabase());
+        assertThat(database).isEqualTo("primary");
+    }
+
+    @Test
+    public void testReadWriteTransactionUsesPrimaryWhenReplicaIsPreferred() {
+        ReplicaRouting.preferReplica();
+        String database = transactionTemplate.execute(status -> currentDatabase());
+        assertThat(database).isEqualTo("primary");
+    }
+
+    @Test
+    public void testNoTransactionUsesPrimary() {
+        assertThat(currentDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    public void testNoTransactionUsesReplicaWhenPreferred() {
+        ReplicaRouting.preferReplica();
+        assertThat(currentDatabase()).isEqualTo("replica");
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesPrimaryWhenRequired() {
+        ReplicaRouting.requirePrimary();
+        transactionTemplate.setReadOnly(true);
+        String database = transactionTemplate.execute(status -> currentDatabase());
+        assertThat(database).isEqualTo("primary");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select name from database_role", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:replica-routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists database_role (name varchar(16))");
+        jdbcTemplate.update("delete from database_role");
+        jdbcTemplate.update("insert into database_role (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package com.teachit.config.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Test class for the LatencyReservoir class.
+ *
+ * @see LatencyReservoir
+ */
+public class LatencyReservoirUnitTest {
+
+    @Test
+    public void testBucketsCoverEveryValue() {
+        long previous = -1;
+        for (int bucket = 0; bucket < LatencyReservoir.bucket(TimeUnit.HOURS.toNanos(1)); bucket++) {
+            long lowest = LatencyReservoir.lowestValue(bucket);
+            long highest = LatencyReservoir.highestValue(bucket);
+            assertThat(lowest).isEqualTo(previous + 1);
+            assertThat(LatencyReservoir.bucket(lowest)).isEqualTo(bucket);
+            assertThat(LatencyReservoir.bucket(highest)).isEqualTo(bucket);
+            // a bucket is at most 1/16th of its values wide
+            assertThat(highest - lowest).isLessThanOrEqualTo(lowest / 16);
+            previous = highest;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyReservoir reservoir = new LatencyReservoir();
+        for (long millis = 1; millis <= 1000; millis++) {
+            reservoir.update(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        LatencyReservoir.LatencySnapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.getMin()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(snapshot.getMax()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(snapshot.getMean()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(500500));
+        assertThat(snapshot.getMedian()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(500), within(500e6 / 16));
+        assertThat(snapshot.get99thPercentile()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(990), within(990e6 / 16));
+        assertThat(snapshot.getValue(1.0)).isLessThanOrEqualTo(snapshot.getMax());
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        LatencyReservoir.LatencySnapshot snapshot = new LatencyReservoir().getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(0);
+        assertThat(snapshot.getMin()).isEqualTo(0);
+        assertThat(snapshot.getMax()).isEqualTo(0);
+        assertThat(snapshot.getMedian()).isEqualTo(0.0);
+        assertThat(snapshot.getStdDev()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testOutOfRangeValuesAreClamped() {
+        LatencyReservoir reservoir = new LatencyReservoir();
+        reservoir.update(-1);
+        reservoir.update(TimeUnit.DAYS.toNanos(1));
+
+        LatencyReservoir.LatencySnapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.getMin()).isEqualTo(0);
+        assertThat(snapshot.getMax()).isEqualTo(TimeUnit.HOURS.toNanos(1));
+    }
+}
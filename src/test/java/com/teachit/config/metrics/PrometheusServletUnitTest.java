@@ -0,0 +1,87 @@
+package com.teachit.config.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.web.filter.RequestMetricsFilter;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the PrometheusServlet class, with the requests timed by the RequestMetricsFilter.
+ *
+ * @see PrometheusServlet
+ * @see RequestMetricsFilter
+ */
+public class PrometheusServletUnitTest {
+
+    private static final String LABELS = "{method=\"GET\",uri=\"/api/courses/{id}\",status=\"200\",outcome=\"SUCCESS\"}";
+
+    private MetricRegistry metricRegistry;
+
+    private RequestMetricsFilter requestMetricsFilter;
+
+    private PrometheusServlet prometheusServlet;
+
+    @Before
+    public void setup() {
+        metricRegistry = new MetricRegistry();
+        RequestTimers requestTimers = new RequestTimers(metricRegistry);
+        requestMetricsFilter = new RequestMetricsFilter(requestTimers);
+        prometheusServlet = new PrometheusServlet(metricRegistry, requestTimers);
+    }
+
+    @Test
+    public void testRequestsAreTimedByRoute() throws Exception {
+        perform("/api/courses/1", "/api/courses/{id}", HttpServletResponse.SC_OK);
+        perform("/api/courses/2", "/api/courses/{id}", HttpServletResponse.SC_OK);
+        perform("/api/unknown", null, HttpServletResponse.SC_NOT_FOUND);
+        metricRegistry.counter("teachit.test").inc();
+
+        String metrics = scrape();
+        assertThat(metrics).contains("# TYPE http_server_requests_seconds summary\n");
+        assertThat(metrics).contains("http_server_requests_seconds_count" + LABELS + " 2\n");
+        assertThat(metrics).containsPattern("http_server_requests_seconds\\{method=\"GET\",uri=\"/api/courses/\\{id\\}\"," +
+            "status=\"200\",outcome=\"SUCCESS\",quantile=\"0\\.99\"\\} [0-9.E-]+\n");
+        assertThat(metrics).contains("http_server_requests_seconds_count" +
+            "{method=\"GET\",uri=\"NOT_FOUND\",status=\"404\",outcome=\"CLIENT_ERROR\"} 1\n");
+        // the request timers are only published with their labels
+        assertThat(metrics).doesNotContain("http_server_requests_GET");
+        assertThat(metrics).contains("# TYPE teachit_test gauge\nteachit_test 1\n");
+    }
+
+    @Test
+    public void testQuantilesAreOfTheRequestsSinceThePreviousScrape() throws Exception {
+        perform("/api/courses/1", "/api/courses/{id}", HttpServletResponse.SC_OK);
+        scrape();
+
+        String metrics = scrape();
+        assertThat(metrics).contains("http_server_requests_seconds{method=\"GET\",uri=\"/api/courses/{id}\"," +
+            "status=\"200\",outcome=\"SUCCESS\",quantile=\"0.99\"} NaN\n");
+        assertThat(metrics).contains("http_server_requests_seconds_count" + LABELS + " 1\n");
+    }
+
+    private void perform(String uri, String pattern, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        requestMetricsFilter.doFilter(request, response, (req, res) -> {
+            if (pattern != null) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            }
+            ((HttpServletResponse) res).setStatus(status);
+        });
+    }
+
+    private String scrape() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        prometheusServlet.service(new MockHttpServletRequest("GET", "/management/prometheus"), response);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentType()).startsWith("text/plain");
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.teachit.config.tracing;
+
+import com.teachit.async.ExceptionHandlingAsyncTaskExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the Tracer class, with the tasks of the ExceptionHandlingAsyncTaskExecutor.
+ *
+ * @see Tracer
+ * @see ExceptionHandlingAsyncTaskExecutor
+ */
+public class TracerUnitTest {
+
+    private RecentTraces recentTraces;
+
+    private ThreadPoolTaskExecutor pool;
+
+    private ExceptionHandlingAsyncTaskExecutor executor;
+
+    @Before
+    public void setup() throws Exception {
+        recentTraces = new RecentTraces(2);
+        pool = new ThreadPoolTaskExecutor();
+        pool.initialize();
+        executor = new ExceptionHandlingAsyncTaskExecutor(pool, recentTraces);
+    }
+
+    @After
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testNestedSpansAreRecordedWithTheTrace() {
+        Span root = Tracer.startTrace(Span.Kind.HTTP, "GET /api/courses", recentTraces);
+        Span service = Tracer.start(Span.Kind.SERVICE, "CourseService.findAll");
+        assertThat(MDC.get(Tracer.TRACE_ID)).isEqualTo(root.getTraceId());
+        assertThat(MDC.get(Tracer.SPAN_ID)).isEqualTo(service.getId());
+        Tracer.record(Span.Kind.JDBC, "select * from course", System.nanoTime(), 1000, false);
+        Tracer.finish(service);
+        assertThat(Tracer.current()).isSameAs(root);
+        assertThat(MDC.get(Tracer.SPAN_ID)).isEqualTo(root.getId());
+        assertThat(recentTraces.findAll(null)).isEmpty();
+        Tracer.finish(root);
+
+        assertThat(Tracer.current()).isNull();
+        assertThat(MDC.get(Tracer.TRACE_ID)).isNull();
+        Trace trace = recentTraces.findOne(root.getTraceId());
+        assertThat(trace.getSpans()).extracting(Span::getKind)
+            .containsExactly(Span.Kind.HTTP, Span.Kind.SERVICE, Span.Kind.JDBC);
+        assertThat(trace.getSpans().get(2).getParentId()).isEqualTo(service.getId());
+    }
+
+    @Test
+    public void testSpansAreOnlyStartedWithinATrace() {
+        assertThat(Tracer.start(Span.Kind.SERVICE, "CourseService.findAll")).isNull();
+        Tracer.finish(null);
+        assertThat(MDC.get(Tracer.TRACE_ID)).isNull();
+    }
+
+    @Test
+    public void testTraceNotSampledHasNoChildSpans() {
+        RecentTraces unsampled = new RecentTraces(2, 0.0);
+        Span root = Tracer.startTrace(Span.Kind.HTTP, "GET /api/courses", unsampled);
+        assertThat(root.getTraceId()).matches("[0-9a-f]{16}");
+        assertThat(root.getId()).matches("[0-9a-f]{16}");
+        assertThat(Tracer.start(Span.Kind.SERVICE, "CourseService.findAll")).isNull();
+        Tracer.record(Span.Kind.JDBC, "select * from course", System.nanoTime(), 1000, false);
+        assertThat(MDC.get(Tracer.TRACE_ID)).isEqualTo(root.getTraceId());
+        Tracer.finish(root);
+
+        assertThat(root.getTrace().getSpans()).isEmpty();
+        assertThat(unsampled.findAll(null)).isEmpty();
+    }
+
+    @Test
+    public void testAsyncTaskIsAChildOfTheSubmittingSpan() throws Exception {
+        AtomicReference<String> traceId = new AtomicReference<>();
+        Span root = Tracer.startTrace(Span.Kind.HTTP, "POST /api/register", recentTraces);
+        executor.submit(() -> traceId.set(MDC.get(Tracer.TRACE_ID))).get();
+        Tracer.finish(root);
+
+        assertThat(traceId.get()).isEqualTo(root.getTraceId());
+        List<Span> spans = recentTraces.findOne(root.getTraceId()).getSpans();
+        assertThat(spans).hasSize(2);
+        assertThat(spans.get(1).getKind()).isEqualTo(Span.Kind.ASYNC);
+        assertThat(spans.get(1).getName()).isEqualTo("TracerUnitTest");
+        assertThat(spans.get(1).getParentId()).isEqualTo(root.getId());
+    }
+
+    @Test
+    public void testAsyncTaskWithoutTraceStartsOne() throws Exception {
+        executor.submit((Runnable) () -> {
+            throw new IllegalStateException("failed");
+        }).get();
+
+        List<Trace> traces = recentTraces.findAll(Span.Kind.ASYNC);
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).getRoot().isError()).isTrue();
+    }
+
+    @Test
+    public void testRecentTracesAreKeptPerKind() {
+        for (int i = 0; i < 3; i++) {
+            Tracer.inNewTrace(() -> { }, Span.Kind.SCHEDULED, "UserService.removeNotActivatedUsers", recentTraces)
+                .run();
+        }
+        Span request = Tracer.startTrace(Span.Kind.HTTP, "GET /api/account", recentTraces);
+        Tracer.finish(request);
+
+        assertThat(recentTraces.findAll(Span.Kind.SCHEDULED)).hasSize(2);
+        assertThat(recentTraces.findAll(null)).hasSize(3);
+        assertThat(recentTraces.findAll(Span.Kind.HTTP)).extracting(Trace::getId)
+            .containsExactly(request.getTraceId());
+    }
+}
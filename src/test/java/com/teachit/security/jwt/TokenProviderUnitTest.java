@@ -0,0 +1,163 @@
+package com.teachit.security.jwt;
+
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.config.cache.RefreshAheadCache;
+import com.teachit.security.AuthoritiesConstants;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.ehcache.EhCacheCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the TokenProvider class.
+ *
+ * @see TokenProvider
+ */
+public class TokenProviderUnitTest {
+
+    private static final String SECRET = "unit-test-secret";
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(SECRET);
+        tokenProvider = new TokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jHipsterProperties", jHipsterProperties);
+        ReflectionTestUtils.setField(tokenProvider, "cacheManager", new ConcurrentMapCacheManager(TokenProvider.AUTHENTICATION_CACHE));
+        tokenProvider.init();
+    }
+
+    @Test
+    public void testGetAuthenticationIsCachedUntilExpiration() {
+        String jwt = tokenProvider.createToken(authentication("john"), false);
+
+        Authentication first = tokenProvider.getAuthentication(jwt);
+        Authentication second = tokenProvider.getAuthentication(jwt);
+
+        assertThat(first.getName()).isEqualTo("john");
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.USER);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+    }
+
+    @Test
+    public void testCachedAuthenticationIsNotShared() {
+        String jwt = tokenProvider.createToken(authentication("john"), false);
+        UsernamePasswordAuthenticationToken first = (UsernamePasswordAuthenticationToken) tokenProvider.getAuthentication(jwt);
+        first.setDetails("192.168.0.1");
+        first.setAuthenticated(false);
+
+        Authentication second = tokenProvider.getAuthentication(jwt);
+
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    public void testAuthoritiesAreShared() {
+        Authentication john = tokenProvider.getAuthentication(tokenProvider.createToken(authentication("john"), false));
+        Authentication jane = tokenProvider.getAuthentication(tokenProvider.createToken(authentication("jane"), false));
+
+        assertThat(john.getAuthorities().iterator().next()).isSameAs(jane.getAuthorities().iterator().next());
+    }
+
+    @Test
+    public void testGetAuthenticationWithInvalidSignature() {
+        String jwt = Jwts.builder()
+            .setSubject("john")
+            .claim("auth", AuthoritiesConstants.ADMIN)
+            .signWith(SignatureAlgorithm.HS512, "another-secret")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .compact();
+
+        assertThat(tokenProvider.getAuthentication(jwt)).isNull();
+    }
+
+    @Test
+    public void testInvalidTokensDoNotDisableTheRefreshOfTheCache() {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        CacheManager ehcacheManager = CacheManager.newInstance(new Configuration().name("tokenProviderUnitTest"));
+        try {
+            ehcacheManager.addCache(new net.sf.ehcache.Cache(
+                new CacheConfiguration(TokenProvider.AUTHENTICATION_CACHE, 100).timeToLiveSeconds(3600)));
+            Ehcache ehcache = ehcacheManager.getEhcache(TokenProvider.AUTHENTICATION_CACHE);
+            SimpleCacheManager cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(Collections.singletonList(
+                new RefreshAheadCache(new EhCacheCache(ehcache), ehcache, 60, Runnable::run, metricRegistry)));
+            cacheManager.afterPropertiesSet();
+            ReflectionTestUtils.setField(tokenProvider, "cacheManager", cacheManager);
+            tokenProvider.init();
+
+            // more invalid tokens than the loads a cache tracks at the same time
+            for (int i = 0; i <= 10000; i++) {
+                String jwt = Jwts.builder()
+                    .setSubject("john" + i)
+                    .claim("auth", AuthoritiesConstants.ADMIN)
+                    .signWith(SignatureAlgorithm.HS512, "another-secret")
+                    .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                    .compact();
+                assertThat(tokenProvider.getAuthentication(jwt)).isNull();
+            }
+            String jwt = tokenProvider.createToken(authentication("john"), false);
+            assertThat(ehcache.getKeys()).isEmpty();
+            assertThat(tokenProvider.getAuthentication(jwt).getName()).isEqualTo("john");
+            // make the cached authentication older than the refresh delay
+            Object cached = ehcache.getKeys().get(0);
+            long created = System.currentTimeMillis() - 120000;
+            ehcache.putQuiet(new Element(cached, ehcache.getQuiet(cached).getObjectValue(), 1, created, created, 0,
+                true, 0, 0, created));
+
+            // the first reader of the stale entry reloads it, instead of being refused by the pending loads
+            assertThat(tokenProvider.getAuthentication(jwt).getName()).isEqualTo("john");
+            assertThat(metricRegistry.meter(
+                MetricRegistry.name(net.sf.ehcache.Cache.class, TokenProvider.AUTHENTICATION_CACHE, "refreshes"))
+                .getCount()).isEqualTo(1);
+            assertThat(metricRegistry.timer(
+                MetricRegistry.name(net.sf.ehcache.Cache.class, TokenProvider.AUTHENTICATION_CACHE, "loads"))
+                .getCount()).isEqualTo(1);
+        } finally {
+            ehcacheManager.shutdown();
+        }
+    }
+
+    @Test(expected = ExpiredJwtException.class)
+    public void testGetAuthenticationWithExpiredToken() {
+        String jwt = Jwts.builder()
+            .setSubject("john")
+            .claim("auth", AuthoritiesConstants.USER)
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .setExpiration(new Date(System.currentTimeMillis() - 60000))
+            .compact();
+
+        tokenProvider.getAuthentication(jwt);
+    }
+
+    private Authentication authentication(String login) {
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        return new UsernamePasswordAuthenticationToken(login, "", authorities);
+    }
+}
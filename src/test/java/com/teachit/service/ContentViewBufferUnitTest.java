@@ -0,0 +1,104 @@
+package com.teachit.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.teachit.config.JHipsterProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for the ContentViewBuffer class.
+ *
+ * @see ContentViewBuffer
+ */
+public class ContentViewBufferUnitTest {
+
+    private final List<Runnable> flushes = new ArrayList<>();
+
+    private FailingContentViewService contentViewService;
+
+    private MetricRegistry metricRegistry;
+
+    private ContentViewBuffer contentViewBuffer;
+
+    private static class FailingContentViewService extends ContentViewService {
+
+        private final List<ContentViewBuffer.Key> saved = new ArrayList<>();
+
+        private boolean failing;
+
+        @Override
+        public void saveViews(Collection<ContentViewBuffer.Key> views) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            saved.addAll(views);
+        }
+    }
+
+    @Before
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getContentViews().setStripes(2);
+        jHipsterProperties.getContentViews().setFlushSize(10);
+        jHipsterProperties.getContentViews().setMaxPending(3);
+        jHipsterProperties.getContentViews().setMaxRetries(1);
+        contentViewService = new FailingContentViewService();
+        metricRegistry = new MetricRegistry();
+        contentViewBuffer = new ContentViewBuffer();
+        ReflectionTestUtils.setField(contentViewBuffer, "jHipsterProperties", jHipsterProperties);
+        ReflectionTestUtils.setField(contentViewBuffer, "contentViewService", contentViewService);
+        ReflectionTestUtils.setField(contentViewBuffer, "taskExecutor", (Executor) flushes::add);
+        ReflectionTestUtils.setField(contentViewBuffer, "metricRegistry", metricRegistry);
+        contentViewBuffer.init();
+    }
+
+    @Test
+    public void testViewsBeyondTheMaximumPendingAreDropped() {
+        contentViewService.failing = true;
+        for (long contentId = 1; contentId <= 5; contentId++) {
+            contentViewBuffer.track(1L, contentId);
+        }
+
+        // the requests neither write nor fail
+        assertThat(dropped()).isEqualTo(2);
+        assertThat(flushes).hasSize(1);
+        contentViewService.failing = false;
+        flushes.get(0).run();
+        assertThat(contentViewService.saved).hasSize(3);
+    }
+
+    @Test
+    public void testViewsFailingTooManyTimesAreDropped() {
+        contentViewBuffer.track(1L, 1L);
+        contentViewService.failing = true;
+        for (int i = 0; i < 2; i++) {
+            try {
+                contentViewBuffer.flush();
+                fail("the flush should fail");
+            } catch (DataAccessResourceFailureException e) {
+                // expected
+            }
+        }
+        assertThat(dropped()).isEqualTo(1);
+
+        contentViewService.failing = false;
+        assertThat(contentViewBuffer.flush()).isEqualTo(0);
+        contentViewBuffer.track(1L, 2L);
+        assertThat(contentViewBuffer.flush()).isEqualTo(1);
+        assertThat(contentViewService.saved).containsExactly(new ContentViewBuffer.Key(1L, 2L));
+    }
+
+    private long dropped() {
+        return metricRegistry.meter(MetricRegistry.name(ContentViewBuffer.class, "dropped")).getCount();
+    }
+}
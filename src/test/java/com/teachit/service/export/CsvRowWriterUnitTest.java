@@ -0,0 +1,36 @@
+package com.teachit.service.export;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CsvRowWriter class.
+ *
+ * @see CsvRowWriter
+ */
+public class CsvRowWriterUnitTest {
+
+    @Test
+    public void testValuesAreQuotedWhenNeeded() throws Exception {
+        assertThat(write(1L, "a, \"b\"", null, "c")).isEqualTo("id,answer\r\n1,\"a, \"\"b\"\"\",,c\r\n");
+    }
+
+    @Test
+    public void testFormulasAreNotEvaluated() throws Exception {
+        assertThat(write("=1+1", "+1", "-1", "@SUM(A1)", "=HYPERLINK(\"x\",\"y\")"))
+            .isEqualTo("id,answer\r\n'=1+1,'+1,'-1,'@SUM(A1),\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"\r\n");
+        assertThat(write(-1.5, "a=1")).isEqualTo("id,answer\r\n-1.5,a=1\r\n");
+    }
+
+    private String write(Object... values) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvRowWriter writer = new CsvRowWriter(out, new String[] { "id", "answer" });
+        writer.writeRow(values);
+        writer.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,23 @@
+package com.teachit.web.filter;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SqlStatisticsFilter class.
+ *
+ * @see SqlStatisticsFilter
+ */
+public class SqlStatisticsFilterUnitTest {
+
+    @Test
+    public void testMetricNameOfAnEndpoint() {
+        assertThat(SqlStatisticsFilter.metricName("GET", "/api/courses/{id}"))
+            .isEqualTo("com.teachit.config.jdbc.SqlStatistics.GET.api.courses.id");
+        assertThat(SqlStatisticsFilter.metricName("POST", "/api/discursive-answers/bulk"))
+            .isEqualTo("com.teachit.config.jdbc.SqlStatistics.POST.api.discursive-answers.bulk");
+        assertThat(SqlStatisticsFilter.metricName("GET", "/management/**"))
+            .isEqualTo("com.teachit.config.jdbc.SqlStatistics.GET.management.__");
+    }
+}
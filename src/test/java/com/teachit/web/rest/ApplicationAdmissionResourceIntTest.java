@@ -3,11 +3,15 @@ package com.teachit.web.rest;
 import com.teachit.TeachitApp;
 import com.teachit.domain.ApplicationAdmission;
 import com.teachit.repository.ApplicationAdmissionRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.web.rest.dto.ApplicationAdmissionDTO;
+import com.teachit.web.rest.mapper.ApplicationAdmissionMapper;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.IntegrationTest;
 import org.springframework.boot.test.SpringApplicationConfiguration;
@@ -53,6 +57,12 @@ public class ApplicationAdmissionResourceIntTest {
     @Inject
     private ApplicationAdmissionRepository applicationAdmissionRepository;
 
+    @Inject
+    private ApplicationAdmissionMapper applicationAdmissionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -68,6 +78,8 @@ public class ApplicationAdmissionResourceIntTest {
         MockitoAnnotations.initMocks(this);
         ApplicationAdmissionResource applicationAdmissionResource = new ApplicationAdmissionResource();
         ReflectionTestUtils.setField(applicationAdmissionResource, "applicationAdmissionRepository", applicationAdmissionRepository);
+        ReflectionTestUtils.setField(applicationAdmissionResource, "applicationAdmissionMapper", applicationAdmissionMapper);
+        ReflectionTestUtils.setField(applicationAdmissionResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restApplicationAdmissionMockMvc = MockMvcBuilders.standaloneSetup(applicationAdmissionResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -86,10 +98,11 @@ public class ApplicationAdmissionResourceIntTest {
         int databaseSizeBeforeCreate = applicationAdmissionRepository.findAll().size();
 
         // Create the ApplicationAdmission
+        ApplicationAdmissionDTO applicationAdmissionDTO = applicationAdmissionMapper.applicationAdmissionToApplicationAdmissionDTO(applicationAdmission);
 
         restApplicationAdmissionMockMvc.perform(post("/api/application-admissions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(applicationAdmission)))
+                .content(TestUtil.convertObjectToJsonBytes(applicationAdmissionDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the ApplicationAdmission in the database
@@ -106,8 +119,8 @@ public class ApplicationAdmissionResourceIntTest {
         // Initialize the database
         applicationAdmissionRepository.saveAndFlush(applicationAdmission);
 
-        // Get all the applicationAdmissions
-        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?sort=id,desc"))
+        // Get all the applicationAdmissions, in at most 4 statements: the page, the count and the inverse one-to-ones of the row
+        SqlStatementBudget.perform(restApplicationAdmissionMockMvc, get("/api/application-admissions?sort=id,desc"), 4)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(applicationAdmission.getId().intValue())))
@@ -115,6 +128,46 @@ public class ApplicationAdmissionResourceIntTest {
                 .andExpect(jsonPath("$.[*].accepted").value(hasItem(DEFAULT_ACCEPTED.booleanValue())));
     }
 
+    @Test
+    @Transactional
+    public void getAllApplicationAdmissionsWithoutCandidate() throws Exception {
+        // Initialize the database
+        applicationAdmissionRepository.saveAndFlush(applicationAdmission);
+
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?sort=id,desc&filter=candidate-is-null"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(applicationAdmission.getId().intValue())));
+
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?sort=id,desc&candidateId.specified=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(applicationAdmission.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllApplicationAdmissionsByRequestDate() throws Exception {
+        // Initialize the database
+        applicationAdmissionRepository.saveAndFlush(applicationAdmission);
+
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?sort=id,desc&requestDate.equals=" + DEFAULT_REQUEST_DATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(applicationAdmission.getId().intValue())));
+
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?sort=id,desc&requestDate.greaterThan=" + DEFAULT_REQUEST_DATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(applicationAdmission.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    public void getAllApplicationAdmissionsWithInvalidFilter() throws Exception {
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?unknown.equals=1"))
+                .andExpect(status().isBadRequest());
+
+        restApplicationAdmissionMockMvc.perform(get("/api/application-admissions?accepted.between=1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getApplicationAdmission() throws Exception {
@@ -151,9 +204,11 @@ public class ApplicationAdmissionResourceIntTest {
         updatedApplicationAdmission.setRequestDate(UPDATED_REQUEST_DATE);
         updatedApplicationAdmission.setAccepted(UPDATED_ACCEPTED);
 
+        ApplicationAdmissionDTO applicationAdmissionDTO = applicationAdmissionMapper.applicationAdmissionToApplicationAdmissionDTO(updatedApplicationAdmission);
+
         restApplicationAdmissionMockMvc.perform(put("/api/application-admissions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedApplicationAdmission)))
+                .content(TestUtil.convertObjectToJsonBytes(applicationAdmissionDTO)))
                 .andExpect(status().isOk());
 
         // Validate the ApplicationAdmission in the database
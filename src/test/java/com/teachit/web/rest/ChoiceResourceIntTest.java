@@ -3,6 +3,10 @@ package com.teachit.web.rest;
 import com.teachit.TeachitApp;
 import com.teachit.domain.Choice;
 import com.teachit.repository.ChoiceRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.service.grading.AnswerKeyIndex;
+import com.teachit.web.rest.dto.ChoiceDTO;
+import com.teachit.web.rest.mapper.ChoiceMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -53,6 +57,15 @@ public class ChoiceResourceIntTest {
     @Inject
     private ChoiceRepository choiceRepository;
 
+    @Inject
+    private ChoiceMapper choiceMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private AnswerKeyIndex answerKeyIndex;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -68,6 +81,9 @@ public class ChoiceResourceIntTest {
         MockitoAnnotations.initMocks(this);
         ChoiceResource choiceResource = new ChoiceResource();
         ReflectionTestUtils.setField(choiceResource, "choiceRepository", choiceRepository);
+        ReflectionTestUtils.setField(choiceResource, "choiceMapper", choiceMapper);
+        ReflectionTestUtils.setField(choiceResource, "keysetPaginationRepository", keysetPaginationRepository);
+        ReflectionTestUtils.setField(choiceResource, "answerKeyIndex", answerKeyIndex);
         this.restChoiceMockMvc = MockMvcBuilders.standaloneSetup(choiceResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -87,10 +103,11 @@ public class ChoiceResourceIntTest {
         int databaseSizeBeforeCreate = choiceRepository.findAll().size();
 
         // Create the Choice
+        ChoiceDTO choiceDTO = choiceMapper.choiceToChoiceDTO(choice);
 
         restChoiceMockMvc.perform(post("/api/choices")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(choice)))
+                .content(TestUtil.convertObjectToJsonBytes(choiceDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the Choice in the database
@@ -108,8 +125,8 @@ public class ChoiceResourceIntTest {
         // Initialize the database
         choiceRepository.saveAndFlush(choice);
 
-        // Get all the choices
-        restChoiceMockMvc.perform(get("/api/choices?sort=id,desc"))
+        // Get all the choices, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restChoiceMockMvc, get("/api/choices?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(choice.getId().intValue())))
@@ -156,9 +173,11 @@ public class ChoiceResourceIntTest {
         updatedChoice.setCorrect(UPDATED_CORRECT);
         updatedChoice.setOrdering(UPDATED_ORDERING);
 
+        ChoiceDTO choiceDTO = choiceMapper.choiceToChoiceDTO(updatedChoice);
+
         restChoiceMockMvc.perform(put("/api/choices")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedChoice)))
+                .content(TestUtil.convertObjectToJsonBytes(choiceDTO)))
                 .andExpect(status().isOk());
 
         // Validate the Choice in the database
@@ -1,13 +1,23 @@
 package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
+import com.teachit.config.JHipsterProperties;
 import com.teachit.domain.Content;
 import com.teachit.repository.ContentRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.service.ContentFileService;
+import com.teachit.service.storage.BlobSender;
+import com.teachit.service.storage.BlobStore;
+import com.teachit.web.rest.dto.ContentDTO;
+import com.teachit.web.rest.mapper.ContentMapper;
+import com.jayway.jsonpath.JsonPath;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.IntegrationTest;
 import org.springframework.boot.test.SpringApplicationConfiguration;
@@ -18,13 +28,22 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,6 +75,27 @@ public class ContentResourceIntTest {
     @Inject
     private ContentRepository contentRepository;
 
+    @Inject
+    private ContentMapper contentMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private ContentFileService contentFileService;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private BlobSender blobSender;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private EntityManager entityManager;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -71,6 +111,12 @@ public class ContentResourceIntTest {
         MockitoAnnotations.initMocks(this);
         ContentResource contentResource = new ContentResource();
         ReflectionTestUtils.setField(contentResource, "contentRepository", contentRepository);
+        ReflectionTestUtils.setField(contentResource, "contentMapper", contentMapper);
+        ReflectionTestUtils.setField(contentResource, "keysetPaginationRepository", keysetPaginationRepository);
+        ReflectionTestUtils.setField(contentResource, "contentFileService", contentFileService);
+        ReflectionTestUtils.setField(contentResource, "blobStore", blobStore);
+        ReflectionTestUtils.setField(contentResource, "blobSender", blobSender);
+        ReflectionTestUtils.setField(contentResource, "jHipsterProperties", jHipsterProperties);
         this.restContentMockMvc = MockMvcBuilders.standaloneSetup(contentResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -91,10 +137,11 @@ public class ContentResourceIntTest {
         int databaseSizeBeforeCreate = contentRepository.findAll().size();
 
         // Create the Content
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(content);
 
         restContentMockMvc.perform(post("/api/contents")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(content)))
+                .content(TestUtil.convertObjectToJsonBytes(contentDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the Content in the database
@@ -113,15 +160,15 @@ public class ContentResourceIntTest {
         // Initialize the database
         contentRepository.saveAndFlush(content);
 
-        // Get all the contents
-        restContentMockMvc.perform(get("/api/contents?sort=id,desc"))
+        // Get all the contents, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restContentMockMvc, get("/api/contents?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(content.getId().intValue())))
                 .andExpect(jsonPath("$.[*].fileName").value(hasItem(DEFAULT_FILE_NAME.toString())))
                 .andExpect(jsonPath("$.[*].startDate").value(hasItem(DEFAULT_START_DATE.toString())))
                 .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION.toString())))
-                .andExpect(jsonPath("$.[*].text").value(hasItem(DEFAULT_TEXT.toString())));
+                .andExpect(jsonPath("$.[*].text").value(everyItem(nullValue())));
     }
 
     @Test
@@ -141,6 +188,25 @@ public class ContentResourceIntTest {
             .andExpect(jsonPath("$.text").value(DEFAULT_TEXT.toString()));
     }
 
+    @Test
+    @Transactional
+    public void getContentWithLongText() throws Exception {
+        // Initialize the database with a text long enough to be compressed
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("Lesson ").append(i).append(": caf\u00e9 ");
+        }
+        content.setText(text.toString());
+        contentRepository.saveAndFlush(content);
+
+        // Get the content, decoding the JSON body as UTF-8 as it has no charset
+        MvcResult result = restContentMockMvc.perform(get("/api/contents/{id}", content.getId()))
+            .andExpect(status().isOk())
+            .andReturn();
+        String body = new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+        assertThat(JsonPath.<String>read(body, "$.text")).isEqualTo(text.toString());
+    }
+
     @Test
     @Transactional
     public void getNonExistingContent() throws Exception {
@@ -164,9 +230,11 @@ public class ContentResourceIntTest {
         updatedContent.setDescription(UPDATED_DESCRIPTION);
         updatedContent.setText(UPDATED_TEXT);
 
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(updatedContent);
+
         restContentMockMvc.perform(put("/api/contents")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedContent)))
+                .content(TestUtil.convertObjectToJsonBytes(contentDTO)))
                 .andExpect(status().isOk());
 
         // Validate the Content in the database
@@ -179,6 +247,64 @@ public class ContentResourceIntTest {
         assertThat(testContent.getText()).isEqualTo(UPDATED_TEXT);
     }
 
+    @Test
+    @Transactional
+    public void updateContentWithUnchangedText() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        Long textId = getTextId(content.getId());
+
+        // Update the content, keeping its text
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(content);
+        contentDTO.setDescription(UPDATED_DESCRIPTION);
+
+        restContentMockMvc.perform(put("/api/contents")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(contentDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.text").value(DEFAULT_TEXT));
+
+        // Validate the text row is kept
+        assertThat(getTextId(content.getId())).isEqualTo(textId);
+        assertThat(contentRepository.findOne(content.getId()).getDescription()).isEqualTo(UPDATED_DESCRIPTION);
+    }
+
+    @Test
+    @Transactional
+    public void updateContentWithoutText() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        Long textId = getTextId(content.getId());
+
+        // Update the content from a DTO of the list, which has no text
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(content);
+        contentDTO.setText(null);
+        contentDTO.setFileName(UPDATED_FILE_NAME);
+
+        restContentMockMvc.perform(put("/api/contents")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(contentDTO)))
+                .andExpect(status().isOk());
+
+        // Validate the text is kept
+        assertThat(getTextId(content.getId())).isEqualTo(textId);
+        Content testContent = contentRepository.findOne(content.getId());
+        assertThat(testContent.getFileName()).isEqualTo(UPDATED_FILE_NAME);
+        assertThat(testContent.getText()).isEqualTo(DEFAULT_TEXT);
+    }
+
+    @Test
+    @Transactional
+    public void updateNonExistingContent() throws Exception {
+        ContentDTO contentDTO = contentMapper.contentToContentDTO(content);
+        contentDTO.setId(Long.MAX_VALUE);
+
+        restContentMockMvc.perform(put("/api/contents")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(contentDTO)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void deleteContent() throws Exception {
@@ -195,4 +321,151 @@ public class ContentResourceIntTest {
         List<Content> contents = contentRepository.findAll();
         assertThat(contents).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    public void uploadContentFile() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        Content otherContent = new Content();
+        contentRepository.saveAndFlush(otherContent);
+        byte[] file = "A file shared by two contents".getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(file);
+
+        // Upload the same file for both contents
+        restContentMockMvc.perform(post("/api/contents/{id}/file", content.getId())
+            .param("fileName", "notes.pdf")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(file))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.fileName").value("notes.pdf"))
+            .andExpect(jsonPath("$.fileHash").value(hash))
+            .andExpect(jsonPath("$.fileSize").value(file.length))
+            .andExpect(jsonPath("$.fileContentType").value(MediaType.APPLICATION_OCTET_STREAM_VALUE));
+        restContentMockMvc.perform(post("/api/contents/{id}/file", otherContent.getId())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(file))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.fileHash").value(hash));
+
+        // The file is stored once
+        assertThat(blobStore.exists(hash)).isTrue();
+        assertThat(Files.readAllBytes(blobStore.path(hash))).isEqualTo(file);
+        assertThat(contentRepository.findFileHashes()).contains(hash);
+    }
+
+    @Test
+    @Transactional
+    public void uploadTooLargeContentFile() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        byte[] file = new byte[(int) jHipsterProperties.getStorage().getMaxFileSize() + 1];
+
+        restContentMockMvc.perform(post("/api/contents/{id}/file", content.getId())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(file))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @Transactional
+    public void uploadFileOfNonExistingContent() throws Exception {
+        restContentMockMvc.perform(post("/api/contents/{id}/file", Long.MAX_VALUE)
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(new byte[]{1}))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void downloadContentFile() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        byte[] file = "A file downloaded by a class".getBytes(StandardCharsets.UTF_8);
+        String eTag = "\"" + sha256(file) + "\"";
+        restContentMockMvc.perform(post("/api/contents/{id}/file", content.getId())
+            .param("fileName", "notes.pdf")
+            .contentType("application/pdf")
+            .content(file))
+            .andExpect(status().isOk());
+
+        // Download the file several times, from the disk then from the hot file cache
+        for (int i = 0; i < 3; i++) {
+            restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"notes.pdf\""))
+                .andExpect(content().bytes(file));
+        }
+
+        // Download a range of the file, reading only the file columns of the content
+        SqlStatementBudget.perform(restContentMockMvc, get("/api/contents/{id}/file", content.getId())
+            .header("Range", "bytes=2-5"), 1)
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 2-5/" + file.length))
+            .andExpect(content().bytes(Arrays.copyOfRange(file, 2, 6)));
+        restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId())
+            .header("Range", "bytes=-4"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().bytes(Arrays.copyOfRange(file, file.length - 4, file.length)));
+
+        // The range applies only to the same file
+        restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId())
+            .header("Range", "bytes=2-5")
+            .header("If-Range", "\"another file\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(file));
+        restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId())
+            .header("Range", "bytes=" + file.length + "-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string("Content-Range", "bytes */" + file.length));
+
+        // The file is not sent again if it didn't change
+        restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId())
+            .header("If-None-Match", eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    public void downloadMissingContentFile() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+
+        restContentMockMvc.perform(get("/api/contents/{id}/file", content.getId()))
+            .andExpect(status().isNotFound());
+        restContentMockMvc.perform(get("/api/contents/{id}/file", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void collectOrphanFiles() throws Exception {
+        byte[] referenced = "A referenced file".getBytes(StandardCharsets.UTF_8);
+        byte[] orphan = "An orphan file".getBytes(StandardCharsets.UTF_8);
+        String referencedHash = blobStore.store(new ByteArrayInputStream(referenced), 1024).getHash();
+        String orphanHash = blobStore.store(new ByteArrayInputStream(orphan), 1024).getHash();
+        Files.setLastModifiedTime(blobStore.path(referencedHash), FileTime.fromMillis(0));
+        Files.setLastModifiedTime(blobStore.path(orphanHash), FileTime.fromMillis(0));
+
+        blobStore.collectGarbage(Collections.singleton(referencedHash), 60000);
+
+        assertThat(blobStore.exists(referencedHash)).isTrue();
+        assertThat(blobStore.exists(orphanHash)).isFalse();
+    }
+
+    private Long getTextId(Long contentId) {
+        return entityManager.createQuery("select content.contentText.id from Content content where content.id = :id", Long.class)
+            .setParameter("id", contentId)
+            .getSingleResult();
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        StringBuilder hash = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
 }
@@ -1,8 +1,16 @@
 package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
+import com.teachit.domain.Content;
 import com.teachit.domain.ContentView;
+import com.teachit.domain.Person;
+import com.teachit.repository.ContentRepository;
 import com.teachit.repository.ContentViewRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.service.ContentViewBuffer;
+import com.teachit.web.rest.dto.ContentViewDTO;
+import com.teachit.web.rest.mapper.ContentViewMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -23,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +57,21 @@ public class ContentViewResourceIntTest {
     @Inject
     private ContentViewRepository contentViewRepository;
 
+    @Inject
+    private ContentViewMapper contentViewMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private ContentViewBuffer contentViewBuffer;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -63,6 +87,9 @@ public class ContentViewResourceIntTest {
         MockitoAnnotations.initMocks(this);
         ContentViewResource contentViewResource = new ContentViewResource();
         ReflectionTestUtils.setField(contentViewResource, "contentViewRepository", contentViewRepository);
+        ReflectionTestUtils.setField(contentViewResource, "contentViewMapper", contentViewMapper);
+        ReflectionTestUtils.setField(contentViewResource, "keysetPaginationRepository", keysetPaginationRepository);
+        ReflectionTestUtils.setField(contentViewResource, "contentViewBuffer", contentViewBuffer);
         this.restContentViewMockMvc = MockMvcBuilders.standaloneSetup(contentViewResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -80,10 +107,11 @@ public class ContentViewResourceIntTest {
         int databaseSizeBeforeCreate = contentViewRepository.findAll().size();
 
         // Create the ContentView
+        ContentViewDTO contentViewDTO = contentViewMapper.contentViewToContentViewDTO(contentView);
 
         restContentViewMockMvc.perform(post("/api/content-views")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(contentView)))
+                .content(TestUtil.convertObjectToJsonBytes(contentViewDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the ContentView in the database
@@ -93,14 +121,59 @@ public class ContentViewResourceIntTest {
         assertThat(testContentView.isView()).isEqualTo(DEFAULT_VIEW);
     }
 
+    @Test
+    @Transactional
+    public void trackContentViews() throws Exception {
+        Person person = personRepository.saveAndFlush(new Person());
+        Content content = contentRepository.saveAndFlush(new Content());
+        Content viewedContent = contentRepository.saveAndFlush(new Content());
+        contentView.setPerson(person);
+        contentView.setContent(viewedContent);
+        contentViewRepository.saveAndFlush(contentView);
+        int databaseSizeBeforeTrack = contentViewRepository.findAll().size();
+
+        // Track the same view twice, and a view already saved
+        ContentViewDTO view = new ContentViewDTO();
+        view.setPersonId(person.getId());
+        view.setContentId(content.getId());
+        ContentViewDTO savedView = new ContentViewDTO();
+        savedView.setPersonId(person.getId());
+        savedView.setContentId(viewedContent.getId());
+        for (int i = 0; i < 2; i++) {
+            restContentViewMockMvc.perform(post("/api/content-views/track")
+                    .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                    .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(view, savedView))))
+                    .andExpect(status().isAccepted());
+        }
+        assertThat(contentViewBuffer.flush()).isEqualTo(2);
+
+        // Validate a single ContentView was inserted, and the saved one marked as viewed
+        List<ContentView> contentViews = contentViewRepository.findAll();
+        assertThat(contentViews).hasSize(databaseSizeBeforeTrack + 1);
+        assertThat(contentViewRepository.findViews(Arrays.asList(person.getId()), Arrays.asList(content.getId(), viewedContent.getId())))
+            .extracting(row -> row[3]).containsOnly(true);
+    }
+
+    @Test
+    @Transactional
+    public void trackContentViewWithoutPerson() throws Exception {
+        ContentViewDTO view = new ContentViewDTO();
+        view.setContentId(Long.MAX_VALUE);
+
+        restContentViewMockMvc.perform(post("/api/content-views/track")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(view))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getAllContentViews() throws Exception {
         // Initialize the database
         contentViewRepository.saveAndFlush(contentView);
 
-        // Get all the contentViews
-        restContentViewMockMvc.perform(get("/api/content-views?sort=id,desc"))
+        // Get all the contentViews, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restContentViewMockMvc, get("/api/content-views?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(contentView.getId().intValue())))
@@ -141,9 +214,11 @@ public class ContentViewResourceIntTest {
         updatedContentView.setId(contentView.getId());
         updatedContentView.setView(UPDATED_VIEW);
 
+        ContentViewDTO contentViewDTO = contentViewMapper.contentViewToContentViewDTO(updatedContentView);
+
         restContentViewMockMvc.perform(put("/api/content-views")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedContentView)))
+                .content(TestUtil.convertObjectToJsonBytes(contentViewDTO)))
                 .andExpect(status().isOk());
 
         // Validate the ContentView in the database
@@ -2,15 +2,22 @@ package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
 import com.teachit.domain.Course;
+import com.teachit.domain.Lesson;
 import com.teachit.repository.CourseRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.repository.LessonRepository;
+import com.teachit.web.rest.dto.CourseDTO;
+import com.teachit.web.rest.mapper.CourseMapper;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.IntegrationTest;
 import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
@@ -26,6 +33,8 @@ import javax.inject.Inject;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -57,6 +66,15 @@ public class CourseResourceIntTest {
     @Inject
     private CourseRepository courseRepository;
 
+    @Inject
+    private CourseMapper courseMapper;
+
+    @Inject
+    private LessonRepository lessonRepository;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -72,6 +90,8 @@ public class CourseResourceIntTest {
         MockitoAnnotations.initMocks(this);
         CourseResource courseResource = new CourseResource();
         ReflectionTestUtils.setField(courseResource, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(courseResource, "courseMapper", courseMapper);
+        ReflectionTestUtils.setField(courseResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restCourseMockMvc = MockMvcBuilders.standaloneSetup(courseResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -92,10 +112,11 @@ public class CourseResourceIntTest {
         int databaseSizeBeforeCreate = courseRepository.findAll().size();
 
         // Create the Course
+        CourseDTO courseDTO = courseMapper.courseToCourseDTO(course);
 
         restCourseMockMvc.perform(post("/api/courses")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(course)))
+                .content(TestUtil.convertObjectToJsonBytes(courseDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the Course in the database
@@ -114,8 +135,8 @@ public class CourseResourceIntTest {
         // Initialize the database
         courseRepository.saveAndFlush(course);
 
-        // Get all the courses
-        restCourseMockMvc.perform(get("/api/courses?sort=id,desc"))
+        // Get all the courses, in at most 3 statements: the page, its collections and the count
+        SqlStatementBudget.perform(restCourseMockMvc, get("/api/courses?sort=id,desc"), 3)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(course.getId().intValue())))
@@ -125,6 +146,109 @@ public class CourseResourceIntTest {
                 .andExpect(jsonPath("$.[*].openCourse").value(hasItem(DEFAULT_OPEN_COURSE.booleanValue())));
     }
 
+    @Test
+    @Transactional
+    public void getAllCoursesWithLessons() throws Exception {
+        // Initialize the database
+        Lesson lesson = new Lesson();
+        lesson.setName(DEFAULT_NAME);
+        lessonRepository.saveAndFlush(lesson);
+        course.getLessons().add(lesson);
+        courseRepository.saveAndFlush(course);
+
+        // Get all the courses with their lessons
+        restCourseMockMvc.perform(get("/api/courses?sort=name,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(course.getId().intValue())))
+                .andExpect(jsonPath("$.[*].lessons[*].id").value(hasItem(lesson.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCoursesAfterCursor() throws Exception {
+        // Initialize the database
+        courseRepository.saveAndFlush(course);
+        Course nextCourse = new Course();
+        nextCourse.setCode(UPDATED_CODE);
+        nextCourse.setName(UPDATED_NAME);
+        courseRepository.saveAndFlush(nextCourse);
+
+        // Get the first page, which links to the next one with a cursor
+        String link = restCourseMockMvc.perform(get("/api/courses?sort=id,desc&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(nextCourse.getId().intValue())))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+        Matcher cursor = Pattern.compile("after=([\\w-]+)").matcher(link);
+        assertThat(cursor.find()).isTrue();
+
+        // Get the next page
+        restCourseMockMvc.perform(get("/api/courses?sort=id,desc&size=1&page=1&after=" + cursor.group(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(course.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllFilteredCoursesAfterCursor() throws Exception {
+        // Initialize the database
+        courseRepository.saveAndFlush(course);
+        Course nextCourse = new Course();
+        nextCourse.setCode(UPDATED_CODE);
+        nextCourse.setName(UPDATED_NAME);
+        courseRepository.saveAndFlush(nextCourse);
+
+        // The links keep the filter and sort, and there is no last link as the filtered courses are not counted
+        String ids = course.getId() + "," + nextCourse.getId();
+        String link = restCourseMockMvc.perform(get("/api/courses?sort=id,desc&size=1&id.in=" + ids))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"").doesNotContain("rel=\"last\"");
+        Matcher next = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(link);
+        assertThat(next.find()).isTrue();
+        assertThat(next.group(1)).contains("sort=id,desc").contains("id.in=" + ids).contains("after=");
+
+        // Follow the next link
+        restCourseMockMvc.perform(get(next.group(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(course.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCoursesByOffset() throws Exception {
+        // Initialize the database
+        courseRepository.saveAndFlush(course);
+        Course nextCourse = new Course();
+        nextCourse.setCode(UPDATED_CODE);
+        nextCourse.setName(UPDATED_NAME);
+        courseRepository.saveAndFlush(nextCourse);
+
+        // Jump to the second page, counted
+        String ids = course.getId() + "," + nextCourse.getId();
+        String link = restCourseMockMvc.perform(get("/api/courses?sort=id,desc&size=1&page=1&id.in=" + ids))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$.[*].id").value(contains(course.getId().intValue())))
+                .andExpect(jsonPath("$.[*].name").value(contains(DEFAULT_NAME)))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        // The links keep the filter and sort
+        Matcher prev = Pattern.compile("<([^>]*)>; rel=\"prev\"").matcher(link);
+        assertThat(prev.find()).isTrue();
+        assertThat(prev.group(1)).contains("sort=id,desc").contains("id.in=" + ids).contains("page=0");
+        restCourseMockMvc.perform(get(prev.group(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(contains(nextCourse.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCoursesWithInvalidCursor() throws Exception {
+        restCourseMockMvc.perform(get("/api/courses?sort=id,desc&after=invalid"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getCourse() throws Exception {
@@ -165,9 +289,11 @@ public class CourseResourceIntTest {
         updatedCourse.setName(UPDATED_NAME);
         updatedCourse.setOpenCourse(UPDATED_OPEN_COURSE);
 
+        CourseDTO courseDTO = courseMapper.courseToCourseDTO(updatedCourse);
+
         restCourseMockMvc.perform(put("/api/courses")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedCourse)))
+                .content(TestUtil.convertObjectToJsonBytes(courseDTO)))
                 .andExpect(status().isOk());
 
         // Validate the Course in the database
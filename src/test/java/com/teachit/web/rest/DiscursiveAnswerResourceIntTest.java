@@ -3,14 +3,22 @@ package com.teachit.web.rest;
 import com.teachit.TeachitApp;
 import com.teachit.domain.DiscursiveAnswer;
 import com.teachit.repository.DiscursiveAnswerRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.service.AnswerExportService;
+import com.teachit.service.DiscursiveAnswerService;
+import com.teachit.web.rest.dto.DiscursiveAnswerDTO;
+import com.teachit.web.rest.mapper.DiscursiveAnswerMapper;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.IntegrationTest;
 import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
@@ -18,6 +26,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -50,6 +59,18 @@ public class DiscursiveAnswerResourceIntTest {
     @Inject
     private DiscursiveAnswerRepository discursiveAnswerRepository;
 
+    @Inject
+    private DiscursiveAnswerMapper discursiveAnswerMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private AnswerExportService answerExportService;
+
+    @Inject
+    private DiscursiveAnswerService discursiveAnswerService;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -65,6 +86,10 @@ public class DiscursiveAnswerResourceIntTest {
         MockitoAnnotations.initMocks(this);
         DiscursiveAnswerResource discursiveAnswerResource = new DiscursiveAnswerResource();
         ReflectionTestUtils.setField(discursiveAnswerResource, "discursiveAnswerRepository", discursiveAnswerRepository);
+        ReflectionTestUtils.setField(discursiveAnswerResource, "discursiveAnswerMapper", discursiveAnswerMapper);
+        ReflectionTestUtils.setField(discursiveAnswerResource, "keysetPaginationRepository", keysetPaginationRepository);
+        ReflectionTestUtils.setField(discursiveAnswerResource, "answerExportService", answerExportService);
+        ReflectionTestUtils.setField(discursiveAnswerResource, "discursiveAnswerService", discursiveAnswerService);
         this.restDiscursiveAnswerMockMvc = MockMvcBuilders.standaloneSetup(discursiveAnswerResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -83,10 +108,11 @@ public class DiscursiveAnswerResourceIntTest {
         int databaseSizeBeforeCreate = discursiveAnswerRepository.findAll().size();
 
         // Create the DiscursiveAnswer
+        DiscursiveAnswerDTO discursiveAnswerDTO = discursiveAnswerMapper.discursiveAnswerToDiscursiveAnswerDTO(discursiveAnswer);
 
         restDiscursiveAnswerMockMvc.perform(post("/api/discursive-answers")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(discursiveAnswer)))
+                .content(TestUtil.convertObjectToJsonBytes(discursiveAnswerDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the DiscursiveAnswer in the database
@@ -103,12 +129,12 @@ public class DiscursiveAnswerResourceIntTest {
         // Initialize the database
         discursiveAnswerRepository.saveAndFlush(discursiveAnswer);
 
-        // Get all the discursiveAnswers
-        restDiscursiveAnswerMockMvc.perform(get("/api/discursive-answers?sort=id,desc"))
+        // Get all the discursiveAnswers, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restDiscursiveAnswerMockMvc, get("/api/discursive-answers?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(discursiveAnswer.getId().intValue())))
-                .andExpect(jsonPath("$.[*].answer").value(hasItem(DEFAULT_ANSWER.toString())))
+                .andExpect(jsonPath("$.[*].answer").value(everyItem(nullValue())))
                 .andExpect(jsonPath("$.[*].score").value(hasItem(DEFAULT_SCORE.doubleValue())));
     }
 
@@ -127,6 +153,28 @@ public class DiscursiveAnswerResourceIntTest {
             .andExpect(jsonPath("$.score").value(DEFAULT_SCORE.doubleValue()));
     }
 
+    @Test
+    public void exportDiscursiveAnswers() throws Exception {
+        // Export the answers of a course without questions, streamed asynchronously
+        MvcResult mvcResult = restDiscursiveAnswerMockMvc.perform(get("/api/discursive-answers/export?courseId={courseId}&format=csv", Long.MAX_VALUE))
+            .andExpect(request().asyncStarted())
+            .andExpect(content().contentType("text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"discursive-answers.csv\""))
+            .andReturn();
+        mvcResult.getAsyncResult();
+
+        restDiscursiveAnswerMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk());
+        // the body is streamed to the response of the request
+        assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo("id,questionId,studentId,score,answer\r\n");
+    }
+
+    @Test
+    public void exportDiscursiveAnswersWithUnknownFormat() throws Exception {
+        restDiscursiveAnswerMockMvc.perform(get("/api/discursive-answers/export?format=xls"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getNonExistingDiscursiveAnswer() throws Exception {
@@ -148,9 +196,11 @@ public class DiscursiveAnswerResourceIntTest {
         updatedDiscursiveAnswer.setAnswer(UPDATED_ANSWER);
         updatedDiscursiveAnswer.setScore(UPDATED_SCORE);
 
+        DiscursiveAnswerDTO discursiveAnswerDTO = discursiveAnswerMapper.discursiveAnswerToDiscursiveAnswerDTO(updatedDiscursiveAnswer);
+
         restDiscursiveAnswerMockMvc.perform(put("/api/discursive-answers")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedDiscursiveAnswer)))
+                .content(TestUtil.convertObjectToJsonBytes(discursiveAnswerDTO)))
                 .andExpect(status().isOk());
 
         // Validate the DiscursiveAnswer in the database
@@ -3,6 +3,9 @@ package com.teachit.web.rest;
 import com.teachit.TeachitApp;
 import com.teachit.domain.DiscursiveQuestion;
 import com.teachit.repository.DiscursiveQuestionRepository;
+import com.teachit.repository.KeysetPaginationRepository;
+import com.teachit.web.rest.dto.DiscursiveQuestionDTO;
+import com.teachit.web.rest.mapper.DiscursiveQuestionMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -55,6 +58,12 @@ public class DiscursiveQuestionResourceIntTest {
     @Inject
     private DiscursiveQuestionRepository discursiveQuestionRepository;
 
+    @Inject
+    private DiscursiveQuestionMapper discursiveQuestionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -70,6 +79,8 @@ public class DiscursiveQuestionResourceIntTest {
         MockitoAnnotations.initMocks(this);
         DiscursiveQuestionResource discursiveQuestionResource = new DiscursiveQuestionResource();
         ReflectionTestUtils.setField(discursiveQuestionResource, "discursiveQuestionRepository", discursiveQuestionRepository);
+        ReflectionTestUtils.setField(discursiveQuestionResource, "discursiveQuestionMapper", discursiveQuestionMapper);
+        ReflectionTestUtils.setField(discursiveQuestionResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restDiscursiveQuestionMockMvc = MockMvcBuilders.standaloneSetup(discursiveQuestionResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -89,10 +100,11 @@ public class DiscursiveQuestionResourceIntTest {
         int databaseSizeBeforeCreate = discursiveQuestionRepository.findAll().size();
 
         // Create the DiscursiveQuestion
+        DiscursiveQuestionDTO discursiveQuestionDTO = discursiveQuestionMapper.discursiveQuestionToDiscursiveQuestionDTO(discursiveQuestion);
 
         restDiscursiveQuestionMockMvc.perform(post("/api/discursive-questions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(discursiveQuestion)))
+                .content(TestUtil.convertObjectToJsonBytes(discursiveQuestionDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the DiscursiveQuestion in the database
@@ -110,8 +122,8 @@ public class DiscursiveQuestionResourceIntTest {
         // Initialize the database
         discursiveQuestionRepository.saveAndFlush(discursiveQuestion);
 
-        // Get all the discursiveQuestions
-        restDiscursiveQuestionMockMvc.perform(get("/api/discursive-questions?sort=id,desc"))
+        // Get all the discursiveQuestions, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restDiscursiveQuestionMockMvc, get("/api/discursive-questions?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(discursiveQuestion.getId().intValue())))
@@ -158,9 +170,11 @@ public class DiscursiveQuestionResourceIntTest {
         updatedDiscursiveQuestion.setStartDate(UPDATED_START_DATE);
         updatedDiscursiveQuestion.setQuestion(UPDATED_QUESTION);
 
+        DiscursiveQuestionDTO discursiveQuestionDTO = discursiveQuestionMapper.discursiveQuestionToDiscursiveQuestionDTO(updatedDiscursiveQuestion);
+
         restDiscursiveQuestionMockMvc.perform(put("/api/discursive-questions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedDiscursiveQuestion)))
+                .content(TestUtil.convertObjectToJsonBytes(discursiveQuestionDTO)))
                 .andExpect(status().isOk());
 
         // Validate the DiscursiveQuestion in the database
@@ -0,0 +1,242 @@
+package com.teachit.web.rest;
+
+import com.teachit.TeachitApp;
+import com.teachit.config.JHipsterProperties;
+import com.teachit.domain.Content;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.FileUploadRepository;
+import com.teachit.service.FileUploadService;
+import com.teachit.service.storage.BlobStore;
+import com.teachit.service.storage.UploadStore;
+import com.teachit.web.rest.dto.FileUploadDTO;
+import com.teachit.web.rest.mapper.ContentMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+/**
+ * Test class for the FileUploadResource REST controller.
+ *
+ * @see FileUploadResource
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = TeachitApp.class)
+@WebAppConfiguration
+@IntegrationTest
+public class FileUploadResourceIntTest {
+
+    // 20 bytes: 3 chunks of the chunk size of the tests, the last of 4 bytes
+    private static final byte[] FILE = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @Inject
+    private FileUploadService fileUploadService;
+
+    @Inject
+    private FileUploadRepository fileUploadRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private ContentMapper contentMapper;
+
+    @Inject
+    private UploadStore uploadStore;
+
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    private MockMvc restFileUploadMockMvc;
+
+    private Content content;
+
+    private FileUploadDTO fileUploadDTO;
+
+    @PostConstruct
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        FileUploadResource fileUploadResource = new FileUploadResource();
+        ReflectionTestUtils.setField(fileUploadResource, "fileUploadService", fileUploadService);
+        ReflectionTestUtils.setField(fileUploadResource, "uploadStore", uploadStore);
+        ReflectionTestUtils.setField(fileUploadResource, "blobStore", blobStore);
+        ReflectionTestUtils.setField(fileUploadResource, "contentMapper", contentMapper);
+        ReflectionTestUtils.setField(fileUploadResource, "jHipsterProperties", jHipsterProperties);
+        this.restFileUploadMockMvc = MockMvcBuilders.standaloneSetup(fileUploadResource)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        content = new Content();
+        fileUploadDTO = new FileUploadDTO();
+        fileUploadDTO.setFileName("lecture.mp4");
+        fileUploadDTO.setFileContentType("video/mp4");
+        fileUploadDTO.setFileSize((long) FILE.length);
+    }
+
+    @Test
+    @Transactional
+    public void uploadFileInChunks() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+
+        // Create the upload
+        restFileUploadMockMvc.perform(post("/api/contents/{contentId}/uploads", content.getId())
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(fileUploadDTO)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.contentId").value(content.getId().intValue()))
+            .andExpect(jsonPath("$.chunkSize").value(8))
+            .andExpect(jsonPath("$.missingOffsets", contains(0, 8, 16)));
+        Long id = fileUploadRepository.findAll().get(0).getId();
+
+        // Send the chunks out of order, one of them twice
+        uploadChunk(id, 16)
+            .andExpect(jsonPath("$.receivedChunks").value(1))
+            .andExpect(jsonPath("$.missingOffsets", contains(0, 8)));
+        uploadChunk(id, 0);
+        uploadChunk(id, 16)
+            .andExpect(jsonPath("$.receivedChunks").value(2));
+        assertThat(fileUploadService.findOne(id).isComplete()).isFalse();
+        uploadChunk(id, 8)
+            .andExpect(jsonPath("$.missingOffsets", empty()))
+            .andExpect(jsonPath("$.complete").value(true));
+
+        // Finalize the upload
+        String hash = sha256(FILE);
+        restFileUploadMockMvc.perform(post("/api/uploads/{id}/finalize", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(content.getId().intValue()))
+            .andExpect(jsonPath("$.fileName").value("lecture.mp4"))
+            .andExpect(jsonPath("$.fileHash").value(hash))
+            .andExpect(jsonPath("$.fileSize").value(FILE.length))
+            .andExpect(jsonPath("$.fileContentType").value("video/mp4"));
+
+        // The file was moved to the storage
+        assertThat(Files.readAllBytes(blobStore.path(hash))).isEqualTo(FILE);
+        assertThat(Files.exists(uploadStore.path(id))).isFalse();
+        assertThat(fileUploadRepository.findOne(id)).isNull();
+    }
+
+    @Test
+    @Transactional
+    public void finalizeIncompleteUpload() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        Long id = fileUploadService.create(content.getId(), fileUploadDTO).getId();
+        uploadChunk(id, 0);
+
+        restFileUploadMockMvc.perform(post("/api/uploads/{id}/finalize", id))
+            .andExpect(status().isConflict());
+
+        // Resume the upload
+        restFileUploadMockMvc.perform(get("/api/uploads/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.missingOffsets", contains(8, 16)));
+
+        // Abort the upload
+        restFileUploadMockMvc.perform(delete("/api/uploads/{id}", id))
+            .andExpect(status().isOk());
+        assertThat(Files.exists(uploadStore.path(id))).isFalse();
+        assertThat(fileUploadRepository.findOne(id)).isNull();
+    }
+
+    @Test
+    @Transactional
+    public void uploadInvalidChunk() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+        Long id = fileUploadService.create(content.getId(), fileUploadDTO).getId();
+
+        // Not the offset of a chunk
+        restFileUploadMockMvc.perform(patch("/api/uploads/{id}", id)
+            .param("offset", "4")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(Arrays.copyOfRange(FILE, 4, 12)))
+            .andExpect(status().isBadRequest());
+        // Not the length of the chunk
+        restFileUploadMockMvc.perform(patch("/api/uploads/{id}", id)
+            .param("offset", "0")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(Arrays.copyOfRange(FILE, 0, 4)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(fileUploadService.findOne(id).getReceivedChunkSet().isEmpty()).isTrue();
+        uploadStore.delete(id);
+    }
+
+    @Test
+    @Transactional
+    public void createInvalidUpload() throws Exception {
+        // Initialize the database
+        contentRepository.saveAndFlush(content);
+
+        restFileUploadMockMvc.perform(post("/api/contents/{contentId}/uploads", Long.MAX_VALUE)
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(fileUploadDTO)))
+            .andExpect(status().isNotFound());
+
+        fileUploadDTO.setFileSize(jHipsterProperties.getStorage().getMaxFileSize() + 1);
+        restFileUploadMockMvc.perform(post("/api/contents/{contentId}/uploads", content.getId())
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(fileUploadDTO)))
+            .andExpect(status().isPayloadTooLarge());
+
+        fileUploadDTO.setFileSize(null);
+        restFileUploadMockMvc.perform(post("/api/contents/{contentId}/uploads", content.getId())
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(fileUploadDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(fileUploadRepository.findAll()).isEmpty();
+    }
+
+    private ResultActions uploadChunk(Long id, int offset) throws Exception {
+        return restFileUploadMockMvc.perform(patch("/api/uploads/{id}", id)
+            .param("offset", String.valueOf(offset))
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .content(Arrays.copyOfRange(FILE, offset, Math.min(offset + 8, FILE.length))))
+            .andExpect(status().isOk());
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        StringBuilder hash = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+}
@@ -0,0 +1,276 @@
+package com.teachit.web.rest;
+
+import com.teachit.TeachitApp;
+import com.teachit.domain.Choice;
+import com.teachit.domain.Course;
+import com.teachit.domain.DiscursiveAnswer;
+import com.teachit.domain.DiscursiveQuestion;
+import com.teachit.domain.MultipleChoiceAnswer;
+import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.domain.Person;
+import com.teachit.repository.ChoiceRepository;
+import com.teachit.repository.CourseRepository;
+import com.teachit.repository.DiscursiveQuestionRepository;
+import com.teachit.repository.GradebookEntryRepository;
+import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.service.DiscursiveAnswerService;
+import com.teachit.service.GradebookService;
+import com.teachit.service.GradingService;
+import com.teachit.service.MultipleChoiceAnswerService;
+import com.teachit.service.grading.AnswerKeyIndex;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+/**
+ * Test class for the GradebookResource REST controller.
+ *
+ * @see GradebookResource
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = TeachitApp.class)
+@WebAppConfiguration
+@IntegrationTest
+public class GradebookResourceIntTest {
+
+    @Inject
+    private GradebookService gradebookService;
+
+    @Inject
+    private GradingService gradingService;
+
+    @Inject
+    private AnswerKeyIndex answerKeyIndex;
+
+    @Inject
+    private GradebookEntryRepository gradebookEntryRepository;
+
+    @Inject
+    private DiscursiveAnswerService discursiveAnswerService;
+
+    @Inject
+    private MultipleChoiceAnswerService multipleChoiceAnswerService;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private CourseRepository courseRepository;
+
+    @Inject
+    private DiscursiveQuestionRepository discursiveQuestionRepository;
+
+    @Inject
+    private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private ChoiceRepository choiceRepository;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    private MockMvc restGradebookMockMvc;
+
+    private Person student;
+
+    private Course course;
+
+    private DiscursiveQuestion discursiveQuestion;
+
+    private MultipleChoiceQuestion multipleChoiceQuestion;
+
+    @PostConstruct
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        GradebookResource gradebookResource = new GradebookResource();
+        ReflectionTestUtils.setField(gradebookResource, "gradebookService", gradebookService);
+        ReflectionTestUtils.setField(gradebookResource, "gradingService", gradingService);
+        this.restGradebookMockMvc = MockMvcBuilders.standaloneSetup(gradebookResource)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        student = new Person();
+        course = new Course();
+        course.setName("AAAAA");
+        discursiveQuestion = new DiscursiveQuestion();
+        multipleChoiceQuestion = new MultipleChoiceQuestion();
+    }
+
+    @Test
+    @Transactional
+    public void getGradesOfStudent() throws Exception {
+        // Initialize the database
+        initAnswers();
+
+        // Get the grades of the student
+        restGradebookMockMvc.perform(get("/api/gradebook/students/{personId}", student.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.[0].personId").value(student.getId().intValue()))
+            .andExpect(jsonPath("$.[0].courseId").value(course.getId().intValue()))
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(2))
+            .andExpect(jsonPath("$.[0].discursiveScore").value(7.5))
+            .andExpect(jsonPath("$.[0].multipleChoiceAnswers").value(2))
+            .andExpect(jsonPath("$.[0].correctAnswers").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void getGradesOfCourse() throws Exception {
+        // Initialize the database
+        initAnswers();
+
+        // Get the grades of the course
+        restGradebookMockMvc.perform(get("/api/gradebook/courses/{courseId}", course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.[0].personId").value(student.getId().intValue()))
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(2))
+            .andExpect(jsonPath("$.[0].correctAnswers").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void updateAndDeleteAnswers() throws Exception {
+        // Initialize the database
+        initAnswers();
+        DiscursiveAnswer discursiveAnswer = saveDiscursiveAnswer(1.0);
+        MultipleChoiceAnswer multipleChoiceAnswer = saveMultipleChoiceAnswer(false);
+
+        // Update the score of one answer and delete another
+        DiscursiveAnswer updatedDiscursiveAnswer = new DiscursiveAnswer();
+        updatedDiscursiveAnswer.setId(discursiveAnswer.getId());
+        updatedDiscursiveAnswer.setStudent(student);
+        updatedDiscursiveAnswer.setQuestion(discursiveQuestion);
+        updatedDiscursiveAnswer.setScore(4.0);
+        discursiveAnswerService.save(updatedDiscursiveAnswer);
+        multipleChoiceAnswerService.delete(multipleChoiceAnswer.getId());
+
+        restGradebookMockMvc.perform(get("/api/gradebook/students/{personId}", student.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(3))
+            .andExpect(jsonPath("$.[0].discursiveScore").value(11.5))
+            .andExpect(jsonPath("$.[0].multipleChoiceAnswers").value(2));
+    }
+
+    @Test
+    @Transactional
+    public void rebuildGradebook() throws Exception {
+        // Initialize the database
+        initAnswers();
+        gradebookEntryRepository.deleteAllInBatch();
+        assertThat(gradebookService.findGradesOfStudent(student.getId())).isEmpty();
+
+        // Rebuild the gradebook
+        restGradebookMockMvc.perform(post("/api/gradebook/rebuild"))
+            .andExpect(status().isOk());
+
+        restGradebookMockMvc.perform(get("/api/gradebook/students/{personId}", student.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(2))
+            .andExpect(jsonPath("$.[0].discursiveScore").value(7.5))
+            .andExpect(jsonPath("$.[0].multipleChoiceAnswers").value(2))
+            .andExpect(jsonPath("$.[0].correctAnswers").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void deleteAnswerMissingFromTheGradebook() throws Exception {
+        // Initialize the database
+        initAnswers();
+        MultipleChoiceAnswer multipleChoiceAnswer = saveMultipleChoiceAnswer(true);
+        gradebookEntryRepository.deleteAllInBatch();
+
+        // Delete the answer, then run the nightly rebuild
+        multipleChoiceAnswerService.delete(multipleChoiceAnswer.getId());
+        assertThat(gradebookService.findGradesOfStudent(student.getId())).isEmpty();
+        gradebookService.rebuildIfStale();
+
+        restGradebookMockMvc.perform(get("/api/gradebook/students/{personId}", student.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(2))
+            .andExpect(jsonPath("$.[0].multipleChoiceAnswers").value(2))
+            .andExpect(jsonPath("$.[0].correctAnswers").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void gradeCourse() throws Exception {
+        // Initialize the database
+        initAnswers();
+        MultipleChoiceAnswer multipleChoiceAnswer = saveMultipleChoiceAnswer(false);
+
+        // Make the choice of the last answer correct, then grade the course again
+        Choice choice = multipleChoiceAnswer.getChoosen();
+        choice.setCorrect(true);
+        choiceRepository.saveAndFlush(choice);
+        answerKeyIndex.put(choice.getId(), multipleChoiceQuestion.getId(), true);
+        assertThat(answerKeyIndex.isCorrect(multipleChoiceQuestion.getId(), choice.getId())).isTrue();
+
+        restGradebookMockMvc.perform(post("/api/gradebook/courses/{courseId}/grade", course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-teachitApp-params", "3"));
+
+        restGradebookMockMvc.perform(get("/api/gradebook/students/{personId}", student.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].discursiveAnswers").value(2))
+            .andExpect(jsonPath("$.[0].multipleChoiceAnswers").value(3))
+            .andExpect(jsonPath("$.[0].correctAnswers").value(2));
+    }
+
+    private void initAnswers() {
+        personRepository.saveAndFlush(student);
+        courseRepository.saveAndFlush(course);
+        discursiveQuestion.setCourse(course);
+        discursiveQuestionRepository.saveAndFlush(discursiveQuestion);
+        multipleChoiceQuestion.setCourse(course);
+        multipleChoiceQuestionRepository.saveAndFlush(multipleChoiceQuestion);
+        saveDiscursiveAnswer(5.0);
+        saveDiscursiveAnswer(2.5);
+        saveMultipleChoiceAnswer(true);
+        saveMultipleChoiceAnswer(false);
+    }
+
+    private DiscursiveAnswer saveDiscursiveAnswer(double score) {
+        DiscursiveAnswer answer = new DiscursiveAnswer();
+        answer.setStudent(student);
+        answer.setQuestion(discursiveQuestion);
+        answer.setScore(score);
+        return discursiveAnswerService.save(answer);
+    }
+
+    private MultipleChoiceAnswer saveMultipleChoiceAnswer(boolean correct) {
+        Choice choice = new Choice();
+        choice.setQuestion(multipleChoiceQuestion);
+        choice.setCorrect(correct);
+        choiceRepository.saveAndFlush(choice);
+        MultipleChoiceAnswer answer = new MultipleChoiceAnswer();
+        answer.setStudent(student);
+        answer.setQuestion(multipleChoiceQuestion);
+        answer.setChoosen(choice);
+        return multipleChoiceAnswerService.save(answer);
+    }
+}
@@ -2,7 +2,10 @@ package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
 import com.teachit.domain.Lesson;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.LessonRepository;
+import com.teachit.web.rest.dto.LessonDTO;
+import com.teachit.web.rest.mapper.LessonMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -57,6 +60,12 @@ public class LessonResourceIntTest {
     @Inject
     private LessonRepository lessonRepository;
 
+    @Inject
+    private LessonMapper lessonMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -72,6 +81,8 @@ public class LessonResourceIntTest {
         MockitoAnnotations.initMocks(this);
         LessonResource lessonResource = new LessonResource();
         ReflectionTestUtils.setField(lessonResource, "lessonRepository", lessonRepository);
+        ReflectionTestUtils.setField(lessonResource, "lessonMapper", lessonMapper);
+        ReflectionTestUtils.setField(lessonResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restLessonMockMvc = MockMvcBuilders.standaloneSetup(lessonResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -92,10 +103,11 @@ public class LessonResourceIntTest {
         int databaseSizeBeforeCreate = lessonRepository.findAll().size();
 
         // Create the Lesson
+        LessonDTO lessonDTO = lessonMapper.lessonToLessonDTO(lesson);
 
         restLessonMockMvc.perform(post("/api/lessons")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(lesson)))
+                .content(TestUtil.convertObjectToJsonBytes(lessonDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the Lesson in the database
@@ -114,8 +126,8 @@ public class LessonResourceIntTest {
         // Initialize the database
         lessonRepository.saveAndFlush(lesson);
 
-        // Get all the lessons
-        restLessonMockMvc.perform(get("/api/lessons?sort=id,desc"))
+        // Get all the lessons, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restLessonMockMvc, get("/api/lessons?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(lesson.getId().intValue())))
@@ -165,9 +177,11 @@ public class LessonResourceIntTest {
         updatedLesson.setName(UPDATED_NAME);
         updatedLesson.setDescription(UPDATED_DESCRIPTION);
 
+        LessonDTO lessonDTO = lessonMapper.lessonToLessonDTO(updatedLesson);
+
         restLessonMockMvc.perform(put("/api/lessons")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedLesson)))
+                .content(TestUtil.convertObjectToJsonBytes(lessonDTO)))
                 .andExpect(status().isOk());
 
         // Validate the Lesson in the database
@@ -1,8 +1,23 @@
 package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
+import com.teachit.domain.Choice;
 import com.teachit.domain.MultipleChoiceAnswer;
+import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.domain.Person;
+import com.teachit.repository.ChoiceRepository;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.MultipleChoiceAnswerRepository;
+import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.service.AnswerExportService;
+import com.teachit.service.MultipleChoiceAnswerService;
+import com.teachit.service.QuizSubmissionService;
+import com.teachit.web.rest.dto.QuizAnswerDTO;
+import com.teachit.web.rest.dto.QuizSubmissionDTO;
+import com.teachit.web.rest.errors.ExceptionTranslator;
+import com.teachit.web.rest.dto.MultipleChoiceAnswerDTO;
+import com.teachit.web.rest.mapper.MultipleChoiceAnswerMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +60,30 @@ public class MultipleChoiceAnswerResourceIntTest {
     @Inject
     private MultipleChoiceAnswerRepository multipleChoiceAnswerRepository;
 
+    @Inject
+    private MultipleChoiceAnswerMapper multipleChoiceAnswerMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
+    @Inject
+    private QuizSubmissionService quizSubmissionService;
+
+    @Inject
+    private AnswerExportService answerExportService;
+
+    @Inject
+    private MultipleChoiceAnswerService multipleChoiceAnswerService;
+
+    @Inject
+    private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private ChoiceRepository choiceRepository;
+
+    @Inject
+    private PersonRepository personRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -60,8 +99,14 @@ public class MultipleChoiceAnswerResourceIntTest {
         MockitoAnnotations.initMocks(this);
         MultipleChoiceAnswerResource multipleChoiceAnswerResource = new MultipleChoiceAnswerResource();
         ReflectionTestUtils.setField(multipleChoiceAnswerResource, "multipleChoiceAnswerRepository", multipleChoiceAnswerRepository);
+        ReflectionTestUtils.setField(multipleChoiceAnswerResource, "multipleChoiceAnswerMapper", multipleChoiceAnswerMapper);
+        ReflectionTestUtils.setField(multipleChoiceAnswerResource, "keysetPaginationRepository", keysetPaginationRepository);
+        ReflectionTestUtils.setField(multipleChoiceAnswerResource, "quizSubmissionService", quizSubmissionService);
+        ReflectionTestUtils.setField(multipleChoiceAnswerResource, "answerExportService", answerExportService);
+        ReflectionTestUtils.setField(multipleChoiceAnswerResource, "multipleChoiceAnswerService", multipleChoiceAnswerService);
         this.restMultipleChoiceAnswerMockMvc = MockMvcBuilders.standaloneSetup(multipleChoiceAnswerResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setControllerAdvice(new ExceptionTranslator())
             .setMessageConverters(jacksonMessageConverter).build();
     }
 
@@ -76,10 +121,11 @@ public class MultipleChoiceAnswerResourceIntTest {
         int databaseSizeBeforeCreate = multipleChoiceAnswerRepository.findAll().size();
 
         // Create the MultipleChoiceAnswer
+        MultipleChoiceAnswerDTO multipleChoiceAnswerDTO = multipleChoiceAnswerMapper.multipleChoiceAnswerToMultipleChoiceAnswerDTO(multipleChoiceAnswer);
 
         restMultipleChoiceAnswerMockMvc.perform(post("/api/multiple-choice-answers")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceAnswer)))
+                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceAnswerDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the MultipleChoiceAnswer in the database
@@ -88,14 +134,113 @@ public class MultipleChoiceAnswerResourceIntTest {
         MultipleChoiceAnswer testMultipleChoiceAnswer = multipleChoiceAnswers.get(multipleChoiceAnswers.size() - 1);
     }
 
+    @Test
+    @Transactional
+    public void submitMultipleChoiceAnswers() throws Exception {
+        int databaseSizeBeforeCreate = multipleChoiceAnswerRepository.findAll().size();
+        Person student = personRepository.saveAndFlush(new Person());
+        MultipleChoiceQuestion firstQuestion = multipleChoiceQuestionRepository.saveAndFlush(new MultipleChoiceQuestion());
+        Choice firstChoice = createChoice(firstQuestion, true);
+        MultipleChoiceQuestion secondQuestion = multipleChoiceQuestionRepository.saveAndFlush(new MultipleChoiceQuestion());
+        Choice secondChoice = createChoice(secondQuestion, false);
+
+        // Submit an answer to both questions
+        QuizSubmissionDTO submission = new QuizSubmissionDTO();
+        submission.setStudentId(student.getId());
+        submission.getAnswers().add(new QuizAnswerDTO(firstQuestion.getId(), firstChoice.getId()));
+        submission.getAnswers().add(new QuizAnswerDTO(secondQuestion.getId(), secondChoice.getId()));
+        restMultipleChoiceAnswerMockMvc.perform(post("/api/multiple-choice-answers/bulk")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(submission)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.[0].questionId").value(firstQuestion.getId().intValue()))
+                .andExpect(jsonPath("$.[0].correct").value(true))
+                .andExpect(jsonPath("$.[1].questionId").value(secondQuestion.getId().intValue()))
+                .andExpect(jsonPath("$.[1].correct").value(false));
+
+        // Validate the MultipleChoiceAnswers in the database
+        List<MultipleChoiceAnswer> multipleChoiceAnswers = multipleChoiceAnswerRepository.findAll();
+        assertThat(multipleChoiceAnswers).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    public void submitMultipleChoiceAnswersWithChoiceOfAnotherQuestion() throws Exception {
+        int databaseSizeBeforeCreate = multipleChoiceAnswerRepository.findAll().size();
+        Person student = personRepository.saveAndFlush(new Person());
+        MultipleChoiceQuestion firstQuestion = multipleChoiceQuestionRepository.saveAndFlush(new MultipleChoiceQuestion());
+        MultipleChoiceQuestion secondQuestion = multipleChoiceQuestionRepository.saveAndFlush(new MultipleChoiceQuestion());
+        Choice secondChoice = createChoice(secondQuestion, true);
+
+        // Submit the choice of the second question as the answer to the first one
+        QuizSubmissionDTO submission = new QuizSubmissionDTO();
+        submission.setStudentId(student.getId());
+        submission.getAnswers().add(new QuizAnswerDTO(firstQuestion.getId(), secondChoice.getId()));
+        restMultipleChoiceAnswerMockMvc.perform(post("/api/multiple-choice-answers/bulk")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(submission)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("error.invalidquizanswer"));
+
+        // Validate nothing was saved
+        List<MultipleChoiceAnswer> multipleChoiceAnswers = multipleChoiceAnswerRepository.findAll();
+        assertThat(multipleChoiceAnswers).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    public void submitMultipleChoiceAnswersWithTheChoiceOfAnotherStudent() throws Exception {
+        int databaseSizeBeforeCreate = multipleChoiceAnswerRepository.findAll().size();
+        MultipleChoiceQuestion question = multipleChoiceQuestionRepository.saveAndFlush(new MultipleChoiceQuestion());
+        Choice choice = createChoice(question, true);
+
+        // Submit the same choice for two students
+        for (int i = 0; i < 2; i++) {
+            QuizSubmissionDTO submission = new QuizSubmissionDTO();
+            submission.setStudentId(personRepository.saveAndFlush(new Person()).getId());
+            submission.getAnswers().add(new QuizAnswerDTO(question.getId(), choice.getId()));
+            restMultipleChoiceAnswerMockMvc.perform(post("/api/multiple-choice-answers/bulk")
+                    .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                    .content(TestUtil.convertObjectToJsonBytes(submission)))
+                    .andExpect(status().isCreated());
+        }
+        multipleChoiceAnswerRepository.flush();
+
+        // Validate both MultipleChoiceAnswers in the database
+        List<MultipleChoiceAnswer> multipleChoiceAnswers = multipleChoiceAnswerRepository.findAll();
+        assertThat(multipleChoiceAnswers).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    public void submitTooManyMultipleChoiceAnswers() throws Exception {
+        QuizSubmissionDTO submission = new QuizSubmissionDTO();
+        submission.setStudentId(personRepository.saveAndFlush(new Person()).getId());
+        for (long i = 0; i <= QuizSubmissionDTO.MAX_ANSWERS; i++) {
+            submission.getAnswers().add(new QuizAnswerDTO(i, i));
+        }
+
+        restMultipleChoiceAnswerMockMvc.perform(post("/api/multiple-choice-answers/bulk")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(submission)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Choice createChoice(MultipleChoiceQuestion question, boolean correct) {
+        Choice choice = new Choice();
+        choice.setQuestion(question);
+        choice.setCorrect(correct);
+        return choiceRepository.saveAndFlush(choice);
+    }
+
     @Test
     @Transactional
     public void getAllMultipleChoiceAnswers() throws Exception {
         // Initialize the database
         multipleChoiceAnswerRepository.saveAndFlush(multipleChoiceAnswer);
 
-        // Get all the multipleChoiceAnswers
-        restMultipleChoiceAnswerMockMvc.perform(get("/api/multiple-choice-answers?sort=id,desc"))
+        // Get all the multipleChoiceAnswers, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restMultipleChoiceAnswerMockMvc, get("/api/multiple-choice-answers?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(multipleChoiceAnswer.getId().intValue())));
@@ -133,9 +278,11 @@ public class MultipleChoiceAnswerResourceIntTest {
         MultipleChoiceAnswer updatedMultipleChoiceAnswer = new MultipleChoiceAnswer();
         updatedMultipleChoiceAnswer.setId(multipleChoiceAnswer.getId());
 
+        MultipleChoiceAnswerDTO multipleChoiceAnswerDTO = multipleChoiceAnswerMapper.multipleChoiceAnswerToMultipleChoiceAnswerDTO(updatedMultipleChoiceAnswer);
+
         restMultipleChoiceAnswerMockMvc.perform(put("/api/multiple-choice-answers")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedMultipleChoiceAnswer)))
+                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceAnswerDTO)))
                 .andExpect(status().isOk());
 
         // Validate the MultipleChoiceAnswer in the database
@@ -2,7 +2,10 @@ package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
 import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.web.rest.dto.MultipleChoiceQuestionDTO;
+import com.teachit.web.rest.mapper.MultipleChoiceQuestionMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -55,6 +58,12 @@ public class MultipleChoiceQuestionResourceIntTest {
     @Inject
     private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
 
+    @Inject
+    private MultipleChoiceQuestionMapper multipleChoiceQuestionMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -70,6 +79,8 @@ public class MultipleChoiceQuestionResourceIntTest {
         MockitoAnnotations.initMocks(this);
         MultipleChoiceQuestionResource multipleChoiceQuestionResource = new MultipleChoiceQuestionResource();
         ReflectionTestUtils.setField(multipleChoiceQuestionResource, "multipleChoiceQuestionRepository", multipleChoiceQuestionRepository);
+        ReflectionTestUtils.setField(multipleChoiceQuestionResource, "multipleChoiceQuestionMapper", multipleChoiceQuestionMapper);
+        ReflectionTestUtils.setField(multipleChoiceQuestionResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restMultipleChoiceQuestionMockMvc = MockMvcBuilders.standaloneSetup(multipleChoiceQuestionResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -89,10 +100,11 @@ public class MultipleChoiceQuestionResourceIntTest {
         int databaseSizeBeforeCreate = multipleChoiceQuestionRepository.findAll().size();
 
         // Create the MultipleChoiceQuestion
+        MultipleChoiceQuestionDTO multipleChoiceQuestionDTO = multipleChoiceQuestionMapper.multipleChoiceQuestionToMultipleChoiceQuestionDTO(multipleChoiceQuestion);
 
         restMultipleChoiceQuestionMockMvc.perform(post("/api/multiple-choice-questions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceQuestion)))
+                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceQuestionDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the MultipleChoiceQuestion in the database
@@ -110,8 +122,8 @@ public class MultipleChoiceQuestionResourceIntTest {
         // Initialize the database
         multipleChoiceQuestionRepository.saveAndFlush(multipleChoiceQuestion);
 
-        // Get all the multipleChoiceQuestions
-        restMultipleChoiceQuestionMockMvc.perform(get("/api/multiple-choice-questions?sort=id,desc"))
+        // Get all the multipleChoiceQuestions, in at most 2 statements: the page and the count
+        SqlStatementBudget.perform(restMultipleChoiceQuestionMockMvc, get("/api/multiple-choice-questions?sort=id,desc"), 2)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(multipleChoiceQuestion.getId().intValue())))
@@ -158,9 +170,11 @@ public class MultipleChoiceQuestionResourceIntTest {
         updatedMultipleChoiceQuestion.setStartDate(UPDATED_START_DATE);
         updatedMultipleChoiceQuestion.setQuestion(UPDATED_QUESTION);
 
+        MultipleChoiceQuestionDTO multipleChoiceQuestionDTO = multipleChoiceQuestionMapper.multipleChoiceQuestionToMultipleChoiceQuestionDTO(updatedMultipleChoiceQuestion);
+
         restMultipleChoiceQuestionMockMvc.perform(put("/api/multiple-choice-questions")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedMultipleChoiceQuestion)))
+                .content(TestUtil.convertObjectToJsonBytes(multipleChoiceQuestionDTO)))
                 .andExpect(status().isOk());
 
         // Validate the MultipleChoiceQuestion in the database
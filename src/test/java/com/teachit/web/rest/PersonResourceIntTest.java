@@ -2,7 +2,10 @@ package com.teachit.web.rest;
 
 import com.teachit.TeachitApp;
 import com.teachit.domain.Person;
+import com.teachit.repository.KeysetPaginationRepository;
 import com.teachit.repository.PersonRepository;
+import com.teachit.web.rest.dto.PersonDTO;
+import com.teachit.web.rest.mapper.PersonMapper;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -48,6 +51,12 @@ public class PersonResourceIntTest {
     @Inject
     private PersonRepository personRepository;
 
+    @Inject
+    private PersonMapper personMapper;
+
+    @Inject
+    private KeysetPaginationRepository keysetPaginationRepository;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -63,6 +72,8 @@ public class PersonResourceIntTest {
         MockitoAnnotations.initMocks(this);
         PersonResource personResource = new PersonResource();
         ReflectionTestUtils.setField(personResource, "personRepository", personRepository);
+        ReflectionTestUtils.setField(personResource, "personMapper", personMapper);
+        ReflectionTestUtils.setField(personResource, "keysetPaginationRepository", keysetPaginationRepository);
         this.restPersonMockMvc = MockMvcBuilders.standaloneSetup(personResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -80,10 +91,11 @@ public class PersonResourceIntTest {
         int databaseSizeBeforeCreate = personRepository.findAll().size();
 
         // Create the Person
+        PersonDTO personDTO = personMapper.personToPersonDTO(person);
 
         restPersonMockMvc.perform(post("/api/people")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(person)))
+                .content(TestUtil.convertObjectToJsonBytes(personDTO)))
                 .andExpect(status().isCreated());
 
         // Validate the Person in the database
@@ -99,8 +111,8 @@ public class PersonResourceIntTest {
         // Initialize the database
         personRepository.saveAndFlush(person);
 
-        // Get all the people
-        restPersonMockMvc.perform(get("/api/people?sort=id,desc"))
+        // Get all the people, in at most 3 statements: the page, its collections and the count
+        SqlStatementBudget.perform(restPersonMockMvc, get("/api/people?sort=id,desc"), 3)
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.[*].id").value(hasItem(person.getId().intValue())))
@@ -141,9 +153,11 @@ public class PersonResourceIntTest {
         updatedPerson.setId(person.getId());
         updatedPerson.setActive(UPDATED_ACTIVE);
 
+        PersonDTO personDTO = personMapper.personToPersonDTO(updatedPerson);
+
         restPersonMockMvc.perform(put("/api/people")
                 .contentType(TestUtil.APPLICATION_JSON_UTF8)
-                .content(TestUtil.convertObjectToJsonBytes(updatedPerson)))
+                .content(TestUtil.convertObjectToJsonBytes(personDTO)))
                 .andExpect(status().isOk());
 
         // Validate the Person in the database
@@ -0,0 +1,217 @@
+package com.teachit.web.rest;
+
+import com.teachit.TeachitApp;
+import com.teachit.domain.Content;
+import com.teachit.domain.Course;
+import com.teachit.domain.DiscursiveAnswer;
+import com.teachit.domain.DiscursiveQuestion;
+import com.teachit.domain.MultipleChoiceQuestion;
+import com.teachit.domain.Person;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.CourseProgressRepository;
+import com.teachit.repository.CourseRepository;
+import com.teachit.repository.DiscursiveQuestionRepository;
+import com.teachit.repository.MultipleChoiceQuestionRepository;
+import com.teachit.repository.PersonRepository;
+import com.teachit.service.ContentViewBuffer;
+import com.teachit.service.ContentViewService;
+import com.teachit.service.DiscursiveAnswerService;
+import com.teachit.service.ProgressService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+/**
+ * Test class for the ProgressResource REST controller.
+ *
+ * @see ProgressResource
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = TeachitApp.class)
+@WebAppConfiguration
+@IntegrationTest
+public class ProgressResourceIntTest {
+
+    @Inject
+    private ProgressService progressService;
+
+    @Inject
+    private CourseProgressRepository courseProgressRepository;
+
+    @Inject
+    private ContentViewService contentViewService;
+
+    @Inject
+    private DiscursiveAnswerService discursiveAnswerService;
+
+    @Inject
+    private PersonRepository personRepository;
+
+    @Inject
+    private CourseRepository courseRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private DiscursiveQuestionRepository discursiveQuestionRepository;
+
+    @Inject
+    private MultipleChoiceQuestionRepository multipleChoiceQuestionRepository;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    private MockMvc restProgressMockMvc;
+
+    private Person student;
+
+    private Course course;
+
+    private Content firstContent;
+
+    private Content secondContent;
+
+    private DiscursiveQuestion discursiveQuestion;
+
+    private MultipleChoiceQuestion multipleChoiceQuestion;
+
+    @PostConstruct
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        ProgressResource progressResource = new ProgressResource();
+        ReflectionTestUtils.setField(progressResource, "progressService", progressService);
+        this.restProgressMockMvc = MockMvcBuilders.standaloneSetup(progressResource)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        student = new Person();
+        course = new Course();
+        course.setName("AAAAA");
+        firstContent = new Content();
+        firstContent.setStartDate(LocalDate.ofEpochDay(0L));
+        secondContent = new Content();
+        secondContent.setStartDate(LocalDate.ofEpochDay(1L));
+        discursiveQuestion = new DiscursiveQuestion();
+        multipleChoiceQuestion = new MultipleChoiceQuestion();
+    }
+
+    @Test
+    @Transactional
+    public void getProgress() throws Exception {
+        // Initialize the database
+        initProgress();
+
+        // Get the progress of the student
+        restProgressMockMvc.perform(get("/api/progress/students/{personId}/courses/{courseId}",
+            student.getId(), course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.personId").value(student.getId().intValue()))
+            .andExpect(jsonPath("$.courseId").value(course.getId().intValue()))
+            .andExpect(jsonPath("$.contents").value(2))
+            .andExpect(jsonPath("$.viewedContents").value(1))
+            .andExpect(jsonPath("$.questions").value(2))
+            .andExpect(jsonPath("$.answeredQuestions").value(1))
+            .andExpect(jsonPath("$.percent").value(50.0))
+            .andExpect(jsonPath("$.nextContentId").value(secondContent.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getProgressOfNewStudent() throws Exception {
+        // Initialize the database
+        initProgress();
+        Person newStudent = personRepository.saveAndFlush(new Person());
+
+        restProgressMockMvc.perform(get("/api/progress/students/{personId}/courses/{courseId}",
+            newStudent.getId(), course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.viewedContents").value(0))
+            .andExpect(jsonPath("$.answeredQuestions").value(0))
+            .andExpect(jsonPath("$.nextContentId").value(firstContent.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getCohortProgress() throws Exception {
+        // Initialize the database
+        initProgress();
+
+        // Get the progress of the students of the course
+        restProgressMockMvc.perform(get("/api/progress/courses/{courseId}", course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.courseId").value(course.getId().intValue()))
+            .andExpect(jsonPath("$.students").value(1))
+            .andExpect(jsonPath("$.completedStudents").value(0))
+            .andExpect(jsonPath("$.viewersByContent." + firstContent.getId()).value(1))
+            .andExpect(jsonPath("$.viewersByContent." + secondContent.getId()).value(0));
+    }
+
+    @Test
+    @Transactional
+    public void rebuildProgress() throws Exception {
+        // Initialize the database
+        initProgress();
+        courseProgressRepository.deleteAllInBatch();
+        assertThat(courseProgressRepository.findOneOf(student.getId(), course.getId())).isNull();
+
+        // Rebuild the progress
+        restProgressMockMvc.perform(post("/api/progress/rebuild"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-teachitApp-params", "1"));
+
+        assertThat(courseProgressRepository.findOneOf(student.getId(), course.getId())).isNotNull();
+        restProgressMockMvc.perform(get("/api/progress/students/{personId}/courses/{courseId}",
+            student.getId(), course.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.viewedContents").value(1))
+            .andExpect(jsonPath("$.answeredQuestions").value(1));
+    }
+
+    private void initProgress() {
+        personRepository.saveAndFlush(student);
+        courseRepository.saveAndFlush(course);
+        firstContent.setCourse(course);
+        secondContent.setCourse(course);
+        contentRepository.save(Arrays.asList(firstContent, secondContent));
+        discursiveQuestion.setCourse(course);
+        discursiveQuestionRepository.saveAndFlush(discursiveQuestion);
+        multipleChoiceQuestion.setCourse(course);
+        multipleChoiceQuestionRepository.saveAndFlush(multipleChoiceQuestion);
+
+        contentViewService.saveViews(Collections.singletonList(
+            new ContentViewBuffer.Key(student.getId(), firstContent.getId())));
+        DiscursiveAnswer answer = new DiscursiveAnswer();
+        answer.setStudent(student);
+        answer.setQuestion(discursiveQuestion);
+        answer.setScore(1.0);
+        discursiveAnswerService.save(answer);
+    }
+}
@@ -0,0 +1,173 @@
+package com.teachit.web.rest;
+
+import com.teachit.TeachitApp;
+import com.teachit.domain.Content;
+import com.teachit.domain.Course;
+import com.teachit.repository.ContentRepository;
+import com.teachit.repository.CourseRepository;
+import com.teachit.service.SearchService;
+import com.teachit.service.search.SearchDocument;
+import com.teachit.service.search.SearchDocumentType;
+import com.teachit.service.search.SearchIndex;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+/**
+ * Test class for the SearchResource REST controller.
+ *
+ * @see SearchResource
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = TeachitApp.class)
+@WebAppConfiguration
+@IntegrationTest
+public class SearchResourceIntTest {
+
+    @Inject
+    private SearchIndex searchIndex;
+
+    @Inject
+    private SearchService searchService;
+
+    @Inject
+    private CourseRepository courseRepository;
+
+    @Inject
+    private ContentRepository contentRepository;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Inject
+    private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
+
+    private MockMvc restSearchMockMvc;
+
+    private Course course;
+
+    private Content content;
+
+    @PostConstruct
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        SearchResource searchResource = new SearchResource();
+        ReflectionTestUtils.setField(searchResource, "searchIndex", searchIndex);
+        ReflectionTestUtils.setField(searchResource, "searchService", searchService);
+        this.restSearchMockMvc = MockMvcBuilders.standaloneSetup(searchResource)
+            .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Before
+    public void initTest() {
+        course = new Course();
+        course.setName("Zyxwv Mechanics");
+        course.setCode("ZYX101");
+        content = new Content();
+        content.setDescription("Orbits");
+        content.setText("Kepler described the zyxwv orbits of the planets");
+    }
+
+    @Test
+    @Transactional
+    public void rebuildAndSearch() throws Exception {
+        // Initialize the database
+        courseRepository.saveAndFlush(course);
+        contentRepository.saveAndFlush(content);
+
+        restSearchMockMvc.perform(post("/api/_search/rebuild"))
+            .andExpect(status().isOk());
+
+        // The course has the term in its title, so it ranks first
+        restSearchMockMvc.perform(get("/api/_search?query=zyxwv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].type").value(SearchDocumentType.COURSE.toString()))
+            .andExpect(jsonPath("$.[0].id").value(course.getId().intValue()))
+            .andExpect(jsonPath("$.[0].title").value("Zyxwv Mechanics"))
+            .andExpect(jsonPath("$.[1].type").value(SearchDocumentType.CONTENT.toString()))
+            .andExpect(jsonPath("$.[1].id").value(content.getId().intValue()));
+
+        // Paged
+        restSearchMockMvc.perform(get("/api/_search?query=zyxwv&page=1&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(content.getId().intValue()));
+
+        // A page far beyond the hits
+        restSearchMockMvc.perform(get("/api/_search?query=zyxwv&page={page}&size=2", Integer.MAX_VALUE / 2 + 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void indexContentUpdatedWithoutItsText() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        content.setText("Brahe measured the wvxyq orbits of the planets");
+        transactionTemplate.execute(status -> contentRepository.save(content));
+        try {
+            // Update the description only, the text of the content is not loaded
+            transactionTemplate.execute(status -> {
+                Content savedContent = contentRepository.findAll((root, query, cb) ->
+                    cb.equal(root.get("id"), content.getId()), new PageRequest(0, 1)).getContent().get(0);
+                savedContent.setDescription("Ellipses");
+                return savedContent;
+            });
+
+            restSearchMockMvc.perform(get("/api/_search?query=wvxyq"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0].id").value(content.getId().intValue()))
+                .andExpect(jsonPath("$.[0].title").value("Ellipses"));
+        } finally {
+            contentRepository.delete(content.getId());
+        }
+    }
+
+    @Test
+    public void indexAndDeleteIncrementally() throws Exception {
+        searchIndex.index(new SearchDocument(SearchDocumentType.LESSON, Long.MAX_VALUE >>> 8, "Qwvxz lesson", "Accents: qwvxz"));
+
+        restSearchMockMvc.perform(get("/api/_search?query=QWVXZ"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].type").value(SearchDocumentType.LESSON.toString()))
+            .andExpect(jsonPath("$.[0].title").value("Qwvxz lesson"));
+
+        searchIndex.flush();
+        searchIndex.delete(SearchDocumentType.LESSON, Long.MAX_VALUE >>> 8);
+
+        restSearchMockMvc.perform(get("/api/_search?query=qwvxz"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
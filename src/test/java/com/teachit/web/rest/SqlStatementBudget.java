@@ -0,0 +1,39 @@
+package com.teachit.web.rest;
+
+import com.teachit.config.jdbc.SqlStatistics;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Utility class asserting the number of SQL statements executed by a REST call, to catch N+1 selects.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * Performs a request and asserts that it executed at most the given number of SQL statements.
+     *
+     * @param mockMvc the MockMvc of the tested resource
+     * @param request the request to perform
+     * @param maxStatements the statement budget of the request
+     * @return the result of the request, for further expectations
+     */
+    public static ResultActions perform(MockMvc mockMvc, RequestBuilder request, int maxStatements) throws Exception {
+        SqlStatistics statistics = SqlStatistics.start();
+        ResultActions result;
+        try {
+            result = mockMvc.perform(request);
+        } finally {
+            SqlStatistics.stop();
+        }
+        assertThat(statistics.getStatements())
+            .as("SQL statements executed, %s", statistics.getExecutions())
+            .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}